@@ -0,0 +1,45 @@
+package com.sdp.cinebase.catalog.model;
+
+import jakarta.persistence.*;
+
+/**
+ * TMDB genre id/name pair, collected from fetched movie and TV details.
+ */
+@Entity
+@Table(name = "catalog_genres")
+public class CatalogGenre {
+
+    @Id
+    @Column(name = "tmdb_id")
+    private Long tmdbId;
+
+    @Column(name = "name", nullable = false, length = 100)
+    private String name;
+
+    // Constructors
+    public CatalogGenre() {
+        // Default constructor for JPA
+    }
+
+    public CatalogGenre(Long tmdbId, String name) {
+        this.tmdbId = tmdbId;
+        this.name = name;
+    }
+
+    // Getters and Setters
+    public Long getTmdbId() {
+        return tmdbId;
+    }
+
+    public void setTmdbId(Long tmdbId) {
+        this.tmdbId = tmdbId;
+    }
+
+    public String getName() {
+        return name;
+    }
+
+    public void setName(String name) {
+        this.name = name;
+    }
+}
@@ -0,0 +1,34 @@
+package com.sdp.cinebase.catalog.model;
+
+import jakarta.persistence.*;
+
+/**
+ * Local mirror of a TMDB movie.
+ */
+@Entity
+@Table(name = "catalog_movies", indexes = {
+    @Index(name = "idx_catalog_movies_details_fetched_at", columnList = "details_fetched_at")
+})
+public class CatalogMovie extends CatalogTitle {
+
+    @Column(name = "runtime")
+    private Integer runtime;
+
+    // Constructors
+    public CatalogMovie() {
+        // Default constructor for JPA
+    }
+
+    public CatalogMovie(Long tmdbId) {
+        super(tmdbId);
+    }
+
+    // Getters and Setters
+    public Integer getRuntime() {
+        return runtime;
+    }
+
+    public void setRuntime(Integer runtime) {
+        this.runtime = runtime;
+    }
+}
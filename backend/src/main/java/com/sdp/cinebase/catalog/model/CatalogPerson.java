@@ -0,0 +1,102 @@
+package com.sdp.cinebase.catalog.model;
+
+import jakarta.persistence.*;
+import java.time.Instant;
+
+/**
+ * Local mirror of a TMDB person, stored once their detail page has been fetched.
+ */
+@Entity
+@Table(name = "catalog_people", indexes = {
+    @Index(name = "idx_catalog_people_details_fetched_at", columnList = "details_fetched_at")
+})
+public class CatalogPerson {
+
+    @Id
+    @Column(name = "tmdb_id")
+    private Long tmdbId;
+
+    @Column(name = "name", nullable = false)
+    private String name;
+
+    @Column(name = "profile_path")
+    private String profilePath;
+
+    @Column(name = "known_for_department", length = 100)
+    private String knownForDepartment;
+
+    @Column(name = "details_payload", nullable = false, columnDefinition = "TEXT")
+    private String detailsPayload; // JSON PersonDetailsDto
+
+    @Column(name = "details_fetched_at", nullable = false)
+    private Instant detailsFetchedAt;
+
+    @Column(name = "details_attempted_at")
+    private Instant detailsAttemptedAt; // last failed sync re-fetch, null if none failed
+
+    // Constructors
+    public CatalogPerson() {
+        // Default constructor for JPA
+    }
+
+    public CatalogPerson(Long tmdbId) {
+        this.tmdbId = tmdbId;
+    }
+
+    // Getters and Setters
+    public Long getTmdbId() {
+        return tmdbId;
+    }
+
+    public void setTmdbId(Long tmdbId) {
+        this.tmdbId = tmdbId;
+    }
+
+    public String getName() {
+        return name;
+    }
+
+    public void setName(String name) {
+        this.name = name;
+    }
+
+    public String getProfilePath() {
+        return profilePath;
+    }
+
+    public void setProfilePath(String profilePath) {
+        this.profilePath = profilePath;
+    }
+
+    public String getKnownForDepartment() {
+        return knownForDepartment;
+    }
+
+    public void setKnownForDepartment(String knownForDepartment) {
+        this.knownForDepartment = knownForDepartment;
+    }
+
+    public String getDetailsPayload() {
+        return detailsPayload;
+    }
+
+    public void setDetailsPayload(String detailsPayload) {
+        this.detailsPayload = detailsPayload;
+    }
+
+    public Instant getDetailsFetchedAt() {
+        return detailsFetchedAt;
+    }
+
+    public void setDetailsFetchedAt(Instant detailsFetchedAt) {
+        this.detailsFetchedAt = detailsFetchedAt;
+    }
+
+    public Instant getDetailsAttemptedAt() {
+        return detailsAttemptedAt;
+    }
+
+    public void setDetailsAttemptedAt(Instant detailsAttemptedAt) {
+        this.detailsAttemptedAt = detailsAttemptedAt;
+    }
+}
@@ -0,0 +1,86 @@
+package com.sdp.cinebase.catalog.model;
+
+import jakarta.persistence.*;
+import java.time.Instant;
+import java.time.LocalDate;
+
+/**
+ * Resumable position of the change-feed sync for one TMDB change list.
+ * <p>
+ * Everything before {@code windowStart} has been processed. While a window is in progress,
+ * {@code windowEnd} is set and {@code nextPage} is the first page of the change list not yet
+ * processed, so a restart continues from that page instead of starting over.
+ */
+@Entity
+@Table(name = "catalog_sync_checkpoints")
+public class CatalogSyncCheckpoint {
+
+    @Id
+    @Column(name = "feed", length = 20)
+    private String feed; // "movie", "tv" or "person"
+
+    @Column(name = "window_start", nullable = false)
+    private LocalDate windowStart;
+
+    @Column(name = "window_end")
+    private LocalDate windowEnd; // null when no window is in progress
+
+    @Column(name = "next_page", nullable = false)
+    private int nextPage;
+
+    @Column(name = "updated_at", nullable = false)
+    private Instant updatedAt;
+
+    @PrePersist
+    @PreUpdate
+    protected void onWrite() {
+        this.updatedAt = Instant.now();
+    }
+
+    // Constructors
+    public CatalogSyncCheckpoint() {
+        // Default constructor for JPA
+    }
+
+    public CatalogSyncCheckpoint(String feed, LocalDate windowStart) {
+        this.feed = feed;
+        this.windowStart = windowStart;
+    }
+
+    // Getters and Setters
+    public String getFeed() {
+        return feed;
+    }
+
+    public void setFeed(String feed) {
+        this.feed = feed;
+    }
+
+    public LocalDate getWindowStart() {
+        return windowStart;
+    }
+
+    public void setWindowStart(LocalDate windowStart) {
+        this.windowStart = windowStart;
+    }
+
+    public LocalDate getWindowEnd() {
+        return windowEnd;
+    }
+
+    public void setWindowEnd(LocalDate windowEnd) {
+        this.windowEnd = windowEnd;
+    }
+
+    public int getNextPage() {
+        return nextPage;
+    }
+
+    public void setNextPage(int nextPage) {
+        this.nextPage = nextPage;
+    }
+
+    public Instant getUpdatedAt() {
+        return updatedAt;
+    }
+}
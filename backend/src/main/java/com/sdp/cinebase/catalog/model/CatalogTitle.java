@@ -0,0 +1,170 @@
+package com.sdp.cinebase.catalog.model;
+
+import jakarta.persistence.*;
+import java.time.Instant;
+
+/**
+ * Columns shared by mirrored movies and TV shows.
+ * <p>
+ * Summary columns are filled from any list we see the title in (feeds, search, related content).
+ * The full TMDB details response is stored as JSON once the title's detail page has been fetched.
+ */
+@MappedSuperclass
+public abstract class CatalogTitle {
+
+    @Id
+    @Column(name = "tmdb_id")
+    private Long tmdbId;
+
+    @Column(name = "title", nullable = false)
+    private String title;
+
+    @Column(name = "overview", columnDefinition = "TEXT")
+    private String overview;
+
+    @Column(name = "poster_path")
+    private String posterPath;
+
+    @Column(name = "backdrop_path")
+    private String backdropPath;
+
+    @Column(name = "release_date", length = 10)
+    private String releaseDate; // yyyy-MM-dd, release_date for movies / first_air_date for TV
+
+    @Column(name = "vote_average")
+    private Double voteAverage;
+
+    @Column(name = "vote_count")
+    private Integer voteCount;
+
+    @Column(name = "genre_ids")
+    private String genreIds; // comma-separated TMDB genre ids
+
+    @Column(name = "details_payload", columnDefinition = "TEXT")
+    private String detailsPayload; // JSON MovieDetailsDto, null until the details were fetched
+
+    @Column(name = "details_fetched_at")
+    private Instant detailsFetchedAt;
+
+    @Column(name = "details_attempted_at")
+    private Instant detailsAttemptedAt; // last failed sync re-fetch, null if none failed
+
+    @Column(name = "updated_at", nullable = false)
+    private Instant updatedAt;
+
+    @PrePersist
+    @PreUpdate
+    protected void onWrite() {
+        this.updatedAt = Instant.now();
+    }
+
+    // Constructors
+    protected CatalogTitle() {
+        // Default constructor for JPA
+    }
+
+    protected CatalogTitle(Long tmdbId) {
+        this.tmdbId = tmdbId;
+    }
+
+    // Getters and Setters
+    public Long getTmdbId() {
+        return tmdbId;
+    }
+
+    public void setTmdbId(Long tmdbId) {
+        this.tmdbId = tmdbId;
+    }
+
+    public String getTitle() {
+        return title;
+    }
+
+    public void setTitle(String title) {
+        this.title = title;
+    }
+
+    public String getOverview() {
+        return overview;
+    }
+
+    public void setOverview(String overview) {
+        this.overview = overview;
+    }
+
+    public String getPosterPath() {
+        return posterPath;
+    }
+
+    public void setPosterPath(String posterPath) {
+        this.posterPath = posterPath;
+    }
+
+    public String getBackdropPath() {
+        return backdropPath;
+    }
+
+    public void setBackdropPath(String backdropPath) {
+        this.backdropPath = backdropPath;
+    }
+
+    public String getReleaseDate() {
+        return releaseDate;
+    }
+
+    public void setReleaseDate(String releaseDate) {
+        this.releaseDate = releaseDate;
+    }
+
+    public Double getVoteAverage() {
+        return voteAverage;
+    }
+
+    public void setVoteAverage(Double voteAverage) {
+        this.voteAverage = voteAverage;
+    }
+
+    public Integer getVoteCount() {
+        return voteCount;
+    }
+
+    public void setVoteCount(Integer voteCount) {
+        this.voteCount = voteCount;
+    }
+
+    public String getGenreIds() {
+        return genreIds;
+    }
+
+    public void setGenreIds(String genreIds) {
+        this.genreIds = genreIds;
+    }
+
+    public String getDetailsPayload() {
+        return detailsPayload;
+    }
+
+    public void setDetailsPayload(String detailsPayload) {
+        this.detailsPayload = detailsPayload;
+    }
+
+    public Instant getDetailsFetchedAt() {
+        return detailsFetchedAt;
+    }
+
+    public void setDetailsFetchedAt(Instant detailsFetchedAt) {
+        this.detailsFetchedAt = detailsFetchedAt;
+    }
+
+    public Instant getDetailsAttemptedAt() {
+        return detailsAttemptedAt;
+    }
+
+    public void setDetailsAttemptedAt(Instant detailsAttemptedAt) {
+        this.detailsAttemptedAt = detailsAttemptedAt;
+    }
+
+    public Instant getUpdatedAt() {
+        return updatedAt;
+    }
+}
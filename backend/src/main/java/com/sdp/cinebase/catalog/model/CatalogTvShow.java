@@ -0,0 +1,34 @@
+package com.sdp.cinebase.catalog.model;
+
+import jakarta.persistence.*;
+
+/**
+ * Local mirror of a TMDB TV show.
+ */
+@Entity
+@Table(name = "catalog_tv_shows", indexes = {
+    @Index(name = "idx_catalog_tv_shows_details_fetched_at", columnList = "details_fetched_at")
+})
+public class CatalogTvShow extends CatalogTitle {
+
+    @Column(name = "season_count")
+    private Integer seasonCount;
+
+    // Constructors
+    public CatalogTvShow() {
+        // Default constructor for JPA
+    }
+
+    public CatalogTvShow(Long tmdbId) {
+        super(tmdbId);
+    }
+
+    // Getters and Setters
+    public Integer getSeasonCount() {
+        return seasonCount;
+    }
+
+    public void setSeasonCount(Integer seasonCount) {
+        this.seasonCount = seasonCount;
+    }
+}
@@ -0,0 +1,7 @@
+package com.sdp.cinebase.catalog.repo;
+
+import com.sdp.cinebase.catalog.model.CatalogGenre;
+import org.springframework.data.jpa.repository.JpaRepository;
+
+public interface CatalogGenreRepository extends JpaRepository<CatalogGenre, Long> {
+}
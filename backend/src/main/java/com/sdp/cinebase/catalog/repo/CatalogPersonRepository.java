@@ -0,0 +1,34 @@
+package com.sdp.cinebase.catalog.repo;
+
+import com.sdp.cinebase.catalog.model.CatalogPerson;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.time.Instant;
+import java.util.Collection;
+import java.util.List;
+
+public interface CatalogPersonRepository extends JpaRepository<CatalogPerson, Long> {
+
+    /**
+     * Rows fetched before {@code cutoff}, oldest first, leaving out those whose last re-fetch
+     * failed after {@code retryCutoff}.
+     */
+    @Query("""
+        SELECT e FROM CatalogPerson e
+        WHERE e.detailsFetchedAt < :cutoff
+          AND (e.detailsAttemptedAt IS NULL OR e.detailsAttemptedAt < :retryCutoff)
+        ORDER BY e.detailsFetchedAt ASC
+        """)
+    List<CatalogPerson> findStale(@Param("cutoff") Instant cutoff, @Param("retryCutoff") Instant retryCutoff,
+                             Pageable pageable);
+
+    @Transactional
+    @Modifying
+    @Query("UPDATE CatalogPerson e SET e.detailsAttemptedAt = :attemptedAt WHERE e.tmdbId IN :ids")
+    int markAttempted(@Param("ids") Collection<Long> ids, @Param("attemptedAt") Instant attemptedAt);
+}
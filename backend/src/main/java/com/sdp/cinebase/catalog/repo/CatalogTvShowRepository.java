@@ -0,0 +1,34 @@
+package com.sdp.cinebase.catalog.repo;
+
+import com.sdp.cinebase.catalog.model.CatalogTvShow;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.time.Instant;
+import java.util.Collection;
+import java.util.List;
+
+public interface CatalogTvShowRepository extends JpaRepository<CatalogTvShow, Long> {
+
+    /**
+     * Rows fetched before {@code cutoff}, oldest first, leaving out those whose last re-fetch
+     * failed after {@code retryCutoff}.
+     */
+    @Query("""
+        SELECT e FROM CatalogTvShow e
+        WHERE e.detailsFetchedAt < :cutoff
+          AND (e.detailsAttemptedAt IS NULL OR e.detailsAttemptedAt < :retryCutoff)
+        ORDER BY e.detailsFetchedAt ASC
+        """)
+    List<CatalogTvShow> findStale(@Param("cutoff") Instant cutoff, @Param("retryCutoff") Instant retryCutoff,
+                             Pageable pageable);
+
+    @Transactional
+    @Modifying
+    @Query("UPDATE CatalogTvShow e SET e.detailsAttemptedAt = :attemptedAt WHERE e.tmdbId IN :ids")
+    int markAttempted(@Param("ids") Collection<Long> ids, @Param("attemptedAt") Instant attemptedAt);
+}
@@ -0,0 +1,207 @@
+package com.sdp.cinebase.catalog.service;
+
+import com.sdp.cinebase.catalog.model.CatalogSyncCheckpoint;
+import com.sdp.cinebase.catalog.model.CatalogTitle;
+import com.sdp.cinebase.catalog.repo.CatalogMovieRepository;
+import com.sdp.cinebase.catalog.repo.CatalogPersonRepository;
+import com.sdp.cinebase.catalog.repo.CatalogSyncCheckpointRepository;
+import com.sdp.cinebase.catalog.repo.CatalogTvShowRepository;
+import com.sdp.cinebase.tmdb.dto.ChangedIdDto;
+import com.sdp.cinebase.tmdb.dto.PagedResponse;
+import com.sdp.cinebase.tmdb.ratelimit.TmdbRequestPriority;
+import com.sdp.cinebase.tmdb.resilience.TmdbCircuitBreaker;
+import com.sdp.cinebase.tmdb.service.ReactiveTmdbClient;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+
+import java.time.Duration;
+import java.time.LocalDate;
+import java.time.ZoneOffset;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.stream.Collectors;
+
+/**
+ * Keeps the catalog mirror fresh from TMDB's change lists.
+ * <p>
+ * Each run walks {@code /movie/changes}, {@code /tv/changes} and {@code /person/changes} from the
+ * stored checkpoint up to today, in windows of at most 14 days (TMDB's limit). Of the changed ids,
+ * only those we actually mirror are re-fetched, in parallel and at background priority so the
+ * outbound rate limiter keeps them behind user traffic. Re-fetches never fall back to the
+ * last-known-good payload. The checkpoint is saved after every page, so an interrupted run resumes
+ * where it stopped; a page on which TMDB was unavailable for any id is not checkpointed, so the next
+ * run fetches it again. The current day is scanned again on the next run because TMDB keeps adding
+ * to it.
+ */
+@Component
+public class CatalogChangeFeedSync {
+
+    private static final Logger log = LoggerFactory.getLogger(CatalogChangeFeedSync.class);
+
+    static final List<String> FEEDS = List.of("movie", "tv", "person");
+
+    private static final int MAX_WINDOW_DAYS = 14;
+
+    private final CatalogSyncCheckpointRepository checkpointRepository;
+    private final CatalogMovieRepository movieRepository;
+    private final CatalogTvShowRepository tvShowRepository;
+    private final CatalogPersonRepository personRepository;
+    private final ReactiveTmdbClient tmdb;
+    private final MeterRegistry meterRegistry;
+    private final Duration initialLookback;
+    private final int concurrency;
+    private final int maxPagesPerRun;
+    private final Duration requestTimeout;
+
+    public CatalogChangeFeedSync(
+            CatalogSyncCheckpointRepository checkpointRepository,
+            CatalogMovieRepository movieRepository,
+            CatalogTvShowRepository tvShowRepository,
+            CatalogPersonRepository personRepository,
+            ReactiveTmdbClient tmdb,
+            MeterRegistry meterRegistry,
+            @Value("${catalog.changes.initial-lookback:1d}") Duration initialLookback,
+            @Value("${catalog.changes.concurrency:4}") int concurrency,
+            @Value("${catalog.changes.max-pages-per-run:50}") int maxPagesPerRun,
+            @Value("${catalog.changes.request-timeout:2m}") Duration requestTimeout
+    ) {
+        this.checkpointRepository = checkpointRepository;
+        this.movieRepository = movieRepository;
+        this.tvShowRepository = tvShowRepository;
+        this.personRepository = personRepository;
+        this.tmdb = tmdb;
+        this.meterRegistry = meterRegistry;
+        this.initialLookback = initialLookback;
+        this.concurrency = concurrency;
+        this.maxPagesPerRun = maxPagesPerRun;
+        this.requestTimeout = requestTimeout;
+    }
+
+    @Scheduled(fixedDelayString = "${catalog.changes.interval:1h}", initialDelayString = "${catalog.changes.initial-delay:5m}")
+    public void syncChanges() {
+        for (String feed : FEEDS) {
+            try {
+                int refreshed = syncFeed(feed);
+                if (refreshed > 0) {
+                    log.info("Change-feed sync refreshed {} mirrored {} entries", refreshed, feed);
+                }
+            } catch (Exception e) {
+                // The checkpoint still points at the failed page; the next run retries it
+                log.warn("Change-feed sync for {} failed: {}", feed, e.getMessage());
+            }
+        }
+    }
+
+    /**
+     * Processes the change list of one feed from its checkpoint, up to today or the per-run page limit.
+     *
+     * @return the number of mirrored entries re-fetched
+     */
+    int syncFeed(String feed) {
+        LocalDate today = LocalDate.now(ZoneOffset.UTC);
+        CatalogSyncCheckpoint checkpoint = checkpointRepository.findById(feed)
+                .orElseGet(() -> new CatalogSyncCheckpoint(feed, today.minusDays(initialLookback.toDays())));
+
+        int refreshed = 0;
+        for (int pages = 0; pages < maxPagesPerRun; pages++) {
+            if (checkpoint.getWindowEnd() == null) {
+                LocalDate end = checkpoint.getWindowStart().plusDays(MAX_WINDOW_DAYS - 1);
+                checkpoint.setWindowEnd(end.isAfter(today) ? today : end);
+                checkpoint.setNextPage(1);
+            }
+
+            int page = checkpoint.getNextPage();
+            PagedResponse<ChangedIdDto> changes = tmdb
+                    .changes(feed, checkpoint.getWindowStart(), checkpoint.getWindowEnd(), page)
+                    .contextWrite(TmdbRequestPriority.BACKGROUND.context())
+                    .block(requestTimeout);
+            if (changes != null && changes.results() != null) {
+                refreshed += refreshMirrored(feed, changes.results().stream().map(ChangedIdDto::id).toList());
+            }
+
+            if (changes == null || page >= changes.total_pages()) {
+                // Window done; today is left open because TMDB keeps adding to it
+                boolean caughtUp = !checkpoint.getWindowEnd().isBefore(today);
+                checkpoint.setWindowStart(caughtUp ? today : checkpoint.getWindowEnd().plusDays(1));
+                checkpoint.setWindowEnd(null);
+                checkpoint.setNextPage(0);
+                checkpointRepository.save(checkpoint);
+                if (caughtUp) {
+                    break;
+                }
+            } else {
+                checkpoint.setNextPage(page + 1);
+                checkpointRepository.save(checkpoint);
+            }
+        }
+        return refreshed;
+    }
+
+    /**
+     * Re-fetches the changed ids that exist in the mirror; everything else is ignored. Ids TMDB
+     * rejects (e.g. deleted titles) are skipped, since retrying would not help.
+     *
+     * @throws IllegalStateException if TMDB was unavailable for any of the ids, so the page is retried
+     */
+    private int refreshMirrored(String feed, List<Integer> changedIds) {
+        if (changedIds.isEmpty()) {
+            return 0;
+        }
+        Set<Integer> mirrored = mirroredIds(feed, changedIds.stream().map(Integer::longValue).toList());
+        meterRegistry.counter("catalog.changes.skipped", "feed", feed).increment(changedIds.size() - mirrored.size());
+        if (mirrored.isEmpty()) {
+            return 0;
+        }
+
+        AtomicInteger unavailable = new AtomicInteger();
+        Long refreshed = Flux.fromIterable(mirrored)
+                .flatMap(id -> refetch(feed, id)
+                        .onErrorResume(e -> {
+                            if (TmdbCircuitBreaker.isUnavailable(e)) {
+                                unavailable.incrementAndGet();
+                            }
+                            log.debug("Change-feed sync could not refresh {} {}: {}", feed, id, e.getMessage());
+                            return Mono.empty();
+                        }), concurrency)
+                .count()
+                .contextWrite(TmdbRequestPriority.BACKGROUND.context().putAll(ReactiveTmdbClient.liveOnly().readOnly()))
+                .block(requestTimeout);
+        int count = refreshed != null ? refreshed.intValue() : 0;
+        meterRegistry.counter("catalog.changes.refreshed", "feed", feed).increment(count);
+        if (unavailable.get() > 0) {
+            throw new IllegalStateException("TMDB unavailable for " + unavailable.get() + " of "
+                    + mirrored.size() + " changed " + feed + " entries");
+        }
+        return count;
+    }
+
+    private Set<Integer> mirroredIds(String feed, List<Long> ids) {
+        List<Long> found = switch (feed) {
+            case "movie" -> movieRepository.findAllById(ids).stream().map(CatalogTitle::getTmdbId).toList();
+            case "tv" -> tvShowRepository.findAllById(ids).stream().map(CatalogTitle::getTmdbId).toList();
+            default -> personRepository.findAllById(ids).stream().map(person -> person.getTmdbId()).toList();
+        };
+        return found.stream().map(Long::intValue).collect(Collectors.toSet());
+    }
+
+    /**
+     * Fetches the details live; {@link CatalogIngestor} writes them to the mirror from the fetch
+     * event, like any other live payload.
+     */
+    private Mono<?> refetch(String feed, int id) {
+        // The cached copy is outdated by definition, so skip it
+        tmdb.invalidateDetails(feed, id);
+        return switch (feed) {
+            case "movie" -> tmdb.getMovieDetails(id);
+            case "tv" -> tmdb.getTvDetails(id);
+            default -> tmdb.getPersonDetails(id);
+        };
+    }
+}
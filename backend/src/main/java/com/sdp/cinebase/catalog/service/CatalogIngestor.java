@@ -0,0 +1,202 @@
+package com.sdp.cinebase.catalog.service;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.sdp.cinebase.catalog.model.CatalogGenre;
+import com.sdp.cinebase.catalog.model.CatalogMovie;
+import com.sdp.cinebase.catalog.model.CatalogPerson;
+import com.sdp.cinebase.catalog.model.CatalogTitle;
+import com.sdp.cinebase.catalog.model.CatalogTvShow;
+import com.sdp.cinebase.catalog.repo.CatalogGenreRepository;
+import com.sdp.cinebase.catalog.repo.CatalogMovieRepository;
+import com.sdp.cinebase.catalog.repo.CatalogPersonRepository;
+import com.sdp.cinebase.catalog.repo.CatalogTvShowRepository;
+import com.sdp.cinebase.tmdb.dto.MovieDetailsDto;
+import com.sdp.cinebase.tmdb.dto.MovieDto;
+import com.sdp.cinebase.tmdb.dto.PagedResponse;
+import com.sdp.cinebase.tmdb.dto.PersonDetailsDto;
+import com.sdp.cinebase.tmdb.service.TmdbPayloadFetchedEvent;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.context.event.EventListener;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.scheduling.annotation.Async;
+import org.springframework.stereotype.Service;
+
+import java.time.Instant;
+import java.util.*;
+import java.util.function.Function;
+import java.util.stream.Collectors;
+
+/**
+ * Writes TMDB payloads into the local catalog mirror.
+ * <p>
+ * Every payload fetched live from TMDB is offered here asynchronously, so mirroring never adds
+ * latency to the request that fetched it. List items update the summary columns of their title;
+ * details responses are stored in full so the mirror can answer detail views on its own.
+ */
+@Service
+public class CatalogIngestor {
+
+    private static final Logger log = LoggerFactory.getLogger(CatalogIngestor.class);
+
+    private final CatalogMovieRepository movieRepository;
+    private final CatalogTvShowRepository tvShowRepository;
+    private final CatalogPersonRepository personRepository;
+    private final CatalogGenreRepository genreRepository;
+    private final ObjectMapper objectMapper;
+
+    public CatalogIngestor(
+            CatalogMovieRepository movieRepository,
+            CatalogTvShowRepository tvShowRepository,
+            CatalogPersonRepository personRepository,
+            CatalogGenreRepository genreRepository,
+            ObjectMapper objectMapper
+    ) {
+        this.movieRepository = movieRepository;
+        this.tvShowRepository = tvShowRepository;
+        this.personRepository = personRepository;
+        this.genreRepository = genreRepository;
+        this.objectMapper = objectMapper;
+    }
+
+    @Async
+    @EventListener
+    public void onPayloadFetched(TmdbPayloadFetchedEvent event) {
+        try {
+            ingest(event);
+        } catch (DataIntegrityViolationException e) {
+            // Two payloads raced to insert the same title; the other write wins
+            log.debug("Concurrent catalog write for {}: {}", event.key(), e.getMessage());
+        } catch (Exception e) {
+            log.warn("Failed to mirror TMDB payload for {}: {}", event.key(), e.getMessage());
+        }
+    }
+
+    /**
+     * Mirrors one payload, using the TMDB path it was fetched from to tell movies from TV shows.
+     */
+    public void ingest(TmdbPayloadFetchedEvent event) {
+        String key = event.key();
+        Object payload = event.payload();
+        if (payload instanceof PagedResponse<?> page) {
+            String mediaType = event.impliedMediaType();
+            List<MovieDto> movies = new ArrayList<>();
+            List<MovieDto> tvShows = new ArrayList<>();
+            for (Object item : page.results()) {
+                if (item instanceof MovieDto dto) {
+                    String type = mediaType != null ? mediaType : dto.media_type();
+                    if ("movie".equals(type)) {
+                        movies.add(dto);
+                    } else if ("tv".equals(type)) {
+                        tvShows.add(dto);
+                    }
+                }
+            }
+            upsertSummaries(movies, movieRepository::findAllById, CatalogMovie::new, movieRepository::saveAll);
+            upsertSummaries(tvShows, tvShowRepository::findAllById, CatalogTvShow::new, tvShowRepository::saveAll);
+        } else if (payload instanceof MovieDetailsDto details) {
+            if (key.startsWith("/movie/")) {
+                saveMovieDetails(details);
+            } else if (key.startsWith("/tv/")) {
+                saveTvDetails(details);
+            }
+        } else if (payload instanceof PersonDetailsDto person) {
+            savePersonDetails(person);
+        }
+    }
+
+    public void saveMovieDetails(MovieDetailsDto details) {
+        CatalogMovie movie = movieRepository.findById((long) details.id())
+                .orElseGet(() -> new CatalogMovie((long) details.id()));
+        applyDetails(movie, details, details.release_date());
+        movie.setRuntime(details.runtime());
+        movieRepository.save(movie);
+        saveGenres(details.genres());
+    }
+
+    public void saveTvDetails(MovieDetailsDto details) {
+        CatalogTvShow show = tvShowRepository.findById((long) details.id())
+                .orElseGet(() -> new CatalogTvShow((long) details.id()));
+        applyDetails(show, details, details.first_air_date());
+        show.setSeasonCount(details.seasons() != null ? details.seasons().size() : null);
+        tvShowRepository.save(show);
+        saveGenres(details.genres());
+    }
+
+    public void savePersonDetails(PersonDetailsDto details) {
+        CatalogPerson person = personRepository.findById((long) details.id())
+                .orElseGet(() -> new CatalogPerson((long) details.id()));
+        person.setName(details.name() != null ? details.name() : "");
+        person.setProfilePath(details.profile_path());
+        person.setKnownForDepartment(details.known_for_department());
+        person.setDetailsPayload(toJson(details));
+        person.setDetailsFetchedAt(Instant.now());
+        personRepository.save(person);
+    }
+
+    private <E extends CatalogTitle> void upsertSummaries(
+            List<MovieDto> items,
+            Function<Iterable<Long>, List<E>> findAll,
+            Function<Long, E> create,
+            Function<List<E>, List<E>> saveAll
+    ) {
+        if (items.isEmpty()) {
+            return;
+        }
+        // One lookup for the whole page instead of one per item
+        Map<Long, E> existing = findAll.apply(items.stream().map(dto -> (long) dto.id()).toList()).stream()
+                .collect(Collectors.toMap(CatalogTitle::getTmdbId, Function.identity()));
+
+        Map<Long, E> toSave = new LinkedHashMap<>();
+        for (MovieDto dto : items) {
+            long id = dto.id();
+            E title = toSave.computeIfAbsent(id, k -> existing.containsKey(k) ? existing.get(k) : create.apply(k));
+            title.setTitle(dto.title() != null ? dto.title() : Objects.requireNonNullElse(dto.name(), ""));
+            title.setOverview(dto.overview());
+            title.setPosterPath(dto.poster_path());
+            title.setBackdropPath(dto.backdrop_path());
+            title.setReleaseDate(dto.release_date() != null ? dto.release_date() : dto.first_air_date());
+            title.setVoteAverage(dto.vote_average());
+            title.setVoteCount(dto.vote_count());
+            if (dto.genre_ids() != null) {
+                title.setGenreIds(Arrays.stream(dto.genre_ids()).mapToObj(String::valueOf).collect(Collectors.joining(",")));
+            }
+        }
+        saveAll.apply(new ArrayList<>(toSave.values()));
+    }
+
+    private void applyDetails(CatalogTitle title, MovieDetailsDto details, String releaseDate) {
+        title.setTitle(details.title() != null ? details.title() : Objects.requireNonNullElse(details.name(), ""));
+        title.setOverview(details.overview());
+        title.setPosterPath(details.poster_path());
+        title.setBackdropPath(details.backdrop_path());
+        title.setReleaseDate(releaseDate);
+        title.setVoteAverage(details.vote_average());
+        title.setVoteCount(details.vote_count());
+        if (details.genres() != null) {
+            title.setGenreIds(details.genres().stream()
+                    .map(genre -> String.valueOf(genre.id()))
+                    .collect(Collectors.joining(",")));
+        }
+        title.setDetailsPayload(toJson(details));
+        title.setDetailsFetchedAt(Instant.now());
+    }
+
+    private void saveGenres(List<MovieDetailsDto.Genre> genres) {
+        if (genres == null || genres.isEmpty()) {
+            return;
+        }
+        genreRepository.saveAll(genres.stream()
+                .map(genre -> new CatalogGenre((long) genre.id(), genre.name()))
+                .toList());
+    }
+
+    private String toJson(Object payload) {
+        try {
+            return objectMapper.writeValueAsString(payload);
+        } catch (JsonProcessingException e) {
+            throw new IllegalStateException("Failed to serialize TMDB payload", e);
+        }
+    }
+}
@@ -0,0 +1,189 @@
+package com.sdp.cinebase.catalog.service;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.sdp.cinebase.catalog.repo.CatalogMovieRepository;
+import com.sdp.cinebase.catalog.repo.CatalogPersonRepository;
+import com.sdp.cinebase.catalog.repo.CatalogTvShowRepository;
+import com.sdp.cinebase.catalog.model.CatalogTitle;
+import com.sdp.cinebase.title.dto.TitleKey;
+import com.sdp.cinebase.tmdb.dto.BatchDetailsItem;
+import com.sdp.cinebase.tmdb.dto.MovieDetailsDto;
+import com.sdp.cinebase.tmdb.dto.PersonDetailsDto;
+import com.sdp.cinebase.tmdb.resilience.TmdbResponseMeta;
+import com.sdp.cinebase.tmdb.service.ReactiveTmdbClient;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+import org.springframework.web.server.ResponseStatusException;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+import reactor.core.scheduler.Schedulers;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.Callable;
+
+/**
+ * Mirror-first reads of TMDB details.
+ * <p>
+ * Detail views are answered from the local catalog when it holds a details payload younger than
+ * {@code catalog.details.max-age}; otherwise the request goes to TMDB, whose response is mirrored
+ * by {@link CatalogIngestor}. A database error is treated as a miss, so the mirror can never take
+ * detail pages down. Hit/miss counts are published as {@code catalog.reads}.
+ * <p>
+ * Batches of titles are looked up in the mirror with one query per media type; only the misses
+ * go to TMDB (through its response cache), with bounded parallelism.
+ */
+@Service
+public class CatalogService {
+
+    private static final Logger log = LoggerFactory.getLogger(CatalogService.class);
+
+    private final CatalogMovieRepository movieRepository;
+    private final CatalogTvShowRepository tvShowRepository;
+    private final CatalogPersonRepository personRepository;
+    private final ReactiveTmdbClient tmdb;
+    private final ObjectMapper objectMapper;
+    private final MeterRegistry meterRegistry;
+    private final Duration maxAge;
+    private final int maxBatchKeys;
+    private final int batchConcurrency;
+
+    public CatalogService(
+            CatalogMovieRepository movieRepository,
+            CatalogTvShowRepository tvShowRepository,
+            CatalogPersonRepository personRepository,
+            ReactiveTmdbClient tmdb,
+            ObjectMapper objectMapper,
+            MeterRegistry meterRegistry,
+            @Value("${catalog.details.max-age:7d}") Duration maxAge,
+            @Value("${catalog.batch.max-keys:100}") int maxBatchKeys,
+            @Value("${catalog.batch.concurrency:8}") int batchConcurrency
+    ) {
+        this.movieRepository = movieRepository;
+        this.tvShowRepository = tvShowRepository;
+        this.personRepository = personRepository;
+        this.tmdb = tmdb;
+        this.objectMapper = objectMapper;
+        this.meterRegistry = meterRegistry;
+        this.maxAge = maxAge;
+        this.maxBatchKeys = maxBatchKeys;
+        this.batchConcurrency = batchConcurrency;
+    }
+
+    public Mono<MovieDetailsDto> movieDetails(int id) {
+        return mirrored("movie", id,
+                () -> movieRepository.findById((long) id)
+                        .filter(movie -> isFresh(movie.getDetailsFetchedAt()) && movie.getDetailsPayload() != null)
+                        .map(movie -> read(movie.getDetailsPayload(), MovieDetailsDto.class)),
+                tmdb.getMovieDetails(id));
+    }
+
+    public Mono<MovieDetailsDto> tvDetails(int id) {
+        return mirrored("tv", id,
+                () -> tvShowRepository.findById((long) id)
+                        .filter(show -> isFresh(show.getDetailsFetchedAt()) && show.getDetailsPayload() != null)
+                        .map(show -> read(show.getDetailsPayload(), MovieDetailsDto.class)),
+                tmdb.getTvDetails(id));
+    }
+
+    public Mono<PersonDetailsDto> personDetails(int id) {
+        return mirrored("person", id,
+                () -> personRepository.findById((long) id)
+                        .filter(person -> isFresh(person.getDetailsFetchedAt()))
+                        .map(person -> read(person.getDetailsPayload(), PersonDetailsDto.class)),
+                tmdb.getPersonDetails(id));
+    }
+
+    /**
+     * Details for many titles at once, keyed {@code movie:<id>} or {@code tv:<id>}.
+     * <p>
+     * Mirrored titles are emitted first, then TMDB results in completion order. A title that cannot
+     * be fetched is emitted with an error instead of failing the whole batch.
+     */
+    public Flux<BatchDetailsItem> detailsBatch(List<String> keys) {
+        List<TitleKey> titles = TitleKey.parseDistinct(keys, maxBatchKeys);
+
+        return Mono.fromCallable(() -> mirroredDetails(titles))
+                .subscribeOn(Schedulers.boundedElastic())
+                .onErrorResume(e -> {
+                    log.warn("Catalog batch lookup failed, going to TMDB for all {} titles: {}", titles.size(), e.getMessage());
+                    return Mono.just(Map.of());
+                })
+                .flatMapMany(mirrored -> {
+                    List<TitleKey> misses = titles.stream().filter(title -> !mirrored.containsKey(title)).toList();
+                    meterRegistry.counter("catalog.reads", "kind", "batch", "result", "hit").increment(mirrored.size());
+                    meterRegistry.counter("catalog.reads", "kind", "batch", "result", "miss").increment(misses.size());
+                    return Flux.fromIterable(mirrored.entrySet())
+                            .map(e -> BatchDetailsItem.of(e.getKey().mediaType(), e.getKey().id(), e.getValue(), false))
+                            .concatWith(Flux.fromIterable(misses).flatMap(this::upstreamDetails, batchConcurrency));
+                });
+    }
+
+    private Map<TitleKey, MovieDetailsDto> mirroredDetails(List<TitleKey> titles) {
+        Map<TitleKey, MovieDetailsDto> found = new HashMap<>();
+        List<Long> movieIds = titles.stream().filter(t -> t.mediaType().equals("movie")).map(t -> (long) t.id()).toList();
+        List<Long> tvIds = titles.stream().filter(t -> t.mediaType().equals("tv")).map(t -> (long) t.id()).toList();
+        if (!movieIds.isEmpty()) {
+            movieRepository.findAllById(movieIds).forEach(movie -> collectFresh(found, "movie", movie));
+        }
+        if (!tvIds.isEmpty()) {
+            tvShowRepository.findAllById(tvIds).forEach(show -> collectFresh(found, "tv", show));
+        }
+        return found;
+    }
+
+    private void collectFresh(Map<TitleKey, MovieDetailsDto> found, String mediaType, CatalogTitle title) {
+        if (isFresh(title.getDetailsFetchedAt()) && title.getDetailsPayload() != null) {
+            found.put(new TitleKey(mediaType, title.getTmdbId().intValue()),
+                    read(title.getDetailsPayload(), MovieDetailsDto.class));
+        }
+    }
+
+    private Mono<BatchDetailsItem> upstreamDetails(TitleKey title) {
+        TmdbResponseMeta meta = new TmdbResponseMeta();
+        Mono<MovieDetailsDto> details = title.mediaType().equals("tv")
+                ? tmdb.getTvDetails(title.id())
+                : tmdb.getMovieDetails(title.id());
+        return details
+                .map(dto -> BatchDetailsItem.of(title.mediaType(), title.id(), dto, meta.isStale()))
+                .onErrorResume(e -> Mono.just(BatchDetailsItem.failed(title.mediaType(), title.id(),
+                        e instanceof ResponseStatusException status ? status.getReason() : e.getMessage())))
+                .contextWrite(meta.context());
+    }
+
+    /**
+     * Looks the entity up in the mirror (off the event loop) and falls back to {@code upstream} on a miss.
+     */
+    private <T> Mono<T> mirrored(String kind, int id, Callable<Optional<T>> lookup, Mono<T> upstream) {
+        return Mono.fromCallable(lookup)
+                .subscribeOn(Schedulers.boundedElastic())
+                .onErrorResume(e -> {
+                    log.warn("Catalog lookup for {} {} failed, going to TMDB: {}", kind, id, e.getMessage());
+                    return Mono.just(Optional.empty());
+                })
+                .flatMap(mirrored -> {
+                    meterRegistry.counter("catalog.reads", "kind", kind, "result", mirrored.isPresent() ? "hit" : "miss")
+                            .increment();
+                    return mirrored.map(Mono::just).orElse(upstream);
+                });
+    }
+
+    private boolean isFresh(Instant fetchedAt) {
+        return fetchedAt != null && fetchedAt.plus(maxAge).isAfter(Instant.now());
+    }
+
+    private <T> T read(String payload, Class<T> type) {
+        try {
+            return objectMapper.readValue(payload, type);
+        } catch (Exception e) {
+            throw new IllegalStateException("Unreadable catalog payload", e);
+        }
+    }
+}
@@ -0,0 +1,132 @@
+package com.sdp.cinebase.catalog.service;
+
+import com.sdp.cinebase.catalog.repo.CatalogMovieRepository;
+import com.sdp.cinebase.catalog.repo.CatalogPersonRepository;
+import com.sdp.cinebase.catalog.repo.CatalogTvShowRepository;
+import com.sdp.cinebase.tmdb.ratelimit.TmdbRequestPriority;
+import com.sdp.cinebase.tmdb.service.ReactiveTmdbClient;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Pageable;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.util.Collection;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.function.BiFunction;
+import java.util.function.Function;
+
+/**
+ * Incremental refresh of the catalog mirror.
+ * <p>
+ * Each run re-fetches the details of the titles and people whose mirrored copy is oldest and older
+ * than {@code catalog.sync.refresh-after}, a bounded batch per table. Rows are therefore renewed
+ * well before they pass {@code catalog.details.max-age} and stop being served from the mirror.
+ * Requests are sent with background priority so they yield to user traffic. Cached details are
+ * dropped first so every fetch goes to TMDB; {@link CatalogIngestor} then writes the payload to the
+ * mirror from the fetch event, as it does for all live payloads. A row whose re-fetch fails is
+ * stamped with the attempt time and skipped for {@code catalog.sync.retry-after}, so rows that keep
+ * failing do not hold the head of the queue and starve the rest.
+ */
+@Component
+public class CatalogSyncJob {
+
+    private static final Logger log = LoggerFactory.getLogger(CatalogSyncJob.class);
+
+    private static final int CONCURRENCY = 4;
+
+    private final CatalogMovieRepository movieRepository;
+    private final CatalogTvShowRepository tvShowRepository;
+    private final CatalogPersonRepository personRepository;
+    private final ReactiveTmdbClient tmdb;
+    private final Duration refreshAfter;
+    private final Duration retryAfter;
+    private final int batchSize;
+    private final Duration runTimeout;
+
+    public CatalogSyncJob(
+            CatalogMovieRepository movieRepository,
+            CatalogTvShowRepository tvShowRepository,
+            CatalogPersonRepository personRepository,
+            ReactiveTmdbClient tmdb,
+            @Value("${catalog.sync.refresh-after:21d}") Duration refreshAfter,
+            @Value("${catalog.sync.retry-after:1d}") Duration retryAfter,
+            @Value("${catalog.sync.batch-size:50}") int batchSize,
+            @Value("${catalog.sync.run-timeout:2m}") Duration runTimeout
+    ) {
+        this.movieRepository = movieRepository;
+        this.tvShowRepository = tvShowRepository;
+        this.personRepository = personRepository;
+        this.tmdb = tmdb;
+        this.refreshAfter = refreshAfter;
+        this.retryAfter = retryAfter;
+        this.batchSize = batchSize;
+        this.runTimeout = runTimeout;
+    }
+
+    @Scheduled(fixedDelayString = "${catalog.sync.interval:15m}", initialDelayString = "${catalog.sync.interval:15m}")
+    public void syncStaleEntries() {
+        Instant now = Instant.now();
+        Instant cutoff = now.minus(refreshAfter);
+        Instant retryCutoff = now.minus(retryAfter);
+        Pageable batch = PageRequest.of(0, batchSize);
+
+        try {
+            int movies = refresh("movie",
+                    movieRepository.findStale(cutoff, retryCutoff, batch).stream()
+                            .map(movie -> movie.getTmdbId().intValue()).toList(),
+                    tmdb::getMovieDetails, movieRepository::markAttempted);
+            int tvShows = refresh("tv",
+                    tvShowRepository.findStale(cutoff, retryCutoff, batch).stream()
+                            .map(show -> show.getTmdbId().intValue()).toList(),
+                    tmdb::getTvDetails, tvShowRepository::markAttempted);
+            int people = refresh("person",
+                    personRepository.findStale(cutoff, retryCutoff, batch).stream()
+                            .map(person -> person.getTmdbId().intValue()).toList(),
+                    tmdb::getPersonDetails, personRepository::markAttempted);
+
+            if (movies + tvShows + people > 0) {
+                log.info("Catalog sync refreshed {} movies, {} TV shows and {} people", movies, tvShows, people);
+            }
+        } catch (Exception e) {
+            // Rows stay as they are and are picked up again by the next run
+            log.warn("Catalog sync run failed: {}", e.getMessage());
+        }
+    }
+
+    /**
+     * Re-fetches {@code ids}; the ones that fail are stamped through {@code markAttempted}.
+     */
+    private int refresh(String kind, List<Integer> ids, Function<Integer, Mono<?>> fetch,
+                        BiFunction<Collection<Long>, Instant, Integer> markAttempted) {
+        if (ids.isEmpty()) {
+            return 0;
+        }
+        Set<Long> failed = ConcurrentHashMap.newKeySet();
+        Long refreshed = Flux.fromIterable(ids)
+                .flatMap(id -> Mono.defer(() -> {
+                            tmdb.invalidateDetails(kind, id);
+                            return fetch.apply(id);
+                        })
+                        .onErrorResume(e -> {
+                            log.debug("Catalog sync could not refresh {} {}: {}", kind, id, e.getMessage());
+                            failed.add(id.longValue());
+                            return Mono.empty();
+                        }), CONCURRENCY)
+                .count()
+                .contextWrite(TmdbRequestPriority.BACKGROUND.context())
+                .block(runTimeout);
+        if (!failed.isEmpty()) {
+            markAttempted.apply(failed, Instant.now());
+        }
+        return refreshed != null ? refreshed.intValue() : 0;
+    }
+}
@@ -7,6 +7,7 @@ import org.springframework.validation.FieldError;
 import org.springframework.web.bind.MethodArgumentNotValidException;
 import org.springframework.web.bind.annotation.ExceptionHandler;
 import org.springframework.web.bind.annotation.RestControllerAdvice;
+import org.springframework.web.method.annotation.HandlerMethodValidationException;
 import org.springframework.web.server.ResponseStatusException;
 
 import java.util.HashMap;
@@ -33,6 +34,23 @@ public class ApiExceptionHandler {
         ));
     }
 
+    @ExceptionHandler(HandlerMethodValidationException.class)
+    public ResponseEntity<?> onParameterValidationError(HandlerMethodValidationException ex) {
+        Map<String, String> errors = new HashMap<>();
+        for (var result : ex.getParameterValidationResults()) {
+            String name = result.getMethodParameter().getParameterName();
+            result.getResolvableErrors().forEach(error -> errors.put(name, error.getDefaultMessage()));
+        }
+
+        log.warn("Validation error: {}", errors);
+
+        return ResponseEntity.badRequest().body(Map.of(
+                "status", 400,
+                "error", "Validation failed",
+                "fields", errors
+        ));
+    }
+
     @ExceptionHandler(ResponseStatusException.class)
     public ResponseEntity<?> onResponseStatus(ResponseStatusException ex) {
         var code = ex.getStatusCode();
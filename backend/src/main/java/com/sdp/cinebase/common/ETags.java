@@ -0,0 +1,45 @@
+package com.sdp.cinebase.common;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.UncheckedIOException;
+import java.security.DigestOutputStream;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.HexFormat;
+
+/**
+ * Strong entity tags derived from response content.
+ * <p>
+ * Set on a {@code ResponseEntity} of a GET handler, Spring MVC compares the tag with the request's
+ * {@code If-None-Match} and answers {@code 304 Not Modified} without writing the body when they match.
+ */
+public final class ETags {
+
+    private ETags() {
+    }
+
+    /**
+     * A quoted strong ETag (MD5) of the JSON form of {@code body}; equal JSON always gives the same
+     * tag. The JSON is streamed into the digest rather than buffered.
+     */
+    public static String strong(ObjectMapper objectMapper, Object body) {
+        MessageDigest md5 = md5();
+        try (OutputStream out = new DigestOutputStream(OutputStream.nullOutputStream(), md5)) {
+            objectMapper.writeValue(out, body);
+        } catch (IOException e) {
+            throw new UncheckedIOException("Could not serialize response body", e);
+        }
+        return "\"" + HexFormat.of().formatHex(md5.digest()) + "\"";
+    }
+
+    private static MessageDigest md5() {
+        try {
+            return MessageDigest.getInstance("MD5");
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException("MD5 not available", e);
+        }
+    }
+}
@@ -0,0 +1,14 @@
+package com.sdp.cinebase.config;
+
+import org.springframework.context.annotation.Configuration;
+import org.springframework.scheduling.annotation.EnableScheduling;
+
+/**
+ * Configuration to enable scheduled tasks.
+ * This allows @Scheduled annotated methods (e.g. background cache refreshes) to run periodically.
+ */
+@Configuration
+@EnableScheduling
+public class SchedulingConfig {
+    // Spring will automatically configure a default scheduler for scheduled tasks
+}
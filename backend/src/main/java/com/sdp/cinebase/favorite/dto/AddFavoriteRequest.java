@@ -2,12 +2,14 @@ package com.sdp.cinebase.favorite.dto;
 
 import jakarta.validation.constraints.NotBlank;
 import jakarta.validation.constraints.NotNull;
+import jakarta.validation.constraints.Pattern;
 
 public record AddFavoriteRequest(
     @NotNull(message = "TMDB ID is required")
     Long tmdbId,
 
     @NotBlank(message = "Media type is required (movie or tv)")
+    @Pattern(regexp = "movie|tv", message = "Media type must be 'movie' or 'tv'")
     String mediaType,
 
     @NotBlank(message = "Title is required")
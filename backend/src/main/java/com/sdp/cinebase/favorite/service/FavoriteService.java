@@ -4,6 +4,8 @@ import com.sdp.cinebase.favorite.dto.AddFavoriteRequest;
 import com.sdp.cinebase.favorite.dto.FavoriteResponse;
 import com.sdp.cinebase.favorite.model.Favorite;
 import com.sdp.cinebase.favorite.repo.FavoriteRepository;
+import com.sdp.cinebase.title.service.TitleList;
+import com.sdp.cinebase.title.service.UserMembershipIndex;
 import com.sdp.cinebase.user.model.User;
 import com.sdp.cinebase.user.repo.UserRepository;
 import org.springframework.http.HttpStatus;
@@ -17,15 +19,18 @@ public class FavoriteService {
 
     private final FavoriteRepository favoriteRepository;
     private final UserRepository userRepository;
+    private final UserMembershipIndex membershipIndex;
 
-    public FavoriteService(FavoriteRepository favoriteRepository, UserRepository userRepository) {
+    public FavoriteService(FavoriteRepository favoriteRepository, UserRepository userRepository,
+                           UserMembershipIndex membershipIndex) {
         this.favoriteRepository = favoriteRepository;
         this.userRepository = userRepository;
+        this.membershipIndex = membershipIndex;
     }
 
     public FavoriteResponse addFavorite(Long userId, AddFavoriteRequest request) {
-        // Check if already exists
-        if (favoriteRepository.existsByUser_IdAndTmdbIdAndMediaType(userId, request.tmdbId(), request.mediaType())) {
+        // Check if already exists; the unique constraint still backs this up
+        if (membershipIndex.contains(userId, TitleList.FAVORITES, request.mediaType(), request.tmdbId())) {
             throw new ResponseStatusException(HttpStatus.CONFLICT, "Already in favorites");
         }
 
@@ -41,6 +46,7 @@ public class FavoriteService {
         favorite.setPosterPath(request.posterPath());
 
         Favorite saved = favoriteRepository.save(favorite);
+        membershipIndex.added(userId, TitleList.FAVORITES, saved.getMediaType(), saved.getTmdbId());
         return toResponse(saved);
     }
 
@@ -61,10 +67,11 @@ public class FavoriteService {
         }
 
         favoriteRepository.delete(favorite);
+        membershipIndex.removed(userId, TitleList.FAVORITES, favorite.getMediaType(), favorite.getTmdbId());
     }
 
     public boolean isFavorite(Long userId, Long tmdbId, String mediaType) {
-        return favoriteRepository.existsByUser_IdAndTmdbIdAndMediaType(userId, tmdbId, mediaType);
+        return membershipIndex.contains(userId, TitleList.FAVORITES, mediaType, tmdbId);
     }
 
     private FavoriteResponse toResponse(Favorite f) {
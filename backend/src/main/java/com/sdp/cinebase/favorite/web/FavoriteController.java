@@ -10,6 +10,7 @@ import io.swagger.v3.oas.annotations.responses.ApiResponses;
 import io.swagger.v3.oas.annotations.security.SecurityRequirement;
 import io.swagger.v3.oas.annotations.tags.Tag;
 import jakarta.validation.Valid;
+import jakarta.validation.constraints.Pattern;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
 import org.springframework.security.core.annotation.AuthenticationPrincipal;
@@ -70,13 +71,14 @@ public class FavoriteController {
     @Operation(summary = "Check if favorite", description = "Check if a specific media item is in user's favorites")
     @ApiResponses(value = {
             @ApiResponse(responseCode = "200", description = "Check completed successfully"),
+            @ApiResponse(responseCode = "400", description = "Media type is not movie or tv"),
             @ApiResponse(responseCode = "401", description = "Not authenticated")
     })
     @GetMapping("/check")
     public ResponseEntity<Boolean> checkFavorite(
             @AuthenticationPrincipal UserPrincipal principal,
             @RequestParam Long tmdbId,
-            @RequestParam String mediaType) {
+            @RequestParam @Pattern(regexp = "movie|tv", message = "Media type must be 'movie' or 'tv'") String mediaType) {
         boolean isFavorite = favoriteService.isFavorite(Long.parseLong(principal.getId()), tmdbId, mediaType);
         return ResponseEntity.ok(isFavorite);
     }
@@ -0,0 +1,17 @@
+package com.sdp.cinebase.home.dto;
+
+import com.sdp.cinebase.tmdb.dto.MovieDto;
+import com.sdp.cinebase.tmdb.dto.PagedResponse;
+import com.sdp.cinebase.user.dto.RecommendationPageResponse;
+
+/**
+ * First page of every home-screen section, fetched in one round trip.
+ */
+public record HomeResponse(
+        HomeSection<PagedResponse<MovieDto>> feed_popular,
+        HomeSection<PagedResponse<MovieDto>> feed_latest,
+        HomeSection<PagedResponse<MovieDto>> feed_top_rated,
+        HomeSection<RecommendationPageResponse> recommendations,
+        HomeSection<PagedResponse<MovieDto>> movies_popular,
+        HomeSection<PagedResponse<MovieDto>> tv_popular
+) {}
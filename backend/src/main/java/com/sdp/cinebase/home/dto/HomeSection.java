@@ -0,0 +1,28 @@
+package com.sdp.cinebase.home.dto;
+
+/**
+ * One section of the home screen.
+ *
+ * @param status {@code ready} (data is set), {@code pending} (not ready within the deadline) or
+ *               {@code failed}; for the latter two, fetch {@code endpoint} directly
+ * @param endpoint the standalone endpoint serving this section's first page
+ * @param stale whether the data was served from the last-known-good fallback
+ */
+public record HomeSection<T>(
+        String status,
+        String endpoint,
+        T data,
+        boolean stale
+) {
+    public static <T> HomeSection<T> ready(String endpoint, T data, boolean stale) {
+        return new HomeSection<>("ready", endpoint, data, stale);
+    }
+
+    public static <T> HomeSection<T> pending(String endpoint) {
+        return new HomeSection<>("pending", endpoint, null, false);
+    }
+
+    public static <T> HomeSection<T> failed(String endpoint) {
+        return new HomeSection<>("failed", endpoint, null, false);
+    }
+}
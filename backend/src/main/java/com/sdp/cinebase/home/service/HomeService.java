@@ -0,0 +1,83 @@
+package com.sdp.cinebase.home.service;
+
+import com.sdp.cinebase.home.dto.HomeResponse;
+import com.sdp.cinebase.home.dto.HomeSection;
+import com.sdp.cinebase.tmdb.resilience.TmdbResponseMeta;
+import com.sdp.cinebase.tmdb.service.ReactiveTmdbClient;
+import com.sdp.cinebase.user.model.User;
+import com.sdp.cinebase.user.repo.UserRepository;
+import com.sdp.cinebase.user.service.RecommendationCache;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+import reactor.core.publisher.Mono;
+import reactor.core.scheduler.Schedulers;
+
+import java.time.Duration;
+
+/**
+ * Builds the home screen in one request.
+ * <p>
+ * All sections are started in parallel and the response is sent once every section is done or the
+ * deadline passes, whichever comes first. Sections still running at the deadline are reported as
+ * {@code pending} but keep running in the background, so their results land in the TMDB cache
+ * (or the recommendation cache) and the client's follow-up request for them is fast.
+ */
+@Service
+public class HomeService {
+
+    private static final Logger log = LoggerFactory.getLogger(HomeService.class);
+
+    private final ReactiveTmdbClient tmdb;
+    private final RecommendationCache recommendationCache;
+    private final UserRepository userRepository;
+    private final Duration deadline;
+
+    public HomeService(
+            ReactiveTmdbClient tmdb,
+            RecommendationCache recommendationCache,
+            UserRepository userRepository,
+            @Value("${home.deadline:1500ms}") Duration deadline
+    ) {
+        this.tmdb = tmdb;
+        this.recommendationCache = recommendationCache;
+        this.userRepository = userRepository;
+        this.deadline = deadline;
+    }
+
+    public Mono<HomeResponse> home(String username) {
+        return Mono.zip(
+                        section("/api/tmdb/feed/popular", tmdb.trendingDay(1)),
+                        section("/api/tmdb/feed/latest", tmdb.combinedLatest(1)),
+                        section("/api/tmdb/feed/top-rated", tmdb.combinedTopRated(1)),
+                        section("/api/tmdb/feed/recommendations", Mono
+                                .fromCallable(() -> recommendationCache.getPage(user(username), 1, null))
+                                .subscribeOn(Schedulers.boundedElastic())),
+                        section("/api/tmdb/movies/popular", tmdb.popularMovies(1)),
+                        section("/api/tmdb/tv/popular", tmdb.popularTvShows(1)))
+                .map(sections -> new HomeResponse(sections.getT1(), sections.getT2(), sections.getT3(),
+                        sections.getT4(), sections.getT5(), sections.getT6()));
+    }
+
+    /**
+     * Starts {@code source} detached from the caller, so neither the deadline nor a client
+     * disconnect cancels it, and reports whatever state it is in at the deadline.
+     */
+    private <T> Mono<HomeSection<T>> section(String endpoint, Mono<T> source) {
+        return Mono.defer(() -> {
+            TmdbResponseMeta meta = new TmdbResponseMeta();
+            Mono<T> running = source.contextWrite(meta.context()).cache();
+            running.subscribe(value -> {}, e -> log.warn("Home section {} failed: {}", endpoint, e.getMessage()));
+            return running
+                    .map(value -> HomeSection.ready(endpoint, value, meta.isStale()))
+                    .timeout(deadline, Mono.fromSupplier(() -> HomeSection.<T>pending(endpoint)))
+                    .onErrorResume(e -> Mono.just(HomeSection.failed(endpoint)));
+        });
+    }
+
+    private User user(String username) {
+        return userRepository.findByUsername(username)
+                .orElseThrow(() -> new RuntimeException("User not found"));
+    }
+}
@@ -0,0 +1,32 @@
+package com.sdp.cinebase.home.web;
+
+import com.sdp.cinebase.home.dto.HomeResponse;
+import com.sdp.cinebase.home.service.HomeService;
+import io.swagger.v3.oas.annotations.Operation;
+import io.swagger.v3.oas.annotations.security.SecurityRequirement;
+import io.swagger.v3.oas.annotations.tags.Tag;
+import org.springframework.security.core.Authentication;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RestController;
+import reactor.core.publisher.Mono;
+
+@RestController
+@RequestMapping("/api/home")
+@Tag(name = "Home", description = "Aggregated home-screen data in a single request")
+@SecurityRequirement(name = "bearer-jwt")
+public class HomeController {
+
+    private final HomeService homeService;
+
+    public HomeController(HomeService homeService) {
+        this.homeService = homeService;
+    }
+
+    @Operation(summary = "Home screen", description = "First page of the popular, latest, top-rated and recommendation feeds plus popular movies and TV, fetched in parallel under one deadline. Sections not ready in time are marked pending; fetch their endpoint directly.")
+    @GetMapping
+    public Mono<HomeResponse> home(Authentication authentication) {
+        // Not cancelled on disconnect: the sections run detached so their results still warm the caches
+        return homeService.home(authentication.getName());
+    }
+}
@@ -0,0 +1,32 @@
+package com.sdp.cinebase.importer.dto;
+
+import java.time.Instant;
+import java.util.List;
+
+/**
+ * Progress of a list import. Counters grow while {@code state} is {@code running}.
+ *
+ * @param list {@code watchlist}, {@code favorites} or {@code reviews}
+ * @param state {@code running}, {@code completed} or {@code failed}
+ * @param rows_read data rows read from the file so far
+ * @param imported rows added to the list
+ * @param already_present rows whose title was already on the list (or repeated in the file)
+ * @param unresolved rows that could not be matched to a TMDB title
+ * @param invalid rows that could not be imported as given (see {@code message} for the first reason)
+ * @param unresolved_titles the first unresolved rows, as {@code Title (Year)} or {@code movie:<id>}
+ * @param message why the import failed or stopped early, or the first invalid row's problem
+ */
+public record ImportStatusResponse(
+        String id,
+        String list,
+        String state,
+        long rows_read,
+        long imported,
+        long already_present,
+        long unresolved,
+        long invalid,
+        List<String> unresolved_titles,
+        String message,
+        Instant started_at,
+        Instant finished_at
+) {}
@@ -0,0 +1,124 @@
+package com.sdp.cinebase.importer.service;
+
+import java.io.IOException;
+import java.io.Reader;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * RFC 4180 CSV: the first record is the header, fields may be quoted, quoted fields may contain
+ * separators, doubled quotes and line breaks. Blank lines are skipped and a leading byte order mark
+ * is ignored. Columns are matched by header name (see {@link ImportRow.Field#of}).
+ */
+final class CsvRowReader implements ImportRowReader {
+
+    private static final int EOF = -1;
+
+    private final Reader in;
+    private ImportRow.Field[] columns;
+    private long line;
+    private int pushedBack = -2;
+
+    CsvRowReader(Reader in) {
+        this.in = in;
+    }
+
+    @Override
+    public ImportRow next() throws IOException {
+        if (columns == null) {
+            List<String> header = readRecord();
+            if (header == null) {
+                return null;
+            }
+            if (!header.isEmpty() && header.get(0).startsWith("\uFEFF")) {
+                header.set(0, header.get(0).substring(1));
+            }
+            columns = header.stream().map(ImportRow.Field::of).toArray(ImportRow.Field[]::new);
+        }
+        List<String> record = readRecord();
+        if (record == null) {
+            return null;
+        }
+        ImportRow.Builder row = new ImportRow.Builder();
+        for (int i = 0; i < record.size() && i < columns.length; i++) {
+            row.set(columns[i], record.get(i));
+        }
+        return row.build(++line);
+    }
+
+    /**
+     * The fields of the next non-blank record, or {@code null} at the end of the input.
+     */
+    private List<String> readRecord() throws IOException {
+        List<String> fields = new ArrayList<>();
+        StringBuilder field = new StringBuilder();
+        boolean quoted = false;
+        boolean any = false;
+        int c;
+        while ((c = read()) != EOF) {
+            if (quoted) {
+                if (c == '"') {
+                    int following = read();
+                    if (following == '"') {
+                        field.append('"');
+                    } else {
+                        quoted = false;
+                        unread(following);
+                    }
+                } else {
+                    field.append((char) c);
+                }
+                continue;
+            }
+            if (c == '"' && field.isEmpty()) {
+                quoted = true;
+                any = true;
+            } else if (c == ',') {
+                fields.add(field.toString());
+                field.setLength(0);
+                any = true;
+            } else if (c == '\r' || c == '\n') {
+                if (c == '\r') {
+                    int following = read();
+                    if (following != '\n') {
+                        unread(following);
+                    }
+                }
+                if (any || !field.isEmpty()) {
+                    fields.add(field.toString());
+                    return fields;
+                }
+                // Blank line
+            } else {
+                field.append((char) c);
+                any = true;
+            }
+        }
+        if (quoted) {
+            throw new IOException("Unterminated quoted field in data row " + (line + 1));
+        }
+        if (any || !field.isEmpty()) {
+            fields.add(field.toString());
+            return fields;
+        }
+        return null;
+    }
+
+    private int read() throws IOException {
+        if (pushedBack != -2) {
+            int c = pushedBack;
+            pushedBack = -2;
+            return c;
+        }
+        return in.read();
+    }
+
+    private void unread(int c) {
+        pushedBack = c;
+    }
+
+    @Override
+    public void close() throws IOException {
+        in.close();
+    }
+}
@@ -0,0 +1,81 @@
+package com.sdp.cinebase.importer.service;
+
+import com.sdp.cinebase.title.service.TitleList;
+
+import java.util.Locale;
+
+/**
+ * A validated import row: what to look up and, for reviews, what to store.
+ *
+ * @param tmdbId the TMDB id if the export has one; otherwise the title is searched by name
+ * @param mediaType {@code movie}, {@code tv}, or {@code null} if the export does not say
+ * @param rating 1-10, already converted from the export's scale
+ */
+record ImportEntry(long line, Long tmdbId, String mediaType, String title, String year, Integer rating, String review) {
+
+    /**
+     * Validates a raw row for the given list.
+     *
+     * @param ratingScale the top of the export's rating scale, e.g. 5 for five-star ratings
+     * @throws IllegalArgumentException with the reason if the row cannot be imported
+     */
+    static ImportEntry from(ImportRow row, TitleList list, int ratingScale) {
+        Long tmdbId = null;
+        if (row.tmdbId() != null) {
+            try {
+                tmdbId = Long.parseLong(row.tmdbId());
+            } catch (NumberFormatException e) {
+                throw new IllegalArgumentException("invalid TMDB id '" + row.tmdbId() + "'");
+            }
+            if (tmdbId <= 0 || tmdbId > Integer.MAX_VALUE) {
+                throw new IllegalArgumentException("invalid TMDB id '" + row.tmdbId() + "'");
+            }
+        } else if (row.title() == null) {
+            throw new IllegalArgumentException("neither a TMDB id nor a title");
+        }
+
+        String year = row.year() != null && row.year().matches("\\d{4}.*") ? row.year().substring(0, 4) : null;
+        boolean reviews = list == TitleList.REVIEWS;
+        Integer rating = reviews && row.rating() != null ? rating(row.rating(), ratingScale) : null;
+        String review = reviews ? row.review() : null;
+        if (reviews && rating == null && review == null) {
+            throw new IllegalArgumentException("no rating or review text");
+        }
+        return new ImportEntry(row.line(), tmdbId, mediaType(row.mediaType()), row.title(), year, rating, review);
+    }
+
+    /**
+     * How the row is reported when it cannot be matched to a title.
+     */
+    String label() {
+        if (title == null) {
+            return (mediaType != null ? mediaType : "movie") + ":" + tmdbId;
+        }
+        return year != null ? title + " (" + year + ")" : title;
+    }
+
+    private static String mediaType(String value) {
+        if (value == null) {
+            return null;
+        }
+        return switch (value.toLowerCase(Locale.ROOT).replaceAll("[^a-z]", "")) {
+            case "movie", "film", "tvmovie", "video", "short" -> "movie";
+            case "tv", "tvshow", "show", "series", "tvseries", "tvminiseries", "miniseries" -> "tv";
+            default -> throw new IllegalArgumentException("unknown media type '" + value + "'");
+        };
+    }
+
+    private static Integer rating(String value, int scale) {
+        double parsed;
+        try {
+            parsed = Double.parseDouble(value);
+        } catch (NumberFormatException e) {
+            throw new IllegalArgumentException("invalid rating '" + value + "'");
+        }
+        long rating = Math.round(parsed * 10 / scale);
+        if (rating < 1 || rating > 10) {
+            throw new IllegalArgumentException("rating '" + value + "' out of range 1-" + scale);
+        }
+        return (int) rating;
+    }
+}
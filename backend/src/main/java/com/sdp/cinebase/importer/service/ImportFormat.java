@@ -0,0 +1,25 @@
+package com.sdp.cinebase.importer.service;
+
+import java.util.Locale;
+
+/**
+ * File formats an import accepts.
+ */
+enum ImportFormat {
+    CSV, JSON;
+
+    /**
+     * The explicitly requested format, else the one implied by the file name or content type,
+     * else CSV.
+     *
+     * @throws IllegalArgumentException if {@code requested} is not a known format
+     */
+    static ImportFormat of(String requested, String filename, String contentType) {
+        if (requested != null && !requested.isBlank()) {
+            return valueOf(requested.strip().toUpperCase(Locale.ROOT));
+        }
+        String name = filename != null ? filename.toLowerCase(Locale.ROOT) : "";
+        String type = contentType != null ? contentType.toLowerCase(Locale.ROOT) : "";
+        return name.endsWith(".json") || type.contains("json") ? JSON : CSV;
+    }
+}
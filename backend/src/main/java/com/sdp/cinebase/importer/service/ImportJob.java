@@ -0,0 +1,99 @@
+package com.sdp.cinebase.importer.service;
+
+import com.sdp.cinebase.importer.dto.ImportStatusResponse;
+import com.sdp.cinebase.title.service.TitleList;
+
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Locale;
+
+/**
+ * Progress of one running or finished import. Written by the worker, read by status requests;
+ * all access goes through the object's lock.
+ */
+final class ImportJob {
+
+    private static final int MAX_UNRESOLVED_LISTED = 50;
+
+    enum State { RUNNING, COMPLETED, FAILED }
+
+    private final String id;
+    private final Long userId;
+    private final TitleList list;
+    private final Instant startedAt = Instant.now();
+    private final List<String> unresolvedTitles = new ArrayList<>();
+
+    private State state = State.RUNNING;
+    private long rowsRead;
+    private long imported;
+    private long alreadyPresent;
+    private long unresolved;
+    private long invalid;
+    private String message;
+    private Instant finishedAt;
+
+    ImportJob(String id, Long userId, TitleList list) {
+        this.id = id;
+        this.userId = userId;
+        this.list = list;
+    }
+
+    String id() {
+        return id;
+    }
+
+    Long userId() {
+        return userId;
+    }
+
+    TitleList list() {
+        return list;
+    }
+
+    synchronized boolean isRunning() {
+        return state == State.RUNNING;
+    }
+
+    synchronized void rowsRead(int rows) {
+        rowsRead += rows;
+    }
+
+    synchronized void invalid(long line, String reason) {
+        if (invalid++ == 0) {
+            message = "Row " + line + ": " + reason;
+        }
+    }
+
+    synchronized void unresolved(String label) {
+        unresolved++;
+        if (unresolvedTitles.size() < MAX_UNRESOLVED_LISTED) {
+            unresolvedTitles.add(label);
+        }
+    }
+
+    synchronized void written(int attempted, int inserted) {
+        imported += inserted;
+        alreadyPresent += attempted - inserted;
+    }
+
+    synchronized void completed(String note) {
+        state = State.COMPLETED;
+        if (note != null) {
+            message = note;
+        }
+        finishedAt = Instant.now();
+    }
+
+    synchronized void failed(String reason) {
+        state = State.FAILED;
+        message = reason;
+        finishedAt = Instant.now();
+    }
+
+    synchronized ImportStatusResponse toResponse() {
+        return new ImportStatusResponse(id, list.name().toLowerCase(Locale.ROOT), state.name().toLowerCase(Locale.ROOT),
+                rowsRead, imported, alreadyPresent, unresolved, invalid, List.copyOf(unresolvedTitles), message,
+                startedAt, finishedAt);
+    }
+}
@@ -0,0 +1,153 @@
+package com.sdp.cinebase.importer.service;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.sdp.cinebase.importer.dto.ImportStatusResponse;
+import com.sdp.cinebase.title.service.TitleList;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.io.BufferedInputStream;
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InputStreamReader;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Runs one import: streams the uploaded file in chunks of {@code imports.batch-size} rows, resolves
+ * each chunk to TMDB titles ({@link TitleResolver}) and writes it with one batch ({@link ImportWriter}).
+ * Each chunk commits on its own, so progress is visible while the import runs and a failure keeps
+ * what was written before it. At most {@code imports.max-rows} rows are read per file.
+ */
+@Component
+public class ImportPipeline {
+
+    private static final Logger log = LoggerFactory.getLogger(ImportPipeline.class);
+
+    private final TitleResolver resolver;
+    private final ImportWriter writer;
+    private final ObjectMapper objectMapper;
+    private final MeterRegistry meterRegistry;
+    private final int batchSize;
+    private final long maxRows;
+
+    public ImportPipeline(
+            TitleResolver resolver,
+            ImportWriter writer,
+            ObjectMapper objectMapper,
+            MeterRegistry meterRegistry,
+            @Value("${imports.batch-size:500}") int batchSize,
+            @Value("${imports.max-rows:20000}") long maxRows
+    ) {
+        this.resolver = resolver;
+        this.writer = writer;
+        this.objectMapper = objectMapper;
+        this.meterRegistry = meterRegistry;
+        this.batchSize = batchSize;
+        this.maxRows = maxRows;
+    }
+
+    void run(ImportJob job, InputStream in, ImportFormat format, int ratingScale) {
+        long started = System.nanoTime();
+        try (ImportRowReader reader = open(in, format)) {
+            List<ImportRow> chunk = new ArrayList<>(batchSize);
+            long rows = 0;
+            ImportRow row;
+            while ((row = reader.next()) != null) {
+                if (rows++ == maxRows) {
+                    process(job, chunk, ratingScale);
+                    job.completed("Stopped after the first " + maxRows + " rows");
+                    return;
+                }
+                chunk.add(row);
+                if (chunk.size() == batchSize) {
+                    process(job, chunk, ratingScale);
+                    chunk.clear();
+                }
+            }
+            process(job, chunk, ratingScale);
+            job.completed(null);
+        } catch (IOException e) {
+            job.failed("Could not read the file: " + e.getMessage());
+        } catch (Exception e) {
+            log.warn("Import {} failed: {}", job.id(), e.getMessage(), e);
+            job.failed("Import failed, rows imported so far were kept");
+        } finally {
+            ImportStatusResponse status = job.toResponse();
+            log.info("Import {} into {} {} in {} ms: {} rows, {} imported, {} already present, {} unresolved, {} invalid",
+                    job.id(), status.list(), status.state(), (System.nanoTime() - started) / 1_000_000,
+                    status.rows_read(), status.imported(), status.already_present(), status.unresolved(), status.invalid());
+        }
+    }
+
+    /**
+     * Convenience for a file on disk; the file is deleted afterwards.
+     */
+    void run(ImportJob job, Path file, ImportFormat format, int ratingScale) {
+        try (InputStream in = new BufferedInputStream(Files.newInputStream(file))) {
+            run(job, in, format, ratingScale);
+        } catch (IOException e) {
+            job.failed("Could not read the file: " + e.getMessage());
+        } finally {
+            try {
+                Files.deleteIfExists(file);
+            } catch (IOException e) {
+                log.warn("Could not delete import upload {}: {}", file, e.getMessage());
+            }
+        }
+    }
+
+    private void process(ImportJob job, List<ImportRow> chunk, int ratingScale) {
+        if (chunk.isEmpty()) {
+            return;
+        }
+        job.rowsRead(chunk.size());
+        TitleList list = job.list();
+
+        List<ImportEntry> entries = new ArrayList<>(chunk.size());
+        for (ImportRow row : chunk) {
+            try {
+                entries.add(ImportEntry.from(row, list, ratingScale));
+            } catch (IllegalArgumentException e) {
+                job.invalid(row.line(), e.getMessage());
+                count("invalid", 1);
+            }
+        }
+
+        Map<ImportEntry, ResolvedTitle> resolved = resolver.resolve(entries);
+        List<ImportWriter.Item> items = new ArrayList<>(entries.size());
+        for (ImportEntry entry : entries) {
+            ResolvedTitle title = resolved.get(entry);
+            if (title != null) {
+                items.add(new ImportWriter.Item(entry, title));
+            } else {
+                job.unresolved(entry.label());
+                count("unresolved", 1);
+            }
+        }
+
+        int inserted = writer.write(job.userId(), list, items);
+        job.written(items.size(), inserted);
+        count("imported", inserted);
+        count("already_present", items.size() - inserted);
+    }
+
+    private ImportRowReader open(InputStream in, ImportFormat format) throws IOException {
+        return switch (format) {
+            case CSV -> new CsvRowReader(new BufferedReader(new InputStreamReader(in, StandardCharsets.UTF_8)));
+            case JSON -> new JsonRowReader(objectMapper, in);
+        };
+    }
+
+    private void count(String result, long rows) {
+        meterRegistry.counter("imports.rows", "result", result).increment(rows);
+    }
+}
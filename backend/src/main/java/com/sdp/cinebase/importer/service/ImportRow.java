@@ -0,0 +1,59 @@
+package com.sdp.cinebase.importer.service;
+
+import java.util.Locale;
+
+/**
+ * One row of an uploaded export, as raw text. Any field may be {@code null} when the file has no
+ * such column or leaves it empty.
+ *
+ * @param line 1-based data row (CSV: not counting the header; JSON: array element)
+ */
+record ImportRow(long line, String tmdbId, String mediaType, String title, String year, String rating, String review) {
+
+    /**
+     * The columns we understand, with the header names other services export them under.
+     */
+    enum Field {
+        TMDB_ID, MEDIA_TYPE, TITLE, YEAR, RATING, REVIEW;
+
+        /**
+         * Maps a CSV header or JSON property name to a field, or {@code null} to ignore the column.
+         * Matching ignores case, spaces and punctuation, so {@code Your Rating} and
+         * {@code your_rating} are the same column.
+         */
+        static Field of(String name) {
+            if (name == null) {
+                return null;
+            }
+            return switch (name.toLowerCase(Locale.ROOT).replaceAll("[^a-z0-9]", "")) {
+                case "tmdbid", "tmdb", "id" -> TMDB_ID;
+                case "mediatype", "type", "titletype" -> MEDIA_TYPE;
+                case "title", "name", "originaltitle" -> TITLE;
+                case "year", "releaseyear" -> YEAR;
+                case "rating", "yourrating", "myrating", "score" -> RATING;
+                case "review", "reviewtext", "comment" -> REVIEW;
+                default -> null;
+            };
+        }
+    }
+
+    /**
+     * Collects the fields of one row in whatever order the file has them.
+     */
+    static final class Builder {
+
+        private final String[] values = new String[Field.values().length];
+
+        void set(Field field, String value) {
+            if (field != null && value != null && !value.isBlank() && values[field.ordinal()] == null) {
+                values[field.ordinal()] = value.strip();
+            }
+        }
+
+        ImportRow build(long line) {
+            return new ImportRow(line, values[Field.TMDB_ID.ordinal()], values[Field.MEDIA_TYPE.ordinal()],
+                    values[Field.TITLE.ordinal()], values[Field.YEAR.ordinal()], values[Field.RATING.ordinal()],
+                    values[Field.REVIEW.ordinal()]);
+        }
+    }
+}
@@ -0,0 +1,17 @@
+package com.sdp.cinebase.importer.service;
+
+import java.io.Closeable;
+import java.io.IOException;
+
+/**
+ * Reads an uploaded export one row at a time, so the file is never held in memory as a whole.
+ */
+interface ImportRowReader extends Closeable {
+
+    /**
+     * The next row, or {@code null} at the end of the file.
+     *
+     * @throws IOException if the file cannot be read or is not well-formed
+     */
+    ImportRow next() throws IOException;
+}
@@ -0,0 +1,130 @@
+package com.sdp.cinebase.importer.service;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.github.benmanes.caffeine.cache.Expiry;
+import com.sdp.cinebase.importer.dto.ImportStatusResponse;
+import com.sdp.cinebase.title.service.TitleList;
+import jakarta.annotation.PreDestroy;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.http.HttpStatus;
+import org.springframework.stereotype.Service;
+import org.springframework.web.multipart.MultipartFile;
+import org.springframework.web.server.ResponseStatusException;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.util.Locale;
+import java.util.UUID;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+
+/**
+ * Bulk import of watchlists, favorites and ratings exported from other services.
+ * <p>
+ * An upload is stored to a temporary file and imported in the background by {@link ImportPipeline}
+ * on a small dedicated pool ({@code imports.max-concurrent}), so imports neither hold a request
+ * thread nor crowd out other async work. The caller polls {@link #status} for progress. Running
+ * imports are kept however long they take; finished ones are remembered for {@code imports.retention}
+ * from when they finished. A user runs one import at a time.
+ */
+@Service
+public class ImportService {
+
+    private static final int MAX_RATING_SCALE = 100;
+
+    private static final Duration FOREVER = Duration.ofNanos(Long.MAX_VALUE);
+
+    private final ImportPipeline pipeline;
+    private final ExecutorService executor;
+    private final Cache<String, ImportJob> jobs;
+
+    public ImportService(
+            ImportPipeline pipeline,
+            @Value("${imports.max-concurrent:2}") int maxConcurrent,
+            @Value("${imports.retention:1h}") Duration retention
+    ) {
+        this.pipeline = pipeline;
+        this.executor = Executors.newFixedThreadPool(maxConcurrent, Thread.ofPlatform().name("list-import-", 1).factory());
+        // A job is put again once it finishes, which starts its retention period
+        this.jobs = Caffeine.newBuilder()
+                .expireAfter(Expiry.<String, ImportJob>writing((id, job) -> job.isRunning() ? FOREVER : retention))
+                .build();
+    }
+
+    /**
+     * Starts importing {@code file} into one of the user's lists.
+     *
+     * @param list {@code watchlist}, {@code favorites} or {@code reviews}
+     * @param format {@code csv} or {@code json}; {@code null} to go by the file name
+     * @param ratingScale the top of the file's rating scale (5 for five-star ratings), for reviews
+     */
+    public ImportStatusResponse start(Long userId, String list, String format, int ratingScale, MultipartFile file) {
+        TitleList target = switch (list == null ? "" : list.toLowerCase(Locale.ROOT)) {
+            case "watchlist" -> TitleList.WATCHLIST;
+            case "favorites" -> TitleList.FAVORITES;
+            case "reviews" -> TitleList.REVIEWS;
+            default -> throw new ResponseStatusException(HttpStatus.BAD_REQUEST, "list must be watchlist, favorites or reviews");
+        };
+        if (ratingScale < 1 || ratingScale > MAX_RATING_SCALE) {
+            throw new ResponseStatusException(HttpStatus.BAD_REQUEST, "rating_scale must be between 1 and " + MAX_RATING_SCALE);
+        }
+        if (file == null || file.isEmpty()) {
+            throw new ResponseStatusException(HttpStatus.BAD_REQUEST, "No file uploaded");
+        }
+        ImportFormat importFormat;
+        try {
+            importFormat = ImportFormat.of(format, file.getOriginalFilename(), file.getContentType());
+        } catch (IllegalArgumentException e) {
+            throw new ResponseStatusException(HttpStatus.BAD_REQUEST, "format must be csv or json");
+        }
+
+        ImportJob job = new ImportJob(UUID.randomUUID().toString(), userId, target);
+        synchronized (this) {
+            boolean running = jobs.asMap().values().stream()
+                    .anyMatch(other -> other.userId().equals(userId) && other.isRunning());
+            if (running) {
+                throw new ResponseStatusException(HttpStatus.CONFLICT, "An import is already running");
+            }
+            jobs.put(job.id(), job);
+        }
+
+        // The multipart upload is gone once the request ends, so the import works on its own copy
+        Path upload = null;
+        try {
+            upload = Files.createTempFile("cinebase-import-", "." + importFormat.name().toLowerCase(Locale.ROOT));
+            file.transferTo(upload);
+        } catch (IOException e) {
+            if (upload != null) {
+                upload.toFile().delete();
+            }
+            job.failed("Could not store the upload");
+            jobs.put(job.id(), job);
+            throw new ResponseStatusException(HttpStatus.INTERNAL_SERVER_ERROR, "Could not store the upload");
+        }
+        Path stored = upload;
+        executor.execute(() -> {
+            try {
+                pipeline.run(job, stored, importFormat, ratingScale);
+            } finally {
+                jobs.put(job.id(), job);
+            }
+        });
+        return job.toResponse();
+    }
+
+    public ImportStatusResponse status(Long userId, String id) {
+        ImportJob job = jobs.getIfPresent(id);
+        if (job == null || !job.userId().equals(userId)) {
+            throw new ResponseStatusException(HttpStatus.NOT_FOUND, "Import not found");
+        }
+        return job.toResponse();
+    }
+
+    @PreDestroy
+    void shutdown() {
+        executor.shutdownNow();
+    }
+}
@@ -0,0 +1,119 @@
+package com.sdp.cinebase.importer.service;
+
+import com.sdp.cinebase.review.service.RatingSummaryService;
+import com.sdp.cinebase.review.service.RatingSummaryService.TitleRating;
+import com.sdp.cinebase.title.service.TitleList;
+import com.sdp.cinebase.title.service.UserMembershipIndex;
+import org.springframework.jdbc.core.namedparam.MapSqlParameterSource;
+import org.springframework.jdbc.core.namedparam.NamedParameterJdbcTemplate;
+import org.springframework.jdbc.core.namedparam.SqlParameterSource;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.time.OffsetDateTime;
+import java.time.ZoneOffset;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Writes one chunk of resolved import rows into a user's list as a single JDBC batch.
+ * <p>
+ * Titles already on the list are skipped by {@code ON CONFLICT DO NOTHING} on the list's
+ * {@code (user_id, tmdb_id, media_type)} unique constraint, so there is no exists check per row and
+ * re-running an import is harmless. The per-statement update counts tell which rows were new; only
+ * those are added to the membership index and, for reviews, to the rating aggregates (in the same
+ * transaction). This relies on the driver reporting real counts, i.e. on pgjdbc's
+ * {@code reWriteBatchedInserts} staying off.
+ */
+@Component
+public class ImportWriter {
+
+    private static final String INSERT_FAVORITE = """
+        INSERT INTO favorites (user_id, tmdb_id, media_type, title, poster_path, added_at)
+        VALUES (:userId, :tmdbId, :mediaType, :title, :posterPath, :now)
+        ON CONFLICT (user_id, tmdb_id, media_type) DO NOTHING
+        """;
+
+    private static final String INSERT_WATCHLIST = """
+        INSERT INTO watchlist (user_id, tmdb_id, media_type, title, poster_path, added_at)
+        VALUES (:userId, :tmdbId, :mediaType, :title, :posterPath, :now)
+        ON CONFLICT (user_id, tmdb_id, media_type) DO NOTHING
+        """;
+
+    private static final String INSERT_REVIEW = """
+        INSERT INTO reviews (user_id, tmdb_id, media_type, title, rating, review_text, created_at, updated_at)
+        VALUES (:userId, :tmdbId, :mediaType, :title, :rating, :review, :now, :now)
+        ON CONFLICT (user_id, tmdb_id, media_type) DO NOTHING
+        """;
+
+    /**
+     * Length of the lists' {@code title} column.
+     */
+    private static final int MAX_TITLE_LENGTH = 255;
+
+    private final NamedParameterJdbcTemplate jdbc;
+    private final UserMembershipIndex membershipIndex;
+    private final RatingSummaryService ratingSummaryService;
+
+    public ImportWriter(NamedParameterJdbcTemplate jdbc, UserMembershipIndex membershipIndex,
+                        RatingSummaryService ratingSummaryService) {
+        this.jdbc = jdbc;
+        this.membershipIndex = membershipIndex;
+        this.ratingSummaryService = ratingSummaryService;
+    }
+
+    /**
+     * @param items resolved rows paired with their titles, in file order
+     * @return how many rows were inserted; the rest were already on the list
+     */
+    @Transactional
+    public int write(Long userId, TitleList list, List<Item> items) {
+        if (items.isEmpty()) {
+            return 0;
+        }
+        OffsetDateTime now = OffsetDateTime.now(ZoneOffset.UTC);
+        SqlParameterSource[] batch = items.stream()
+                .map(item -> new MapSqlParameterSource()
+                        .addValue("userId", userId)
+                        .addValue("tmdbId", item.title().tmdbId())
+                        .addValue("mediaType", item.title().mediaType())
+                        .addValue("title", truncate(item.title().title()))
+                        .addValue("posterPath", item.title().posterPath())
+                        .addValue("rating", item.entry().rating())
+                        .addValue("review", item.entry().review())
+                        .addValue("now", now))
+                .toArray(SqlParameterSource[]::new);
+        int[] counts = jdbc.batchUpdate(switch (list) {
+            case FAVORITES -> INSERT_FAVORITE;
+            case WATCHLIST -> INSERT_WATCHLIST;
+            case REVIEWS -> INSERT_REVIEW;
+        }, batch);
+
+        int inserted = 0;
+        List<TitleRating> ratings = new ArrayList<>();
+        for (int i = 0; i < counts.length; i++) {
+            if (counts[i] <= 0) {
+                continue;
+            }
+            inserted++;
+            ResolvedTitle title = items.get(i).title();
+            membershipIndex.added(userId, list, title.mediaType(), title.tmdbId());
+            Integer rating = items.get(i).entry().rating();
+            if (list == TitleList.REVIEWS && rating != null) {
+                ratings.add(new TitleRating(title.tmdbId(), title.mediaType(), rating));
+            }
+        }
+        ratingSummaryService.ratingsAdded(ratings);
+        return inserted;
+    }
+
+    private static String truncate(String title) {
+        return title.length() > MAX_TITLE_LENGTH ? title.substring(0, MAX_TITLE_LENGTH) : title;
+    }
+
+    /**
+     * A row to write: the validated row and the title it resolved to.
+     */
+    record Item(ImportEntry entry, ResolvedTitle title) {
+    }
+}
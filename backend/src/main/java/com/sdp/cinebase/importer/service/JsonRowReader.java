@@ -0,0 +1,58 @@
+package com.sdp.cinebase.importer.service;
+
+import com.fasterxml.jackson.core.JsonParser;
+import com.fasterxml.jackson.core.JsonToken;
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.util.Map;
+
+/**
+ * A top-level JSON array of objects, read element by element with Jackson's streaming parser.
+ * Property names are matched like CSV headers (see {@link ImportRow.Field#of}); scalar values of any
+ * JSON type are taken as text, anything else is ignored.
+ */
+final class JsonRowReader implements ImportRowReader {
+
+    private final JsonParser parser;
+    private long line;
+    private boolean started;
+
+    JsonRowReader(ObjectMapper objectMapper, InputStream in) throws IOException {
+        this.parser = objectMapper.getFactory().createParser(in);
+    }
+
+    @Override
+    public ImportRow next() throws IOException {
+        if (!started) {
+            started = true;
+            if (parser.nextToken() != JsonToken.START_ARRAY) {
+                throw new IOException("Expected a JSON array of objects");
+            }
+        }
+        JsonToken token = parser.nextToken();
+        if (token == null) {
+            throw new IOException("Unexpected end of JSON input");
+        }
+        if (token == JsonToken.END_ARRAY) {
+            return null;
+        }
+        JsonNode element = parser.readValueAsTree();
+        ImportRow.Builder row = new ImportRow.Builder();
+        if (element != null && element.isObject()) {
+            for (Map.Entry<String, JsonNode> field : element.properties()) {
+                if (field.getValue().isValueNode() && !field.getValue().isNull()) {
+                    row.set(ImportRow.Field.of(field.getKey()), field.getValue().asText());
+                }
+            }
+        }
+        return row.build(++line);
+    }
+
+    @Override
+    public void close() throws IOException {
+        parser.close();
+    }
+}
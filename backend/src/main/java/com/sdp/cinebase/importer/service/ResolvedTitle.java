@@ -0,0 +1,7 @@
+package com.sdp.cinebase.importer.service;
+
+/**
+ * The TMDB title an import row was matched to, with what the list tables store about it.
+ */
+record ResolvedTitle(long tmdbId, String mediaType, String title, String posterPath) {
+}
@@ -0,0 +1,198 @@
+package com.sdp.cinebase.importer.service;
+
+import com.sdp.cinebase.catalog.model.CatalogTitle;
+import com.sdp.cinebase.catalog.repo.CatalogMovieRepository;
+import com.sdp.cinebase.catalog.repo.CatalogTvShowRepository;
+import com.sdp.cinebase.catalog.service.CatalogService;
+import com.sdp.cinebase.search.dto.SuggestionDto;
+import com.sdp.cinebase.search.service.TypeaheadIndex;
+import com.sdp.cinebase.search.service.TypeaheadService;
+import com.sdp.cinebase.title.dto.TitleKey;
+import com.sdp.cinebase.tmdb.dto.MovieDetailsDto;
+import com.sdp.cinebase.tmdb.dto.MovieDto;
+import com.sdp.cinebase.tmdb.dto.PagedResponse;
+import com.sdp.cinebase.tmdb.ratelimit.TmdbRequestPriority;
+import com.sdp.cinebase.tmdb.service.ReactiveTmdbClient;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+
+import java.time.Duration;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Optional;
+import java.util.function.Predicate;
+import java.util.stream.Collectors;
+
+/**
+ * Matches import rows to TMDB titles, cheapest source first.
+ * <p>
+ * Rows with a TMDB id are looked up in the catalog mirror with one query per media type and chunk;
+ * if the mirror does not have the title, its details are fetched (TMDB through its response cache),
+ * which also confirms that the id exists. The row's own title is never trusted on its own, so an id
+ * that TMDB does not know leaves the row unresolved. Rows with just a title are
+ * matched exactly (normalized title, media type and year) against the in-memory typeahead index,
+ * and only misses search TMDB. All TMDB calls run at background priority with bounded parallelism,
+ * so an import queues behind interactive traffic instead of competing with it.
+ */
+@Component
+public class TitleResolver {
+
+    private static final Logger log = LoggerFactory.getLogger(TitleResolver.class);
+
+    private static final int SUGGESTIONS_CHECKED = 10;
+
+    private final CatalogMovieRepository movieRepository;
+    private final CatalogTvShowRepository tvShowRepository;
+    private final CatalogService catalogService;
+    private final TypeaheadService typeahead;
+    private final ReactiveTmdbClient tmdb;
+    private final int concurrency;
+    private final Duration timeout;
+
+    public TitleResolver(
+            CatalogMovieRepository movieRepository,
+            CatalogTvShowRepository tvShowRepository,
+            CatalogService catalogService,
+            TypeaheadService typeahead,
+            ReactiveTmdbClient tmdb,
+            @Value("${imports.resolve.concurrency:8}") int concurrency,
+            @Value("${imports.resolve.timeout:2m}") Duration timeout
+    ) {
+        this.movieRepository = movieRepository;
+        this.tvShowRepository = tvShowRepository;
+        this.catalogService = catalogService;
+        this.typeahead = typeahead;
+        this.tmdb = tmdb;
+        this.concurrency = concurrency;
+        this.timeout = timeout;
+    }
+
+    /**
+     * Resolves a chunk of rows. Rows that match nothing, or whose lookup failed, are absent from the
+     * result. Blocks; call from a worker thread.
+     */
+    Map<ImportEntry, ResolvedTitle> resolve(List<ImportEntry> entries) {
+        Map<TitleKey, ResolvedTitle> mirrored = mirrored(entries);
+        Map<ImportEntry, ResolvedTitle> resolved = Flux.fromIterable(entries)
+                .flatMap(entry -> resolve(entry, mirrored)
+                        .onErrorResume(e -> {
+                            log.debug("Import could not resolve '{}': {}", entry.label(), e.getMessage());
+                            return Mono.empty();
+                        })
+                        .map(title -> Map.entry(entry, title)), concurrency)
+                .collectMap(Map.Entry::getKey, Map.Entry::getValue)
+                .contextWrite(TmdbRequestPriority.BACKGROUND.context())
+                .block(timeout);
+        return resolved != null ? resolved : Map.of();
+    }
+
+    private Mono<ResolvedTitle> resolve(ImportEntry entry, Map<TitleKey, ResolvedTitle> mirrored) {
+        if (entry.tmdbId() != null) {
+            String mediaType = mediaTypeOrMovie(entry);
+            ResolvedTitle known = mirrored.get(new TitleKey(mediaType, entry.tmdbId().intValue()));
+            if (known != null) {
+                return Mono.just(known);
+            }
+            int id = entry.tmdbId().intValue();
+            Mono<MovieDetailsDto> details = "tv".equals(mediaType) ? catalogService.tvDetails(id) : catalogService.movieDetails(id);
+            return details
+                    .filter(dto -> labelOf(dto.title(), dto.name()) != null)
+                    .map(dto -> new ResolvedTitle(id, mediaType, labelOf(dto.title(), dto.name()), dto.poster_path()));
+        }
+        return Mono.justOrEmpty(fromTypeahead(entry)).switchIfEmpty(Mono.defer(() -> fromSearch(entry)));
+    }
+
+    /**
+     * Titles of the chunk's id rows that the mirror has, one query per media type.
+     */
+    private Map<TitleKey, ResolvedTitle> mirrored(List<ImportEntry> entries) {
+        Map<String, List<Long>> ids = entries.stream()
+                .filter(entry -> entry.tmdbId() != null)
+                .collect(Collectors.groupingBy(TitleResolver::mediaTypeOrMovie,
+                        Collectors.mapping(ImportEntry::tmdbId, Collectors.toList())));
+        Map<TitleKey, ResolvedTitle> found = new HashMap<>();
+        ids.forEach((mediaType, tmdbIds) -> {
+            List<? extends CatalogTitle> titles = "tv".equals(mediaType)
+                    ? tvShowRepository.findAllById(tmdbIds)
+                    : movieRepository.findAllById(tmdbIds);
+            for (CatalogTitle title : titles) {
+                found.put(new TitleKey(mediaType, title.getTmdbId().intValue()),
+                        new ResolvedTitle(title.getTmdbId(), mediaType, title.getTitle(), title.getPosterPath()));
+            }
+        });
+        return found;
+    }
+
+    private Optional<ResolvedTitle> fromTypeahead(ImportEntry entry) {
+        String wanted = TypeaheadIndex.normalize(entry.title());
+        return typeahead.suggest(entry.title(), SUGGESTIONS_CHECKED).stream()
+                .filter(suggestion -> !"person".equals(suggestion.media_type()))
+                .filter(suggestion -> entry.mediaType() == null || entry.mediaType().equals(suggestion.media_type()))
+                .filter(suggestion -> entry.year() == null || entry.year().equals(suggestion.year()))
+                .filter(suggestion -> wanted.equals(TypeaheadIndex.normalize(suggestion.label())))
+                .findFirst()
+                .map(TitleResolver::toResolved);
+    }
+
+    /**
+     * Searches TMDB and picks a result with the same normalized title, preferring one from the row's
+     * year, otherwise the first in TMDB's relevance order. A different title is never picked, even
+     * from the right year.
+     */
+    private Mono<ResolvedTitle> fromSearch(ImportEntry entry) {
+        Mono<PagedResponse<MovieDto>> search = switch (Objects.requireNonNullElse(entry.mediaType(), "")) {
+            case "movie" -> tmdb.searchMovies(entry.title(), 1);
+            case "tv" -> tmdb.searchTvShows(entry.title(), 1);
+            default -> tmdb.searchMulti(entry.title(), 1);
+        };
+        String wanted = TypeaheadIndex.normalize(entry.title());
+        return search.flatMap(page -> {
+            List<ResolvedCandidate> candidates = page.results() == null ? List.of() : page.results().stream()
+                    .map(result -> ResolvedCandidate.of(result, entry.mediaType()))
+                    .filter(Objects::nonNull)
+                    .toList();
+            Predicate<ResolvedCandidate> sameTitle = candidate -> wanted.equals(TypeaheadIndex.normalize(candidate.title().title()));
+            Predicate<ResolvedCandidate> sameYear = candidate -> entry.year() != null && entry.year().equals(candidate.year());
+            return Mono.justOrEmpty(candidates.stream().filter(sameTitle.and(sameYear)).findFirst()
+                    .or(() -> candidates.stream().filter(sameTitle).findFirst())
+                    .map(ResolvedCandidate::title));
+        });
+    }
+
+    private static String mediaTypeOrMovie(ImportEntry entry) {
+        // Exports keyed by TMDB id without a type are movie lists in practice
+        return entry.mediaType() != null ? entry.mediaType() : "movie";
+    }
+
+    private static ResolvedTitle toResolved(SuggestionDto suggestion) {
+        return new ResolvedTitle(suggestion.id(), suggestion.media_type(), suggestion.label(), suggestion.image_path());
+    }
+
+    private static String labelOf(String title, String name) {
+        return title != null && !title.isBlank() ? title : name;
+    }
+
+    /**
+     * A search result with its release year, for picking the best match.
+     */
+    private record ResolvedCandidate(ResolvedTitle title, String year) {
+
+        static ResolvedCandidate of(MovieDto result, String requestedType) {
+            String mediaType = result.media_type() != null ? result.media_type() : requestedType;
+            String label = labelOf(result.title(), result.name());
+            if (!("movie".equals(mediaType) || "tv".equals(mediaType)) || label == null) {
+                return null;
+            }
+            String date = result.release_date() != null && !result.release_date().isBlank()
+                    ? result.release_date() : result.first_air_date();
+            String year = date != null && date.length() >= 4 ? date.substring(0, 4) : null;
+            return new ResolvedCandidate(new ResolvedTitle(result.id(), mediaType, label, result.poster_path()), year);
+        }
+    }
+}
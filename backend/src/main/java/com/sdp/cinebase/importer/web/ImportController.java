@@ -0,0 +1,65 @@
+package com.sdp.cinebase.importer.web;
+
+import com.sdp.cinebase.importer.dto.ImportStatusResponse;
+import com.sdp.cinebase.importer.service.ImportService;
+import com.sdp.cinebase.security.UserPrincipal;
+import io.swagger.v3.oas.annotations.Operation;
+import io.swagger.v3.oas.annotations.responses.ApiResponse;
+import io.swagger.v3.oas.annotations.responses.ApiResponses;
+import io.swagger.v3.oas.annotations.security.SecurityRequirement;
+import io.swagger.v3.oas.annotations.tags.Tag;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
+import org.springframework.security.core.annotation.AuthenticationPrincipal;
+import org.springframework.web.bind.annotation.*;
+import org.springframework.web.multipart.MultipartFile;
+
+@RestController
+@RequestMapping("/api/imports")
+@Tag(name = "Imports", description = "Bulk import of watchlists, favorites and ratings from other services")
+@SecurityRequirement(name = "bearer-jwt")
+public class ImportController {
+
+    private final ImportService importService;
+
+    public ImportController(ImportService importService) {
+        this.importService = importService;
+    }
+
+    @Operation(summary = "Start an import",
+            description = "Uploads a CSV (with a header row) or a JSON array of objects and imports it into the given list "
+                    + "in the background. Recognized columns: tmdb_id, media_type (or type), title (or name), year, "
+                    + "rating and review. Rows without a TMDB id are matched by title and year. Titles already on "
+                    + "the list are skipped. Poll the returned import for progress.")
+    @ApiResponses(value = {
+            @ApiResponse(responseCode = "202", description = "Import started"),
+            @ApiResponse(responseCode = "400", description = "Invalid list, format, rating scale or empty file"),
+            @ApiResponse(responseCode = "401", description = "Not authenticated"),
+            @ApiResponse(responseCode = "409", description = "Another import of this user is still running")
+    })
+    @PostMapping(consumes = MediaType.MULTIPART_FORM_DATA_VALUE)
+    public ResponseEntity<ImportStatusResponse> startImport(
+            @AuthenticationPrincipal UserPrincipal principal,
+            @RequestParam String list,
+            @RequestParam(required = false) String format,
+            @RequestParam(name = "rating_scale", defaultValue = "10") int ratingScale,
+            @RequestParam MultipartFile file
+    ) {
+        ImportStatusResponse status = importService.start(Long.parseLong(principal.getId()), list, format, ratingScale, file);
+        return ResponseEntity.accepted().body(status);
+    }
+
+    @Operation(summary = "Import progress", description = "Counters and state of one of the user's imports")
+    @ApiResponses(value = {
+            @ApiResponse(responseCode = "200", description = "Import found"),
+            @ApiResponse(responseCode = "401", description = "Not authenticated"),
+            @ApiResponse(responseCode = "404", description = "No such import, or it finished too long ago")
+    })
+    @GetMapping("/{id}")
+    public ResponseEntity<ImportStatusResponse> getImport(
+            @AuthenticationPrincipal UserPrincipal principal,
+            @PathVariable String id
+    ) {
+        return ResponseEntity.ok(importService.status(Long.parseLong(principal.getId()), id));
+    }
+}
@@ -0,0 +1,20 @@
+package com.sdp.cinebase.review.dto;
+
+import java.util.List;
+
+/**
+ * Cinebase rating aggregates of one title.
+ *
+ * @param count number of reviews with a rating (text-only reviews are not counted)
+ * @param sum sum of those ratings
+ * @param average {@code sum / count}, or {@code null} if nobody rated the title yet
+ * @param histogram review counts per rating; index 0 holds rating 1, index 9 rating 10
+ */
+public record RatingStatsResponse(
+    Long tmdbId,
+    String mediaType,
+    long count,
+    long sum,
+    Double average,
+    List<Long> histogram
+) {}
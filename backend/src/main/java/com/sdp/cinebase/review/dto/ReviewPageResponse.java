@@ -0,0 +1,13 @@
+package com.sdp.cinebase.review.dto;
+
+import java.util.List;
+
+/**
+ * One page of reviews, newest first.
+ * <p>
+ * {@code next_cursor} is an opaque token for the following page, or {@code null} on the last page.
+ */
+public record ReviewPageResponse(
+        List<ReviewResponse> results,
+        String next_cursor
+) {}
@@ -0,0 +1,100 @@
+package com.sdp.cinebase.review.model;
+
+import jakarta.persistence.*;
+import java.io.Serial;
+import java.io.Serializable;
+import java.util.Objects;
+
+/**
+ * Number of reviews of a title with one particular rating.
+ * <p>
+ * The ten buckets of a title are its rating histogram; the rating count and sum are derived from
+ * them. Writers only ever add a delta to a single row, so concurrent reviews of the same title
+ * never overwrite each other's counts.
+ */
+@Entity
+@Table(name = "review_rating_buckets", indexes = {
+    // Hibernate orders the primary key columns by name (rating first), so reads by title need their own index
+    @Index(name = "idx_review_rating_buckets_title", columnList = "tmdb_id, media_type")
+})
+@IdClass(RatingBucket.Key.class)
+public class RatingBucket {
+
+    @Id
+    @Column(name = "tmdb_id", nullable = false)
+    private Long tmdbId;
+
+    @Id
+    @Column(name = "media_type", nullable = false, length = 20)
+    private String mediaType; // "movie" or "tv"
+
+    @Id
+    @Column(name = "rating", nullable = false)
+    private Integer rating; // 1-10
+
+    @Column(name = "review_count", nullable = false)
+    private long reviewCount;
+
+    // Constructors
+    public RatingBucket() {
+        // Default constructor for JPA
+    }
+
+    public RatingBucket(Long tmdbId, String mediaType, Integer rating, long reviewCount) {
+        this.tmdbId = tmdbId;
+        this.mediaType = mediaType;
+        this.rating = rating;
+        this.reviewCount = reviewCount;
+    }
+
+    // Getters
+    public Long getTmdbId() {
+        return tmdbId;
+    }
+
+    public String getMediaType() {
+        return mediaType;
+    }
+
+    public Integer getRating() {
+        return rating;
+    }
+
+    public long getReviewCount() {
+        return reviewCount;
+    }
+
+    public static class Key implements Serializable {
+
+        @Serial
+        private static final long serialVersionUID = 1L;
+
+        private Long tmdbId;
+        private String mediaType;
+        private Integer rating;
+
+        public Key() {
+        }
+
+        public Key(Long tmdbId, String mediaType, Integer rating) {
+            this.tmdbId = tmdbId;
+            this.mediaType = mediaType;
+            this.rating = rating;
+        }
+
+        @Override
+        public boolean equals(Object o) {
+            if (this == o) return true;
+            if (o == null || getClass() != o.getClass()) return false;
+            Key key = (Key) o;
+            return Objects.equals(tmdbId, key.tmdbId) &&
+                   Objects.equals(mediaType, key.mediaType) &&
+                   Objects.equals(rating, key.rating);
+        }
+
+        @Override
+        public int hashCode() {
+            return Objects.hash(tmdbId, mediaType, rating);
+        }
+    }
+}
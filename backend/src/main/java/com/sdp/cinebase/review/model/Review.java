@@ -12,6 +12,10 @@ import java.util.Objects;
 @Entity
 @Table(name = "reviews", uniqueConstraints = {
     @UniqueConstraint(columnNames = {"user_id", "tmdb_id", "media_type"})
+}, indexes = {
+    // Keyset pagination of review lists, newest first
+    @Index(name = "idx_reviews_media_created_at", columnList = "tmdb_id, media_type, created_at, id"),
+    @Index(name = "idx_reviews_user_created_at", columnList = "user_id, created_at, id")
 })
 @Check(constraints = "media_type IN ('movie', 'tv')")
 @Check(constraints = "rating IS NULL OR (rating >= 1 AND rating <= 10)")
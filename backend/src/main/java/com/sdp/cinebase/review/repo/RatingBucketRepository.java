@@ -0,0 +1,66 @@
+package com.sdp.cinebase.review.repo;
+
+import com.sdp.cinebase.review.model.RatingBucket;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+
+import java.util.List;
+
+@Repository
+public interface RatingBucketRepository extends JpaRepository<RatingBucket, RatingBucket.Key> {
+
+    /**
+     * Upsert of one bucket delta; shared with the JDBC batch path in {@code RatingSummaryService}.
+     */
+    String ADD_TO_BUCKET = """
+        INSERT INTO review_rating_buckets (tmdb_id, media_type, rating, review_count)
+        VALUES (:tmdbId, :mediaType, :rating, :delta)
+        ON CONFLICT (tmdb_id, media_type, rating)
+        DO UPDATE SET review_count = review_rating_buckets.review_count + EXCLUDED.review_count
+        """;
+
+    List<RatingBucket> findByTmdbIdAndMediaType(Long tmdbId, String mediaType);
+
+    /**
+     * Adds {@code delta} to one bucket, creating it if needed, in a single atomic statement.
+     */
+    @Modifying
+    @Query(value = ADD_TO_BUCKET, nativeQuery = true)
+    int addToBucket(@Param("tmdbId") Long tmdbId, @Param("mediaType") String mediaType,
+                    @Param("rating") int rating, @Param("delta") long delta);
+
+    /**
+     * Makes lock waits in the current transaction give up after {@code timeout} (a Postgres interval
+     * such as {@code "5s"}) instead of waiting indefinitely.
+     */
+    @Query(value = "SELECT set_config('lock_timeout', :timeout, true)", nativeQuery = true)
+    String setLocalLockTimeout(@Param("timeout") String timeout);
+
+    /**
+     * Blocks review writes until the current transaction ends, so a rebuild sees a stable table.
+     * <p>
+     * SHARE mode still lets reviews be read; only inserts, updates and deletes wait. While this
+     * lock request is itself queued behind a running review write, later writes queue behind it
+     * too, so callers should bound the wait with {@link #setLocalLockTimeout}.
+     */
+    @Modifying
+    @Query(value = "LOCK TABLE reviews IN SHARE MODE", nativeQuery = true)
+    void lockReviews();
+
+    @Modifying
+    @Query(value = "DELETE FROM review_rating_buckets", nativeQuery = true)
+    int deleteAllBuckets();
+
+    @Modifying
+    @Query(value = """
+        INSERT INTO review_rating_buckets (tmdb_id, media_type, rating, review_count)
+        SELECT tmdb_id, media_type, rating, COUNT(*)
+        FROM reviews
+        WHERE rating IS NOT NULL
+        GROUP BY tmdb_id, media_type, rating
+        """, nativeQuery = true)
+    int insertBucketsFromReviews();
+}
@@ -1,20 +1,80 @@
 package com.sdp.cinebase.review.repo;
 
+import com.sdp.cinebase.review.dto.ReviewResponse;
 import com.sdp.cinebase.review.model.Review;
+import org.springframework.data.domain.Limit;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
+import java.time.Instant;
 import java.util.List;
 import java.util.Optional;
 
 @Repository
 public interface ReviewRepository extends JpaRepository<Review, Long> {
 
-    List<Review> findByTmdbIdAndMediaTypeOrderByCreatedAtDesc(Long tmdbId, String mediaType);
+    // Review lists are read as ReviewResponse projections with the author's username joined in, newest
+    // first and keyset-paginated on (created_at, id); the "After" variants continue after a cursor.
+
+    @Query("""
+        SELECT new com.sdp.cinebase.review.dto.ReviewResponse(
+            r.id, u.id, u.username, r.tmdbId, r.mediaType, r.title, r.rating, r.reviewText, r.createdAt, r.updatedAt)
+        FROM Review r
+        JOIN r.user u
+        WHERE r.tmdbId = :tmdbId AND r.mediaType = :mediaType
+        ORDER BY r.createdAt DESC, r.id DESC
+        """)
+    List<ReviewResponse> findPageForMedia(
+            @Param("tmdbId") Long tmdbId, @Param("mediaType") String mediaType, Limit limit);
+
+    @Query("""
+        SELECT new com.sdp.cinebase.review.dto.ReviewResponse(
+            r.id, u.id, u.username, r.tmdbId, r.mediaType, r.title, r.rating, r.reviewText, r.createdAt, r.updatedAt)
+        FROM Review r
+        JOIN r.user u
+        WHERE r.tmdbId = :tmdbId AND r.mediaType = :mediaType
+        AND (r.createdAt, r.id) < (:createdAt, :id)
+        ORDER BY r.createdAt DESC, r.id DESC
+        """)
+    List<ReviewResponse> findPageForMediaAfter(
+            @Param("tmdbId") Long tmdbId, @Param("mediaType") String mediaType,
+            @Param("createdAt") Instant createdAt, @Param("id") Long id, Limit limit);
+
+    @Query("""
+        SELECT new com.sdp.cinebase.review.dto.ReviewResponse(
+            r.id, u.id, u.username, r.tmdbId, r.mediaType, r.title, r.rating, r.reviewText, r.createdAt, r.updatedAt)
+        FROM Review r
+        JOIN r.user u
+        WHERE u.id = :userId
+        ORDER BY r.createdAt DESC, r.id DESC
+        """)
+    List<ReviewResponse> findPageForUser(@Param("userId") Long userId, Limit limit);
+
+    @Query("""
+        SELECT new com.sdp.cinebase.review.dto.ReviewResponse(
+            r.id, u.id, u.username, r.tmdbId, r.mediaType, r.title, r.rating, r.reviewText, r.createdAt, r.updatedAt)
+        FROM Review r
+        JOIN r.user u
+        WHERE u.id = :userId
+        AND (r.createdAt, r.id) < (:createdAt, :id)
+        ORDER BY r.createdAt DESC, r.id DESC
+        """)
+    List<ReviewResponse> findPageForUserAfter(
+            @Param("userId") Long userId, @Param("createdAt") Instant createdAt, @Param("id") Long id, Limit limit);
+
+    @Query("""
+        SELECT new com.sdp.cinebase.review.dto.ReviewResponse(
+            r.id, u.id, u.username, r.tmdbId, r.mediaType, r.title, r.rating, r.reviewText, r.createdAt, r.updatedAt)
+        FROM Review r
+        JOIN r.user u
+        WHERE u.id = :userId AND r.tmdbId = :tmdbId AND r.mediaType = :mediaType
+        """)
+    Optional<ReviewResponse> findResponseByUserAndMedia(
+            @Param("userId") Long userId, @Param("tmdbId") Long tmdbId, @Param("mediaType") String mediaType);
 
     Optional<Review> findByUser_IdAndTmdbIdAndMediaType(Long userId, Long tmdbId, String mediaType);
 
     boolean existsByUser_IdAndTmdbIdAndMediaType(Long userId, Long tmdbId, String mediaType);
-
-    List<Review> findByUser_IdOrderByCreatedAtDesc(Long userId);
 }
@@ -0,0 +1,49 @@
+package com.sdp.cinebase.review.service;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.scheduling.annotation.Async;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+/**
+ * Recomputes the review rating aggregates from the reviews table.
+ * <p>
+ * Runs once at startup if the aggregates are empty (backfilling reviews written before they
+ * existed), and then on a schedule to repair any drift, e.g. from manual edits to the reviews table.
+ */
+@Component
+public class RatingSummaryRebuildJob {
+
+    private static final Logger log = LoggerFactory.getLogger(RatingSummaryRebuildJob.class);
+
+    private final RatingSummaryService ratingSummaryService;
+
+    public RatingSummaryRebuildJob(RatingSummaryService ratingSummaryService) {
+        this.ratingSummaryService = ratingSummaryService;
+    }
+
+    @Async
+    @EventListener(ApplicationReadyEvent.class)
+    public void backfillIfEmpty() {
+        try {
+            if (ratingSummaryService.isEmpty()) {
+                ratingSummaryService.rebuild();
+            }
+        } catch (Exception e) {
+            log.warn("Backfilling review rating aggregates failed: {}", e.getMessage());
+        }
+    }
+
+    @Scheduled(cron = "${reviews.stats.rebuild-cron:0 30 4 * * SUN}")
+    public void rebuild() {
+        try {
+            ratingSummaryService.rebuild();
+        } catch (Exception e) {
+            // The aggregates stay as they were; the next run tries again
+            log.warn("Rebuilding review rating aggregates failed: {}", e.getMessage());
+        }
+    }
+}
@@ -0,0 +1,175 @@
+package com.sdp.cinebase.review.service;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.sdp.cinebase.common.AfterCommit;
+import com.sdp.cinebase.review.dto.RatingStatsResponse;
+import com.sdp.cinebase.review.model.RatingBucket;
+import com.sdp.cinebase.review.repo.RatingBucketRepository;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.cache.CaffeineCacheMetrics;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.jdbc.core.namedparam.MapSqlParameterSource;
+import org.springframework.jdbc.core.namedparam.NamedParameterJdbcTemplate;
+import org.springframework.jdbc.core.namedparam.SqlParameterSource;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.time.Duration;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+
+/**
+ * Per-title rating count, sum and histogram, kept up to date as reviews change.
+ * <p>
+ * The aggregates live in {@code review_rating_buckets}, one row per title and rating. Review
+ * writes apply their rating change as bucket deltas inside the review's own transaction, so the
+ * aggregates commit or roll back together with the review. Reads are served from an in-memory hot
+ * tier and otherwise cost one indexed read of at most ten rows, however many reviews
+ * the title has. A title's hot entry is dropped when one of its reviews commits; the entry also
+ * expires after a while so instances that did not see the write catch up.
+ * <p>
+ * {@link #rebuild()} recomputes every bucket from the reviews table, for backfilling and for
+ * repairing drift.
+ */
+@Service
+public class RatingSummaryService {
+
+    private static final Logger log = LoggerFactory.getLogger(RatingSummaryService.class);
+
+    static final int MIN_RATING = 1;
+    static final int MAX_RATING = 10;
+
+    private final RatingBucketRepository bucketRepository;
+    private final NamedParameterJdbcTemplate jdbc;
+    private final Cache<String, RatingStatsResponse> hot;
+    private final String rebuildLockTimeout;
+
+    public RatingSummaryService(
+            RatingBucketRepository bucketRepository,
+            NamedParameterJdbcTemplate jdbc,
+            MeterRegistry meterRegistry,
+            @Value("${reviews.stats.hot.max-size:10000}") long hotMaxSize,
+            @Value("${reviews.stats.hot.ttl:10m}") Duration hotTtl,
+            @Value("${reviews.stats.rebuild-lock-timeout:5s}") Duration rebuildLockTimeout
+    ) {
+        this.bucketRepository = bucketRepository;
+        this.jdbc = jdbc;
+        this.rebuildLockTimeout = rebuildLockTimeout.toMillis() + "ms";
+        this.hot = Caffeine.newBuilder()
+                .maximumSize(hotMaxSize)
+                .expireAfterWrite(hotTtl)
+                .recordStats()
+                .build();
+        CaffeineCacheMetrics.monitor(meterRegistry, hot, "reviews.stats");
+    }
+
+    public RatingStatsResponse stats(Long tmdbId, String mediaType) {
+        return hot.get(key(tmdbId, mediaType), k -> load(tmdbId, mediaType));
+    }
+
+    /**
+     * Applies a review's rating change to the aggregates. Must run inside the transaction that
+     * writes the review; either rating may be {@code null} (no rating before or after).
+     */
+    @Transactional(propagation = Propagation.MANDATORY)
+    public void ratingChanged(Long tmdbId, String mediaType, Integer oldRating, Integer newRating) {
+        if (Objects.equals(oldRating, newRating)) {
+            return;
+        }
+        if (oldRating != null) {
+            bucketRepository.addToBucket(tmdbId, mediaType, oldRating, -1);
+        }
+        if (newRating != null) {
+            bucketRepository.addToBucket(tmdbId, mediaType, newRating, 1);
+        }
+        String key = key(tmdbId, mediaType);
+        AfterCommit.run(() -> hot.invalidate(key));
+    }
+
+    /**
+     * Adds many new ratings at once, e.g. from an import: one bucket upsert per distinct title and
+     * rating, sent as a single JDBC batch. Must run inside the transaction that inserts the reviews.
+     */
+    @Transactional(propagation = Propagation.MANDATORY)
+    public void ratingsAdded(Collection<TitleRating> ratings) {
+        Map<TitleRating, Long> counts = new HashMap<>();
+        for (TitleRating rating : ratings) {
+            counts.merge(rating, 1L, Long::sum);
+        }
+        if (counts.isEmpty()) {
+            return;
+        }
+        SqlParameterSource[] batch = counts.entrySet().stream()
+                .map(entry -> new MapSqlParameterSource()
+                        .addValue("tmdbId", entry.getKey().tmdbId())
+                        .addValue("mediaType", entry.getKey().mediaType())
+                        .addValue("rating", entry.getKey().rating())
+                        .addValue("delta", entry.getValue()))
+                .toArray(SqlParameterSource[]::new);
+        jdbc.batchUpdate(RatingBucketRepository.ADD_TO_BUCKET, batch);
+        List<String> keys = counts.keySet().stream().map(rating -> key(rating.tmdbId(), rating.mediaType())).distinct().toList();
+        AfterCommit.run(() -> hot.invalidateAll(keys));
+    }
+
+    /**
+     * Recomputes all aggregates from the reviews table. Review writes wait for the rebuild to
+     * finish, so no change is lost or counted twice.
+     * <p>
+     * The reviews table is locked in SHARE mode for the length of this transaction: reads go on,
+     * review writes block for the two statements below (a single pass over {@code reviews}). Taking
+     * the lock gives up after {@code reviews.stats.rebuild-lock-timeout} rather than holding up
+     * the writes queued behind it; the rebuild then fails and leaves the aggregates untouched.
+     *
+     * @return the number of buckets written
+     */
+    @Transactional
+    public int rebuild() {
+        bucketRepository.setLocalLockTimeout(rebuildLockTimeout);
+        bucketRepository.lockReviews();
+        bucketRepository.deleteAllBuckets();
+        int buckets = bucketRepository.insertBucketsFromReviews();
+        AfterCommit.run(hot::invalidateAll);
+        log.info("Rebuilt review rating aggregates ({} buckets)", buckets);
+        return buckets;
+    }
+
+    public boolean isEmpty() {
+        return bucketRepository.count() == 0;
+    }
+
+    private RatingStatsResponse load(Long tmdbId, String mediaType) {
+        long[] histogram = new long[MAX_RATING];
+        long count = 0;
+        long sum = 0;
+        for (RatingBucket bucket : bucketRepository.findByTmdbIdAndMediaType(tmdbId, mediaType)) {
+            int rating = bucket.getRating();
+            if (rating < MIN_RATING || rating > MAX_RATING) {
+                continue;
+            }
+            histogram[rating - 1] = bucket.getReviewCount();
+            count += bucket.getReviewCount();
+            sum += (long) rating * bucket.getReviewCount();
+        }
+        Double average = count > 0 ? (double) sum / count : null;
+        List<Long> buckets = Arrays.stream(histogram).boxed().toList();
+        return new RatingStatsResponse(tmdbId, mediaType, count, sum, average, buckets);
+    }
+
+    private static String key(Long tmdbId, String mediaType) {
+        return mediaType + ":" + tmdbId;
+    }
+
+    /**
+     * One review's rating, for {@link #ratingsAdded}.
+     */
+    public record TitleRating(Long tmdbId, String mediaType, int rating) {
+    }
+}
@@ -0,0 +1,39 @@
+package com.sdp.cinebase.review.service;
+
+import org.springframework.http.HttpStatus;
+import org.springframework.web.server.ResponseStatusException;
+
+import java.nio.charset.StandardCharsets;
+import java.time.DateTimeException;
+import java.time.Instant;
+import java.util.Base64;
+
+/**
+ * Opaque keyset cursor for review lists.
+ * <p>
+ * Holds the {@code (created_at, id)} of the last review on a page; the next page starts strictly
+ * after it in {@code created_at DESC, id DESC} order. Unlike an offset, it stays correct while
+ * reviews are added or removed, and the query seeks straight to it through the index.
+ */
+record ReviewCursor(Instant createdAt, long id) {
+
+    String encode() {
+        String raw = createdAt.getEpochSecond() + "." + createdAt.getNano() + "." + id;
+        return Base64.getUrlEncoder().withoutPadding().encodeToString(raw.getBytes(StandardCharsets.UTF_8));
+    }
+
+    static ReviewCursor decode(String cursor) {
+        try {
+            String raw = new String(Base64.getUrlDecoder().decode(cursor), StandardCharsets.UTF_8);
+            String[] parts = raw.split("\\.", -1);
+            if (parts.length != 3) {
+                throw new IllegalArgumentException("Expected three parts");
+            }
+            return new ReviewCursor(
+                    Instant.ofEpochSecond(Long.parseLong(parts[0]), Long.parseLong(parts[1])),
+                    Long.parseLong(parts[2]));
+        } catch (IllegalArgumentException | DateTimeException | ArithmeticException e) {
+            throw new ResponseStatusException(HttpStatus.BAD_REQUEST, "Invalid cursor");
+        }
+    }
+}
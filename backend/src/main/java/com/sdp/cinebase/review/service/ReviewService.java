@@ -1,14 +1,19 @@
 package com.sdp.cinebase.review.service;
 
 import com.sdp.cinebase.email.EmailService;
+import com.sdp.cinebase.title.service.TitleList;
+import com.sdp.cinebase.title.service.UserMembershipIndex;
 import com.sdp.cinebase.user.model.User;
 import com.sdp.cinebase.user.repo.UserRepository;
 import com.sdp.cinebase.review.dto.AddReviewRequest;
+import com.sdp.cinebase.review.dto.ReviewPageResponse;
 import com.sdp.cinebase.review.dto.ReviewResponse;
 import com.sdp.cinebase.review.model.Review;
 import com.sdp.cinebase.review.repo.ReviewRepository;
+import org.springframework.data.domain.Limit;
 import org.springframework.http.HttpStatus;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
 import org.springframework.web.server.ResponseStatusException;
 
 import java.util.List;
@@ -17,19 +22,28 @@ import java.util.Optional;
 @Service
 public class ReviewService {
 
+    public static final int DEFAULT_PAGE_SIZE = 20;
+    public static final int MAX_PAGE_SIZE = 100;
+
     private final ReviewRepository reviewRepository;
     private final UserRepository userRepository;
     private final EmailService emailService;
+    private final RatingSummaryService ratingSummaryService;
+    private final UserMembershipIndex membershipIndex;
 
-    public ReviewService(ReviewRepository reviewRepository, UserRepository userRepository, EmailService emailService) {
+    public ReviewService(ReviewRepository reviewRepository, UserRepository userRepository, EmailService emailService,
+                         RatingSummaryService ratingSummaryService, UserMembershipIndex membershipIndex) {
         this.reviewRepository = reviewRepository;
         this.userRepository = userRepository;
         this.emailService = emailService;
+        this.ratingSummaryService = ratingSummaryService;
+        this.membershipIndex = membershipIndex;
     }
 
+    @Transactional
     public ReviewResponse createReview(Long userId, AddReviewRequest request) {
         // Check if user already has a review for this item
-        if (reviewRepository.existsByUser_IdAndTmdbIdAndMediaType(userId, request.tmdbId(), request.mediaType())) {
+        if (membershipIndex.contains(userId, TitleList.REVIEWS, request.mediaType(), request.tmdbId())) {
             throw new ResponseStatusException(HttpStatus.CONFLICT, "Review already exists. Use update endpoint.");
         }
 
@@ -49,6 +63,8 @@ public class ReviewService {
         review.setReviewText(request.reviewText());
 
         Review saved = reviewRepository.save(review);
+        ratingSummaryService.ratingChanged(saved.getTmdbId(), saved.getMediaType(), null, saved.getRating());
+        membershipIndex.added(userId, TitleList.REVIEWS, saved.getMediaType(), saved.getTmdbId());
 
         // Send email confirmation asynchronously
         try {
@@ -68,6 +84,7 @@ public class ReviewService {
         return toResponse(saved);
     }
 
+    @Transactional
     public ReviewResponse updateReview(Long userId, Long tmdbId, String mediaType, AddReviewRequest request) {
         Review review = reviewRepository.findByUser_IdAndTmdbIdAndMediaType(userId, tmdbId, mediaType)
                 .orElseThrow(() -> new ResponseStatusException(HttpStatus.NOT_FOUND, "Review not found"));
@@ -75,38 +92,77 @@ public class ReviewService {
         // Validate request
         validateReviewRequest(request);
 
+        Integer oldRating = review.getRating();
         review.setRating(request.rating());
         review.setReviewText(request.reviewText());
         review.setTitle(request.title());
 
         Review updated = reviewRepository.save(review);
+        ratingSummaryService.ratingChanged(tmdbId, mediaType, oldRating, updated.getRating());
         return toResponse(updated);
     }
 
+    @Transactional
     public void deleteReview(Long userId, Long tmdbId, String mediaType) {
         Review review = reviewRepository.findByUser_IdAndTmdbIdAndMediaType(userId, tmdbId, mediaType)
                 .orElseThrow(() -> new ResponseStatusException(HttpStatus.NOT_FOUND, "Review not found"));
 
         reviewRepository.delete(review);
+        ratingSummaryService.ratingChanged(tmdbId, mediaType, review.getRating(), null);
+        membershipIndex.removed(userId, TitleList.REVIEWS, mediaType, tmdbId);
     }
 
-    public List<ReviewResponse> getReviewsForMedia(Long tmdbId, String mediaType) {
-        return reviewRepository.findByTmdbIdAndMediaTypeOrderByCreatedAtDesc(tmdbId, mediaType)
-                .stream()
-                .map(this::toResponse)
-                .toList();
+    /**
+     * One page of a title's reviews, newest first.
+     *
+     * @param cursor the {@code next_cursor} of the previous page, or {@code null} for the first page
+     * @param limit page size, clamped to 1..{@value #MAX_PAGE_SIZE}
+     */
+    public ReviewPageResponse getReviewsForMedia(Long tmdbId, String mediaType, String cursor, int limit) {
+        int size = pageSize(limit);
+        // One row more than the page tells whether another page follows
+        Limit fetch = Limit.of(size + 1);
+        List<ReviewResponse> rows;
+        if (cursor == null || cursor.isBlank()) {
+            rows = reviewRepository.findPageForMedia(tmdbId, mediaType, fetch);
+        } else {
+            ReviewCursor after = ReviewCursor.decode(cursor);
+            rows = reviewRepository.findPageForMediaAfter(tmdbId, mediaType, after.createdAt(), after.id(), fetch);
+        }
+        return page(rows, size);
     }
 
     public Optional<ReviewResponse> getUserReview(Long userId, Long tmdbId, String mediaType) {
-        return reviewRepository.findByUser_IdAndTmdbIdAndMediaType(userId, tmdbId, mediaType)
-                .map(this::toResponse);
+        return reviewRepository.findResponseByUserAndMedia(userId, tmdbId, mediaType);
+    }
+
+    /**
+     * One page of the user's own reviews, newest first; see {@link #getReviewsForMedia}.
+     */
+    public ReviewPageResponse getAllUserReviews(Long userId, String cursor, int limit) {
+        int size = pageSize(limit);
+        Limit fetch = Limit.of(size + 1);
+        List<ReviewResponse> rows;
+        if (cursor == null || cursor.isBlank()) {
+            rows = reviewRepository.findPageForUser(userId, fetch);
+        } else {
+            ReviewCursor after = ReviewCursor.decode(cursor);
+            rows = reviewRepository.findPageForUserAfter(userId, after.createdAt(), after.id(), fetch);
+        }
+        return page(rows, size);
     }
 
-    public List<ReviewResponse> getAllUserReviews(Long userId) {
-        return reviewRepository.findByUser_IdOrderByCreatedAtDesc(userId)
-                .stream()
-                .map(this::toResponse)
-                .toList();
+    private static int pageSize(int limit) {
+        return Math.max(1, Math.min(limit, MAX_PAGE_SIZE));
+    }
+
+    private static ReviewPageResponse page(List<ReviewResponse> rows, int size) {
+        if (rows.size() <= size) {
+            return new ReviewPageResponse(rows, null);
+        }
+        List<ReviewResponse> results = rows.subList(0, size);
+        ReviewResponse last = results.get(size - 1);
+        return new ReviewPageResponse(List.copyOf(results), new ReviewCursor(last.createdAt(), last.id()).encode());
     }
 
     private void validateReviewRequest(AddReviewRequest request) {
@@ -122,14 +178,10 @@ public class ReviewService {
     }
 
     private ReviewResponse toResponse(Review review) {
-        String username = userRepository.findById(review.getUserId())
-                .map(User::getUsername)
-                .orElse("Unknown User");
-
         return new ReviewResponse(
                 review.getId(),
                 review.getUserId(),
-                username,
+                review.getUser().getUsername(),
                 review.getTmdbId(),
                 review.getMediaType(),
                 review.getTitle(),
@@ -1,7 +1,10 @@
 package com.sdp.cinebase.review.web;
 
 import com.sdp.cinebase.review.dto.AddReviewRequest;
+import com.sdp.cinebase.review.dto.RatingStatsResponse;
+import com.sdp.cinebase.review.dto.ReviewPageResponse;
 import com.sdp.cinebase.review.dto.ReviewResponse;
+import com.sdp.cinebase.review.service.RatingSummaryService;
 import com.sdp.cinebase.review.service.ReviewService;
 import com.sdp.cinebase.security.UserPrincipal;
 import io.swagger.v3.oas.annotations.Operation;
@@ -13,8 +16,8 @@ import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
 import org.springframework.security.core.annotation.AuthenticationPrincipal;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.server.ResponseStatusException;
 
-import java.util.List;
 import java.util.Optional;
 
 @RestController
@@ -24,9 +27,11 @@ import java.util.Optional;
 public class ReviewController {
 
     private final ReviewService reviewService;
+    private final RatingSummaryService ratingSummaryService;
 
-    public ReviewController(ReviewService reviewService) {
+    public ReviewController(ReviewService reviewService, RatingSummaryService ratingSummaryService) {
         this.reviewService = reviewService;
+        this.ratingSummaryService = ratingSummaryService;
     }
 
     @Operation(summary = "Create a review", description = "Create a new review for a movie or TV show with rating and optional text")
@@ -77,19 +82,38 @@ public class ReviewController {
         return ResponseEntity.noContent().build();
     }
 
-    @Operation(summary = "Get all reviews for media", description = "Get all reviews for a specific movie or TV show")
+    @Operation(summary = "Get reviews for media", description = "Get one page of reviews for a specific movie or TV show, newest first. Pass the previous page's next_cursor to continue.")
     @ApiResponses(value = {
-            @ApiResponse(responseCode = "200", description = "Reviews retrieved successfully")
+            @ApiResponse(responseCode = "200", description = "Reviews retrieved successfully"),
+            @ApiResponse(responseCode = "400", description = "Invalid cursor")
     })
     @GetMapping("/{tmdbId}/{mediaType}")
-    public ResponseEntity<List<ReviewResponse>> getReviewsForMedia(
+    public ResponseEntity<ReviewPageResponse> getReviewsForMedia(
             @PathVariable Long tmdbId,
-            @PathVariable String mediaType
+            @PathVariable String mediaType,
+            @RequestParam(required = false) String cursor,
+            @RequestParam(defaultValue = "" + ReviewService.DEFAULT_PAGE_SIZE) int limit
     ) {
-        List<ReviewResponse> reviews = reviewService.getReviewsForMedia(tmdbId, mediaType);
+        ReviewPageResponse reviews = reviewService.getReviewsForMedia(tmdbId, mediaType, cursor, limit);
         return ResponseEntity.ok(reviews);
     }
 
+    @Operation(summary = "Get rating stats for media", description = "Cinebase rating count, average and 1-10 histogram for a specific movie or TV show")
+    @ApiResponses(value = {
+            @ApiResponse(responseCode = "200", description = "Stats retrieved successfully"),
+            @ApiResponse(responseCode = "400", description = "Media type is not movie or tv")
+    })
+    @GetMapping("/{tmdbId}/{mediaType}/stats")
+    public ResponseEntity<RatingStatsResponse> getRatingStats(
+            @PathVariable Long tmdbId,
+            @PathVariable String mediaType
+    ) {
+        if (!"movie".equals(mediaType) && !"tv".equals(mediaType)) {
+            throw new ResponseStatusException(HttpStatus.BAD_REQUEST, "Media type must be 'movie' or 'tv'");
+        }
+        return ResponseEntity.ok(ratingSummaryService.stats(tmdbId, mediaType));
+    }
+
     @Operation(summary = "Get user's review for media", description = "Get the authenticated user's review for a specific media item")
     @ApiResponses(value = {
             @ApiResponse(responseCode = "200", description = "Review retrieved successfully"),
@@ -107,16 +131,19 @@ public class ReviewController {
                 .orElse(ResponseEntity.notFound().build());
     }
 
-    @Operation(summary = "Get all user's reviews", description = "Get all reviews created by the authenticated user")
+    @Operation(summary = "Get user's reviews", description = "Get one page of reviews created by the authenticated user, newest first. Pass the previous page's next_cursor to continue.")
     @ApiResponses(value = {
             @ApiResponse(responseCode = "200", description = "Reviews retrieved successfully"),
+            @ApiResponse(responseCode = "400", description = "Invalid cursor"),
             @ApiResponse(responseCode = "401", description = "Not authenticated")
     })
     @GetMapping("/my")
-    public ResponseEntity<List<ReviewResponse>> getAllMyReviews(
-            @AuthenticationPrincipal UserPrincipal principal
+    public ResponseEntity<ReviewPageResponse> getAllMyReviews(
+            @AuthenticationPrincipal UserPrincipal principal,
+            @RequestParam(required = false) String cursor,
+            @RequestParam(defaultValue = "" + ReviewService.DEFAULT_PAGE_SIZE) int limit
     ) {
-        List<ReviewResponse> reviews = reviewService.getAllUserReviews(Long.parseLong(principal.getId()));
+        ReviewPageResponse reviews = reviewService.getAllUserReviews(Long.parseLong(principal.getId()), cursor, limit);
         return ResponseEntity.ok(reviews);
     }
 }
@@ -0,0 +1,20 @@
+package com.sdp.cinebase.search.dto;
+
+/**
+ * One full-text search result.
+ *
+ * @param media_type {@code movie} or {@code tv}
+ * @param year release or first-air year, {@code null} if unknown
+ * @param score BM25 relevance; only meaningful relative to other hits of the same query
+ */
+public record SearchHitDto(
+        int id,
+        String media_type,
+        String title,
+        String overview,
+        Integer year,
+        String poster_path,
+        double vote_average,
+        int[] genre_ids,
+        float score
+) {}
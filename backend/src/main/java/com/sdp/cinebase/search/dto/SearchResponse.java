@@ -0,0 +1,11 @@
+package com.sdp.cinebase.search.dto;
+
+import java.util.List;
+
+public record SearchResponse(
+        String query,
+        int page,
+        List<SearchHitDto> results,
+        int total_pages,
+        int total_results
+) {}
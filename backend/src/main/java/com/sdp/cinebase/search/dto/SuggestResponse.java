@@ -0,0 +1,8 @@
+package com.sdp.cinebase.search.dto;
+
+import java.util.List;
+
+public record SuggestResponse(
+        String query,
+        List<SuggestionDto> results
+) {}
@@ -0,0 +1,16 @@
+package com.sdp.cinebase.search.dto;
+
+/**
+ * One typeahead suggestion: enough to render a dropdown row and link to the detail page.
+ *
+ * @param media_type {@code movie}, {@code tv} or {@code person}
+ * @param year release or first-air year, {@code null} for people
+ * @param image_path TMDB poster path for titles, profile path for people
+ */
+public record SuggestionDto(
+        int id,
+        String media_type,
+        String label,
+        String year,
+        String image_path
+) {}
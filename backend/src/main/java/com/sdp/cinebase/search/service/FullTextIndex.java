@@ -0,0 +1,609 @@
+package com.sdp.cinebase.search.service;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.PriorityQueue;
+import java.util.concurrent.locks.ReadWriteLock;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+import java.util.function.UnaryOperator;
+
+/**
+ * In-memory inverted index over movies and TV shows with BM25 ranking and typo tolerance.
+ * <p>
+ * Title, cast names, genre names and overview are tokenized like the typeahead index and folded
+ * into one weighted term frequency per document (a simplified BM25F: a title hit counts more than an
+ * overview hit). Query tokens are OR-ed; a document's score is the sum of its BM25 term scores,
+ * scaled by the fraction of query tokens it matched.
+ * <p>
+ * A query token with no exact term in the vocabulary is expanded to the closest terms within one
+ * edit (tokens of 4-7 characters) or two edits (8+ characters). Candidates are found through a
+ * trigram index over the vocabulary, which rules out anything sharing too few trigrams to be within
+ * the edit budget, and then verified with an optimal-string-alignment distance. Fuzzy matches score
+ * less than exact ones.
+ * <p>
+ * Re-indexing a document tombstones its previous version. Once tombstones outnumber the live
+ * documents, a fresh segment is built from the live documents outside the lock, while searches and
+ * writes carry on against the current one; writes made meanwhile are replayed onto it before it is
+ * swapped in. Reads share a read lock; writes are exclusive. A query allocates in proportion to the
+ * documents it matches, not to the size of the index.
+ */
+public class FullTextIndex {
+
+    private static final float K1 = 1.2f;
+    private static final float B = 0.75f;
+
+    private static final float TITLE_WEIGHT = 3.0f;
+    private static final float CAST_WEIGHT = 1.5f;
+    private static final float GENRE_WEIGHT = 1.0f;
+    private static final float OVERVIEW_WEIGHT = 1.0f;
+
+    private static final int MAX_QUERY_TOKENS = 32;
+    private static final int MAX_EXPANSIONS = 16;
+    private static final int MIN_TOMBSTONES_FOR_COMPACTION = 1_000;
+
+    /**
+     * A searchable title. {@code cast} and {@code genres} may be empty until details were fetched.
+     */
+    public record Document(
+            String mediaType,
+            int id,
+            String title,
+            String overview,
+            Integer year,
+            String posterPath,
+            double voteAverage,
+            int voteCount,
+            int[] genreIds,
+            List<String> genres,
+            List<String> cast
+    ) {
+        /**
+         * Compares {@code genreIds} by content, so an unchanged payload can be recognized and skipped.
+         */
+        @Override
+        public boolean equals(Object other) {
+            return other instanceof Document that
+                    && id == that.id
+                    && voteCount == that.voteCount
+                    && Double.compare(voteAverage, that.voteAverage) == 0
+                    && Objects.equals(mediaType, that.mediaType)
+                    && Objects.equals(title, that.title)
+                    && Objects.equals(overview, that.overview)
+                    && Objects.equals(year, that.year)
+                    && Objects.equals(posterPath, that.posterPath)
+                    && Arrays.equals(genreIds, that.genreIds)
+                    && Objects.equals(genres, that.genres)
+                    && Objects.equals(cast, that.cast);
+        }
+
+        @Override
+        public int hashCode() {
+            return Objects.hash(mediaType, id, title, overview, year, posterPath, voteAverage, voteCount,
+                    Arrays.hashCode(genreIds), genres, cast);
+        }
+    }
+
+    /**
+     * Optional restrictions; {@code null} components match everything.
+     */
+    public record Filter(String mediaType, Integer yearFrom, Integer yearTo, Integer genreId) {
+
+        public static final Filter NONE = new Filter(null, null, null, null);
+
+        boolean accepts(Document document) {
+            if (mediaType != null && !mediaType.equals(document.mediaType())) {
+                return false;
+            }
+            if ((yearFrom != null || yearTo != null) && document.year() == null) {
+                return false;
+            }
+            if (yearFrom != null && document.year() < yearFrom) {
+                return false;
+            }
+            if (yearTo != null && document.year() > yearTo) {
+                return false;
+            }
+            if (genreId != null) {
+                for (int id : document.genreIds()) {
+                    if (id == genreId) {
+                        return true;
+                    }
+                }
+                return false;
+            }
+            return true;
+        }
+    }
+
+    public record Hit(Document document, float score) {}
+
+    /**
+     * One page of hits plus the total number of matching documents.
+     */
+    public record Results(List<Hit> hits, int total) {}
+
+    private final int maxDocuments;
+    private final ReadWriteLock lock = new ReentrantReadWriteLock();
+
+    // Guarded by lock
+    private Segment segment = new Segment();
+    /**
+     * Documents written while a compaction is building its segment, to replay onto it before the
+     * swap; {@code null} when no compaction is running.
+     */
+    private List<Document> writtenDuringCompaction;
+
+    public FullTextIndex(int maxDocuments) {
+        this.maxDocuments = maxDocuments;
+    }
+
+    /**
+     * Adds or replaces a document. Returns {@code false} if the index is full and the document is new.
+     */
+    public boolean put(Document document) {
+        return update(document.mediaType(), document.id(), existing -> document, true);
+    }
+
+    /**
+     * Replaces the document stored for the given title with {@code remapping}'s result for the current
+     * one ({@code null} if there is none), atomically with respect to other writers, so fields merged
+     * from the current document are not lost to a concurrent write. Nothing is written if the result
+     * is {@code null} or equal to the current document. Returns {@code false} if the index is full and
+     * the document is new.
+     */
+    public boolean compute(String mediaType, int id, UnaryOperator<Document> remapping) {
+        return update(mediaType, id, remapping, false);
+    }
+
+    private boolean update(String mediaType, int id, UnaryOperator<Document> remapping, boolean writeUnchanged) {
+        List<Document> toCompact = null;
+        lock.writeLock().lock();
+        try {
+            Document existing = segment.get(keyOf(mediaType, id));
+            Document document = remapping.apply(existing);
+            if (document == null || (!writeUnchanged && document.equals(existing))) {
+                return true;
+            }
+            if (!segment.contains(document) && segment.live >= maxDocuments) {
+                return false;
+            }
+            segment.put(document);
+            if (writtenDuringCompaction != null) {
+                writtenDuringCompaction.add(document);
+            } else if (segment.tombstones >= MIN_TOMBSTONES_FOR_COMPACTION && segment.tombstones > segment.live) {
+                toCompact = segment.liveDocuments();
+                writtenDuringCompaction = new ArrayList<>();
+            }
+        } finally {
+            lock.writeLock().unlock();
+        }
+        if (toCompact != null) {
+            compact(toCompact);
+        }
+        return true;
+    }
+
+    /**
+     * Returns the document stored for the given title, if any.
+     */
+    public Document get(String mediaType, int id) {
+        lock.readLock().lock();
+        try {
+            return segment.get(keyOf(mediaType, id));
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    /**
+     * Ranks the documents matching {@code query} and {@code filter} and returns hits
+     * {@code offset .. offset + limit}.
+     */
+    public Results search(String query, Filter filter, int offset, int limit) {
+        String[] queryTokens = new LinkedHashSet<>(Arrays.asList(TypeaheadIndex.tokenize(query))).stream()
+                .limit(MAX_QUERY_TOKENS)
+                .toArray(String[]::new);
+        if (queryTokens.length == 0 || limit <= 0) {
+            return new Results(List.of(), 0);
+        }
+
+        lock.readLock().lock();
+        try {
+            return segment.search(queryTokens, filter, offset, limit);
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    public int size() {
+        lock.readLock().lock();
+        try {
+            return segment.live;
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    /**
+     * Builds a segment from {@code documents} without holding the lock, then replays the writes made
+     * in the meantime and swaps it in. Runs on the writer that triggered it.
+     */
+    private void compact(List<Document> documents) {
+        Segment rebuilt = new Segment();
+        boolean built = false;
+        try {
+            for (Document document : documents) {
+                rebuilt.put(document);
+            }
+            built = true;
+        } finally {
+            lock.writeLock().lock();
+            try {
+                // If the rebuild failed, the current segment stays and a later write tries again
+                if (built) {
+                    for (Document document : writtenDuringCompaction) {
+                        rebuilt.put(document);
+                    }
+                    segment = rebuilt;
+                }
+                writtenDuringCompaction = null;
+            } finally {
+                lock.writeLock().unlock();
+            }
+        }
+    }
+
+    private record Expansion(int termId, float weight) {}
+
+    /**
+     * One generation of the index: documents, vocabulary and postings. Guarded by the outer lock once
+     * it is published; a segment being built by {@link #compact} is confined to the compacting thread.
+     */
+    private static final class Segment {
+
+        private final Map<Long, Integer> slots = new HashMap<>();
+        private final List<Document> documents = new ArrayList<>();
+        private final List<int[]> documentTerms = new ArrayList<>();
+        private float[] documentLengths = new float[1024];
+        private final Map<String, Integer> termIds = new HashMap<>();
+        private final List<String> terms = new ArrayList<>();
+        private final List<Postings> postings = new ArrayList<>();
+        private final Map<String, IntList> termsByTrigram = new HashMap<>();
+        private double totalLength;
+        private int live;
+        private int tombstones;
+
+        boolean contains(Document document) {
+            return slots.containsKey(keyOf(document.mediaType(), document.id()));
+        }
+
+        Document get(long key) {
+            Integer slot = slots.get(key);
+            return slot != null ? documents.get(slot) : null;
+        }
+
+        List<Document> liveDocuments() {
+            return documents.stream().filter(Objects::nonNull).toList();
+        }
+
+        void put(Document document) {
+            long key = keyOf(document.mediaType(), document.id());
+            Integer previous = slots.remove(key);
+            if (previous != null) {
+                remove(previous);
+            }
+            add(key, document);
+        }
+
+        Results search(String[] queryTokens, Filter filter, int offset, int limit) {
+            Accumulator accumulator = new Accumulator();
+            IntList touched = new IntList();
+            double averageLength = live > 0 ? totalLength / live : 1;
+
+            for (String token : queryTokens) {
+                // A document counts the best of the token's expansions, not their sum
+                for (Expansion expansion : expand(token)) {
+                    Postings list = postings.get(expansion.termId());
+                    double idf = Math.log(1 + (live - list.documentFrequency + 0.5) / (list.documentFrequency + 0.5));
+                    for (int i = 0; i < list.size; i++) {
+                        int doc = list.documents[i];
+                        if (documents.get(doc) == null) {
+                            continue;
+                        }
+                        float tf = list.frequencies[i];
+                        double norm = K1 * (1 - B + B * documentLengths[doc] / averageLength);
+                        float score = (float) (expansion.weight() * idf * tf * (K1 + 1) / (tf + norm));
+                        int at = accumulator.positionOf(doc);
+                        if (accumulator.tokenScores[at] == 0) {
+                            touched.add(at);
+                        }
+                        accumulator.tokenScores[at] = Math.max(accumulator.tokenScores[at], score);
+                    }
+                }
+                for (int i = 0; i < touched.size; i++) {
+                    int at = touched.values[i];
+                    accumulator.matchedTokens[at]++;
+                    accumulator.scores[at] += accumulator.tokenScores[at];
+                    accumulator.tokenScores[at] = 0;
+                }
+                touched.size = 0;
+            }
+
+            int wanted = offset + limit;
+            PriorityQueue<Hit> best = new PriorityQueue<>(wanted + 1, RANKING.reversed());
+            int total = 0;
+            for (int at = 0; at < accumulator.size; at++) {
+                Document document = documents.get(accumulator.documents[at]);
+                if (!filter.accepts(document)) {
+                    continue;
+                }
+                total++;
+                float coverage = (float) accumulator.matchedTokens[at] / queryTokens.length;
+                best.offer(new Hit(document, accumulator.scores[at] * coverage));
+                if (best.size() > wanted) {
+                    best.poll();
+                }
+            }
+
+            List<Hit> ranked = new ArrayList<>(best);
+            ranked.sort(RANKING);
+            List<Hit> page = offset < ranked.size() ? ranked.subList(offset, ranked.size()) : List.of();
+            return new Results(List.copyOf(page), total);
+        }
+
+        private void add(long key, Document document) {
+            Map<String, Float> frequencies = new HashMap<>();
+            addField(frequencies, document.title(), TITLE_WEIGHT);
+            document.cast().forEach(name -> addField(frequencies, name, CAST_WEIGHT));
+            document.genres().forEach(genre -> addField(frequencies, genre, GENRE_WEIGHT));
+            addField(frequencies, document.overview(), OVERVIEW_WEIGHT);
+
+            int doc = documents.size();
+            documents.add(document);
+            if (doc == documentLengths.length) {
+                documentLengths = Arrays.copyOf(documentLengths, documentLengths.length * 2);
+            }
+            float length = 0;
+            int[] docTerms = new int[frequencies.size()];
+            int n = 0;
+            for (Map.Entry<String, Float> entry : frequencies.entrySet()) {
+                int termId = termIdOf(entry.getKey());
+                postings.get(termId).add(doc, entry.getValue());
+                docTerms[n++] = termId;
+                length += entry.getValue();
+            }
+            documentTerms.add(docTerms);
+            documentLengths[doc] = length;
+            totalLength += length;
+            slots.put(key, doc);
+            live++;
+        }
+
+        private void remove(int doc) {
+            for (int termId : documentTerms.get(doc)) {
+                postings.get(termId).documentFrequency--;
+            }
+            documents.set(doc, null);
+            documentTerms.set(doc, null);
+            totalLength -= documentLengths[doc];
+            live--;
+            tombstones++;
+        }
+
+        private int termIdOf(String term) {
+            Integer existing = termIds.get(term);
+            if (existing != null) {
+                return existing;
+            }
+            int termId = terms.size();
+            terms.add(term);
+            postings.add(new Postings());
+            termIds.put(term, termId);
+            for (String gram : trigrams(term)) {
+                termsByTrigram.computeIfAbsent(gram, g -> new IntList()).add(termId);
+            }
+            return termId;
+        }
+
+        // =========================
+        // Fuzzy expansion
+        // =========================
+
+        private List<Expansion> expand(String token) {
+            Integer exact = termIds.get(token);
+            if (exact != null) {
+                return List.of(new Expansion(exact, 1f));
+            }
+            int maxEdits = token.length() >= 8 ? 2 : token.length() >= 4 ? 1 : 0;
+            if (maxEdits == 0) {
+                return List.of();
+            }
+
+            // Each edit destroys at most three trigrams, so closer terms must share at least this many
+            List<String> grams = trigrams(token);
+            int minShared = grams.size() - 3 * maxEdits;
+            Map<Integer, Integer> shared = new HashMap<>();
+            for (String gram : grams) {
+                IntList candidates = termsByTrigram.get(gram);
+                if (candidates != null) {
+                    for (int i = 0; i < candidates.size; i++) {
+                        shared.merge(candidates.values[i], 1, Integer::sum);
+                    }
+                }
+            }
+
+            List<int[]> close = new ArrayList<>();
+            for (Map.Entry<Integer, Integer> candidate : shared.entrySet()) {
+                String term = terms.get(candidate.getKey());
+                if (candidate.getValue() < minShared || Math.abs(term.length() - token.length()) > maxEdits
+                        || postings.get(candidate.getKey()).documentFrequency == 0) {
+                    continue;
+                }
+                int distance = distance(token, term, maxEdits);
+                if (distance <= maxEdits) {
+                    close.add(new int[] {candidate.getKey(), distance});
+                }
+            }
+            // Closest first, then the most common spelling
+            close.sort(Comparator.<int[]>comparingInt(c -> c[1])
+                    .thenComparing(c -> -postings.get(c[0]).documentFrequency));
+            return close.stream()
+                    .limit(MAX_EXPANSIONS)
+                    .map(c -> new Expansion(c[0], 1f / (1 + c[1])))
+                    .toList();
+        }
+    }
+
+    private static void addField(Map<String, Float> frequencies, String text, float weight) {
+        for (String token : TypeaheadIndex.tokenize(text)) {
+            frequencies.merge(token, weight, Float::sum);
+        }
+    }
+
+    private static List<String> trigrams(String term) {
+        String padded = "$" + term + "$";
+        List<String> grams = new ArrayList<>(padded.length() - 2);
+        for (int i = 0; i + 3 <= padded.length(); i++) {
+            grams.add(padded.substring(i, i + 3));
+        }
+        return grams;
+    }
+
+    /**
+     * Optimal string alignment distance (Levenshtein plus adjacent transpositions), giving up with
+     * {@code max + 1} as soon as every alignment exceeds {@code max}.
+     */
+    static int distance(String a, String b, int max) {
+        int[] previous2 = new int[b.length() + 1];
+        int[] previous = new int[b.length() + 1];
+        int[] current = new int[b.length() + 1];
+        for (int j = 0; j <= b.length(); j++) {
+            previous[j] = j;
+        }
+        for (int i = 1; i <= a.length(); i++) {
+            current[0] = i;
+            int rowMin = current[0];
+            for (int j = 1; j <= b.length(); j++) {
+                int cost = a.charAt(i - 1) == b.charAt(j - 1) ? 0 : 1;
+                int value = Math.min(Math.min(previous[j] + 1, current[j - 1] + 1), previous[j - 1] + cost);
+                if (i > 1 && j > 1 && a.charAt(i - 1) == b.charAt(j - 2) && a.charAt(i - 2) == b.charAt(j - 1)) {
+                    value = Math.min(value, previous2[j - 2] + 1);
+                }
+                current[j] = value;
+                rowMin = Math.min(rowMin, value);
+            }
+            if (rowMin > max) {
+                return max + 1;
+            }
+            int[] recycled = previous2;
+            previous2 = previous;
+            previous = current;
+            current = recycled;
+        }
+        return previous[b.length()];
+    }
+
+    private static long keyOf(String mediaType, int id) {
+        return ((long) ("tv".equals(mediaType) ? 2 : 1) << 32) | (id & 0xffffffffL);
+    }
+
+    /**
+     * Higher score first; ties go to the more voted title.
+     */
+    private static final Comparator<Hit> RANKING = Comparator
+            .comparingDouble((Hit hit) -> hit.score()).reversed()
+            .thenComparing(Comparator.comparingInt((Hit hit) -> hit.document().voteCount()).reversed());
+
+    private static final class Postings {
+        int[] documents = new int[4];
+        float[] frequencies = new float[4];
+        int size;
+        int documentFrequency;
+
+        void add(int doc, float frequency) {
+            if (size == documents.length) {
+                documents = Arrays.copyOf(documents, size * 2);
+                frequencies = Arrays.copyOf(frequencies, size * 2);
+            }
+            documents[size] = doc;
+            frequencies[size] = frequency;
+            size++;
+            documentFrequency++;
+        }
+    }
+
+    /**
+     * Per-query scores of the documents a query touched, in dense arrays addressed through an
+     * open-addressing table from document slot to position.
+     */
+    private static final class Accumulator {
+        private int[] table = new int[64];
+        int[] documents = new int[32];
+        float[] scores = new float[32];
+        float[] tokenScores = new float[32];
+        int[] matchedTokens = new int[32];
+        int size;
+
+        /**
+         * Position of {@code doc} in the dense arrays, adding it if it was not touched yet.
+         */
+        int positionOf(int doc) {
+            int mask = table.length - 1;
+            int i = mix(doc) & mask;
+            while (table[i] != 0) {
+                int at = table[i] - 1;
+                if (documents[at] == doc) {
+                    return at;
+                }
+                i = (i + 1) & mask;
+            }
+            int at = size++;
+            if (at == documents.length) {
+                documents = Arrays.copyOf(documents, at * 2);
+                scores = Arrays.copyOf(scores, at * 2);
+                tokenScores = Arrays.copyOf(tokenScores, at * 2);
+                matchedTokens = Arrays.copyOf(matchedTokens, at * 2);
+            }
+            documents[at] = doc;
+            table[i] = at + 1;
+            if (size * 2 > table.length) {
+                rehash();
+            }
+            return at;
+        }
+
+        private void rehash() {
+            table = new int[table.length * 2];
+            int mask = table.length - 1;
+            for (int at = 0; at < size; at++) {
+                int i = mix(documents[at]) & mask;
+                while (table[i] != 0) {
+                    i = (i + 1) & mask;
+                }
+                table[i] = at + 1;
+            }
+        }
+
+        private static int mix(int doc) {
+            return doc * 0x9E3779B9;
+        }
+    }
+
+    private static final class IntList {
+        int[] values = new int[8];
+        int size;
+
+        void add(int value) {
+            if (size == values.length) {
+                values = Arrays.copyOf(values, size * 2);
+            }
+            values[size++] = value;
+        }
+    }
+}
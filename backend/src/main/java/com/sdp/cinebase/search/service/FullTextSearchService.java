@@ -0,0 +1,220 @@
+package com.sdp.cinebase.search.service;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.sdp.cinebase.catalog.model.CatalogTitle;
+import com.sdp.cinebase.catalog.repo.CatalogGenreRepository;
+import com.sdp.cinebase.catalog.repo.CatalogMovieRepository;
+import com.sdp.cinebase.catalog.repo.CatalogTvShowRepository;
+import com.sdp.cinebase.search.dto.SearchHitDto;
+import com.sdp.cinebase.search.dto.SearchResponse;
+import com.sdp.cinebase.tmdb.dto.MovieDetailsDto;
+import com.sdp.cinebase.tmdb.dto.MovieDto;
+import com.sdp.cinebase.tmdb.dto.PagedResponse;
+import com.sdp.cinebase.tmdb.service.TmdbPayloadFetchedEvent;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.scheduling.annotation.Async;
+import org.springframework.stereotype.Service;
+
+import java.util.Arrays;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.function.Consumer;
+import java.util.function.Function;
+
+/**
+ * Full-text search over the titles we have seen, answered from memory.
+ * <p>
+ * Like {@link TypeaheadService}, the index is seeded from the catalog mirror at startup and kept
+ * current from fetched TMDB payloads: list items contribute title, overview and genres, details
+ * add the cast. Search therefore covers what the catalog covers, with typo tolerance and filters
+ * (media type, year range, genre) that TMDB's {@code /search/multi} does not offer. Payloads that
+ * repeat what is already indexed, as most popular-list fetches do, leave the index untouched.
+ */
+@Service
+public class FullTextSearchService {
+
+    private static final Logger log = LoggerFactory.getLogger(FullTextSearchService.class);
+
+    private static final int MAX_CAST_INDEXED = 10;
+    private static final int SEED_PAGE_SIZE = 1_000;
+
+    private final FullTextIndex index;
+    private final CatalogMovieRepository movieRepository;
+    private final CatalogTvShowRepository tvShowRepository;
+    private final CatalogGenreRepository genreRepository;
+    private final ObjectMapper objectMapper;
+    private final Map<Integer, String> genreNames = new ConcurrentHashMap<>();
+    private final Timer searchTimer;
+
+    public FullTextSearchService(
+            CatalogMovieRepository movieRepository,
+            CatalogTvShowRepository tvShowRepository,
+            CatalogGenreRepository genreRepository,
+            ObjectMapper objectMapper,
+            MeterRegistry meterRegistry,
+            @Value("${search.fulltext.max-documents:200000}") int maxDocuments
+    ) {
+        this.index = new FullTextIndex(maxDocuments);
+        this.movieRepository = movieRepository;
+        this.tvShowRepository = tvShowRepository;
+        this.genreRepository = genreRepository;
+        this.objectMapper = objectMapper;
+        this.searchTimer = Timer.builder("search.query")
+                .description("Time to answer a full-text search from the in-memory index")
+                .register(meterRegistry);
+        Gauge.builder("search.fulltext.documents", index, FullTextIndex::size)
+                .description("Titles in the full-text search index")
+                .register(meterRegistry);
+    }
+
+    /**
+     * Searches the index; {@code page} is 1-based.
+     */
+    public SearchResponse search(String query, FullTextIndex.Filter filter, int page, int pageSize) {
+        FullTextIndex.Results results = searchTimer.record(
+                () -> index.search(query, filter, (page - 1) * pageSize, pageSize));
+        List<SearchHitDto> hits = results.hits().stream()
+                .map(hit -> {
+                    FullTextIndex.Document d = hit.document();
+                    return new SearchHitDto(d.id(), d.mediaType(), d.title(), d.overview(), d.year(), d.posterPath(),
+                            d.voteAverage(), d.genreIds(), hit.score());
+                })
+                .toList();
+        int totalPages = (results.total() + pageSize - 1) / pageSize;
+        return new SearchResponse(query, page, hits, totalPages, results.total());
+    }
+
+    @Async
+    @EventListener(ApplicationReadyEvent.class)
+    public void seedFromCatalog() {
+        try {
+            genreRepository.findAll().forEach(genre -> genreNames.put(genre.getTmdbId().intValue(), genre.getName()));
+            int titles = seed(page -> movieRepository.findAll(page), movie -> putTitle("movie", movie))
+                    + seed(page -> tvShowRepository.findAll(page), show -> putTitle("tv", show));
+            log.info("Full-text index seeded from catalog ({} titles)", titles);
+        } catch (Exception e) {
+            // The index still fills up from live traffic
+            log.warn("Failed to seed full-text index from catalog: {}", e.getMessage());
+        }
+    }
+
+    @Async
+    @EventListener
+    public void onPayloadFetched(TmdbPayloadFetchedEvent event) {
+        Object payload = event.payload();
+        if (payload instanceof PagedResponse<?> page) {
+            String impliedType = event.impliedMediaType();
+            for (Object item : page.results() != null ? page.results() : List.of()) {
+                if (item instanceof MovieDto dto) {
+                    String mediaType = impliedType != null ? impliedType : dto.media_type();
+                    if ("movie".equals(mediaType) || "tv".equals(mediaType)) {
+                        putListItem(mediaType, dto);
+                    }
+                }
+            }
+        } else if (payload instanceof MovieDetailsDto details && !event.key().contains("/season/")) {
+            putIfChanged(documentOf(event.key().startsWith("/tv/") ? "tv" : "movie", details));
+        }
+    }
+
+    private void putListItem(String mediaType, MovieDto dto) {
+        int[] genreIds = dto.genre_ids() != null ? dto.genre_ids() : new int[0];
+        String date = dto.release_date() != null ? dto.release_date() : dto.first_air_date();
+        List<String> genres = namesOf(genreIds);
+        // Keep the cast from an earlier details payload, even one indexed concurrently; list items never carry it
+        index.compute(mediaType, dto.id(), existing -> new FullTextIndex.Document(mediaType, dto.id(),
+                labelOf(dto.title(), dto.name()), dto.overview(), yearOf(date), dto.poster_path(), dto.vote_average(),
+                dto.vote_count(), genreIds, genres, existing != null ? existing.cast() : List.of()));
+    }
+
+    private void putTitle(String mediaType, CatalogTitle title) {
+        if (title.getDetailsPayload() != null) {
+            try {
+                putIfChanged(documentOf(mediaType, objectMapper.readValue(title.getDetailsPayload(), MovieDetailsDto.class)));
+                return;
+            } catch (Exception e) {
+                log.debug("Unreadable details payload for {} {}, indexing summary only", mediaType, title.getTmdbId());
+            }
+        }
+        int[] genreIds = title.getGenreIds() == null || title.getGenreIds().isBlank() ? new int[0]
+                : Arrays.stream(title.getGenreIds().split(",")).map(String::trim).mapToInt(Integer::parseInt).toArray();
+        putIfChanged(new FullTextIndex.Document(mediaType, title.getTmdbId().intValue(), title.getTitle(), title.getOverview(),
+                yearOf(title.getReleaseDate()), title.getPosterPath(),
+                title.getVoteAverage() != null ? title.getVoteAverage() : 0,
+                title.getVoteCount() != null ? title.getVoteCount() : 0,
+                genreIds, namesOf(genreIds), List.of()));
+    }
+
+    /**
+     * Skips the write (and the tombstone it would leave) when the index already holds this exact document.
+     */
+    private void putIfChanged(FullTextIndex.Document document) {
+        index.compute(document.mediaType(), document.id(), existing -> document);
+    }
+
+    /**
+     * Feeds every row of a catalog table to {@code put}, one page at a time.
+     *
+     * @return the number of rows seen
+     */
+    private static <E> int seed(Function<PageRequest, Page<E>> findPage, Consumer<E> put) {
+        int count = 0;
+        Page<E> page;
+        int number = 0;
+        do {
+            page = findPage.apply(PageRequest.of(number++, SEED_PAGE_SIZE));
+            page.forEach(put);
+            count += page.getNumberOfElements();
+        } while (page.hasNext());
+        return count;
+    }
+
+    private FullTextIndex.Document documentOf(String mediaType, MovieDetailsDto details) {
+        List<MovieDetailsDto.Genre> genres = details.genres() != null ? details.genres() : List.of();
+        genres.forEach(genre -> genreNames.put(genre.id(), genre.name()));
+        List<String> cast = details.credits() == null || details.credits().cast() == null ? List.of()
+                : details.credits().cast().stream()
+                .limit(MAX_CAST_INDEXED)
+                .map(MovieDetailsDto.Cast::name)
+                .filter(Objects::nonNull)
+                .toList();
+        String date = "tv".equals(mediaType) ? details.first_air_date() : details.release_date();
+        return new FullTextIndex.Document(mediaType, details.id(), labelOf(details.title(), details.name()),
+                details.overview(), yearOf(date), details.poster_path(),
+                details.vote_average() != null ? details.vote_average() : 0,
+                details.vote_count() != null ? details.vote_count() : 0,
+                genres.stream().mapToInt(MovieDetailsDto.Genre::id).toArray(),
+                genres.stream().map(MovieDetailsDto.Genre::name).filter(Objects::nonNull).toList(),
+                cast);
+    }
+
+    private List<String> namesOf(int[] genreIds) {
+        return Arrays.stream(genreIds).mapToObj(genreNames::get).filter(Objects::nonNull).toList();
+    }
+
+    private static Integer yearOf(String date) {
+        if (date == null || date.length() < 4) {
+            return null;
+        }
+        try {
+            return Integer.parseInt(date.substring(0, 4));
+        } catch (NumberFormatException e) {
+            return null;
+        }
+    }
+
+    private static String labelOf(String title, String name) {
+        return title != null ? title : name;
+    }
+}
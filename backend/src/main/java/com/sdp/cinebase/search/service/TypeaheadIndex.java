@@ -0,0 +1,374 @@
+package com.sdp.cinebase.search.service;
+
+import com.sdp.cinebase.search.dto.SuggestionDto;
+
+import java.text.Normalizer;
+import java.util.*;
+import java.util.concurrent.ConcurrentNavigableMap;
+import java.util.concurrent.ConcurrentSkipListMap;
+import java.util.regex.Pattern;
+
+/**
+ * In-memory prefix index over titles and person names.
+ * <p>
+ * Labels are normalized (lower case, accents stripped) and split into tokens. Each token maps to a
+ * primitive posting array of entry slots, kept in ranking order so the best entries of a token come
+ * first; an entry whose score changes is moved within its arrays. A lookup takes the last query
+ * token as a prefix and requires the earlier query tokens to prefix some token of the label.
+ * Candidates come from the shortest posting array of the earlier (complete) words, or for a single
+ * word from a bounded scan of matching tokens in the term map. Posting arrays are copied on write, so
+ * lookups never lock and always see a consistent array. Loading many entries at once goes through
+ * {@link #bulk(Runnable)}, which merges each array once instead of copying it per entry.
+ * <p>
+ * Not thread-safe for concurrent writers on its own; {@link TypeaheadService} serializes writes.
+ */
+public class TypeaheadIndex {
+
+    private static final Pattern DIACRITICS = Pattern.compile("\\p{M}+");
+    private static final Pattern NON_ALPHANUMERIC = Pattern.compile("[^\\p{L}\\p{N}]+");
+
+    /**
+     * Matching tokens and postings looked at per query, which bounds the cost of one-letter prefixes.
+     */
+    private static final int MAX_TERMS_SCANNED = 256;
+    private static final int MAX_POSTINGS_PER_TERM = 64;
+    private static final int MAX_CANDIDATES_PER_WORD = 4096;
+
+    private static final int[] NO_POSTINGS = new int[0];
+
+    private final int maxEntries;
+    private final ConcurrentSkipListMap<String, int[]> postings = new ConcurrentSkipListMap<>();
+    private final Map<Long, Integer> slots = new HashMap<>();
+    private volatile Entry[] entries = new Entry[1024];
+    private volatile int size;
+    /**
+     * Slots added per token during {@link #bulk(Runnable)}, not yet merged into {@link #postings}.
+     */
+    private Map<String, SlotBuffer> pending;
+
+    public TypeaheadIndex(int maxEntries) {
+        this.maxEntries = maxEntries;
+    }
+
+    /**
+     * Adds or updates an entry. Returns {@code false} if the index is full and the entry is new.
+     *
+     * @param mediaType {@code movie}, {@code tv} or {@code person}
+     * @param score ranking weight; higher scores are suggested first
+     */
+    public boolean put(String mediaType, int id, String label, String year, String imagePath, double score) {
+        if (label == null || label.isBlank()) {
+            return false;
+        }
+        long key = ((long) kindOf(mediaType) << 32) | (id & 0xffffffffL);
+        String[] tokens = tokenize(label);
+        Entry entry = new Entry(mediaType, id, label, year, imagePath, (float) score, tokens);
+
+        Integer slot = slots.get(key);
+        if (slot != null) {
+            if (pending != null) {
+                // The slot may still be waiting in the buffers; rare enough to just merge them first
+                flushPending();
+            }
+            update(slot, entries[slot], entry);
+            return true;
+        }
+
+        if (size >= maxEntries) {
+            return false;
+        }
+        slot = size;
+        if (slot == entries.length) {
+            entries = Arrays.copyOf(entries, entries.length * 2);
+        }
+        entries[slot] = entry;
+        slots.put(key, slot);
+        size = slot + 1;
+        for (String token : new LinkedHashSet<>(Arrays.asList(tokens))) {
+            addPosting(token, slot);
+        }
+        return true;
+    }
+
+    /**
+     * Runs {@code puts} with posting updates batched. New slots are buffered per token and merged
+     * into the posting arrays once when {@code puts} returns, so a seed does not copy the array of a
+     * common token for every entry. Entries added inside the batch become suggestible at its end.
+     */
+    public void bulk(Runnable puts) {
+        if (pending != null) {
+            puts.run();
+            return;
+        }
+        pending = new HashMap<>();
+        try {
+            puts.run();
+        } finally {
+            flushPending();
+            pending = null;
+        }
+    }
+
+    /**
+     * Returns up to {@code limit} suggestions for what the user has typed so far.
+     */
+    public List<SuggestionDto> suggest(String query, int limit) {
+        String[] queryTokens = tokenize(query);
+        if (queryTokens.length == 0 || limit <= 0) {
+            return List.of();
+        }
+        String prefix = queryTokens[queryTokens.length - 1];
+        String[] required = Arrays.copyOf(queryTokens, queryTokens.length - 1);
+
+        // Read size before entries: every slot below a published size is present in the array read after it
+        int known = size;
+        Entry[] snapshot = entries;
+
+        PriorityQueue<Entry> best = new PriorityQueue<>(limit + 1, RANKING.reversed());
+        int[] driver = mostSelective(required);
+        if (driver != null) {
+            // Earlier tokens are complete words, so walking the smallest of their posting lists is far
+            // cheaper than expanding a short prefix and throwing most of it away
+            collect(driver, MAX_CANDIDATES_PER_WORD, known, snapshot, prefix, required, limit, best);
+        } else {
+            ConcurrentNavigableMap<String, int[]> matching = postings.subMap(prefix, true, prefix + Character.MAX_VALUE, true);
+            int terms = 0;
+            for (int[] slotsForTerm : matching.values()) {
+                if (terms++ >= MAX_TERMS_SCANNED) {
+                    break;
+                }
+                collect(slotsForTerm, MAX_POSTINGS_PER_TERM, known, snapshot, prefix, required, limit, best);
+            }
+        }
+
+        List<Entry> ranked = new ArrayList<>(best);
+        ranked.sort(RANKING);
+        return ranked.stream()
+                .map(entry -> new SuggestionDto(entry.id(), entry.mediaType(), entry.label(), entry.year(), entry.imagePath()))
+                .toList();
+    }
+
+    /**
+     * Offers the entries of one posting array to {@code best}, best-scored first. Stops once the
+     * array can no longer improve the result or {@code limit} of its entries were taken.
+     */
+    private static void collect(int[] slotsForTerm, int maxScanned, int known, Entry[] snapshot, String prefix,
+                                String[] required, int limit, PriorityQueue<Entry> best) {
+        int accepted = 0;
+        for (int i = 0; i < slotsForTerm.length && i < maxScanned && accepted < limit; i++) {
+            int slot = slotsForTerm[i];
+            if (slot >= known) {
+                continue;
+            }
+            Entry entry = snapshot[slot];
+            if (best.size() == limit && RANKING.compare(entry, best.peek()) >= 0) {
+                // Postings are in ranking order, so nothing further down this array can make the cut
+                break;
+            }
+            if (!entry.hasTokenStartingWith(prefix) || !entry.matchesAll(required) || best.contains(entry)) {
+                continue;
+            }
+            accepted++;
+            best.offer(entry);
+            if (best.size() > limit) {
+                best.poll();
+            }
+        }
+    }
+
+    /**
+     * The shortest exact posting array among the earlier query tokens, or {@code null} if any of them
+     * is not a known word (e.g. still being corrected), in which case the prefix scan is used.
+     */
+    private int[] mostSelective(String[] required) {
+        int[] shortest = null;
+        for (String token : required) {
+            int[] slotsForToken = postings.get(token);
+            if (slotsForToken == null) {
+                return null;
+            }
+            if (shortest == null || slotsForToken.length < shortest.length) {
+                shortest = slotsForToken;
+            }
+        }
+        return shortest;
+    }
+
+    public int size() {
+        return size;
+    }
+
+    /**
+     * Replaces the entry in {@code slot}: drops the slot from tokens the label no longer has, adds it
+     * to new ones, and moves it within the remaining arrays if its rank changed.
+     */
+    private void update(int slot, Entry previous, Entry entry) {
+        entries[slot] = entry;
+        Set<String> oldTokens = new LinkedHashSet<>(Arrays.asList(previous.tokens()));
+        Set<String> newTokens = new LinkedHashSet<>(Arrays.asList(entry.tokens()));
+        boolean reranked = RANKING.compare(previous, entry) != 0;
+        for (String token : oldTokens) {
+            if (!newTokens.contains(token)) {
+                removePosting(token, slot);
+            } else if (reranked) {
+                removePosting(token, slot);
+                addPosting(token, slot);
+            }
+        }
+        for (String token : newTokens) {
+            if (!oldTokens.contains(token)) {
+                addPosting(token, slot);
+            }
+        }
+    }
+
+    private void addPosting(String token, int slot) {
+        if (pending != null) {
+            pending.computeIfAbsent(token, t -> new SlotBuffer()).add(slot);
+            return;
+        }
+        int[] current = postings.getOrDefault(token, NO_POSTINGS);
+        Entry entry = entries[slot];
+
+        // Insert keeping the array in ranking order, after entries that rank equal
+        int at = current.length;
+        while (at > 0 && RANKING.compare(entries[current[at - 1]], entry) > 0) {
+            at--;
+        }
+        int[] updated = new int[current.length + 1];
+        System.arraycopy(current, 0, updated, 0, at);
+        updated[at] = slot;
+        System.arraycopy(current, at, updated, at + 1, current.length - at);
+        postings.put(token, updated);
+    }
+
+    private void removePosting(String token, int slot) {
+        int[] current = postings.get(token);
+        if (current == null) {
+            return;
+        }
+        int at = 0;
+        while (at < current.length && current[at] != slot) {
+            at++;
+        }
+        if (at == current.length) {
+            return;
+        }
+        if (current.length == 1) {
+            postings.remove(token);
+            return;
+        }
+        int[] updated = new int[current.length - 1];
+        System.arraycopy(current, 0, updated, 0, at);
+        System.arraycopy(current, at + 1, updated, at, current.length - at - 1);
+        postings.put(token, updated);
+    }
+
+    /**
+     * Sorts each token's buffered slots and merges them into its posting array in one pass.
+     */
+    private void flushPending() {
+        Entry[] snapshot = entries;
+        Comparator<Integer> bySlotRank = (a, b) -> RANKING.compare(snapshot[a], snapshot[b]);
+        for (Map.Entry<String, SlotBuffer> buffered : pending.entrySet()) {
+            String token = buffered.getKey();
+            int[] added = Arrays.stream(buffered.getValue().slots, 0, buffered.getValue().count)
+                    .boxed()
+                    .sorted(bySlotRank)
+                    .mapToInt(Integer::intValue)
+                    .toArray();
+            int[] current = postings.getOrDefault(token, NO_POSTINGS);
+            int[] merged = new int[current.length + added.length];
+            int i = 0;
+            int j = 0;
+            int k = 0;
+            while (i < current.length && j < added.length) {
+                // Existing slots first among equals, as with one-by-one inserts
+                merged[k++] = RANKING.compare(snapshot[added[j]], snapshot[current[i]]) < 0 ? added[j++] : current[i++];
+            }
+            while (i < current.length) {
+                merged[k++] = current[i++];
+            }
+            while (j < added.length) {
+                merged[k++] = added[j++];
+            }
+            postings.put(token, merged);
+        }
+        pending.clear();
+    }
+
+    /**
+     * The label as the index sees it: lower case, accents and punctuation stripped, words joined by
+     * single spaces. Two labels that normalize equally are indistinguishable to lookups.
+     */
+    public static String normalize(String text) {
+        return String.join(" ", tokenize(text));
+    }
+
+    static String[] tokenize(String text) {
+        if (text == null) {
+            return new String[0];
+        }
+        String normalized = DIACRITICS.matcher(Normalizer.normalize(text, Normalizer.Form.NFD))
+                .replaceAll("")
+                .toLowerCase(Locale.ROOT);
+        return Arrays.stream(NON_ALPHANUMERIC.split(normalized))
+                .filter(token -> !token.isEmpty())
+                .toArray(String[]::new);
+    }
+
+    private static int kindOf(String mediaType) {
+        return switch (mediaType) {
+            case "movie" -> 1;
+            case "tv" -> 2;
+            default -> 3;
+        };
+    }
+
+    /**
+     * Higher score first, then shorter labels (closer matches for short prefixes).
+     */
+    private static final Comparator<Entry> RANKING = Comparator
+            .comparingDouble((Entry entry) -> entry.score()).reversed()
+            .thenComparingInt(entry -> entry.label().length());
+
+    private static final class SlotBuffer {
+        int[] slots = new int[4];
+        int count;
+
+        void add(int slot) {
+            if (count == slots.length) {
+                slots = Arrays.copyOf(slots, count * 2);
+            }
+            slots[count++] = slot;
+        }
+    }
+
+    private record Entry(
+            String mediaType,
+            int id,
+            String label,
+            String year,
+            String imagePath,
+            float score,
+            String[] tokens
+    ) {
+        boolean hasTokenStartingWith(String prefix) {
+            for (String token : tokens) {
+                if (token.startsWith(prefix)) {
+                    return true;
+                }
+            }
+            return false;
+        }
+
+        boolean matchesAll(String[] required) {
+            for (String token : required) {
+                if (!hasTokenStartingWith(token)) {
+                    return false;
+                }
+            }
+            return true;
+        }
+    }
+}
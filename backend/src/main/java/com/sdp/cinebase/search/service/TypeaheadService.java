@@ -0,0 +1,180 @@
+package com.sdp.cinebase.search.service;
+
+import com.sdp.cinebase.catalog.model.CatalogPerson;
+import com.sdp.cinebase.catalog.model.CatalogTitle;
+import com.sdp.cinebase.catalog.repo.CatalogMovieRepository;
+import com.sdp.cinebase.catalog.repo.CatalogPersonRepository;
+import com.sdp.cinebase.catalog.repo.CatalogTvShowRepository;
+import com.sdp.cinebase.search.dto.SuggestionDto;
+import com.sdp.cinebase.tmdb.dto.MovieDetailsDto;
+import com.sdp.cinebase.tmdb.dto.MovieDto;
+import com.sdp.cinebase.tmdb.dto.PagedResponse;
+import com.sdp.cinebase.tmdb.dto.PersonDetailsDto;
+import com.sdp.cinebase.tmdb.service.TmdbPayloadFetchedEvent;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.scheduling.annotation.Async;
+import org.springframework.stereotype.Service;
+
+import java.util.List;
+import java.util.function.Consumer;
+import java.util.function.Function;
+
+/**
+ * Typeahead suggestions for the search box, answered entirely from memory.
+ * <p>
+ * The index is seeded from the catalog mirror at startup and then grows incrementally with every
+ * list, details and person payload fetched from TMDB, so titles and people become suggestible as
+ * soon as anyone has seen them. Upstream search is left for when the user submits the query.
+ */
+@Service
+public class TypeaheadService {
+
+    private static final Logger log = LoggerFactory.getLogger(TypeaheadService.class);
+
+    private static final int SEED_PAGE_SIZE = 1_000;
+    private static final int MAX_CAST_INDEXED = 10;
+
+    private final TypeaheadIndex index;
+    private final CatalogMovieRepository movieRepository;
+    private final CatalogTvShowRepository tvShowRepository;
+    private final CatalogPersonRepository personRepository;
+    private final Timer suggestTimer;
+
+    public TypeaheadService(
+            CatalogMovieRepository movieRepository,
+            CatalogTvShowRepository tvShowRepository,
+            CatalogPersonRepository personRepository,
+            MeterRegistry meterRegistry,
+            @Value("${search.typeahead.max-entries:200000}") int maxEntries
+    ) {
+        this.index = new TypeaheadIndex(maxEntries);
+        this.movieRepository = movieRepository;
+        this.tvShowRepository = tvShowRepository;
+        this.personRepository = personRepository;
+        this.suggestTimer = Timer.builder("search.suggest")
+                .description("Time to answer a typeahead lookup from the in-memory index")
+                .register(meterRegistry);
+        Gauge.builder("search.typeahead.entries", index, TypeaheadIndex::size)
+                .description("Titles and people in the typeahead index")
+                .register(meterRegistry);
+    }
+
+    public List<SuggestionDto> suggest(String query, int limit) {
+        return suggestTimer.record(() -> index.suggest(query, limit));
+    }
+
+    @Async
+    @EventListener(ApplicationReadyEvent.class)
+    public void seedFromCatalog() {
+        try {
+            int titles = seedPages(page -> movieRepository.findAll(page), page -> putAll(page, movie -> putTitle("movie", movie)))
+                    + seedPages(page -> tvShowRepository.findAll(page), page -> putAll(page, show -> putTitle("tv", show)));
+            int people = seedPages(page -> personRepository.findAll(page), page -> putAll(page, this::putPerson));
+            log.info("Typeahead index seeded from catalog ({} titles, {} people)", titles, people);
+        } catch (Exception e) {
+            // The index still fills up from live traffic
+            log.warn("Failed to seed typeahead index from catalog: {}", e.getMessage());
+        }
+    }
+
+    @Async
+    @EventListener
+    public void onPayloadFetched(TmdbPayloadFetchedEvent event) {
+        Object payload = event.payload();
+        if (payload instanceof PagedResponse<?> page) {
+            String impliedType = event.impliedMediaType();
+            for (Object item : page.results() != null ? page.results() : List.of()) {
+                if (item instanceof MovieDto dto) {
+                    putListItem(impliedType != null ? impliedType : dto.media_type(), dto);
+                }
+            }
+        } else if (payload instanceof MovieDetailsDto details && !event.key().contains("/season/")) {
+            String mediaType = event.key().startsWith("/tv/") ? "tv" : "movie";
+            String date = "tv".equals(mediaType) ? details.first_air_date() : details.release_date();
+            put(mediaType, details.id(), labelOf(details.title(), details.name()), date, details.poster_path(),
+                    score(details.vote_average(), details.vote_count()));
+            if (details.credits() != null && details.credits().cast() != null) {
+                details.credits().cast().stream()
+                        .limit(MAX_CAST_INDEXED)
+                        .forEach(cast -> put("person", cast.id(), cast.name(), null, cast.profile_path(), 0));
+            }
+        } else if (payload instanceof PersonDetailsDto person) {
+            put("person", person.id(), person.name(), null, person.profile_path(), 1);
+        }
+    }
+
+    private void putListItem(String mediaType, MovieDto dto) {
+        if (mediaType == null) {
+            return;
+        }
+        if ("person".equals(mediaType)) {
+            // Multi-search returns people in the same shape, with their name and no votes
+            put("person", dto.id(), dto.name(), null, null, 1);
+            return;
+        }
+        String date = dto.release_date() != null ? dto.release_date() : dto.first_air_date();
+        put(mediaType, dto.id(), labelOf(dto.title(), dto.name()), date, dto.poster_path(),
+                score(dto.vote_average(), dto.vote_count()));
+    }
+
+    private void putTitle(String mediaType, CatalogTitle title) {
+        put(mediaType, title.getTmdbId().intValue(), title.getTitle(), title.getReleaseDate(), title.getPosterPath(),
+                score(title.getVoteAverage(), title.getVoteCount()));
+    }
+
+    private void putPerson(CatalogPerson person) {
+        put("person", person.getTmdbId().intValue(), person.getName(), null, person.getProfilePath(), 1);
+    }
+
+    private synchronized void put(String mediaType, int id, String label, String date, String imagePath, double score) {
+        String year = date != null && date.length() >= 4 ? date.substring(0, 4) : null;
+        index.put(mediaType, id, label, year, imagePath, score);
+    }
+
+    /**
+     * Feeds a catalog table to {@code putPage} one page at a time.
+     *
+     * @return the number of rows seen
+     */
+    private static <E> int seedPages(Function<PageRequest, Page<E>> findPage, Consumer<Page<E>> putPage) {
+        int count = 0;
+        Page<E> page;
+        int number = 0;
+        do {
+            page = findPage.apply(PageRequest.of(number++, SEED_PAGE_SIZE));
+            putPage.accept(page);
+            count += page.getNumberOfElements();
+        } while (page.hasNext());
+        return count;
+    }
+
+    /**
+     * Loads one seed page as a single {@link TypeaheadIndex#bulk(Runnable) bulk} update, holding the
+     * write lock so live payloads wait for the page rather than interleave with it.
+     */
+    private synchronized <E> void putAll(Page<E> page, Consumer<E> put) {
+        index.bulk(() -> page.forEach(put));
+    }
+
+    /**
+     * Popularity proxy: vote count dominates (log-scaled), vote average breaks ties.
+     */
+    private static double score(Double voteAverage, Integer voteCount) {
+        double votes = voteCount != null ? voteCount : 0;
+        double average = voteAverage != null ? voteAverage : 0;
+        return Math.log1p(votes) + average / 10;
+    }
+
+    private static String labelOf(String title, String name) {
+        return title != null ? title : name;
+    }
+}
@@ -0,0 +1,64 @@
+package com.sdp.cinebase.search.web;
+
+import com.sdp.cinebase.search.dto.SearchResponse;
+import com.sdp.cinebase.search.dto.SuggestResponse;
+import com.sdp.cinebase.search.service.FullTextIndex;
+import com.sdp.cinebase.search.service.FullTextSearchService;
+import com.sdp.cinebase.search.service.TypeaheadService;
+import io.swagger.v3.oas.annotations.Operation;
+import io.swagger.v3.oas.annotations.tags.Tag;
+import org.springframework.http.HttpStatus;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RequestParam;
+import org.springframework.web.bind.annotation.RestController;
+import org.springframework.web.server.ResponseStatusException;
+
+/**
+ * Search endpoints answered locally, without a TMDB round trip.
+ */
+@RestController
+@RequestMapping("/api/search")
+@Tag(name = "Search", description = "Local typeahead suggestions and full-text search over the catalog")
+public class SearchController {
+
+    private static final int MAX_LIMIT = 20;
+    private static final int PAGE_SIZE = 20;
+    private static final int MAX_PAGE = 500;
+
+    private final TypeaheadService typeahead;
+    private final FullTextSearchService fullText;
+
+    public SearchController(TypeaheadService typeahead, FullTextSearchService fullText) {
+        this.typeahead = typeahead;
+        this.fullText = fullText;
+    }
+
+    @Operation(summary = "Full-text search", description = "Typo-tolerant, BM25-ranked search over title, overview, genres and cast of the titles in the local catalog, with optional filters")
+    @GetMapping
+    public SearchResponse search(
+            @RequestParam String q,
+            @RequestParam(required = false) String mediaType,
+            @RequestParam(required = false) Integer yearFrom,
+            @RequestParam(required = false) Integer yearTo,
+            @RequestParam(required = false) Integer genre,
+            @RequestParam(defaultValue = "1") int page
+    ) {
+        if (mediaType != null && !mediaType.equals("movie") && !mediaType.equals("tv")) {
+            throw new ResponseStatusException(HttpStatus.BAD_REQUEST, "mediaType must be movie or tv");
+        }
+        if (page < 1 || page > MAX_PAGE) {
+            throw new ResponseStatusException(HttpStatus.BAD_REQUEST, "Page must be between 1 and " + MAX_PAGE);
+        }
+        return fullText.search(q, new FullTextIndex.Filter(mediaType, yearFrom, yearTo, genre), page, PAGE_SIZE);
+    }
+
+    @Operation(summary = "Typeahead suggestions", description = "Suggest titles and people matching the typed prefix, from the in-memory index. Use /api/tmdb/*/search on submit.")
+    @GetMapping("/suggest")
+    public SuggestResponse suggest(
+            @RequestParam String q,
+            @RequestParam(defaultValue = "8") int limit
+    ) {
+        return new SuggestResponse(q, typeahead.suggest(q, Math.max(1, Math.min(limit, MAX_LIMIT))));
+    }
+}
@@ -0,0 +1,17 @@
+package com.sdp.cinebase.title.dto;
+
+import java.util.Map;
+
+/**
+ * The caller's list membership of a batch of titles.
+ * <p>
+ * Maps every requested {@code movie:<id>} / {@code tv:<id>} key to a bitmap of {@link #FAVORITE},
+ * {@link #WATCHLIST} and {@link #REVIEWED}; {@code 0} means the title is on none of them.
+ */
+public record MembershipBitmapResponse(
+        Map<String, Integer> flags
+) {
+    public static final int FAVORITE = 1;
+    public static final int WATCHLIST = 2;
+    public static final int REVIEWED = 4;
+}
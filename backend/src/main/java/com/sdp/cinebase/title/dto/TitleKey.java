@@ -0,0 +1,53 @@
+package com.sdp.cinebase.title.dto;
+
+import org.springframework.http.HttpStatus;
+import org.springframework.web.server.ResponseStatusException;
+
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.stream.Collectors;
+
+/**
+ * A {@code movie:<id>} or {@code tv:<id>} key, as used by the batch endpoints.
+ */
+public record TitleKey(String mediaType, int id) {
+
+    public static TitleKey parse(String key) {
+        int colon = key.indexOf(':');
+        if (colon > 0) {
+            String mediaType = key.substring(0, colon);
+            if (mediaType.equals("movie") || mediaType.equals("tv")) {
+                try {
+                    return new TitleKey(mediaType, Integer.parseInt(key.substring(colon + 1)));
+                } catch (NumberFormatException ignored) {
+                    // Reported below
+                }
+            }
+        }
+        throw new ResponseStatusException(HttpStatus.BAD_REQUEST, "Invalid key '" + key + "', expected movie:<id> or tv:<id>");
+    }
+
+    /**
+     * Parses {@code keys} in order, skipping blanks and duplicates. Fails with 400 if a key is
+     * malformed or the result is empty or longer than {@code maxKeys}.
+     */
+    public static List<TitleKey> parseDistinct(List<String> keys, int maxKeys) {
+        List<TitleKey> titles = keys.stream()
+                .map(String::trim)
+                .filter(key -> !key.isEmpty())
+                .map(TitleKey::parse)
+                .collect(Collectors.toCollection(LinkedHashSet::new))
+                .stream()
+                .toList();
+        if (titles.isEmpty() || titles.size() > maxKeys) {
+            throw new ResponseStatusException(HttpStatus.BAD_REQUEST,
+                    "Between 1 and " + maxKeys + " keys are required");
+        }
+        return titles;
+    }
+
+    @Override
+    public String toString() {
+        return mediaType + ":" + id;
+    }
+}
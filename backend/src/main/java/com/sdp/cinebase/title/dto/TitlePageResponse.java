@@ -0,0 +1,19 @@
+package com.sdp.cinebase.title.dto;
+
+import com.sdp.cinebase.review.dto.ReviewPageResponse;
+import com.sdp.cinebase.review.dto.ReviewResponse;
+import com.sdp.cinebase.tmdb.dto.MovieDetailsDto;
+
+/**
+ * Everything the title page shows, fetched in one round trip.
+ *
+ * @param reviews the first page of reviews; continue from {@code /api/reviews} with its {@code next_cursor}
+ * @param my_review the caller's own review; {@code null} if none
+ */
+public record TitlePageResponse(
+        MovieDetailsDto details,
+        ReviewPageResponse reviews,
+        ReviewResponse my_review,
+        boolean favorite,
+        boolean in_watchlist
+) {}
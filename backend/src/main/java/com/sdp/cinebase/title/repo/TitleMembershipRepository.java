@@ -0,0 +1,38 @@
+package com.sdp.cinebase.title.repo;
+
+import com.sdp.cinebase.favorite.model.Favorite;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.Repository;
+import org.springframework.data.repository.query.Param;
+
+import java.util.List;
+
+/**
+ * Which titles are on a user's lists, answered in one round trip instead of one per list and title.
+ */
+@org.springframework.stereotype.Repository
+public interface TitleMembershipRepository extends Repository<Favorite, Long> {
+
+    /**
+     * Every favorite, watchlist entry and review of the user, one row per title and list, tagged
+     * with the list's flag. Each branch is a range scan of that table's
+     * {@code (user_id, tmdb_id, media_type)} unique index.
+     */
+    @Query(value = """
+        SELECT 1 AS "flag", f.tmdb_id AS "tmdbId", f.media_type AS "mediaType"
+        FROM favorites f WHERE f.user_id = :userId
+        UNION ALL
+        SELECT 2, w.tmdb_id, w.media_type
+        FROM watchlist w WHERE w.user_id = :userId
+        UNION ALL
+        SELECT 4, r.tmdb_id, r.media_type
+        FROM reviews r WHERE r.user_id = :userId
+        """, nativeQuery = true)
+    List<MembershipHit> findAllMembership(@Param("userId") Long userId);
+
+    interface MembershipHit {
+        Integer getFlag();
+        Long getTmdbId();
+        String getMediaType();
+    }
+}
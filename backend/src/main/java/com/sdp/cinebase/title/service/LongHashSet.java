@@ -0,0 +1,110 @@
+package com.sdp.cinebase.title.service;
+
+/**
+ * Open-addressing hash set of non-zero {@code long}s, without boxing.
+ * <p>
+ * Keys live in one {@code long[]} with linear probing; {@code 0} marks a free slot. Removal
+ * shifts the following entries of the probe run back, so no tombstones build up. The table grows
+ * at 50% load and shrinks again when mostly empty, keeping a user with a few hundred titles in a
+ * few kilobytes. Not thread-safe.
+ */
+final class LongHashSet {
+
+    private static final int MIN_CAPACITY = 16;
+
+    private long[] slots = new long[MIN_CAPACITY];
+    private int size;
+
+    boolean add(long key) {
+        checkKey(key);
+        int slot = find(key);
+        if (slots[slot] == key) {
+            return false;
+        }
+        slots[slot] = key;
+        if (++size * 2 > slots.length) {
+            resize(slots.length * 2);
+        }
+        return true;
+    }
+
+    boolean remove(long key) {
+        checkKey(key);
+        int slot = find(key);
+        if (slots[slot] != key) {
+            return false;
+        }
+        int mask = slots.length - 1;
+        // Backward-shift deletion: pull later entries of the run into the hole if they belong before it
+        int hole = slot;
+        int next = (hole + 1) & mask;
+        while (slots[next] != 0) {
+            int home = index(slots[next], mask);
+            if (((next - home) & mask) >= ((next - hole) & mask)) {
+                slots[hole] = slots[next];
+                hole = next;
+            }
+            next = (next + 1) & mask;
+        }
+        slots[hole] = 0;
+        size--;
+        if (slots.length > MIN_CAPACITY && size * 8 < slots.length) {
+            resize(slots.length / 2);
+        }
+        return true;
+    }
+
+    boolean contains(long key) {
+        checkKey(key);
+        return slots[find(key)] == key;
+    }
+
+    int size() {
+        return size;
+    }
+
+    /**
+     * Approximate heap footprint, for cache weighing.
+     */
+    int bytes() {
+        return 16 + slots.length * Long.BYTES;
+    }
+
+    /**
+     * The slot holding {@code key}, or the free slot where it would go.
+     */
+    private int find(long key) {
+        int mask = slots.length - 1;
+        int slot = index(key, mask);
+        while (slots[slot] != 0 && slots[slot] != key) {
+            slot = (slot + 1) & mask;
+        }
+        return slot;
+    }
+
+    private void resize(int capacity) {
+        long[] old = slots;
+        slots = new long[capacity];
+        int mask = capacity - 1;
+        for (long key : old) {
+            if (key != 0) {
+                int slot = index(key, mask);
+                while (slots[slot] != 0) {
+                    slot = (slot + 1) & mask;
+                }
+                slots[slot] = key;
+            }
+        }
+    }
+
+    private static int index(long key, int mask) {
+        // Fibonacci hashing spreads the packed (media type, id) keys over the table
+        return (int) ((key * 0x9E3779B97F4A7C15L) >>> 32) & mask;
+    }
+
+    private static void checkKey(long key) {
+        if (key == 0) {
+            throw new IllegalArgumentException("0 is reserved for free slots");
+        }
+    }
+}
@@ -0,0 +1,31 @@
+package com.sdp.cinebase.title.service;
+
+import com.sdp.cinebase.title.dto.MembershipBitmapResponse;
+
+/**
+ * The per-user title lists tracked by {@link UserMembershipIndex}, with their membership bitmap flag.
+ */
+public enum TitleList {
+    FAVORITES(MembershipBitmapResponse.FAVORITE),
+    WATCHLIST(MembershipBitmapResponse.WATCHLIST),
+    REVIEWS(MembershipBitmapResponse.REVIEWED);
+
+    private final int flag;
+
+    TitleList(int flag) {
+        this.flag = flag;
+    }
+
+    public int flag() {
+        return flag;
+    }
+
+    static TitleList ofFlag(int flag) {
+        for (TitleList list : values()) {
+            if (list.flag == flag) {
+                return list;
+            }
+        }
+        throw new IllegalArgumentException("Unknown list flag " + flag);
+    }
+}
@@ -0,0 +1,38 @@
+package com.sdp.cinebase.title.service;
+
+import com.sdp.cinebase.title.dto.MembershipBitmapResponse;
+import com.sdp.cinebase.title.dto.TitleKey;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Favorite / watchlist / reviewed status for a whole grid of titles in one request, instead of one
+ * "is in list" request per card and list. Answered from {@link UserMembershipIndex}, so only the
+ * first grid of a cold user reaches the database.
+ */
+@Service
+public class TitleMembershipService {
+
+    private final UserMembershipIndex membershipIndex;
+    private final int maxKeys;
+
+    public TitleMembershipService(
+            UserMembershipIndex membershipIndex,
+            @Value("${title.membership.max-keys:100}") int maxKeys
+    ) {
+        this.membershipIndex = membershipIndex;
+        this.maxKeys = maxKeys;
+    }
+
+    public MembershipBitmapResponse membership(Long userId, List<String> keys) {
+        Map<String, Integer> flags = new LinkedHashMap<>();
+        for (TitleKey title : TitleKey.parseDistinct(keys, maxKeys)) {
+            flags.put(title.toString(), membershipIndex.flags(userId, title.mediaType(), title.id()));
+        }
+        return new MembershipBitmapResponse(flags);
+    }
+}
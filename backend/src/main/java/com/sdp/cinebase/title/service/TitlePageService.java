@@ -0,0 +1,64 @@
+package com.sdp.cinebase.title.service;
+
+import com.sdp.cinebase.catalog.service.CatalogService;
+import com.sdp.cinebase.review.dto.ReviewPageResponse;
+import com.sdp.cinebase.review.dto.ReviewResponse;
+import com.sdp.cinebase.review.service.ReviewService;
+import com.sdp.cinebase.title.dto.TitlePageResponse;
+import com.sdp.cinebase.tmdb.dto.MovieDetailsDto;
+import org.springframework.stereotype.Service;
+import reactor.core.publisher.Mono;
+import reactor.core.scheduler.Schedulers;
+
+import java.util.Optional;
+
+/**
+ * Builds the title page in one request.
+ * <p>
+ * The details (mirror or TMDB), the first page of reviews, the caller's own review and the caller's
+ * list membership are fetched in parallel. Whatever the number of reviews, the database side is a
+ * keyset-paginated query for the first review page (authors' usernames joined in) and a query for
+ * the caller's own review. "Favorite?" and "in watchlist?" are an in-memory lookup in
+ * {@link UserMembershipIndex}, which only queries once to load a user it does not hold yet.
+ */
+@Service
+public class TitlePageService {
+
+    private final CatalogService catalogService;
+    private final ReviewService reviewService;
+    private final UserMembershipIndex membershipIndex;
+
+    public TitlePageService(
+            CatalogService catalogService,
+            ReviewService reviewService,
+            UserMembershipIndex membershipIndex
+    ) {
+        this.catalogService = catalogService;
+        this.reviewService = reviewService;
+        this.membershipIndex = membershipIndex;
+    }
+
+    public Mono<TitlePageResponse> titlePage(Long userId, String mediaType, int id) {
+        Mono<MovieDetailsDto> details = "tv".equals(mediaType)
+                ? catalogService.tvDetails(id)
+                : catalogService.movieDetails(id);
+        Mono<ReviewPageResponse> reviews = Mono
+                .fromCallable(() -> reviewService.getReviewsForMedia((long) id, mediaType, null, ReviewService.DEFAULT_PAGE_SIZE))
+                .subscribeOn(Schedulers.boundedElastic());
+        Mono<Optional<ReviewResponse>> myReview = Mono
+                .fromCallable(() -> reviewService.getUserReview(userId, (long) id, mediaType))
+                .subscribeOn(Schedulers.boundedElastic());
+        // Only a cold user costs a query here, but that one still must not run on the request thread
+        Mono<Integer> membership = Mono
+                .fromCallable(() -> membershipIndex.flags(userId, mediaType, id))
+                .subscribeOn(Schedulers.boundedElastic());
+
+        return Mono.zip(details, reviews, myReview, membership)
+                .map(parts -> new TitlePageResponse(
+                        parts.getT1(),
+                        parts.getT2(),
+                        parts.getT3().orElse(null),
+                        (parts.getT4() & TitleList.FAVORITES.flag()) != 0,
+                        (parts.getT4() & TitleList.WATCHLIST.flag()) != 0));
+    }
+}
@@ -0,0 +1,183 @@
+package com.sdp.cinebase.title.service;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.sdp.cinebase.common.AfterCommit;
+import com.sdp.cinebase.title.repo.TitleMembershipRepository;
+import com.sdp.cinebase.title.repo.TitleMembershipRepository.MembershipHit;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.cache.CaffeineCacheMetrics;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+import java.util.EnumMap;
+import java.util.Map;
+
+/**
+ * In-memory answer to "is this title on the user's favorites / watchlist / reviews?".
+ * <p>
+ * Each active user gets one primitive {@link LongHashSet} per list, holding the titles packed as
+ * {@code (media type << 32) | tmdb id}, i.e. eight bytes per title plus table slack. A user's sets
+ * are loaded with a single query on first access; from then on every check is answered from
+ * memory. The list services report their writes through {@link #added} and {@link #removed},
+ * applied once the write has committed, so a warm user never needs the database again.
+ * <p>
+ * Once the total footprint passes {@code title.membership.index.max-bytes}, Caffeine's
+ * W-TinyLFU policy evicts users, favouring those seen both recently and often over one-off
+ * visitors. A user idle for {@code title.membership.index.idle-timeout} is dropped regardless of
+ * size. Writes made by other application instances are not seen here, so a user's sets are also
+ * reloaded once they are {@code title.membership.index.max-age} old.
+ */
+@Component
+public class UserMembershipIndex {
+
+    private static final Logger log = LoggerFactory.getLogger(UserMembershipIndex.class);
+
+    private static final long MOVIE = 1;
+    private static final long TV = 2;
+    /** Never a valid key: real keys have a media type in the upper half */
+    private static final long UNKNOWN = -1;
+
+    private final TitleMembershipRepository membershipRepository;
+    private final Cache<Long, UserLists> users;
+
+    public UserMembershipIndex(
+            TitleMembershipRepository membershipRepository,
+            MeterRegistry meterRegistry,
+            @Value("${title.membership.index.max-bytes:33554432}") long maxBytes,
+            @Value("${title.membership.index.idle-timeout:30m}") Duration idleTimeout,
+            @Value("${title.membership.index.max-age:1h}") Duration maxAge
+    ) {
+        this.membershipRepository = membershipRepository;
+        this.users = Caffeine.newBuilder()
+                .maximumWeight(maxBytes)
+                .weigher((Long userId, UserLists lists) -> lists.bytes())
+                .expireAfterAccess(idleTimeout)
+                // Local updates through added/removed count as writes and restart this clock
+                .expireAfterWrite(maxAge)
+                .recordStats()
+                .build();
+        CaffeineCacheMetrics.monitor(meterRegistry, users, "title.membership");
+    }
+
+    /**
+     * Whether the title is on the list; always {@code false} for a media type other than
+     * {@code movie} or {@code tv}, which no list can hold.
+     */
+    public boolean contains(Long userId, TitleList list, String mediaType, long tmdbId) {
+        long key = pack(mediaType, tmdbId);
+        return key != UNKNOWN && lists(userId).contains(list, key);
+    }
+
+    /**
+     * Bitmap of the lists (see {@link TitleList#flag()}) the title is on.
+     */
+    public int flags(Long userId, String mediaType, long tmdbId) {
+        long key = pack(mediaType, tmdbId);
+        return key != UNKNOWN ? lists(userId).flags(key) : 0;
+    }
+
+    /**
+     * Records that a title was added to one of the user's lists. Call after the insert; inside a
+     * transaction the index is updated once it commits. Unknown media types are ignored.
+     */
+    public void added(Long userId, TitleList list, String mediaType, long tmdbId) {
+        long key = pack(mediaType, tmdbId);
+        if (key == UNKNOWN) {
+            return;
+        }
+        AfterCommit.run(() -> users.asMap().computeIfPresent(userId, (id, lists) -> lists.add(list, key)));
+    }
+
+    /**
+     * Records that a title was removed from one of the user's lists; see {@link #added}.
+     */
+    public void removed(Long userId, TitleList list, String mediaType, long tmdbId) {
+        long key = pack(mediaType, tmdbId);
+        if (key == UNKNOWN) {
+            return;
+        }
+        AfterCommit.run(() -> users.asMap().computeIfPresent(userId, (id, lists) -> lists.remove(list, key)));
+    }
+
+    private UserLists lists(Long userId) {
+        return users.get(userId, this::load);
+    }
+
+    private UserLists load(Long userId) {
+        UserLists lists = new UserLists();
+        for (MembershipHit hit : membershipRepository.findAllMembership(userId)) {
+            long key = pack(hit.getMediaType(), hit.getTmdbId());
+            if (key != UNKNOWN) {
+                lists.add(TitleList.ofFlag(hit.getFlag()), key);
+            }
+        }
+        log.debug("Loaded list membership of user {} ({} bytes)", userId, lists.bytes());
+        return lists;
+    }
+
+    /**
+     * The packed key, or {@link #UNKNOWN} for a media type other than {@code movie} or {@code tv}.
+     */
+    private static long pack(String mediaType, long tmdbId) {
+        long kind;
+        if ("movie".equals(mediaType)) {
+            kind = MOVIE;
+        } else if ("tv".equals(mediaType)) {
+            kind = TV;
+        } else {
+            return UNKNOWN;
+        }
+        return kind << 32 | (tmdbId & 0xffffffffL);
+    }
+
+    /**
+     * The sets of one user. Updates replace nothing, they mutate in place under the object's lock;
+     * returning {@code this} lets Caffeine re-weigh the entry.
+     */
+    private static final class UserLists {
+
+        private final Map<TitleList, LongHashSet> sets = new EnumMap<>(TitleList.class);
+
+        UserLists() {
+            for (TitleList list : TitleList.values()) {
+                sets.put(list, new LongHashSet());
+            }
+        }
+
+        synchronized boolean contains(TitleList list, long key) {
+            return sets.get(list).contains(key);
+        }
+
+        synchronized int flags(long key) {
+            int flags = 0;
+            for (Map.Entry<TitleList, LongHashSet> entry : sets.entrySet()) {
+                if (entry.getValue().contains(key)) {
+                    flags |= entry.getKey().flag();
+                }
+            }
+            return flags;
+        }
+
+        synchronized UserLists add(TitleList list, long key) {
+            sets.get(list).add(key);
+            return this;
+        }
+
+        synchronized UserLists remove(TitleList list, long key) {
+            sets.get(list).remove(key);
+            return this;
+        }
+
+        synchronized int bytes() {
+            int bytes = 64;
+            for (LongHashSet set : sets.values()) {
+                bytes += set.bytes();
+            }
+            return bytes;
+        }
+    }
+}
@@ -0,0 +1,94 @@
+package com.sdp.cinebase.title.web;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.sdp.cinebase.common.ETags;
+import com.sdp.cinebase.security.UserPrincipal;
+import com.sdp.cinebase.title.dto.MembershipBitmapResponse;
+import com.sdp.cinebase.title.dto.TitlePageResponse;
+import com.sdp.cinebase.title.service.TitleMembershipService;
+import com.sdp.cinebase.title.service.TitlePageService;
+import com.sdp.cinebase.tmdb.web.TmdbRequestCancellation;
+import io.swagger.v3.oas.annotations.Operation;
+import io.swagger.v3.oas.annotations.responses.ApiResponse;
+import io.swagger.v3.oas.annotations.responses.ApiResponses;
+import io.swagger.v3.oas.annotations.security.SecurityRequirement;
+import io.swagger.v3.oas.annotations.tags.Tag;
+import jakarta.servlet.http.HttpServletRequest;
+import org.springframework.http.CacheControl;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+import org.springframework.security.core.annotation.AuthenticationPrincipal;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.PathVariable;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RequestParam;
+import org.springframework.web.bind.annotation.RestController;
+import org.springframework.web.server.ResponseStatusException;
+import reactor.core.publisher.Mono;
+
+import java.util.List;
+
+@RestController
+@RequestMapping("/api/title")
+@Tag(name = "Title", description = "Aggregated title-page data in a single request")
+@SecurityRequirement(name = "bearer-jwt")
+public class TitleController {
+
+    private final TitlePageService titlePageService;
+    private final TitleMembershipService membershipService;
+    private final TmdbRequestCancellation cancellation;
+    private final ObjectMapper objectMapper;
+
+    public TitleController(
+            TitlePageService titlePageService,
+            TitleMembershipService membershipService,
+            TmdbRequestCancellation cancellation,
+            ObjectMapper objectMapper
+    ) {
+        this.titlePageService = titlePageService;
+        this.membershipService = membershipService;
+        this.cancellation = cancellation;
+        this.objectMapper = objectMapper;
+    }
+
+    @Operation(summary = "Bulk list membership", description = "Favorite (1), watchlist (2) and reviewed (4) bitmap for up to 100 titles, keyed movie:<id> or tv:<id>, from a single query.")
+    @ApiResponses(value = {
+            @ApiResponse(responseCode = "200", description = "Membership retrieved successfully"),
+            @ApiResponse(responseCode = "400", description = "Malformed key, or no or too many keys"),
+            @ApiResponse(responseCode = "401", description = "Not authenticated")
+    })
+    @GetMapping("/membership")
+    public MembershipBitmapResponse membership(
+            @AuthenticationPrincipal UserPrincipal principal,
+            @RequestParam List<String> ids
+    ) {
+        return membershipService.membership(Long.parseLong(principal.getId()), ids);
+    }
+
+    @Operation(summary = "Title page", description = "Details, reviews, the caller's own review and favorite/watchlist status of a movie or TV show, fetched in parallel. Carries one ETag; a matching If-None-Match gets 304.")
+    @ApiResponses(value = {
+            @ApiResponse(responseCode = "200", description = "Title page retrieved successfully"),
+            @ApiResponse(responseCode = "304", description = "Unchanged since the ETag in If-None-Match"),
+            @ApiResponse(responseCode = "400", description = "Media type is not movie or tv"),
+            @ApiResponse(responseCode = "401", description = "Not authenticated")
+    })
+    @GetMapping("/{mediaType}/{id}")
+    public Mono<ResponseEntity<TitlePageResponse>> titlePage(
+            @AuthenticationPrincipal UserPrincipal principal,
+            @PathVariable String mediaType,
+            @PathVariable int id,
+            HttpServletRequest request
+    ) {
+        if (!"movie".equals(mediaType) && !"tv".equals(mediaType)) {
+            throw new ResponseStatusException(HttpStatus.BAD_REQUEST, "Media type must be 'movie' or 'tv'");
+        }
+        Mono<ResponseEntity<TitlePageResponse>> page = titlePageService
+                .titlePage(Long.parseLong(principal.getId()), mediaType, id)
+                .map(body -> ResponseEntity.ok()
+                        // The page includes the caller's own review and lists, so shared caches must not keep it
+                        .cacheControl(CacheControl.noCache().cachePrivate())
+                        .eTag(ETags.strong(objectMapper, body))
+                        .body(body));
+        return cancellation.cancelOnDisconnect(request, page);
+    }
+}
@@ -0,0 +1,319 @@
+package com.sdp.cinebase.tmdb.cache;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.github.benmanes.caffeine.cache.Expiry;
+import com.github.benmanes.caffeine.cache.stats.CacheStats;
+import com.sdp.cinebase.tmdb.ratelimit.TmdbRequestPriority;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import io.micrometer.core.instrument.binder.cache.CaffeineCacheMetrics;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+
+import java.time.Duration;
+import java.util.Comparator;
+import java.util.EnumMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.Supplier;
+
+/**
+ * Bounded, size-weighted in-process cache for TMDB responses.
+ * <p>
+ * Entries are keyed by the normalized TMDB path and query (e.g. {@code /movie/popular?page=1})
+ * and expire according to the TTL of their {@link TmdbEndpointFamily}. Hit, miss and eviction
+ * counters are published to Micrometer under the {@code tmdb.responses} cache name.
+ * <p>
+ * Feed entries are served stale-while-revalidate: once past their TTL they stay servable for a
+ * grace period, during which a hit returns the stale payload immediately and refreshes it in the
+ * background. The most requested feed keys are additionally refreshed ahead of expiry by
+ * {@link TmdbCacheRefresher}, so hot pages normally never go stale at all.
+ * <p>
+ * Search keys that are requested repeatedly are stored with a longer TTL than one-off queries:
+ * search results barely change, and popular queries are where most of the search quota goes.
+ * Background requests (prefetches, refreshes) do not count as demand for either mechanism.
+ */
+@Component
+public class TmdbCache {
+
+    private static final Logger log = LoggerFactory.getLogger(TmdbCache.class);
+
+    static final String CACHE_NAME = "tmdb.responses";
+
+    /**
+     * Upper bound on tracked hot-key candidates; the least recently requested are dropped first.
+     */
+    private static final int MAX_TRACKED_KEYS = 1_000;
+
+    private final Cache<String, Entry> cache;
+    private final Map<TmdbEndpointFamily, Duration> ttls = new EnumMap<>(TmdbEndpointFamily.class);
+    private final Map<TmdbEndpointFamily, Duration> staleGraces = new EnumMap<>(TmdbEndpointFamily.class);
+    private final Cache<String, HotKey> hotKeys;
+    private final Cache<String, LongAdder> searchHits;
+    private final Duration popularSearchTtl;
+    private final int popularSearchAfter;
+    private final Set<String> revalidating = ConcurrentHashMap.newKeySet();
+    private final MeterRegistry meterRegistry;
+
+    public TmdbCache(
+            @Value("${tmdb.cache.max-weight-bytes:67108864}") long maxWeightBytes,
+            @Value("${tmdb.cache.ttl.feed:10m}") Duration feedTtl,
+            @Value("${tmdb.cache.ttl.search:5m}") Duration searchTtl,
+            @Value("${tmdb.cache.ttl.details:6h}") Duration detailsTtl,
+            @Value("${tmdb.cache.ttl.person:12h}") Duration personTtl,
+            @Value("${tmdb.cache.ttl.related:6h}") Duration relatedTtl,
+            @Value("${tmdb.cache.stale-grace.feed:1h}") Duration feedStaleGrace,
+            @Value("${tmdb.cache.ttl.search-popular:1h}") Duration popularSearchTtl,
+            @Value("${tmdb.cache.search.popular-after:3}") int popularSearchAfter,
+            MeterRegistry meterRegistry
+    ) {
+        ttls.put(TmdbEndpointFamily.FEED, feedTtl);
+        ttls.put(TmdbEndpointFamily.SEARCH, searchTtl);
+        ttls.put(TmdbEndpointFamily.DETAILS, detailsTtl);
+        ttls.put(TmdbEndpointFamily.PERSON, personTtl);
+        ttls.put(TmdbEndpointFamily.RELATED, relatedTtl);
+        for (TmdbEndpointFamily family : TmdbEndpointFamily.values()) {
+            staleGraces.put(family, Duration.ZERO);
+        }
+        staleGraces.put(TmdbEndpointFamily.FEED, feedStaleGrace);
+        this.popularSearchTtl = popularSearchTtl;
+        this.popularSearchAfter = popularSearchAfter;
+        this.meterRegistry = meterRegistry;
+
+        this.cache = Caffeine.newBuilder()
+                .maximumWeight(maxWeightBytes)
+                .weigher((String key, Entry entry) -> key.length() * 2 + TmdbPayloadWeigher.weigh(entry.value()))
+                .expireAfter(new FamilyExpiry())
+                .recordStats()
+                .build();
+        this.hotKeys = Caffeine.newBuilder()
+                .maximumSize(MAX_TRACKED_KEYS)
+                .expireAfterAccess(feedTtl.plus(feedStaleGrace))
+                .build();
+        this.searchHits = Caffeine.newBuilder()
+                .maximumSize(MAX_TRACKED_KEYS * 10L)
+                .expireAfterAccess(popularSearchTtl)
+                .build();
+
+        CaffeineCacheMetrics.monitor(meterRegistry, cache, CACHE_NAME);
+        Gauge.builder("tmdb.cache.hot.keys", hotKeys, Cache::estimatedSize)
+                .description("Feed keys tracked as candidates for background refresh")
+                .register(meterRegistry);
+
+        log.info("TmdbCache initialized (max weight: {} bytes, TTLs: {}, feed stale grace: {}, popular search TTL: {} after {} requests)",
+                maxWeightBytes, ttls, feedStaleGrace, popularSearchTtl, popularSearchAfter);
+    }
+
+    /**
+     * Returns the cached payload for the given key, subscribing to {@code loader} on a miss.
+     * <p>
+     * The lookup happens on subscription. The loader runs outside the cache's internal locks, so a
+     * slow TMDB call never blocks lookups of unrelated keys; concurrent misses for the same key are
+     * expected to be coalesced by the loader itself. Loader errors propagate to the subscriber and
+     * nothing is cached; empty results are not cached.
+     * <p>
+     * A hit on an entry past its TTL (only possible for families with a stale grace period) returns
+     * the stale payload and revalidates it in the background. Requests sent with
+     * {@link TmdbRequestPriority#BACKGROUND} are not counted towards a key's popularity.
+     *
+     * @param family the endpoint family that determines the entry's TTL
+     * @param key the normalized TMDB path and query
+     * @param loader fetches the payload from TMDB on a miss
+     * @return a Mono emitting the cached or freshly loaded payload
+     */
+    @SuppressWarnings("unchecked")
+    public <T> Mono<T> get(TmdbEndpointFamily family, String key, Supplier<Mono<T>> loader) {
+        return Mono.deferContextual(context -> {
+            if (TmdbRequestPriority.from(context) == TmdbRequestPriority.INTERACTIVE) {
+                if (family == TmdbEndpointFamily.FEED) {
+                    track(family, key, loader);
+                } else if (family == TmdbEndpointFamily.SEARCH) {
+                    searchHits.get(key, k -> new LongAdder()).increment();
+                }
+            }
+
+            Entry entry = cache.getIfPresent(key);
+            if (entry != null) {
+                Duration age = entry.age();
+                servedAge(family).record(age);
+                if (age.compareTo(entry.ttl()) > 0) {
+                    revalidate(family, key, loader, "stale-hit");
+                }
+                return Mono.just((T) entry.value());
+            }
+            return loader.get().doOnNext(value -> store(family, key, value));
+        });
+    }
+
+    /**
+     * Refreshes the {@code limit} most requested feed keys whose entries are missing or older than
+     * {@code refreshAhead} of their TTL, waiting at most {@code timeout} for the round to finish.
+     * Request counts are halved after each round so that keys that cooled down drop out.
+     *
+     * @return the number of keys a refresh was started for
+     */
+    public int refreshHotKeys(int limit, double refreshAhead, Duration timeout) {
+        List<Map.Entry<String, HotKey>> hottest = hotKeys.asMap().entrySet().stream()
+                .sorted(Comparator.comparingLong((Map.Entry<String, HotKey> e) -> e.getValue().hits.sum()).reversed())
+                .limit(limit)
+                .toList();
+        hotKeys.asMap().values().forEach(HotKey::decay);
+
+        List<Map.Entry<String, HotKey>> due = hottest.stream()
+                .filter(e -> isDue(e.getKey(), e.getValue().family, refreshAhead))
+                .toList();
+        if (due.isEmpty()) {
+            return 0;
+        }
+
+        log.debug("Refreshing {} hot TMDB keys ahead of expiry", due.size());
+        Flux.fromIterable(due)
+                .flatMap(e -> refresh(e.getValue().family, e.getKey(), e.getValue().loader, "scheduled")
+                        .onErrorResume(error -> Mono.empty()))
+                .then()
+                .block(timeout);
+        return due.size();
+    }
+
+    public void invalidate(String key) {
+        cache.invalidate(key);
+    }
+
+    public void invalidateAll() {
+        cache.invalidateAll();
+    }
+
+    public CacheStats stats() {
+        return cache.stats();
+    }
+
+    public Duration ttl(TmdbEndpointFamily family) {
+        return ttls.get(family);
+    }
+
+    public Duration staleGrace(TmdbEndpointFamily family) {
+        return staleGraces.get(family);
+    }
+
+    private void store(TmdbEndpointFamily family, String key, Object value) {
+        cache.put(key, new Entry(family, value, System.nanoTime(), ttlOf(family, key)));
+    }
+
+    /**
+     * The family TTL, or the longer popular-search TTL for search keys requested often enough.
+     */
+    private Duration ttlOf(TmdbEndpointFamily family, String key) {
+        if (family == TmdbEndpointFamily.SEARCH) {
+            LongAdder hits = searchHits.getIfPresent(key);
+            if (hits != null && hits.sum() >= popularSearchAfter) {
+                return popularSearchTtl;
+            }
+        }
+        return ttls.get(family);
+    }
+
+    private void track(TmdbEndpointFamily family, String key, Supplier<? extends Mono<?>> loader) {
+        hotKeys.get(key, k -> new HotKey(family, loader)).hits.increment();
+    }
+
+    private boolean isDue(String key, TmdbEndpointFamily family, double refreshAhead) {
+        Entry entry = cache.getIfPresent(key);
+        if (entry == null) {
+            return true;
+        }
+        long refreshAfterNanos = (long) (ttls.get(family).toNanos() * refreshAhead);
+        return entry.age().toNanos() >= refreshAfterNanos;
+    }
+
+    /**
+     * Starts a background refresh unless one is already running for the key.
+     * Refreshes are sent with {@link TmdbRequestPriority#BACKGROUND} so they yield to user requests.
+     */
+    private void revalidate(TmdbEndpointFamily family, String key, Supplier<? extends Mono<?>> loader, String trigger) {
+        if (!revalidating.add(key)) {
+            return;
+        }
+        refresh(family, key, loader, trigger)
+                .doFinally(signal -> revalidating.remove(key))
+                .subscribe(value -> {}, error -> log.warn("Background refresh of {} failed, still serving stale entry: {}",
+                        key, error.getMessage()));
+    }
+
+    private Mono<?> refresh(TmdbEndpointFamily family, String key, Supplier<? extends Mono<?>> loader, String trigger) {
+        return Mono.defer(() -> {
+            long start = System.nanoTime();
+            return loader.get()
+                    .contextWrite(TmdbRequestPriority.BACKGROUND.context())
+                    .doOnNext(value -> store(family, key, value))
+                    .doOnSuccess(value -> refreshTimer(trigger, "success").record(Duration.ofNanos(System.nanoTime() - start)))
+                    .doOnError(error -> refreshTimer(trigger, "error").record(Duration.ofNanos(System.nanoTime() - start)));
+        });
+    }
+
+    private Timer refreshTimer(String trigger, String outcome) {
+        return Timer.builder("tmdb.cache.refresh")
+                .description("Latency of background TMDB cache refreshes")
+                .tag("trigger", trigger)
+                .tag("outcome", outcome)
+                .register(meterRegistry);
+    }
+
+    private Timer servedAge(TmdbEndpointFamily family) {
+        return Timer.builder("tmdb.cache.served.age")
+                .description("Age of cached TMDB payloads at the time they were served")
+                .tag("family", family.name().toLowerCase())
+                .register(meterRegistry);
+    }
+
+    private record Entry(TmdbEndpointFamily family, Object value, long storedAtNanos, Duration ttl) {
+        Duration age() {
+            return Duration.ofNanos(System.nanoTime() - storedAtNanos);
+        }
+    }
+
+    private static final class HotKey {
+        final TmdbEndpointFamily family;
+        final Supplier<? extends Mono<?>> loader;
+        final LongAdder hits = new LongAdder();
+
+        HotKey(TmdbEndpointFamily family, Supplier<? extends Mono<?>> loader) {
+            this.family = family;
+            this.loader = loader;
+        }
+
+        void decay() {
+            hits.add(-(hits.sum() / 2));
+        }
+    }
+
+    private class FamilyExpiry implements Expiry<String, Entry> {
+
+        @Override
+        public long expireAfterCreate(String key, Entry entry, long currentTime) {
+            return lifetime(entry);
+        }
+
+        @Override
+        public long expireAfterUpdate(String key, Entry entry, long currentTime, long currentDuration) {
+            return lifetime(entry);
+        }
+
+        @Override
+        public long expireAfterRead(String key, Entry entry, long currentTime, long currentDuration) {
+            return currentDuration;
+        }
+
+        private long lifetime(Entry entry) {
+            return entry.ttl().plus(staleGraces.get(entry.family())).toNanos();
+        }
+    }
+}
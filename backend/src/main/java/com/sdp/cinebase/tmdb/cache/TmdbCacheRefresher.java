@@ -0,0 +1,51 @@
+package com.sdp.cinebase.tmdb.cache;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+
+/**
+ * Periodically refreshes the most requested TMDB feed pages before they expire.
+ * <p>
+ * Runs on the scheduler thread, so the upstream latency of a refresh is never paid by a user request.
+ */
+@Component
+public class TmdbCacheRefresher {
+
+    private static final Logger log = LoggerFactory.getLogger(TmdbCacheRefresher.class);
+
+    private final TmdbCache cache;
+    private final int hotKeyLimit;
+    private final double refreshAhead;
+    private final Duration roundTimeout;
+
+    public TmdbCacheRefresher(
+            TmdbCache cache,
+            @Value("${tmdb.cache.refresh.hot-keys:20}") int hotKeyLimit,
+            @Value("${tmdb.cache.refresh.ahead:0.8}") double refreshAhead,
+            @Value("${tmdb.cache.refresh.round-timeout:30s}") Duration roundTimeout
+    ) {
+        this.cache = cache;
+        this.hotKeyLimit = hotKeyLimit;
+        this.refreshAhead = refreshAhead;
+        this.roundTimeout = roundTimeout;
+    }
+
+    @Scheduled(fixedDelayString = "${tmdb.cache.refresh.interval:60s}",
+            initialDelayString = "${tmdb.cache.refresh.interval:60s}")
+    public void refreshHotFeeds() {
+        try {
+            int refreshed = cache.refreshHotKeys(hotKeyLimit, refreshAhead, roundTimeout);
+            if (refreshed > 0) {
+                log.debug("Refreshed {} hot TMDB feed pages", refreshed);
+            }
+        } catch (Exception e) {
+            // Entries keep being served (stale if need be); the next round tries again
+            log.warn("Hot feed refresh round failed: {}", e.getMessage());
+        }
+    }
+}
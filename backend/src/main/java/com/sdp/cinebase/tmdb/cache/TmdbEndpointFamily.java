@@ -0,0 +1,15 @@
+package com.sdp.cinebase.tmdb.cache;
+
+/**
+ * Groups TMDB endpoints that share the same freshness requirements.
+ * <p>
+ * Each family gets its own cache TTL: feeds change every few minutes,
+ * while details, people and related-content lists are stable for hours.
+ */
+public enum TmdbEndpointFamily {
+    FEED,
+    SEARCH,
+    DETAILS,
+    PERSON,
+    RELATED
+}
@@ -0,0 +1,53 @@
+package com.sdp.cinebase.tmdb.cache;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.util.Optional;
+
+/**
+ * Last successful TMDB payload per key, kept as a fallback for when TMDB is unavailable.
+ * <p>
+ * Unlike {@link TmdbCache}, entries are never served while TMDB is healthy; they only stand in for
+ * a request that failed upstream or was rejected by the circuit breaker. Entries are kept much
+ * longer than the cache TTLs and are bounded by an estimated byte size.
+ */
+@Component
+public class TmdbLastKnownGood {
+
+    private static final Logger log = LoggerFactory.getLogger(TmdbLastKnownGood.class);
+
+    private final Cache<String, Stored> store;
+
+    public TmdbLastKnownGood(
+            @Value("${tmdb.fallback.max-weight-bytes:33554432}") long maxWeightBytes,
+            @Value("${tmdb.fallback.max-age:24h}") Duration maxAge
+    ) {
+        this.store = Caffeine.newBuilder()
+                .maximumWeight(maxWeightBytes)
+                .weigher((String key, Stored stored) -> key.length() * 2 + TmdbPayloadWeigher.weigh(stored.value()))
+                .expireAfterWrite(maxAge)
+                .build();
+
+        log.info("TmdbLastKnownGood initialized (max weight: {} bytes, max age: {})", maxWeightBytes, maxAge);
+    }
+
+    public void put(String key, Object value) {
+        store.put(key, new Stored(value, Instant.now()));
+    }
+
+    public Optional<Stored> get(String key) {
+        return Optional.ofNullable(store.getIfPresent(key));
+    }
+
+    /**
+     * A stored payload and when it was fetched from TMDB.
+     */
+    public record Stored(Object value, Instant fetchedAt) {}
+}
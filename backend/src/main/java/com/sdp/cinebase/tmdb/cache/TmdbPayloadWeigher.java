@@ -0,0 +1,85 @@
+package com.sdp.cinebase.tmdb.cache;
+
+import com.sdp.cinebase.tmdb.dto.MovieDetailsDto;
+import com.sdp.cinebase.tmdb.dto.MovieDto;
+import com.sdp.cinebase.tmdb.dto.PagedResponse;
+import com.sdp.cinebase.tmdb.dto.PersonDetailsDto;
+import com.sdp.cinebase.tmdb.dto.SeasonDetailsDto;
+
+import java.util.List;
+
+/**
+ * Estimates the in-memory footprint of cached TMDB payloads in bytes.
+ * <p>
+ * The estimate does not need to be exact - it only has to rank a 20-item feed page
+ * below a movie with a full cast list, so the cache evicts by size rather than by count.
+ */
+final class TmdbPayloadWeigher {
+
+    private static final int OBJECT_OVERHEAD = 64;
+    private static final int ITEM_OVERHEAD = 160;
+
+    private TmdbPayloadWeigher() {
+    }
+
+    static int weigh(Object payload) {
+        long bytes = OBJECT_OVERHEAD + estimate(payload);
+        return (int) Math.min(Integer.MAX_VALUE, bytes);
+    }
+
+    private static long estimate(Object payload) {
+        if (payload instanceof PagedResponse<?> paged) {
+            if (paged.results() == null) {
+                return ITEM_OVERHEAD;
+            }
+            long total = 0;
+            for (Object item : paged.results()) {
+                total += item instanceof MovieDto movie ? weighMovie(movie) : ITEM_OVERHEAD;
+            }
+            return total;
+        }
+        if (payload instanceof MovieDetailsDto details) {
+            return ITEM_OVERHEAD
+                    + length(details.overview())
+                    + size(details.genres()) * 32L
+                    + (details.credits() != null
+                        ? (size(details.credits().cast()) + size(details.credits().crew())) * (long) ITEM_OVERHEAD
+                        : 0)
+                    + (details.videos() != null ? size(details.videos().results()) * (long) ITEM_OVERHEAD : 0)
+                    + (details.reviews() != null && details.reviews().results() != null
+                        ? details.reviews().results().stream().mapToLong(r -> ITEM_OVERHEAD + length(r.content())).sum()
+                        : 0)
+                    + size(details.seasons()) * (long) ITEM_OVERHEAD;
+        }
+        if (payload instanceof PersonDetailsDto person) {
+            return ITEM_OVERHEAD
+                    + length(person.biography())
+                    + (person.movie_credits() != null ? size(person.movie_credits().cast()) * (long) ITEM_OVERHEAD : 0)
+                    + (person.tv_credits() != null ? size(person.tv_credits().cast()) * (long) ITEM_OVERHEAD : 0);
+        }
+        if (payload instanceof SeasonDetailsDto season) {
+            return ITEM_OVERHEAD
+                    + length(season.overview())
+                    + (season.episodes() != null
+                        ? season.episodes().stream().mapToLong(e -> ITEM_OVERHEAD + length(e.overview())).sum()
+                        : 0);
+        }
+        return ITEM_OVERHEAD;
+    }
+
+    private static long weighMovie(MovieDto movie) {
+        return ITEM_OVERHEAD
+                + length(movie.title())
+                + length(movie.name())
+                + length(movie.overview())
+                + (movie.genre_ids() != null ? movie.genre_ids().length * 4L : 0);
+    }
+
+    private static int length(String value) {
+        return value != null ? value.length() * 2 : 0;
+    }
+
+    private static int size(List<?> list) {
+        return list != null ? list.size() : 0;
+    }
+}
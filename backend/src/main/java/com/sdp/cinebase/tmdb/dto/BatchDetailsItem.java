@@ -0,0 +1,25 @@
+package com.sdp.cinebase.tmdb.dto;
+
+/**
+ * One line of a batch details response. Exactly one of {@code details} and {@code error} is set.
+ *
+ * @param key the requested key, normalized: trimmed and with the id reparsed, e.g. {@code movie:603}
+ *            for {@code " movie:0603"}
+ * @param stale whether the details were served from the last-known-good fallback
+ */
+public record BatchDetailsItem(
+        String key,
+        String media_type,
+        int id,
+        MovieDetailsDto details,
+        boolean stale,
+        String error
+) {
+    public static BatchDetailsItem of(String mediaType, int id, MovieDetailsDto details, boolean stale) {
+        return new BatchDetailsItem(mediaType + ":" + id, mediaType, id, details, stale, null);
+    }
+
+    public static BatchDetailsItem failed(String mediaType, int id, String error) {
+        return new BatchDetailsItem(mediaType + ":" + id, mediaType, id, null, false, error);
+    }
+}
@@ -0,0 +1,13 @@
+package com.sdp.cinebase.tmdb.dto;
+
+import com.fasterxml.jackson.annotation.JsonIgnoreProperties;
+
+/**
+ * One entry of a TMDB change list ({@code /movie/changes}, {@code /tv/changes}, {@code /person/changes}):
+ * the id of something that changed in the requested date range.
+ */
+@JsonIgnoreProperties(ignoreUnknown = true)
+public record ChangedIdDto(
+        int id,
+        Boolean adult
+) {}
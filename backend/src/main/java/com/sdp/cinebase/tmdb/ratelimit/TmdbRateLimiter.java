@@ -0,0 +1,257 @@
+package com.sdp.cinebase.tmdb.ratelimit;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import jakarta.annotation.PreDestroy;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.stereotype.Component;
+import org.springframework.web.reactive.function.client.ClientRequest;
+import org.springframework.web.reactive.function.client.ClientResponse;
+import org.springframework.web.reactive.function.client.ExchangeFilterFunction;
+import org.springframework.web.reactive.function.client.ExchangeFunction;
+import org.springframework.web.server.ResponseStatusException;
+import reactor.core.Disposable;
+import reactor.core.publisher.Mono;
+import reactor.core.publisher.MonoSink;
+import reactor.core.scheduler.Scheduler;
+import reactor.core.scheduler.Schedulers;
+
+import java.time.Duration;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Deque;
+import java.util.EnumMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+
+/**
+ * Token-bucket limiter for outbound TMDB requests.
+ * <p>
+ * Calls are wrapped with {@link #throttle}, which subscribes to the call only once a token has been
+ * granted; anything the call does (including the circuit breaker's timing) starts after the wait.
+ * The limiter is also installed as an {@link ExchangeFilterFunction} to watch for 429 responses.
+ * <p>
+ * Up to {@code burst} requests go out immediately; beyond that tokens are refilled at
+ * {@code permits-per-second} and callers wait in a bounded queue. Waiters are served strictly by
+ * {@link TmdbRequestPriority} (interactive before background) and first-come within a class.
+ * A full queue or a wait longer than {@code max-wait} fails fast with 503 instead of piling up.
+ * A 429 from TMDB pauses all issuing for the {@code Retry-After} period.
+ */
+@Component
+public class TmdbRateLimiter implements ExchangeFilterFunction {
+
+    private static final Logger log = LoggerFactory.getLogger(TmdbRateLimiter.class);
+
+    private static final Duration DEFAULT_RETRY_AFTER = Duration.ofSeconds(1);
+
+    private final double permitsPerNano;
+    private final double burst;
+    private final int maxQueue;
+    private final Duration maxWait;
+
+    private final Map<TmdbRequestPriority, Deque<Waiter>> queues = new EnumMap<>(TmdbRequestPriority.class);
+    private final Map<TmdbRequestPriority, Timer> waitTimers = new EnumMap<>(TmdbRequestPriority.class);
+    private final Map<TmdbRequestPriority, Counter> rejections = new EnumMap<>(TmdbRequestPriority.class);
+    private final Scheduler scheduler = Schedulers.newSingle("tmdb-rate-limiter", true);
+    private final Disposable drainTask;
+
+    // Guarded by this
+    private double tokens;
+    private long lastRefillNanos;
+    private long pausedUntilNanos;
+    private int queued;
+
+    public TmdbRateLimiter(
+            @Value("${tmdb.ratelimit.permits-per-second:40}") double permitsPerSecond,
+            @Value("${tmdb.ratelimit.burst:40}") int burst,
+            @Value("${tmdb.ratelimit.max-queue:200}") int maxQueue,
+            @Value("${tmdb.ratelimit.max-wait:2s}") Duration maxWait,
+            MeterRegistry meterRegistry
+    ) {
+        this.permitsPerNano = permitsPerSecond / TimeUnit.SECONDS.toNanos(1);
+        this.burst = burst;
+        this.maxQueue = maxQueue;
+        this.maxWait = maxWait;
+        this.tokens = burst;
+        this.lastRefillNanos = System.nanoTime();
+
+        for (TmdbRequestPriority priority : TmdbRequestPriority.values()) {
+            Deque<Waiter> queue = new ArrayDeque<>();
+            queues.put(priority, queue);
+            String tag = priority.name().toLowerCase();
+            Gauge.builder("tmdb.ratelimit.queue.depth", this, limiter -> limiter.depth(priority))
+                    .description("TMDB requests waiting for a rate-limit token")
+                    .tag("priority", tag)
+                    .register(meterRegistry);
+            waitTimers.put(priority, Timer.builder("tmdb.ratelimit.wait")
+                    .description("Time TMDB requests spent waiting for a rate-limit token")
+                    .tag("priority", tag)
+                    .register(meterRegistry));
+            rejections.put(priority, Counter.builder("tmdb.ratelimit.rejected")
+                    .description("TMDB requests rejected because the wait queue was full or the wait timed out")
+                    .tag("priority", tag)
+                    .register(meterRegistry));
+        }
+
+        // Hand out tokens roughly as fast as they are refilled
+        long drainPeriodNanos = Math.max(TimeUnit.MILLISECONDS.toNanos(5), (long) (1 / permitsPerNano));
+        this.drainTask = scheduler.schedulePeriodically(this::drain, drainPeriodNanos, drainPeriodNanos, TimeUnit.NANOSECONDS);
+
+        log.info("TmdbRateLimiter initialized ({} req/s, burst {}, max queue {}, max wait {})",
+                permitsPerSecond, burst, maxQueue, maxWait);
+    }
+
+    /**
+     * Subscribes to {@code call} once a token has been granted to the priority in the subscriber's
+     * context. Fails with 503 if the queue is full or the wait exceeds {@code max-wait}; the call is
+     * then never subscribed.
+     */
+    public <T> Mono<T> throttle(Mono<T> call) {
+        return Mono.deferContextual(context -> acquire(TmdbRequestPriority.from(context)))
+                .then(Mono.defer(() -> call));
+    }
+
+    /**
+     * Pauses all issuing when TMDB answers 429; tokens are taken by {@link #throttle}, not here.
+     */
+    @Override
+    public Mono<ClientResponse> filter(ClientRequest request, ExchangeFunction next) {
+        return next.exchange(request)
+                .doOnNext(response -> {
+                    if (response.statusCode().value() == HttpStatus.TOO_MANY_REQUESTS.value()) {
+                        pause(retryAfter(response));
+                    }
+                });
+    }
+
+    /**
+     * Completes once a token has been granted to a request of the given priority.
+     */
+    Mono<Void> acquire(TmdbRequestPriority priority) {
+        return Mono.<Void>create(sink -> {
+                    long now = System.nanoTime();
+                    Waiter waiter = new Waiter(sink, now);
+                    synchronized (this) {
+                        refill(now);
+                        if (queued == 0 && tokens >= 1 && now >= pausedUntilNanos) {
+                            tokens--;
+                            waiter.granted = true;
+                        } else if (queued >= maxQueue) {
+                            waiter = null;
+                        } else {
+                            queues.get(priority).addLast(waiter);
+                            queued++;
+                        }
+                    }
+
+                    if (waiter == null) {
+                        rejections.get(priority).increment();
+                        sink.error(new ResponseStatusException(HttpStatus.SERVICE_UNAVAILABLE,
+                                "TMDB request queue is full, please retry shortly"));
+                    } else if (waiter.granted) {
+                        waitTimers.get(priority).record(Duration.ZERO);
+                        sink.success();
+                    } else {
+                        Waiter queuedWaiter = waiter;
+                        sink.onCancel(() -> remove(priority, queuedWaiter));
+                    }
+                })
+                .timeout(maxWait)
+                .onErrorMap(TimeoutException.class, e -> {
+                    rejections.get(priority).increment();
+                    return new ResponseStatusException(HttpStatus.SERVICE_UNAVAILABLE,
+                            "Timed out waiting for the TMDB rate limit, please retry shortly");
+                });
+    }
+
+    @PreDestroy
+    void shutdown() {
+        drainTask.dispose();
+        scheduler.dispose();
+    }
+
+    private void drain() {
+        List<Map.Entry<TmdbRequestPriority, Waiter>> granted = new ArrayList<>();
+        long now = System.nanoTime();
+        synchronized (this) {
+            if (queued == 0 || now < pausedUntilNanos) {
+                return;
+            }
+            refill(now);
+            for (TmdbRequestPriority priority : TmdbRequestPriority.values()) {
+                Deque<Waiter> queue = queues.get(priority);
+                while (tokens >= 1 && !queue.isEmpty()) {
+                    tokens--;
+                    queued--;
+                    Waiter waiter = queue.pollFirst();
+                    waiter.granted = true;
+                    granted.add(Map.entry(priority, waiter));
+                }
+            }
+        }
+
+        for (Map.Entry<TmdbRequestPriority, Waiter> entry : granted) {
+            Waiter waiter = entry.getValue();
+            waitTimers.get(entry.getKey()).record(Duration.ofNanos(now - waiter.enqueuedAtNanos));
+            waiter.sink.success();
+        }
+    }
+
+    /**
+     * Takes a cancelled (or timed-out) waiter out of its queue. If {@link #drain} granted it a token
+     * just before the cancellation, nobody will use that token, so it goes back to the bucket.
+     */
+    private synchronized void remove(TmdbRequestPriority priority, Waiter waiter) {
+        if (queues.get(priority).remove(waiter)) {
+            queued--;
+        } else if (waiter.granted) {
+            tokens = Math.min(burst, tokens + 1);
+        }
+    }
+
+    private synchronized void pause(Duration duration) {
+        log.warn("TMDB returned 429, pausing outbound requests for {}", duration);
+        pausedUntilNanos = Math.max(pausedUntilNanos, System.nanoTime() + duration.toNanos());
+        tokens = 0;
+    }
+
+    private synchronized int depth(TmdbRequestPriority priority) {
+        return queues.get(priority).size();
+    }
+
+    private void refill(long now) {
+        tokens = Math.min(burst, tokens + (now - lastRefillNanos) * permitsPerNano);
+        lastRefillNanos = now;
+    }
+
+    private static Duration retryAfter(ClientResponse response) {
+        String header = response.headers().asHttpHeaders().getFirst(HttpHeaders.RETRY_AFTER);
+        if (header != null) {
+            try {
+                return Duration.ofSeconds(Long.parseLong(header.trim()));
+            } catch (NumberFormatException ignored) {
+                // HTTP-date form; fall back to the default pause
+            }
+        }
+        return DEFAULT_RETRY_AFTER;
+    }
+
+    private static final class Waiter {
+        final MonoSink<Void> sink;
+        final long enqueuedAtNanos;
+        boolean granted;
+
+        Waiter(MonoSink<Void> sink, long enqueuedAtNanos) {
+            this.sink = sink;
+            this.enqueuedAtNanos = enqueuedAtNanos;
+        }
+    }
+}
@@ -0,0 +1,29 @@
+package com.sdp.cinebase.tmdb.ratelimit;
+
+import reactor.util.context.Context;
+import reactor.util.context.ContextView;
+
+/**
+ * Priority class of an outbound TMDB request, carried in the Reactor context.
+ * <p>
+ * Requests without a priority in their context are treated as {@link #INTERACTIVE}. Work that
+ * nobody is waiting on directly (cache warmers, recommendation fan-out) should subscribe with
+ * {@code .contextWrite(TmdbRequestPriority.BACKGROUND.context())} so user-facing calls go first
+ * when the rate limit is reached.
+ */
+public enum TmdbRequestPriority {
+    /** A user is waiting for this response (details, search, feed pages). */
+    INTERACTIVE,
+    /** Background or bulk work that can wait for interactive traffic. */
+    BACKGROUND;
+
+    private static final String CONTEXT_KEY = TmdbRequestPriority.class.getName();
+
+    public Context context() {
+        return Context.of(CONTEXT_KEY, this);
+    }
+
+    public static TmdbRequestPriority from(ContextView context) {
+        return context.getOrDefault(CONTEXT_KEY, INTERACTIVE);
+    }
+}
@@ -0,0 +1,221 @@
+package com.sdp.cinebase.tmdb.resilience;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.http.HttpStatus;
+import org.springframework.stereotype.Component;
+import org.springframework.web.reactive.function.client.WebClientRequestException;
+import org.springframework.web.reactive.function.client.WebClientResponseException;
+import org.springframework.web.server.ResponseStatusException;
+import reactor.core.publisher.Mono;
+import reactor.core.publisher.SignalType;
+
+import java.time.Duration;
+import java.util.concurrent.TimeoutException;
+
+/**
+ * Circuit breaker around upstream TMDB exchanges.
+ * <p>
+ * Outcomes of the last {@code window-size} calls are tracked. Once at least {@code minimum-calls}
+ * have been seen and either the failure rate or the slow-call rate crosses its threshold, the
+ * circuit opens and calls fail immediately with 503 instead of waiting on a struggling upstream.
+ * After {@code open-duration} a few trial calls are let through (half-open); if they all succeed
+ * the circuit closes again, otherwise it reopens.
+ * <p>
+ * Only upstream unavailability counts as a failure: timeouts, connection errors, 5xx and 429.
+ * Other 4xx responses (e.g. an unknown movie id) are the caller's problem and count as successes.
+ */
+@Component
+public class TmdbCircuitBreaker {
+
+    private static final Logger log = LoggerFactory.getLogger(TmdbCircuitBreaker.class);
+
+    public enum State { CLOSED, OPEN, HALF_OPEN }
+
+    private final Duration callTimeout;
+    private final Duration slowCallDuration;
+    private final Duration openDuration;
+    private final double failureRateThreshold;
+    private final double slowCallRateThreshold;
+    private final int minimumCalls;
+    private final int halfOpenCalls;
+    private final Counter rejected;
+
+    // Guarded by this
+    private final boolean[] failedCalls;
+    private final boolean[] slowCalls;
+    private int recorded;
+    private int next;
+    private State state = State.CLOSED;
+    private long openedAtNanos;
+    private int halfOpenStarted;
+    private int halfOpenSucceeded;
+
+    public TmdbCircuitBreaker(
+            @Value("${tmdb.circuit.call-timeout:5s}") Duration callTimeout,
+            @Value("${tmdb.circuit.slow-call-duration:2s}") Duration slowCallDuration,
+            @Value("${tmdb.circuit.open-duration:30s}") Duration openDuration,
+            @Value("${tmdb.circuit.failure-rate-threshold:0.5}") double failureRateThreshold,
+            @Value("${tmdb.circuit.slow-call-rate-threshold:0.8}") double slowCallRateThreshold,
+            @Value("${tmdb.circuit.window-size:20}") int windowSize,
+            @Value("${tmdb.circuit.minimum-calls:10}") int minimumCalls,
+            @Value("${tmdb.circuit.half-open-calls:3}") int halfOpenCalls,
+            MeterRegistry meterRegistry
+    ) {
+        this.callTimeout = callTimeout;
+        this.slowCallDuration = slowCallDuration;
+        this.openDuration = openDuration;
+        this.failureRateThreshold = failureRateThreshold;
+        this.slowCallRateThreshold = slowCallRateThreshold;
+        this.minimumCalls = minimumCalls;
+        this.halfOpenCalls = halfOpenCalls;
+        this.failedCalls = new boolean[windowSize];
+        this.slowCalls = new boolean[windowSize];
+
+        Gauge.builder("tmdb.circuit.state", this, breaker -> breaker.state().ordinal())
+                .description("TMDB circuit breaker state (0 = closed, 1 = open, 2 = half-open)")
+                .register(meterRegistry);
+        this.rejected = Counter.builder("tmdb.circuit.rejected")
+                .description("TMDB calls rejected without an upstream request because the circuit was open")
+                .register(meterRegistry);
+
+        log.info("TmdbCircuitBreaker initialized (call timeout: {}, failure rate: {}, slow calls: {} over {}, open for: {})",
+                callTimeout, failureRateThreshold, slowCallRateThreshold, slowCallDuration, openDuration);
+    }
+
+    /**
+     * Runs {@code call} through the breaker: rejected immediately while open, otherwise bounded by
+     * the call timeout and recorded in the outcome window. The clock starts on subscription, so
+     * queueing (such as waiting for a rate-limit token) belongs outside this call.
+     */
+    public <T> Mono<T> execute(Mono<T> call) {
+        return Mono.defer(() -> {
+            if (!tryAcquire()) {
+                rejected.increment();
+                return Mono.error(new ResponseStatusException(HttpStatus.SERVICE_UNAVAILABLE,
+                        "TMDB is temporarily unavailable, please retry shortly"));
+            }
+
+            long start = System.nanoTime();
+            boolean[] failed = {false};
+            return call
+                    .timeout(callTimeout)
+                    .doOnError(error -> failed[0] = isUpstreamFailure(error))
+                    .doFinally(signal -> {
+                        if (signal == SignalType.CANCEL) {
+                            release();
+                        } else {
+                            record(failed[0], System.nanoTime() - start >= slowCallDuration.toNanos());
+                        }
+                    });
+        });
+    }
+
+    public synchronized State state() {
+        return state;
+    }
+
+    /**
+     * Whether {@code error} (or its cause) means TMDB itself failed: a timeout, a connection error,
+     * a 5xx or a 429. Client errors and local rejections are not upstream failures.
+     */
+    public static boolean isUpstreamFailure(Throwable error) {
+        for (Throwable e = error; e != null; e = e.getCause()) {
+            if (e instanceof WebClientResponseException response) {
+                return response.getStatusCode().is5xxServerError()
+                        || response.getStatusCode().value() == HttpStatus.TOO_MANY_REQUESTS.value();
+            }
+            if (e instanceof TimeoutException || e instanceof WebClientRequestException) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    /**
+     * Whether {@code error} means no live TMDB answer is available right now: an upstream failure,
+     * an open circuit, or a rate-limit rejection. These are the errors worth a stale fallback.
+     */
+    public static boolean isUnavailable(Throwable error) {
+        return isUpstreamFailure(error)
+                || (error instanceof ResponseStatusException status
+                        && status.getStatusCode().value() == HttpStatus.SERVICE_UNAVAILABLE.value());
+    }
+
+    private synchronized boolean tryAcquire() {
+        if (state == State.OPEN) {
+            if (System.nanoTime() - openedAtNanos < openDuration.toNanos()) {
+                return false;
+            }
+            transition(State.HALF_OPEN);
+        }
+        if (state == State.HALF_OPEN) {
+            if (halfOpenStarted >= halfOpenCalls) {
+                return false;
+            }
+            halfOpenStarted++;
+        }
+        return true;
+    }
+
+    private synchronized void release() {
+        if (state == State.HALF_OPEN && halfOpenStarted > 0) {
+            halfOpenStarted--;
+        }
+    }
+
+    private synchronized void record(boolean failed, boolean slow) {
+        switch (state) {
+            case HALF_OPEN -> {
+                if (failed) {
+                    transition(State.OPEN);
+                } else if (++halfOpenSucceeded >= halfOpenCalls) {
+                    transition(State.CLOSED);
+                }
+            }
+            case CLOSED -> {
+                failedCalls[next] = failed;
+                slowCalls[next] = slow;
+                next = (next + 1) % failedCalls.length;
+                recorded = Math.min(recorded + 1, failedCalls.length);
+                if (recorded >= minimumCalls
+                        && (rate(failedCalls) >= failureRateThreshold || rate(slowCalls) >= slowCallRateThreshold)) {
+                    transition(State.OPEN);
+                }
+            }
+            case OPEN -> {
+                // A call that started before the circuit opened; nothing to update
+            }
+        }
+    }
+
+    private double rate(boolean[] outcomes) {
+        int count = 0;
+        for (int i = 0; i < recorded; i++) {
+            if (outcomes[i]) {
+                count++;
+            }
+        }
+        return (double) count / recorded;
+    }
+
+    private void transition(State to) {
+        log.warn("TMDB circuit breaker {} -> {}", state, to);
+        state = to;
+        switch (to) {
+            case OPEN -> openedAtNanos = System.nanoTime();
+            case HALF_OPEN -> {
+                halfOpenStarted = 0;
+                halfOpenSucceeded = 0;
+            }
+            case CLOSED -> {
+                recorded = 0;
+                next = 0;
+            }
+        }
+    }
+}
@@ -0,0 +1,51 @@
+package com.sdp.cinebase.tmdb.resilience;
+
+import reactor.util.context.Context;
+import reactor.util.context.ContextView;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.util.Optional;
+import java.util.concurrent.atomic.AtomicReference;
+
+/**
+ * Per-request holder, carried in the Reactor context, that records whether any part of a TMDB
+ * response was served from the last-known-good fallback instead of a live upstream call.
+ * <p>
+ * Callers that want to surface staleness (e.g. as a response header) subscribe with
+ * {@code .contextWrite(meta.context())} and inspect the holder once the result is available.
+ */
+public final class TmdbResponseMeta {
+
+    private static final String CONTEXT_KEY = TmdbResponseMeta.class.getName();
+
+    private final AtomicReference<Instant> oldestStale = new AtomicReference<>();
+
+    public Context context() {
+        return Context.of(CONTEXT_KEY, this);
+    }
+
+    public static Optional<TmdbResponseMeta> from(ContextView context) {
+        return context.getOrEmpty(CONTEXT_KEY);
+    }
+
+    /**
+     * Records that a payload fetched at {@code fetchedAt} was served in place of a live response.
+     */
+    public void markStale(Instant fetchedAt) {
+        oldestStale.accumulateAndGet(fetchedAt, (current, candidate) ->
+                current == null || candidate.isBefore(current) ? candidate : current);
+    }
+
+    public boolean isStale() {
+        return oldestStale.get() != null;
+    }
+
+    /**
+     * Age of the oldest stale payload in the response, or zero if nothing was stale.
+     */
+    public Duration staleAge() {
+        Instant fetchedAt = oldestStale.get();
+        return fetchedAt == null ? Duration.ZERO : Duration.between(fetchedAt, Instant.now());
+    }
+}
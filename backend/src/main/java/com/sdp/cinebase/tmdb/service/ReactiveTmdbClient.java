@@ -0,0 +1,601 @@
+package com.sdp.cinebase.tmdb.service;
+
+import com.sdp.cinebase.tmdb.cache.TmdbCache;
+import com.sdp.cinebase.tmdb.cache.TmdbEndpointFamily;
+import com.sdp.cinebase.tmdb.cache.TmdbLastKnownGood;
+import com.sdp.cinebase.tmdb.dto.*;
+import com.sdp.cinebase.tmdb.ratelimit.TmdbRateLimiter;
+import com.sdp.cinebase.tmdb.ratelimit.TmdbRequestPriority;
+import com.sdp.cinebase.tmdb.resilience.TmdbCircuitBreaker;
+import com.sdp.cinebase.tmdb.resilience.TmdbResponseMeta;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.core.ParameterizedTypeReference;
+import org.springframework.http.HttpHeaders;
+import org.springframework.stereotype.Service;
+import org.springframework.web.reactive.function.client.WebClient;
+import org.springframework.web.reactive.function.client.WebClientResponseException;
+import org.springframework.web.util.UriBuilder;
+import reactor.core.publisher.Mono;
+import reactor.util.context.Context;
+
+import java.net.URI;
+import java.time.Duration;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Optional;
+import java.util.function.Consumer;
+import java.util.function.Function;
+
+/**
+ * Non-blocking client for The Movie Database (TMDB) API.
+ * <p>
+ * Every method returns a cold {@link Mono}; nothing is sent until it is subscribed. Responses are
+ * served from {@link TmdbCache} when possible, keyed by TMDB path and query, and concurrent misses
+ * for the same key share one upstream exchange via {@link TmdbRequestCoalescer}.
+ * Upstream errors are mapped to {@link RuntimeException}s with the same messages as {@link TmdbClient}.
+ * Every upstream exchange first waits for {@link TmdbRateLimiter}, which keeps us under TMDB's quota,
+ * and then runs through {@link TmdbCircuitBreaker}, which fails fast while TMDB is down. The breaker
+ * sits inside the limiter so it only times the exchange itself, never the wait for a token. When no live answer is available
+ * the last successful payload for the key is served instead and flagged stale in {@link TmdbResponseMeta}.
+ * Each payload fetched live is announced as a {@link TmdbPayloadFetchedEvent} (used to mirror the catalog).
+ */
+@Service
+public class ReactiveTmdbClient {
+
+    private static final Logger log = LoggerFactory.getLogger(ReactiveTmdbClient.class);
+
+    private static final String LIVE_ONLY_CONTEXT_KEY = ReactiveTmdbClient.class.getName() + ".liveOnly";
+
+    private static final ParameterizedTypeReference<PagedResponse<MovieDto>> MOVIE_PAGE_TYPE =
+            new ParameterizedTypeReference<>() {};
+
+    private static final ParameterizedTypeReference<PagedResponse<ChangedIdDto>> CHANGES_PAGE_TYPE =
+            new ParameterizedTypeReference<>() {};
+
+    private static final Comparator<MovieDto> BY_RATING_DESC =
+            (a, b) -> Double.compare(b.vote_average(), a.vote_average());
+
+    private static final Comparator<MovieDto> BY_DATE_DESC = (a, b) -> {
+        String dateA = a.release_date() != null ? a.release_date() : a.first_air_date();
+        String dateB = b.release_date() != null ? b.release_date() : b.first_air_date();
+
+        // Handle null dates - put them at the end
+        if (dateA == null && dateB == null) return 0;
+        if (dateA == null) return 1;
+        if (dateB == null) return -1;
+
+        // Descending order (newest first)
+        return dateB.compareTo(dateA);
+    };
+
+    private final WebClient client;
+    private final String apiKey;
+    private final TmdbCache cache;
+    private final TmdbRequestCoalescer coalescer;
+    private final TmdbRateLimiter rateLimiter;
+    private final TmdbCircuitBreaker circuitBreaker;
+    private final TmdbLastKnownGood lastKnownGood;
+    private final ApplicationEventPublisher events;
+    private final Duration combinedLegTimeout;
+
+    /**
+     * Constructs a new ReactiveTmdbClient with the given base URL and API key.
+     *
+     * @param baseUrl the TMDB API base URL (e.g., {@code https://api.themoviedb.org/3})
+     * @param apiKey the TMDB API key for authentication
+     * @param cache the in-process response cache
+     * @param coalescer joins identical in-flight requests
+     * @param combinedLegTimeout how long each leg of a combined feed may take before it is dropped
+     * @param rateLimiter throttles outbound requests by priority
+     * @param circuitBreaker fails fast while TMDB is unavailable
+     * @param lastKnownGood last successful payload per key, served while TMDB is unavailable
+     * @param events receives a {@link TmdbPayloadFetchedEvent} for every live payload
+     */
+    public ReactiveTmdbClient(
+            @Value("${tmdb.api.base-url}") String baseUrl,
+            @Value("${tmdb.api.key}") String apiKey,
+            TmdbCache cache,
+            TmdbRequestCoalescer coalescer,
+            @Value("${tmdb.combined.leg-timeout:3s}") Duration combinedLegTimeout,
+            TmdbRateLimiter rateLimiter,
+            TmdbCircuitBreaker circuitBreaker,
+            TmdbLastKnownGood lastKnownGood,
+            ApplicationEventPublisher events
+    ) {
+        this.apiKey = apiKey;
+        this.cache = cache;
+        this.coalescer = coalescer;
+        this.rateLimiter = rateLimiter;
+        this.circuitBreaker = circuitBreaker;
+        this.lastKnownGood = lastKnownGood;
+        this.events = events;
+        this.combinedLegTimeout = combinedLegTimeout;
+        this.client = WebClient.builder()
+                .baseUrl(baseUrl)
+                .defaultHeader(HttpHeaders.ACCEPT, "application/json")
+                .filter(rateLimiter)
+                .build();
+
+        log.info("ReactiveTmdbClient initialized with base URL: {}", baseUrl);
+    }
+
+    // ================================================
+    // MOVIES
+    // ================================================
+
+    public Mono<PagedResponse<MovieDto>> popularMovies(int page) {
+        return fetch(TmdbEndpointFamily.FEED, "/movie/popular?page=" + page, "fetch popular movies",
+                uri -> uri.path("/movie/popular")
+                        .queryParam("api_key", apiKey)
+                        .queryParam("language", "en-US")
+                        .queryParam("page", page)
+                        .build(),
+                MOVIE_PAGE_TYPE);
+    }
+
+    public Mono<PagedResponse<MovieDto>> topRatedMovies(int page) {
+        return fetch(TmdbEndpointFamily.FEED, "/movie/top_rated?page=" + page, "fetch top-rated movies",
+                uri -> uri.path("/movie/top_rated")
+                        .queryParam("api_key", apiKey)
+                        .queryParam("language", "en-US")
+                        .queryParam("page", page)
+                        .build(),
+                MOVIE_PAGE_TYPE);
+    }
+
+    public Mono<PagedResponse<MovieDto>> latestDiscover(int page) {
+        return fetch(TmdbEndpointFamily.FEED, "/discover/movie?page=" + page, "fetch latest movies",
+                uri -> uri.path("/discover/movie")
+                        .queryParam("api_key", apiKey)
+                        .queryParam("language", "en-US")
+                        .queryParam("sort_by", "release_date.desc")
+                        .queryParam("release_date.lte", java.time.LocalDate.now().toString())
+                        .queryParam("vote_count.gte", "10")
+                        .queryParam("page", page)
+                        .build(),
+                MOVIE_PAGE_TYPE);
+    }
+
+    public Mono<PagedResponse<MovieDto>> searchMovies(String query, int page) {
+        return search("/search/movie", "search movies", query, page);
+    }
+
+    // ================================================
+    // TV SHOWS
+    // ================================================
+
+    public Mono<PagedResponse<MovieDto>> popularTvShows(int page) {
+        return fetch(TmdbEndpointFamily.FEED, "/tv/popular?page=" + page, "fetch popular TV shows",
+                uri -> uri.path("/tv/popular")
+                        .queryParam("api_key", apiKey)
+                        .queryParam("language", "en-US")
+                        .queryParam("page", page)
+                        .build(),
+                MOVIE_PAGE_TYPE);
+    }
+
+    public Mono<PagedResponse<MovieDto>> topRatedTvShows(int page) {
+        return fetch(TmdbEndpointFamily.FEED, "/tv/top_rated?page=" + page, "fetch top-rated TV shows",
+                uri -> uri.path("/tv/top_rated")
+                        .queryParam("api_key", apiKey)
+                        .queryParam("language", "en-US")
+                        .queryParam("page", page)
+                        .build(),
+                MOVIE_PAGE_TYPE);
+    }
+
+    public Mono<PagedResponse<MovieDto>> latestTvShows(int page) {
+        return fetch(TmdbEndpointFamily.FEED, "/discover/tv?page=" + page, "fetch latest TV shows",
+                uri -> uri.path("/discover/tv")
+                        .queryParam("api_key", apiKey)
+                        .queryParam("language", "en-US")
+                        .queryParam("sort_by", "first_air_date.desc")
+                        .queryParam("first_air_date.lte", java.time.LocalDate.now().toString())
+                        .queryParam("vote_count.gte", "10")
+                        .queryParam("page", page)
+                        .build(),
+                MOVIE_PAGE_TYPE);
+    }
+
+    public Mono<PagedResponse<MovieDto>> searchTvShows(String query, int page) {
+        return search("/search/tv", "search TV shows", query, page);
+    }
+
+    /**
+     * Multi-search: searches both movies and TV shows in a single request.
+     *
+     * @param query the search query string
+     * @param page the page number to fetch
+     * @return paginated response with both movies and TV shows
+     */
+    public Mono<PagedResponse<MovieDto>> searchMulti(String query, int page) {
+        return search("/search/multi", "multi-search", query, page);
+    }
+
+    // ================================================
+    // TRENDING (MIXED MOVIES + TV)
+    // ================================================
+
+    /**
+     * Fetches trending movies and TV shows for a given time window.
+     *
+     * @param page the page number to fetch
+     * @param timeWindow the time window ("day" or "week")
+     * @return paginated response with trending items
+     */
+    public Mono<PagedResponse<MovieDto>> trendingAll(int page, String timeWindow) {
+        return fetch(TmdbEndpointFamily.FEED, "/trending/all/" + timeWindow + "?page=" + page, "fetch trending all",
+                uri -> uri.path("/trending/all/" + timeWindow)
+                        .queryParam("api_key", apiKey)
+                        .queryParam("language", "en-US")
+                        .queryParam("page", page)
+                        .build(),
+                MOVIE_PAGE_TYPE);
+    }
+
+    public Mono<PagedResponse<MovieDto>> trendingDay(int page) {
+        return trendingAll(page, "day");
+    }
+
+    // ================================================
+    // COMBINED FEEDS (MOVIES + TV)
+    // ================================================
+
+    /**
+     * Fetches and combines top-rated movies and TV shows, sorted by vote_average descending.
+     * <p>
+     * Both legs are requested concurrently. If one leg fails or exceeds the per-leg timeout,
+     * the other leg is returned on its own; only when both fail does the Mono error.
+     *
+     * @param page the page number (note: pagination is approximate due to merging)
+     * @return paginated response with the top 20 combined items
+     */
+    public Mono<PagedResponse<MovieDto>> combinedTopRated(int page) {
+        log.debug("Fetching combined top-rated (movies + TV), page: {}", page);
+        return combineLegs("top-rated", page, topRatedMovies(page), topRatedTvShows(page), BY_RATING_DESC);
+    }
+
+    /**
+     * Fetches and combines latest movies and TV shows, sorted by release date descending
+     * (release_date for movies, first_air_date for TV).
+     * <p>
+     * Both legs are requested concurrently, with the same partial-result behaviour as
+     * {@link #combinedTopRated(int)}.
+     *
+     * @param page the page number (note: pagination is approximate due to merging)
+     * @return paginated response with the 20 most recently released combined items
+     */
+    public Mono<PagedResponse<MovieDto>> combinedLatest(int page) {
+        log.debug("Fetching combined latest (movies + TV), page: {}", page);
+        return combineLegs("latest", page, latestDiscover(page), latestTvShows(page), BY_DATE_DESC);
+    }
+
+    // ================================================
+    // DETAILS
+    // ================================================
+
+    public Mono<MovieDetailsDto> getMovieDetails(int movieId) {
+        return fetch(TmdbEndpointFamily.DETAILS, "/movie/" + movieId, "fetch movie details",
+                uri -> uri.path("/movie/" + movieId)
+                        .queryParam("api_key", apiKey)
+                        .queryParam("language", "en-US")
+                        .queryParam("append_to_response", "credits,videos,reviews")
+                        .build(),
+                ParameterizedTypeReference.forType(MovieDetailsDto.class));
+    }
+
+    public Mono<MovieDetailsDto> getTvDetails(int tvId) {
+        return fetch(TmdbEndpointFamily.DETAILS, "/tv/" + tvId, "fetch TV details",
+                uri -> uri.path("/tv/" + tvId)
+                        .queryParam("api_key", apiKey)
+                        .queryParam("language", "en-US")
+                        .queryParam("append_to_response", "credits,videos,reviews")
+                        .build(),
+                ParameterizedTypeReference.forType(MovieDetailsDto.class));
+    }
+
+    public Mono<SeasonDetailsDto> getSeasonDetails(int tvId, int seasonNumber) {
+        return fetch(TmdbEndpointFamily.DETAILS, "/tv/" + tvId + "/season/" + seasonNumber, "fetch season details",
+                uri -> uri.path("/tv/" + tvId + "/season/" + seasonNumber)
+                        .queryParam("api_key", apiKey)
+                        .queryParam("language", "en-US")
+                        .build(),
+                ParameterizedTypeReference.forType(SeasonDetailsDto.class));
+    }
+
+    public Mono<PersonDetailsDto> getPersonDetails(int personId) {
+        return fetch(TmdbEndpointFamily.PERSON, "/person/" + personId, "fetch person details",
+                uri -> uri.path("/person/" + personId)
+                        .queryParam("api_key", apiKey)
+                        .queryParam("language", "en-US")
+                        .queryParam("append_to_response", "movie_credits,tv_credits")
+                        .build(),
+                ParameterizedTypeReference.forType(PersonDetailsDto.class));
+    }
+
+    // ================================================
+    // AI RECOMMENDATIONS - SIMILAR & RECOMMENDED
+    // ================================================
+
+    public Mono<PagedResponse<MovieDto>> getSimilarMovies(int movieId, int page) {
+        return fetch(TmdbEndpointFamily.RELATED, "/movie/" + movieId + "/similar?page=" + page, "fetch similar movies",
+                uri -> uri.path("/movie/" + movieId + "/similar")
+                        .queryParam("api_key", apiKey)
+                        .queryParam("language", "en-US")
+                        .queryParam("page", page)
+                        .build(),
+                MOVIE_PAGE_TYPE);
+    }
+
+    public Mono<PagedResponse<MovieDto>> getMovieRecommendations(int movieId, int page) {
+        return fetch(TmdbEndpointFamily.RELATED, "/movie/" + movieId + "/recommendations?page=" + page,
+                "fetch movie recommendations",
+                uri -> uri.path("/movie/" + movieId + "/recommendations")
+                        .queryParam("api_key", apiKey)
+                        .queryParam("language", "en-US")
+                        .queryParam("page", page)
+                        .build(),
+                MOVIE_PAGE_TYPE);
+    }
+
+    public Mono<PagedResponse<MovieDto>> getSimilarTvShows(int tvId, int page) {
+        return fetch(TmdbEndpointFamily.RELATED, "/tv/" + tvId + "/similar?page=" + page, "fetch similar TV shows",
+                uri -> uri.path("/tv/" + tvId + "/similar")
+                        .queryParam("api_key", apiKey)
+                        .queryParam("language", "en-US")
+                        .queryParam("page", page)
+                        .build(),
+                MOVIE_PAGE_TYPE);
+    }
+
+    public Mono<PagedResponse<MovieDto>> getTvRecommendations(int tvId, int page) {
+        return fetch(TmdbEndpointFamily.RELATED, "/tv/" + tvId + "/recommendations?page=" + page,
+                "fetch TV recommendations",
+                uri -> uri.path("/tv/" + tvId + "/recommendations")
+                        .queryParam("api_key", apiKey)
+                        .queryParam("language", "en-US")
+                        .queryParam("page", page)
+                        .build(),
+                MOVIE_PAGE_TYPE);
+    }
+
+    // ================================================
+    // CHANGES
+    // ================================================
+
+    /**
+     * One page of TMDB's change list for a media type: ids of entries changed between the two dates.
+     * Change lists are always fetched live; they are neither cached nor served from the fallback.
+     *
+     * @param mediaType {@code movie}, {@code tv} or {@code person}
+     * @param startDate first day of the range (TMDB accepts ranges of up to 14 days)
+     * @param endDate last day of the range
+     * @param page the page number to fetch
+     */
+    public Mono<PagedResponse<ChangedIdDto>> changes(String mediaType, LocalDate startDate, LocalDate endDate, int page) {
+        String key = "/" + mediaType + "/changes?start_date=" + startDate + "&end_date=" + endDate + "&page=" + page;
+        return exchange(key, "fetch " + mediaType + " changes",
+                uri -> uri.path("/" + mediaType + "/changes")
+                        .queryParam("api_key", apiKey)
+                        .queryParam("start_date", startDate)
+                        .queryParam("end_date", endDate)
+                        .queryParam("page", page)
+                        .build(),
+                CHANGES_PAGE_TYPE,
+                value -> {});
+    }
+
+    /**
+     * Reactor context that turns off the last-known-good fallback: when TMDB is unavailable the
+     * request fails instead of answering with an old payload. For callers that must know whether
+     * they got a live answer, such as the change-feed sync, which would otherwise count an outage
+     * as a refresh.
+     */
+    public static Context liveOnly() {
+        return Context.of(LIVE_ONLY_CONTEXT_KEY, true);
+    }
+
+    /**
+     * Drops the cached details of a movie, TV show or person, so the next read goes to TMDB.
+     *
+     * @param mediaType {@code movie}, {@code tv} or {@code person}
+     * @param id the TMDB id
+     */
+    public void invalidateDetails(String mediaType, int id) {
+        cache.invalidate("/" + mediaType + "/" + id);
+    }
+
+    // ================================================
+    // HELPERS
+    // ================================================
+
+    /**
+     * Search request keyed and sent with the canonical form of {@code query} (see {@link TmdbSearchQuery}).
+     * When page 1 comes back from TMDB with more pages, page 2 is fetched into the cache in the
+     * background, since it is the page users most often go on to.
+     */
+    private Mono<PagedResponse<MovieDto>> search(String path, String action, String query, int page) {
+        String canonical = TmdbSearchQuery.canonicalize(query);
+        return fetch(TmdbEndpointFamily.SEARCH, path + "?query=" + canonical + "&page=" + page, action,
+                uri -> uri.path(path)
+                        .queryParam("api_key", apiKey)
+                        .queryParam("query", canonical)
+                        .queryParam("include_adult", false)
+                        .queryParam("language", "en-US")
+                        .queryParam("page", page)
+                        .build(),
+                MOVIE_PAGE_TYPE,
+                fetched -> {
+                    if (page == 1 && fetched.total_pages() > 1) {
+                        search(path, action, canonical, 2)
+                                .contextWrite(TmdbRequestPriority.BACKGROUND.context())
+                                .subscribe(next -> {}, e -> log.debug("Prefetch of {} page 2 for '{}' failed: {}",
+                                        path, canonical, e.getMessage()));
+                    }
+                });
+    }
+
+    /**
+     * Cache lookup, then a coalesced upstream GET on a miss, falling back to the last known good
+     * payload if TMDB is unavailable.
+     *
+     * @param family the endpoint family that determines the cache TTL
+     * @param key the normalized TMDB path and query (without the API key)
+     * @param action short description used in logs and error messages (e.g. "fetch popular movies")
+     * @param uri builds the full request URI
+     * @param type the response body type
+     */
+    private <T> Mono<T> fetch(
+            TmdbEndpointFamily family,
+            String key,
+            String action,
+            Function<UriBuilder, URI> uri,
+            ParameterizedTypeReference<T> type
+    ) {
+        return fetch(family, key, action, uri, type, value -> {});
+    }
+
+    /**
+     * Same as {@link #fetch(TmdbEndpointFamily, String, String, Function, ParameterizedTypeReference)},
+     * additionally running {@code afterFetch} once per payload fetched live from TMDB.
+     */
+    private <T> Mono<T> fetch(
+            TmdbEndpointFamily family,
+            String key,
+            String action,
+            Function<UriBuilder, URI> uri,
+            ParameterizedTypeReference<T> type,
+            Consumer<T> afterFetch
+    ) {
+        return cache.get(family, key, () -> exchange(key, action, uri, type, value -> {
+                    lastKnownGood.put(key, value);
+                    events.publishEvent(new TmdbPayloadFetchedEvent(key, value));
+                    afterFetch.accept(value);
+                }))
+                .onErrorResume(TmdbCircuitBreaker::isUnavailable, e -> lastKnownGoodOr(key, action, e));
+    }
+
+    /**
+     * Coalesced upstream GET through the rate limiter and circuit breaker, without caching or fallback.
+     *
+     * @param onFetched runs once per upstream response, not once per coalesced caller
+     */
+    private <T> Mono<T> exchange(
+            String key,
+            String action,
+            Function<UriBuilder, URI> uri,
+            ParameterizedTypeReference<T> type,
+            Consumer<T> onFetched
+    ) {
+        return coalescer.join(key, () -> {
+            log.debug("TMDB request to {}: {}", action, key);
+            return rateLimiter.throttle(circuitBreaker.execute(client.get()
+                            .uri(uri)
+                            .retrieve()
+                            .bodyToMono(type)))
+                    .doOnNext(onFetched)
+                    .onErrorMap(WebClientResponseException.class, e -> {
+                        log.error("TMDB API error while trying to {} ({}): {} - {}",
+                                action, key, e.getStatusCode(), e.getMessage());
+                        return new RuntimeException("Failed to " + action + ": " + e.getStatusCode(), e);
+                    });
+        });
+    }
+
+    /**
+     * Serves the last successful payload for {@code key}, flagged stale, or rethrows {@code error}
+     * (always, under {@link #liveOnly()}).
+     */
+    @SuppressWarnings("unchecked")
+    private <T> Mono<T> lastKnownGoodOr(String key, String action, Throwable error) {
+        return Mono.deferContextual(context -> {
+            if (context.getOrDefault(LIVE_ONLY_CONTEXT_KEY, false)) {
+                return Mono.error(error);
+            }
+            return lastKnownGood.get(key)
+                    .map(stored -> {
+                        log.warn("TMDB unavailable while trying to {} ({}), serving payload from {}: {}",
+                                action, key, stored.fetchedAt(), error.getMessage());
+                        TmdbResponseMeta.from(context).ifPresent(meta -> meta.markStale(stored.fetchedAt()));
+                        return Mono.just((T) stored.value());
+                    })
+                    .orElseGet(() -> Mono.error(error));
+        });
+    }
+
+    /**
+     * Subscribes to both legs at once and merges whatever completed in time.
+     */
+    private Mono<PagedResponse<MovieDto>> combineLegs(
+            String feed,
+            int page,
+            Mono<PagedResponse<MovieDto>> moviesLeg,
+            Mono<PagedResponse<MovieDto>> tvLeg,
+            Comparator<MovieDto> order
+    ) {
+        return Mono.zip(leg(feed, "movies", page, moviesLeg), leg(feed, "TV", page, tvLeg))
+                .flatMap(legs -> {
+                    Optional<PagedResponse<MovieDto>> movies = legs.getT1();
+                    Optional<PagedResponse<MovieDto>> tvShows = legs.getT2();
+                    if (movies.isEmpty() && tvShows.isEmpty()) {
+                        log.error("Error while fetching combined {} (page {}): both legs failed", feed, page);
+                        return Mono.error(new RuntimeException(
+                                "Failed to fetch combined " + feed + ": movie and TV requests both failed"));
+                    }
+                    return Mono.just(combine(page,
+                            movies.orElseGet(() -> emptyPage(page)),
+                            tvShows.orElseGet(() -> emptyPage(page)),
+                            order));
+                });
+    }
+
+    /**
+     * Applies the per-leg timeout and turns a failed or empty leg into {@link Optional#empty()}.
+     */
+    private Mono<Optional<PagedResponse<MovieDto>>> leg(
+            String feed,
+            String mediaType,
+            int page,
+            Mono<PagedResponse<MovieDto>> leg
+    ) {
+        return leg.timeout(combinedLegTimeout)
+                .map(Optional::of)
+                .defaultIfEmpty(Optional.empty())
+                .onErrorResume(e -> {
+                    log.warn("Combined {} feed: {} leg failed for page {}, returning partial result: {}",
+                            feed, mediaType, page, e.toString());
+                    return Mono.just(Optional.empty());
+                });
+    }
+
+    private static PagedResponse<MovieDto> emptyPage(int page) {
+        return new PagedResponse<>(page, List.of(), 0, 0);
+    }
+
+    /**
+     * Merges a movie page and a TV page, sorts with {@code order} and keeps the first 20 items
+     * (standard TMDB page size).
+     */
+    private static PagedResponse<MovieDto> combine(
+            int page,
+            PagedResponse<MovieDto> movies,
+            PagedResponse<MovieDto> tvShows,
+            Comparator<MovieDto> order
+    ) {
+        List<MovieDto> combined = new ArrayList<>(movies.results());
+        combined.addAll(tvShows.results());
+        combined.sort(order);
+
+        return new PagedResponse<>(
+                page,
+                List.copyOf(combined.subList(0, Math.min(combined.size(), 20))),
+                movies.total_pages() + tvShows.total_pages(),
+                movies.total_results() + tvShows.total_results()
+        );
+    }
+}
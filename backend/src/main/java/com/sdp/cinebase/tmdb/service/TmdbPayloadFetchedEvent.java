@@ -0,0 +1,24 @@
+package com.sdp.cinebase.tmdb.service;
+
+/**
+ * Published after a payload has been fetched live from TMDB (not for cache or fallback hits).
+ *
+ * @param key the normalized TMDB path and query the payload was fetched for
+ * @param payload the deserialized response body
+ */
+public record TmdbPayloadFetchedEvent(String key, Object payload) {
+
+    /**
+     * Media type implied by the TMDB path ({@code movie} or {@code tv}), or {@code null} for
+     * mixed lists such as trending and multi-search, where each item carries its own media type.
+     */
+    public String impliedMediaType() {
+        if (key.startsWith("/movie/") || key.startsWith("/discover/movie") || key.startsWith("/search/movie")) {
+            return "movie";
+        }
+        if (key.startsWith("/tv/") || key.startsWith("/discover/tv") || key.startsWith("/search/tv")) {
+            return "tv";
+        }
+        return null;
+    }
+}
@@ -0,0 +1,87 @@
+package com.sdp.cinebase.tmdb.service;
+
+import com.sdp.cinebase.tmdb.ratelimit.TmdbRequestPriority;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.stereotype.Component;
+import reactor.core.publisher.Mono;
+
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicReference;
+import java.util.function.Supplier;
+
+/**
+ * Single-flight coalescing of identical in-flight TMDB requests.
+ * <p>
+ * Callers asking for the same normalized path and query while an exchange is already running
+ * share that exchange and its deserialized result instead of issuing their own upstream call.
+ * The key is released as soon as the exchange terminates, so later callers start a fresh request.
+ * <p>
+ * An exchange waits for its rate-limit token at the {@link TmdbRequestPriority} of the caller that
+ * started it, so flights are kept per priority: a background caller may join an interactive flight,
+ * but an interactive caller never joins a background one and queues behind other background work.
+ */
+@Component
+public class TmdbRequestCoalescer {
+
+    private final Map<FlightKey, Mono<?>> inFlight = new ConcurrentHashMap<>();
+    private final Counter started;
+    private final Counter coalesced;
+
+    public TmdbRequestCoalescer(MeterRegistry meterRegistry) {
+        this.started = Counter.builder("tmdb.requests.started")
+                .description("Upstream TMDB exchanges started")
+                .register(meterRegistry);
+        this.coalesced = Counter.builder("tmdb.requests.coalesced")
+                .description("TMDB requests served by joining an identical in-flight exchange")
+                .register(meterRegistry);
+    }
+
+    /**
+     * Joins the in-flight exchange for {@code key} at the caller's priority (or, for a background
+     * caller, an interactive one), or starts one using {@code exchange}.
+     *
+     * @param key the normalized TMDB path and query
+     * @param exchange creates the upstream request; only invoked when no exchange is in flight
+     * @return a Mono emitting the shared result
+     */
+    @SuppressWarnings("unchecked")
+    public <T> Mono<T> join(String key, Supplier<Mono<T>> exchange) {
+        return Mono.deferContextual(context -> {
+            TmdbRequestPriority priority = TmdbRequestPriority.from(context);
+            boolean[] created = {false};
+            Mono<?> flight = priority == TmdbRequestPriority.BACKGROUND
+                    ? inFlight.get(new FlightKey(key, TmdbRequestPriority.INTERACTIVE))
+                    : null;
+            if (flight == null) {
+                flight = inFlight.computeIfAbsent(new FlightKey(key, priority), k -> {
+                    created[0] = true;
+                    return newFlight(k, exchange.get());
+                });
+            }
+            (created[0] ? started : coalesced).increment();
+            return (Mono<T>) flight;
+        });
+    }
+
+    /**
+     * Number of distinct exchanges currently in flight.
+     */
+    public int inFlightCount() {
+        return inFlight.size();
+    }
+
+    private <T> Mono<T> newFlight(FlightKey key, Mono<T> exchange) {
+        AtomicReference<Mono<T>> self = new AtomicReference<>();
+        Mono<T> flight = exchange
+                .doOnTerminate(() -> inFlight.remove(key, self.get()))
+                .doOnCancel(() -> inFlight.remove(key, self.get()))
+                .share();
+        self.set(flight);
+        return flight;
+    }
+
+    private record FlightKey(String key, TmdbRequestPriority priority) {
+    }
+}
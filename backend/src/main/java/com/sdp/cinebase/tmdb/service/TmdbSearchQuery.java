@@ -0,0 +1,29 @@
+package com.sdp.cinebase.tmdb.service;
+
+import java.text.Normalizer;
+import java.util.Locale;
+import java.util.regex.Pattern;
+
+/**
+ * Canonical form of a user-typed search query, used both as the cache key and as the query sent
+ * to TMDB, so that spellings TMDB treats identically share one cache entry.
+ * <p>
+ * Only differences that cannot change TMDB's results are removed: Unicode compatibility forms
+ * (NFKC, e.g. full-width letters or ligatures), case, and leading, trailing or repeated whitespace.
+ * Words and punctuation are kept as typed.
+ */
+public final class TmdbSearchQuery {
+
+    private static final Pattern WHITESPACE = Pattern.compile("[\\s\\p{Z}]+");
+
+    private TmdbSearchQuery() {
+    }
+
+    public static String canonicalize(String query) {
+        if (query == null) {
+            return "";
+        }
+        String normalized = Normalizer.normalize(query, Normalizer.Form.NFKC).toLowerCase(Locale.ROOT);
+        return WHITESPACE.matcher(normalized).replaceAll(" ").trim();
+    }
+}
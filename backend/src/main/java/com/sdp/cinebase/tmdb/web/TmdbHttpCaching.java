@@ -0,0 +1,73 @@
+package com.sdp.cinebase.tmdb.web;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.sdp.cinebase.common.ETags;
+import com.sdp.cinebase.tmdb.cache.TmdbCache;
+import com.sdp.cinebase.tmdb.cache.TmdbEndpointFamily;
+import org.springframework.http.CacheControl;
+import org.springframework.stereotype.Component;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * HTTP caching headers for proxied TMDB responses.
+ * <p>
+ * {@code Cache-Control} follows the {@link TmdbCache} TTL of the endpoint family, so browsers and
+ * shared caches keep a response exactly as long as we would. TMDB data is the same for every
+ * user, so these responses are {@code public}; anything user-specific is {@code private} and
+ * revalidated on every use.
+ * <p>
+ * ETags are strong hashes of the JSON body. A tag is remembered per payload instance, keyed by
+ * identity and held weakly: a payload served from the TMDB cache is hashed once when first sent
+ * and never again while it stays cached, so a conditional request that ends in 304 costs no
+ * serialization at all. Payloads built per request (combined feeds, mirror reads) are hashed on
+ * every response.
+ */
+@Component
+public class TmdbHttpCaching {
+
+    private final TmdbCache cache;
+    private final ObjectMapper objectMapper;
+    private final Cache<Object, String> eTags = Caffeine.newBuilder()
+            .weakKeys()
+            .build();
+
+    public TmdbHttpCaching(TmdbCache cache, ObjectMapper objectMapper) {
+        this.cache = cache;
+        this.objectMapper = objectMapper;
+    }
+
+    /**
+     * Shared-cacheable for the family's TTL; feeds may also be served stale while revalidating,
+     * matching the cache's own stale grace.
+     */
+    public CacheControl publicFor(TmdbEndpointFamily family) {
+        CacheControl cacheControl = CacheControl
+                .maxAge(cache.ttl(family).toSeconds(), TimeUnit.SECONDS)
+                .cachePublic();
+        long staleGrace = cache.staleGrace(family).toSeconds();
+        return staleGrace > 0 ? cacheControl.staleWhileRevalidate(staleGrace, TimeUnit.SECONDS) : cacheControl;
+    }
+
+    /**
+     * For responses that depend on the caller: only the caller's browser may keep them, and only
+     * to revalidate with the ETag.
+     */
+    public CacheControl privateRevalidated() {
+        return CacheControl.noCache().cachePrivate();
+    }
+
+    /**
+     * For last-known-good fallbacks: usable for this response only, so caches ask again as soon
+     * as TMDB may be back.
+     */
+    public CacheControl stale() {
+        return CacheControl.noCache();
+    }
+
+    public String eTag(Object payload) {
+        return eTags.get(payload, body -> ETags.strong(objectMapper, body));
+    }
+}
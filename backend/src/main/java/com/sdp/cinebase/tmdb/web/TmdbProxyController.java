@@ -1,14 +1,26 @@
 package com.sdp.cinebase.tmdb.web;
 
+import com.sdp.cinebase.catalog.service.CatalogService;
+import com.sdp.cinebase.tmdb.cache.TmdbEndpointFamily;
 import com.sdp.cinebase.tmdb.dto.*;
-import com.sdp.cinebase.tmdb.service.TmdbClient;
+import com.sdp.cinebase.tmdb.resilience.TmdbResponseMeta;
+import com.sdp.cinebase.tmdb.service.ReactiveTmdbClient;
+import com.sdp.cinebase.user.dto.RecommendationPageResponse;
 import com.sdp.cinebase.user.model.User;
 import com.sdp.cinebase.user.repo.UserRepository;
-import com.sdp.cinebase.user.service.RecommendationService;
+import com.sdp.cinebase.user.service.RecommendationCache;
 import io.swagger.v3.oas.annotations.Operation;
 import io.swagger.v3.oas.annotations.tags.Tag;
+import jakarta.servlet.http.HttpServletRequest;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
 import org.springframework.security.core.Authentication;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.context.request.RequestContextHolder;
+import org.springframework.web.context.request.ServletRequestAttributes;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
 
 import java.util.List;
 
@@ -16,25 +28,47 @@ import java.util.List;
  * REST controller that proxies TMDB API requests through the backend.
  * <p>
  * This controller provides endpoints for fetching movies, TV shows, and trending content.
- * All requests are forwarded to the TmdbClient service, which handles the actual TMDB API calls.
+ * All requests are forwarded to the ReactiveTmdbClient, which handles the actual TMDB API calls.
+ * TMDB-backed endpoints return the client's {@link Mono} directly, so the servlet thread is released
+ * while the upstream call is in flight.
+ * <p>
+ * If TMDB is unavailable and a response (or part of it) is served from the last known good payload,
+ * the response carries {@code X-Cinebase-Stale: true} and an {@code Age} header in seconds.
+ * <p>
+ * Responses carry {@code Cache-Control} matching the cache TTL of their endpoint family and a strong
+ * ETag (see {@link TmdbHttpCaching}); a request whose {@code If-None-Match} matches gets 304.
+ * <p>
+ * If the client disconnects first, the pending TMDB call is cancelled (see {@link TmdbRequestCancellation});
+ * a new search by the same user cancels that user's previous search.
  */
 @RestController
 @RequestMapping("/api/tmdb")
 @Tag(name = "TMDB Proxy", description = "Third-party API integration - TMDB (The Movie Database) proxy endpoints for movies and TV shows")
 public class TmdbProxyController {
 
-    private final TmdbClient tmdb;
-    private final RecommendationService recommendationService;
+    static final String STALE_HEADER = "X-Cinebase-Stale";
+
+    private final ReactiveTmdbClient tmdb;
+    private final CatalogService catalog;
+    private final RecommendationCache recommendationCache;
     private final UserRepository userRepository;
+    private final TmdbRequestCancellation cancellation;
+    private final TmdbHttpCaching httpCaching;
 
     public TmdbProxyController(
-            TmdbClient tmdb,
-            RecommendationService recommendationService,
-            UserRepository userRepository
+            ReactiveTmdbClient tmdb,
+            CatalogService catalog,
+            RecommendationCache recommendationCache,
+            UserRepository userRepository,
+            TmdbRequestCancellation cancellation,
+            TmdbHttpCaching httpCaching
     ) {
         this.tmdb = tmdb;
-        this.recommendationService = recommendationService;
+        this.catalog = catalog;
+        this.recommendationCache = recommendationCache;
         this.userRepository = userRepository;
+        this.cancellation = cancellation;
+        this.httpCaching = httpCaching;
     }
 
     // ================================================
@@ -42,29 +76,30 @@ public class TmdbProxyController {
     // ================================================
     @Operation(summary = "Get popular movies", description = "Fetch popular movies from TMDB")
     @GetMapping("/movies/popular")
-    public PagedResponse<MovieDto> popularMovies(@RequestParam(defaultValue = "1") int page) {
-        return tmdb.popularMovies(page);
+    public Mono<ResponseEntity<PagedResponse<MovieDto>>> popularMovies(@RequestParam(defaultValue = "1") int page) {
+        return served(TmdbEndpointFamily.FEED, tmdb.popularMovies(page));
     }
 
     @Operation(summary = "Get top-rated movies", description = "Fetch top-rated movies from TMDB")
     @GetMapping("/movies/top-rated")
-    public PagedResponse<MovieDto> topRatedMovies(@RequestParam(defaultValue = "1") int page) {
-        return tmdb.topRatedMovies(page);
+    public Mono<ResponseEntity<PagedResponse<MovieDto>>> topRatedMovies(@RequestParam(defaultValue = "1") int page) {
+        return served(TmdbEndpointFamily.FEED, tmdb.topRatedMovies(page));
     }
 
     @Operation(summary = "Get latest movies", description = "Fetch latest movies from TMDB")
     @GetMapping("/movies/latest")
-    public PagedResponse<MovieDto> latestMovies(@RequestParam(defaultValue = "1") int page) {
-        return tmdb.latestDiscover(page);
+    public Mono<ResponseEntity<PagedResponse<MovieDto>>> latestMovies(@RequestParam(defaultValue = "1") int page) {
+        return served(TmdbEndpointFamily.FEED, tmdb.latestDiscover(page));
     }
 
     @Operation(summary = "Search movies", description = "Search for movies by title")
     @GetMapping("/movies/search")
-    public PagedResponse<MovieDto> searchMovies(
+    public Mono<ResponseEntity<PagedResponse<MovieDto>>> searchMovies(
             @RequestParam String q,
-            @RequestParam(defaultValue = "1") int page
+            @RequestParam(defaultValue = "1") int page,
+            Authentication authentication
     ) {
-        return tmdb.searchMovies(q, page);
+        return served(TmdbEndpointFamily.SEARCH, cancellation.latestSearchWins(authentication.getName(), "movies", tmdb.searchMovies(q, page)));
     }
 
     // ================================================
@@ -73,29 +108,30 @@ public class TmdbProxyController {
 
     @Operation(summary = "Get popular TV shows", description = "Fetch popular TV shows from TMDB")
     @GetMapping("/tv/popular")
-    public PagedResponse<MovieDto> tvPopular(@RequestParam(defaultValue = "1") int page) {
-        return tmdb.popularTvShows(page);
+    public Mono<ResponseEntity<PagedResponse<MovieDto>>> tvPopular(@RequestParam(defaultValue = "1") int page) {
+        return served(TmdbEndpointFamily.FEED, tmdb.popularTvShows(page));
     }
 
     @Operation(summary = "Get top-rated TV shows", description = "Fetch top-rated TV shows from TMDB")
     @GetMapping("/tv/top-rated")
-    public PagedResponse<MovieDto> tvTopRated(@RequestParam(defaultValue = "1") int page) {
-        return tmdb.topRatedTvShows(page);
+    public Mono<ResponseEntity<PagedResponse<MovieDto>>> tvTopRated(@RequestParam(defaultValue = "1") int page) {
+        return served(TmdbEndpointFamily.FEED, tmdb.topRatedTvShows(page));
     }
 
     @Operation(summary = "Get latest TV shows", description = "Fetch latest TV shows from TMDB")
     @GetMapping("/tv/latest")
-    public PagedResponse<MovieDto> tvLatest(@RequestParam(defaultValue = "1") int page) {
-        return tmdb.latestTvShows(page);
+    public Mono<ResponseEntity<PagedResponse<MovieDto>>> tvLatest(@RequestParam(defaultValue = "1") int page) {
+        return served(TmdbEndpointFamily.FEED, tmdb.latestTvShows(page));
     }
 
     @Operation(summary = "Search TV shows", description = "Search for TV shows by title")
     @GetMapping("/tv/search")
-    public PagedResponse<MovieDto> tvSearch(
+    public Mono<ResponseEntity<PagedResponse<MovieDto>>> tvSearch(
             @RequestParam String q,
-            @RequestParam(defaultValue = "1") int page
+            @RequestParam(defaultValue = "1") int page,
+            Authentication authentication
     ) {
-        return tmdb.searchTvShows(q, page);
+        return served(TmdbEndpointFamily.SEARCH, cancellation.latestSearchWins(authentication.getName(), "tv", tmdb.searchTvShows(q, page)));
     }
 
     // ================================================
@@ -114,11 +150,12 @@ public class TmdbProxyController {
      */
     @Operation(summary = "Multi-search", description = "Search for both movies and TV shows in a single request")
     @GetMapping("/multi/search")
-    public PagedResponse<MovieDto> multiSearch(
+    public Mono<ResponseEntity<PagedResponse<MovieDto>>> multiSearch(
             @RequestParam String q,
-            @RequestParam(defaultValue = "1") int page
+            @RequestParam(defaultValue = "1") int page,
+            Authentication authentication
     ) {
-        return tmdb.searchMulti(q, page);
+        return served(TmdbEndpointFamily.SEARCH, cancellation.latestSearchWins(authentication.getName(), "multi", tmdb.searchMulti(q, page)));
     }
 
     // ================================================
@@ -127,29 +164,30 @@ public class TmdbProxyController {
 
     @Operation(summary = "Get popular feed", description = "Fetch trending movies and TV shows for today")
     @GetMapping("/feed/popular")
-    public PagedResponse<MovieDto> feedPopular(@RequestParam(defaultValue = "1") int page) {
+    public Mono<ResponseEntity<PagedResponse<MovieDto>>> feedPopular(@RequestParam(defaultValue = "1") int page) {
         // Trending today - mix of popular movies and TV shows
-        return tmdb.trendingDay(page);
+        return served(TmdbEndpointFamily.FEED, tmdb.trendingDay(page));
     }
 
     @Operation(summary = "Get latest feed", description = "Fetch latest movies and TV shows combined")
     @GetMapping("/feed/latest")
-    public PagedResponse<MovieDto> feedLatest(@RequestParam(defaultValue = "1") int page) {
+    public Mono<ResponseEntity<PagedResponse<MovieDto>>> feedLatest(@RequestParam(defaultValue = "1") int page) {
         // Combined latest movies and TV shows, sorted by release date
-        return tmdb.combinedLatest(page);
+        return served(TmdbEndpointFamily.FEED, tmdb.combinedLatest(page));
     }
 
     @Operation(summary = "Get top-rated feed", description = "Fetch top-rated movies and TV shows combined")
     @GetMapping("/feed/top-rated")
-    public PagedResponse<MovieDto> feedTopRated(@RequestParam(defaultValue = "1") int page) {
+    public Mono<ResponseEntity<PagedResponse<MovieDto>>> feedTopRated(@RequestParam(defaultValue = "1") int page) {
         // Combined top-rated movies and TV shows, sorted by rating
-        return tmdb.combinedTopRated(page);
+        return served(TmdbEndpointFamily.FEED, tmdb.combinedTopRated(page));
     }
 
-    @Operation(summary = "Get AI recommendations", description = "Get personalized AI-powered recommendations based on user's favorite picks using TMDB ML")
+    @Operation(summary = "Get AI recommendations", description = "Get personalized AI-powered recommendations based on user's favorite picks using TMDB ML. Pass the previous page's next_cursor to continue.")
     @GetMapping("/feed/recommendations")
-    public PagedResponse<MovieDto> feedRecommendations(
+    public ResponseEntity<RecommendationPageResponse> feedRecommendations(
             @RequestParam(defaultValue = "1") int page,
+            @RequestParam(required = false) String cursor,
             Authentication authentication
     ) {
         // AI-powered recommendations based on user's favorite picks
@@ -157,15 +195,22 @@ public class TmdbProxyController {
         User user = userRepository.findByUsername(username)
                 .orElseThrow(() -> new RuntimeException("User not found"));
 
-        List<MovieDto> recommendations = recommendationService.getRecommendations(user, page);
+        // Served from the user's materialized ranking; deeper pages extend it on demand
+        RecommendationPageResponse recommendations = recommendationCache.getPage(user, page, cursor);
+        return ResponseEntity.ok()
+                .cacheControl(httpCaching.privateRevalidated())
+                .eTag(httpCaching.eTag(recommendations))
+                .body(recommendations);
+    }
 
-        // Return as paged response (simplified - single page with all recommendations)
-        return new PagedResponse<>(
-                page,
-                recommendations,
-                1, // total_pages
-                recommendations.size() // total_results
-        );
+    // ================================================
+    // BATCH DETAILS
+    // ================================================
+
+    @Operation(summary = "Batch details", description = "Fetch details for up to 100 titles, keyed movie:<id> or tv:<id>. Streams one JSON object per line as each title resolves; mirrored titles come first.")
+    @GetMapping(value = "/details/batch", produces = MediaType.APPLICATION_NDJSON_VALUE)
+    public Flux<BatchDetailsItem> detailsBatch(@RequestParam List<String> ids) {
+        return catalog.detailsBatch(ids);
     }
 
     // ================================================
@@ -174,8 +219,8 @@ public class TmdbProxyController {
 
     @Operation(summary = "Get movie details", description = "Fetch detailed information for a specific movie")
     @GetMapping("/movies/{id}")
-    public MovieDetailsDto getMovieDetails(@PathVariable int id) {
-        return tmdb.getMovieDetails(id);
+    public Mono<ResponseEntity<MovieDetailsDto>> getMovieDetails(@PathVariable int id) {
+        return served(TmdbEndpointFamily.DETAILS, catalog.movieDetails(id));
     }
 
     // ================================================
@@ -184,22 +229,52 @@ public class TmdbProxyController {
 
     @Operation(summary = "Get TV show details", description = "Fetch detailed information for a specific TV show")
     @GetMapping("/tv/{id}")
-    public MovieDetailsDto getTvDetails(@PathVariable int id) {
-        return tmdb.getTvDetails(id);
+    public Mono<ResponseEntity<MovieDetailsDto>> getTvDetails(@PathVariable int id) {
+        return served(TmdbEndpointFamily.DETAILS, catalog.tvDetails(id));
     }
 
     @Operation(summary = "Get season details", description = "Fetch detailed information for a specific season of a TV show")
     @GetMapping("/tv/{id}/season/{seasonNumber}")
-    public SeasonDetailsDto getSeasonDetails(
+    public Mono<ResponseEntity<SeasonDetailsDto>> getSeasonDetails(
             @PathVariable int id,
             @PathVariable int seasonNumber
     ) {
-        return tmdb.getSeasonDetails(id, seasonNumber);
+        return served(TmdbEndpointFamily.DETAILS, tmdb.getSeasonDetails(id, seasonNumber));
     }
 
     @Operation(summary = "Get person details", description = "Fetch detailed information about actors, directors, and other crew members")
     @GetMapping("/person/{id}")
-    public PersonDetailsDto getPersonDetails(@PathVariable int id) {
-        return tmdb.getPersonDetails(id);
+    public Mono<ResponseEntity<PersonDetailsDto>> getPersonDetails(@PathVariable int id) {
+        return served(TmdbEndpointFamily.PERSON, catalog.personDetails(id));
+    }
+
+    // ================================================
+    // HELPERS
+    // ================================================
+
+    /**
+     * Adds the family's caching headers and the payload's ETag, and cancels the work if the client
+     * disconnects. Spring MVC answers a matching {@code If-None-Match} with 304 without writing the
+     * body. If any TMDB payload in the response came from the last-known-good fallback, the
+     * response is flagged stale and must not be reused. The servlet request is captured here, on
+     * the request thread.
+     */
+    private <T> Mono<ResponseEntity<T>> served(TmdbEndpointFamily family, Mono<T> result) {
+        ServletRequestAttributes attributes = (ServletRequestAttributes) RequestContextHolder.currentRequestAttributes();
+        HttpServletRequest request = attributes.getRequest();
+        TmdbResponseMeta meta = new TmdbResponseMeta();
+        return cancellation.cancelOnDisconnect(request, result)
+                .map(value -> {
+                    ResponseEntity.BodyBuilder response = ResponseEntity.ok().eTag(httpCaching.eTag(value));
+                    if (meta.isStale()) {
+                        return response
+                                .cacheControl(httpCaching.stale())
+                                .header(STALE_HEADER, "true")
+                                .header(HttpHeaders.AGE, String.valueOf(meta.staleAge().toSeconds()))
+                                .body(value);
+                    }
+                    return response.cacheControl(httpCaching.publicFor(family)).body(value);
+                })
+                .contextWrite(meta.context());
     }
-}
\ No newline at end of file
+}
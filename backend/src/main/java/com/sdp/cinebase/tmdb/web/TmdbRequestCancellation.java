@@ -0,0 +1,101 @@
+package com.sdp.cinebase.tmdb.web;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.servlet.http.HttpServletRequest;
+import org.springframework.http.HttpStatus;
+import org.springframework.stereotype.Component;
+import org.springframework.web.context.request.NativeWebRequest;
+import org.springframework.web.context.request.async.DeferredResult;
+import org.springframework.web.context.request.async.DeferredResultProcessingInterceptor;
+import org.springframework.web.context.request.async.WebAsyncUtils;
+import org.springframework.web.server.ResponseStatusException;
+import reactor.core.publisher.Mono;
+import reactor.core.publisher.Sinks;
+
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Stops TMDB work nobody is waiting for any more.
+ * <p>
+ * Proxy endpoints return a {@link Mono}, which Spring MVC completes asynchronously. When the
+ * subscription is cancelled, the cancel travels up through the cache and
+ * {@code TmdbRequestCoalescer}, which aborts the upstream exchange once no other caller shares it,
+ * and frees its rate-limiter slot if it was still queued.
+ * <p>
+ * The servlet API has no disconnect callback, so {@link #cancelOnDisconnect} is best effort: it
+ * cancels when the container ends the async request with an error, a timeout or an early
+ * completion. Tomcat only raises that error if it notices the closed socket while the request is
+ * suspended, and never when a proxy keeps its own connection open, so the async request timeout is
+ * what ultimately bounds work for a client that has gone.
+ * <p>
+ * Search additionally follows "latest search wins" per user and endpoint: starting a search
+ * cancels the same user's previous search on that endpoint if it is still running, and the
+ * superseded request fails with 409. Searches on different endpoints, such as the movie and TV
+ * result lists of one screen, do not supersede each other.
+ */
+@Component
+public class TmdbRequestCancellation {
+
+    private final Map<String, Sinks.Empty<Void>> latestSearches = new ConcurrentHashMap<>();
+    private final MeterRegistry meterRegistry;
+
+    public TmdbRequestCancellation(MeterRegistry meterRegistry) {
+        this.meterRegistry = meterRegistry;
+    }
+
+    /**
+     * Cancels {@code result} if the container gives up on the current request before it completes,
+     * which includes a client disconnect the container has noticed. Must be called on the request
+     * thread.
+     */
+    public <T> Mono<T> cancelOnDisconnect(HttpServletRequest request, Mono<T> result) {
+        Sinks.Empty<Void> disconnected = Sinks.empty();
+        WebAsyncUtils.getAsyncManager(request).registerDeferredResultInterceptor(new Object(),
+                new DeferredResultProcessingInterceptor() {
+                    @Override
+                    public <R> boolean handleError(NativeWebRequest webRequest, DeferredResult<R> deferredResult, Throwable t) {
+                        disconnected.tryEmitEmpty();
+                        return true;
+                    }
+
+                    @Override
+                    public <R> boolean handleTimeout(NativeWebRequest webRequest, DeferredResult<R> deferredResult) {
+                        disconnected.tryEmitEmpty();
+                        return true;
+                    }
+
+                    @Override
+                    public <R> void afterCompletion(NativeWebRequest webRequest, DeferredResult<R> deferredResult) {
+                        // No-op once the result was set; cancels if the container completed the request first
+                        disconnected.tryEmitEmpty();
+                    }
+                });
+        return result.takeUntilOther(disconnected.asMono()
+                .doOnSuccess(none -> cancelled("disconnect")));
+    }
+
+    /**
+     * Runs {@code search} as the user's latest search on {@code endpoint}, superseding (cancelling)
+     * any earlier one on the same endpoint still in flight.
+     */
+    public <T> Mono<T> latestSearchWins(String user, String endpoint, Mono<T> search) {
+        String key = user + ' ' + endpoint;
+        return Mono.defer(() -> {
+            Sinks.Empty<Void> superseded = Sinks.empty();
+            Sinks.Empty<Void> previous = latestSearches.put(key, superseded);
+            if (previous != null) {
+                previous.tryEmitEmpty();
+            }
+            Mono<T> supersededError = superseded.asMono()
+                    .then(Mono.fromRunnable(() -> cancelled("superseded")))
+                    .then(Mono.error(new ResponseStatusException(HttpStatus.CONFLICT, "Superseded by a newer search")));
+            return Mono.firstWithSignal(search, supersededError)
+                    .doFinally(signal -> latestSearches.remove(key, superseded));
+        });
+    }
+
+    private void cancelled(String reason) {
+        meterRegistry.counter("tmdb.requests.cancelled", "reason", reason).increment();
+    }
+}
@@ -0,0 +1,20 @@
+package com.sdp.cinebase.user.dto;
+
+import com.sdp.cinebase.tmdb.dto.MovieDto;
+
+import java.util.List;
+
+/**
+ * One page of a user's recommendation feed.
+ * <p>
+ * Mirrors {@link com.sdp.cinebase.tmdb.dto.PagedResponse} and adds {@code next_cursor}, an opaque
+ * token for the following page ({@code null} on the last page). {@code total_pages} and
+ * {@code total_results} count what has been ranked so far and grow as the feed goes deeper.
+ */
+public record RecommendationPageResponse(
+        int page,
+        List<MovieDto> results,
+        int total_pages,
+        int total_results,
+        String next_cursor
+) {}
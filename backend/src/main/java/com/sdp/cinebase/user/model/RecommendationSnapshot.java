@@ -0,0 +1,60 @@
+package com.sdp.cinebase.user.model;
+
+import jakarta.persistence.*;
+import java.time.Instant;
+
+/**
+ * Persisted copy of a user's last computed recommendation list.
+ * <p>
+ * Optional second tier behind the in-memory recommendation cache, so a restart or a cold node
+ * can serve a recent list instantly instead of recomputing it from TMDB.
+ */
+@Entity
+@Table(name = "recommendation_snapshots")
+public class RecommendationSnapshot {
+
+    @Id
+    @Column(name = "user_id")
+    private Long userId;
+
+    @Column(name = "payload", nullable = false, columnDefinition = "TEXT")
+    private String payload; // JSON RankedRecommendations: the ranked MovieDto list, upstream depth and hasMore
+
+    @Column(name = "computed_at", nullable = false)
+    private Instant computedAt;
+
+    // Constructors
+    public RecommendationSnapshot() {
+    }
+
+    public RecommendationSnapshot(Long userId, String payload, Instant computedAt) {
+        this.userId = userId;
+        this.payload = payload;
+        this.computedAt = computedAt;
+    }
+
+    // Getters and Setters
+    public Long getUserId() {
+        return userId;
+    }
+
+    public void setUserId(Long userId) {
+        this.userId = userId;
+    }
+
+    public String getPayload() {
+        return payload;
+    }
+
+    public void setPayload(String payload) {
+        this.payload = payload;
+    }
+
+    public Instant getComputedAt() {
+        return computedAt;
+    }
+
+    public void setComputedAt(Instant computedAt) {
+        this.computedAt = computedAt;
+    }
+}
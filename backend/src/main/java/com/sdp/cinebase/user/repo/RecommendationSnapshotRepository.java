@@ -0,0 +1,7 @@
+package com.sdp.cinebase.user.repo;
+
+import com.sdp.cinebase.user.model.RecommendationSnapshot;
+import org.springframework.data.jpa.repository.JpaRepository;
+
+public interface RecommendationSnapshotRepository extends JpaRepository<RecommendationSnapshot, Long> {
+}
@@ -0,0 +1,22 @@
+package com.sdp.cinebase.user.service;
+
+import com.sdp.cinebase.tmdb.dto.MovieDto;
+
+import java.util.List;
+
+/**
+ * A user's ranked recommendation candidates, as far as they have been fetched.
+ * <p>
+ * {@code depth} is the number of upstream TMDB pages fetched per source. Extending the ranking
+ * appends newly found candidates after the existing ones, so positions that were already served
+ * never move.
+ *
+ * @param movies ranked candidates, best first
+ * @param depth upstream pages fetched per source so far
+ * @param hasMore whether a deeper upstream page may still add candidates
+ */
+public record RankedRecommendations(
+        List<MovieDto> movies,
+        int depth,
+        boolean hasMore
+) {}
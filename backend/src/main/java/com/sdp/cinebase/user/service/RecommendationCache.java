@@ -0,0 +1,360 @@
+package com.sdp.cinebase.user.service;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.github.benmanes.caffeine.cache.AsyncCacheLoader;
+import com.github.benmanes.caffeine.cache.AsyncLoadingCache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.sdp.cinebase.tmdb.dto.MovieDto;
+import com.sdp.cinebase.user.dto.RecommendationPageResponse;
+import com.sdp.cinebase.user.model.RecommendationSnapshot;
+import com.sdp.cinebase.user.model.User;
+import com.sdp.cinebase.user.repo.RecommendationSnapshotRepository;
+import com.sdp.cinebase.user.repo.UserRepository;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.cache.CaffeineCacheMetrics;
+import jakarta.annotation.PreDestroy;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.http.HttpStatus;
+import org.springframework.stereotype.Service;
+import org.springframework.web.server.ResponseStatusException;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.util.List;
+import java.util.Optional;
+import java.util.Set;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Executor;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.locks.ReentrantLock;
+
+/**
+ * Materialized per-user recommendation lists.
+ * <p>
+ * Computing recommendations means a TMDB fan-out plus scoring, while a user's favorite picks rarely
+ * change. Computed lists are therefore kept per user in memory and, when
+ * {@code app.recommendations.persistent-cache.enabled} is set, in the {@code recommendation_snapshots}
+ * table. Repeat visits are served from the stored list; once it is older than the TTL the stored list
+ * is still returned while a fresh one is computed in the background. Saving new picks invalidates both tiers.
+ * <p>
+ * The feed is paginated over the stored ranking. The first computation only fetches one upstream page per
+ * source; when a client pages past the end of what is ranked, the ranking is extended by one more upstream
+ * page and stored again, so deeper pages are only fetched for users who actually scroll that far.
+ * <p>
+ * Cursors are bound to the ranking they were issued for. A background refresh keeps the ranking it
+ * replaced next to the new one, so a client halfway through the feed keeps paging the list it started
+ * on instead of seeing entries repeated or skipped.
+ */
+@Service
+public class RecommendationCache {
+
+    private static final Logger log = LoggerFactory.getLogger(RecommendationCache.class);
+
+    public static final int PAGE_SIZE = 20;
+
+    private static final int EXTEND_LOCK_STRIPES = 64;
+
+    private final RecommendationService recommendationService;
+    private final UserRepository userRepository;
+    private final RecommendationSnapshotRepository snapshotRepository;
+    private final ObjectMapper objectMapper;
+    private final Duration ttl;
+    private final boolean persistentTierEnabled;
+    private final ExecutorService refreshExecutor = Executors.newVirtualThreadPerTaskExecutor();
+    private final AsyncLoadingCache<Long, Snapshot> cache;
+    private final ReentrantLock[] extendLocks = new ReentrantLock[EXTEND_LOCK_STRIPES];
+    private final Set<Long> refreshing = ConcurrentHashMap.newKeySet();
+
+    public RecommendationCache(
+            RecommendationService recommendationService,
+            UserRepository userRepository,
+            RecommendationSnapshotRepository snapshotRepository,
+            ObjectMapper objectMapper,
+            MeterRegistry meterRegistry,
+            @Value("${app.recommendations.cache.ttl:30m}") Duration ttl,
+            @Value("${app.recommendations.cache.max-users:10000}") long maxUsers,
+            @Value("${app.recommendations.cache.expire-after-access:24h}") Duration expireAfterAccess,
+            @Value("${app.recommendations.persistent-cache.enabled:false}") boolean persistentTierEnabled
+    ) {
+        this.recommendationService = recommendationService;
+        this.userRepository = userRepository;
+        this.snapshotRepository = snapshotRepository;
+        this.objectMapper = objectMapper;
+        this.ttl = ttl;
+        this.persistentTierEnabled = persistentTierEnabled;
+        for (int i = 0; i < extendLocks.length; i++) {
+            extendLocks[i] = new ReentrantLock();
+        }
+        this.cache = Caffeine.newBuilder()
+                .maximumSize(maxUsers)
+                .expireAfterAccess(expireAfterAccess)
+                .executor(refreshExecutor)
+                .recordStats()
+                .buildAsync(new SnapshotLoader());
+
+        CaffeineCacheMetrics.monitor(meterRegistry, cache, "recommendations");
+
+        log.info("RecommendationCache initialized (TTL: {}, max users: {}, persistent tier: {})",
+                ttl, maxUsers, persistentTierEnabled);
+    }
+
+    /**
+     * Returns one page of the user's recommendations, computing the ranking only when nothing is stored.
+     * <p>
+     * A stored ranking older than the TTL is served as-is and refreshed in the background. A cursor
+     * takes precedence over {@code page}. If the ranking was refreshed since the cursor was issued, the
+     * page comes from the ranking the cursor belongs to, which is no longer extended; a cursor older
+     * than that, or one issued before the user's picks changed, is rejected with 409 so the client
+     * starts again from the first page.
+     *
+     * @param user the requesting user
+     * @param page 1-based page number, used when no cursor is given
+     * @param cursor the {@code next_cursor} of a previous page, or {@code null}
+     */
+    public RecommendationPageResponse getPage(User user, int page, String cursor) {
+        RecommendationCursor position = null;
+        int offset;
+        if (cursor != null && !cursor.isBlank()) {
+            position = RecommendationCursor.decode(cursor);
+            offset = position.offset();
+        } else if (page >= 1) {
+            offset = (page - 1) * PAGE_SIZE;
+        } else {
+            throw new ResponseStatusException(HttpStatus.BAD_REQUEST, "Page must be at least 1");
+        }
+
+        Snapshot current = cache.synchronous().get(user.getId());
+        if (current.isOlderThan(ttl)) {
+            log.debug("Recommendations for user {} are {} old, refreshing in background",
+                    user.getUsername(), Duration.between(current.computedAt(), Instant.now()));
+            refresh(user.getId());
+        }
+
+        Snapshot snapshot = current;
+        boolean pinned = false;
+        if (position != null && position.generation() != current.generation()) {
+            if (current.previous() == null || position.generation() != current.previous().generation()) {
+                throw new ResponseStatusException(HttpStatus.CONFLICT, "Recommendations have changed, start again from the first page");
+            }
+            snapshot = current.previous();
+            pinned = true;
+        } else if (snapshot.needsExtensionFor(offset + PAGE_SIZE)) {
+            snapshot = extend(user, offset + PAGE_SIZE);
+        }
+
+        List<MovieDto> movies = snapshot.ranking().movies();
+        int from = Math.min(offset, movies.size());
+        int to = Math.min(offset + PAGE_SIZE, movies.size());
+        // A replaced ranking is served as far as it got
+        boolean more = to < movies.size() || (!pinned && snapshot.ranking().hasMore());
+
+        int pageNumber = offset / PAGE_SIZE + 1;
+        int knownPages = (movies.size() + PAGE_SIZE - 1) / PAGE_SIZE;
+        return new RecommendationPageResponse(
+                pageNumber,
+                movies.subList(from, to),
+                more ? Math.max(knownPages, pageNumber + 1) : knownPages,
+                movies.size(),
+                more ? new RecommendationCursor(snapshot.generation(), to).encode() : null
+        );
+    }
+
+    /**
+     * Drops the stored list for a user (e.g. after their favorite picks changed).
+     */
+    public void invalidate(Long userId) {
+        cache.synchronous().invalidate(userId);
+        if (persistentTierEnabled) {
+            snapshotRepository.deleteById(userId);
+        }
+        log.debug("Invalidated stored recommendations for user {}", userId);
+    }
+
+    /**
+     * Extends the stored ranking until it covers {@code size} entries or runs out of upstream pages.
+     * Concurrent requests for the same user wait for one extension instead of each fetching the same pages.
+     * <p>
+     * The extension only replaces the entry it was computed from. If the user's picks were invalidated
+     * or a refresh stored a new ranking in the meantime, the extended list serves this request and is
+     * neither cached nor persisted.
+     */
+    private Snapshot extend(User user, int size) {
+        Long userId = user.getId();
+        ReentrantLock lock = extendLocks[Math.floorMod(userId.hashCode(), extendLocks.length)];
+        lock.lock();
+        try {
+            CompletableFuture<Snapshot> expected = cache.get(userId);
+            Snapshot snapshot = expected.join();
+            while (snapshot.needsExtensionFor(size)) {
+                RankedRecommendations extended = recommendationService.extend(user, snapshot.ranking());
+                if (extended.depth() == snapshot.ranking().depth()) {
+                    // Nothing came back in time; serve what we have and retry on a later request
+                    break;
+                }
+                snapshot = new Snapshot(extended, snapshot.computedAt(), snapshot.previous());
+                CompletableFuture<Snapshot> updated = storeIfUnchanged(userId, expected, snapshot);
+                if (updated == null) {
+                    break;
+                }
+                expected = updated;
+            }
+            return snapshot;
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    /**
+     * Recomputes the ranking on the refresh executor and stores it next to the one it replaces, unless
+     * the entry changed meanwhile (then a later request refreshes again). At most one refresh per user
+     * runs at a time.
+     */
+    private void refresh(Long userId) {
+        CompletableFuture<Snapshot> expected = cache.getIfPresent(userId);
+        if (expected == null || !expected.isDone() || !refreshing.add(userId)) {
+            return;
+        }
+        try {
+            refreshExecutor.execute(() -> {
+                try {
+                    storeIfUnchanged(userId, expected, compute(userId).replacing(expected.join()));
+                } catch (Exception e) {
+                    log.warn("Background refresh of recommendations for user {} failed: {}", userId, e.getMessage());
+                } finally {
+                    refreshing.remove(userId);
+                }
+            });
+        } catch (RejectedExecutionException e) {
+            refreshing.remove(userId);
+        }
+    }
+
+    /**
+     * Swaps {@code snapshot} in if the entry is still {@code expected}, persisting it under the entry's
+     * lock so that a concurrent {@link #invalidate} either removes the entry first (and nothing is
+     * written) or deletes the row after it was written.
+     *
+     * @return the stored future, or {@code null} if the entry changed
+     */
+    private CompletableFuture<Snapshot> storeIfUnchanged(Long userId, CompletableFuture<Snapshot> expected, Snapshot snapshot) {
+        CompletableFuture<Snapshot> updated = CompletableFuture.completedFuture(snapshot);
+        CompletableFuture<Snapshot> stored = cache.asMap().computeIfPresent(userId, (id, present) -> {
+            if (present != expected) {
+                return present;
+            }
+            if (persistentTierEnabled) {
+                persist(id, snapshot);
+            }
+            return updated;
+        });
+        if (stored != updated) {
+            log.debug("Recommendations for user {} changed while extending, not storing the extension", userId);
+            return null;
+        }
+        return updated;
+    }
+
+    @PreDestroy
+    void shutdown() {
+        refreshExecutor.shutdownNow();
+    }
+
+    /**
+     * Ranks the user's recommendations; storing and persisting the result is up to the caller.
+     */
+    private Snapshot compute(Long userId) {
+        User user = userRepository.findById(userId)
+                .orElseThrow(() -> new ResponseStatusException(HttpStatus.NOT_FOUND, "User not found"));
+
+        return new Snapshot(recommendationService.rank(user), Instant.now(), null);
+    }
+
+    private Optional<Snapshot> loadPersisted(Long userId) {
+        if (!persistentTierEnabled) {
+            return Optional.empty();
+        }
+        return snapshotRepository.findById(userId).flatMap(row -> {
+            try {
+                return Optional.of(new Snapshot(objectMapper.readValue(row.getPayload(), RankedRecommendations.class), row.getComputedAt(), null));
+            } catch (JsonProcessingException e) {
+                log.warn("Discarding unreadable recommendation snapshot for user {}: {}", userId, e.getMessage());
+                return Optional.empty();
+            }
+        });
+    }
+
+    private void persist(Long userId, Snapshot snapshot) {
+        try {
+            snapshotRepository.save(new RecommendationSnapshot(
+                    userId, objectMapper.writeValueAsString(snapshot.ranking()), snapshot.computedAt()));
+        } catch (Exception e) {
+            // The in-memory tier still has the list; a missing snapshot only costs a recompute later
+            log.warn("Failed to persist recommendation snapshot for user {}: {}", userId, e.getMessage());
+        }
+    }
+
+    /**
+     * @param previous the ranking this one replaced in a background refresh, kept for cursors issued
+     *                 on it; {@code null} after a fresh load. Only one generation is kept.
+     */
+    private record Snapshot(RankedRecommendations ranking, Instant computedAt, Snapshot previous) {
+        long generation() {
+            return computedAt.toEpochMilli();
+        }
+
+        Snapshot replacing(Snapshot old) {
+            return new Snapshot(ranking, computedAt, new Snapshot(old.ranking(), old.computedAt(), null));
+        }
+
+        boolean isOlderThan(Duration age) {
+            return computedAt.plus(age).isBefore(Instant.now());
+        }
+
+        boolean needsExtensionFor(int size) {
+            return ranking.movies().size() < size && ranking.hasMore();
+        }
+    }
+
+    /**
+     * Loads the persisted snapshot (if enabled), otherwise computes one. A computed snapshot is
+     * persisted under the same guard as {@link #storeIfUnchanged} before the load completes: the
+     * loading future is already the entry by then (the cache installs it under the entry's lock, which
+     * the guard waits for), so a concurrent {@link #invalidate} either removes it first and nothing is
+     * written, or deletes the row after it was written.
+     */
+    private class SnapshotLoader implements AsyncCacheLoader<Long, Snapshot> {
+
+        @Override
+        public CompletableFuture<Snapshot> asyncLoad(Long userId, Executor executor) {
+            CompletableFuture<Snapshot> loading = new CompletableFuture<>();
+            executor.execute(() -> {
+                try {
+                    Optional<Snapshot> persisted = loadPersisted(userId);
+                    if (persisted.isPresent()) {
+                        loading.complete(persisted.get());
+                        return;
+                    }
+                    Snapshot snapshot = compute(userId);
+                    if (persistentTierEnabled) {
+                        cache.asMap().computeIfPresent(userId, (id, present) -> {
+                            if (present == loading) {
+                                persist(id, snapshot);
+                            }
+                            return present;
+                        });
+                    }
+                    loading.complete(snapshot);
+                } catch (Throwable e) {
+                    loading.completeExceptionally(e);
+                }
+            });
+            return loading;
+        }
+    }
+}
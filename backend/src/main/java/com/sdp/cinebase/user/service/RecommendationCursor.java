@@ -0,0 +1,36 @@
+package com.sdp.cinebase.user.service;
+
+import org.springframework.http.HttpStatus;
+import org.springframework.web.server.ResponseStatusException;
+
+import java.nio.charset.StandardCharsets;
+import java.util.Base64;
+
+/**
+ * Opaque pagination cursor for the recommendation feed.
+ * <p>
+ * Encodes the offset of the next page together with the generation (computation time) of the
+ * ranking it was issued for, so clients never build offsets themselves.
+ */
+record RecommendationCursor(long generation, int offset) {
+
+    String encode() {
+        String raw = generation + "." + offset;
+        return Base64.getUrlEncoder().withoutPadding().encodeToString(raw.getBytes(StandardCharsets.UTF_8));
+    }
+
+    static RecommendationCursor decode(String cursor) {
+        try {
+            String raw = new String(Base64.getUrlDecoder().decode(cursor), StandardCharsets.UTF_8);
+            int dot = raw.indexOf('.');
+            RecommendationCursor decoded = new RecommendationCursor(
+                    Long.parseLong(raw.substring(0, dot)), Integer.parseInt(raw.substring(dot + 1)));
+            if (decoded.offset() < 0) {
+                throw new IllegalArgumentException("Negative offset");
+            }
+            return decoded;
+        } catch (IllegalArgumentException | IndexOutOfBoundsException e) {
+            throw new ResponseStatusException(HttpStatus.BAD_REQUEST, "Invalid cursor");
+        }
+    }
+}
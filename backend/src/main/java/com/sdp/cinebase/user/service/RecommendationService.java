@@ -2,14 +2,19 @@ package com.sdp.cinebase.user.service;
 
 import com.sdp.cinebase.tmdb.dto.MovieDto;
 import com.sdp.cinebase.tmdb.dto.PagedResponse;
-import com.sdp.cinebase.tmdb.service.TmdbClient;
+import com.sdp.cinebase.tmdb.ratelimit.TmdbRequestPriority;
+import com.sdp.cinebase.tmdb.service.ReactiveTmdbClient;
 import com.sdp.cinebase.user.model.FavoritePick;
 import com.sdp.cinebase.user.model.User;
 import com.sdp.cinebase.user.repo.FavoritePickRepository;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.stereotype.Service;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
 
+import java.time.Duration;
 import java.util.*;
 import java.util.stream.Collectors;
 
@@ -23,6 +28,11 @@ import java.util.stream.Collectors;
  * - Content-based filtering algorithms
  * We aggregate recommendations from multiple sources and use frequency-based scoring
  * to ensure the most relevant content bubbles to the top.
+ * All TMDB lookups for a request run concurrently and are bounded by a single fan-out deadline;
+ * lists that arrive late are dropped and the ranking is built from whatever finished in time.
+ * <p>
+ * The ranking can be extended one upstream page at a time ({@link #extend}), which is how the
+ * paginated feed goes deeper without redoing the first fan-out.
  */
 @Service
 public class RecommendationService {
@@ -30,17 +40,26 @@ public class RecommendationService {
     private static final Logger log = LoggerFactory.getLogger(RecommendationService.class);
 
     private final FavoritePickRepository favoritePickRepository;
-    private final TmdbClient tmdbClient;
-
-    public RecommendationService(FavoritePickRepository favoritePickRepository, TmdbClient tmdbClient) {
+    private final ReactiveTmdbClient tmdbClient;
+    private final Duration fanOutDeadline;
+    private final int maxDepth;
+
+    public RecommendationService(
+            FavoritePickRepository favoritePickRepository,
+            ReactiveTmdbClient tmdbClient,
+            @Value("${app.recommendations.fan-out-deadline:1500ms}") Duration fanOutDeadline,
+            @Value("${app.recommendations.max-depth:5}") int maxDepth
+    ) {
         this.favoritePickRepository = favoritePickRepository;
         this.tmdbClient = tmdbClient;
+        this.fanOutDeadline = fanOutDeadline;
+        this.maxDepth = maxDepth;
     }
 
     /**
      * Generate AI-powered personalized recommendations for a user.
      * Algorithm:
-     * 1. For each of user's 4 favorite picks, fetch:
+     * 1. For each of user's 4 favorite picks, fetch (all concurrently, within the fan-out deadline):
      *    - TMDB's "similar" content (based on metadata: genres, keywords, etc.)
      *    - TMDB's "recommended" content (based on ML/collaborative filtering)
      * 2. Aggregate all recommendations into a frequency map
@@ -48,19 +67,68 @@ public class RecommendationService {
      *    - Frequency (how many times it appears in recommendations)
      *    - Genre overlap with user's favorites
      *    - Vote average (quality indicator)
-     * 4. Return top-scored items, excluding user's already-picked favorites
+     * 4. Return all candidates ranked by score, excluding user's already-picked favorites
+     * Users without picks get trending content in TMDB's order instead.
      */
-    public List<MovieDto> getRecommendations(User user, @SuppressWarnings("unused") int page) {
+    public RankedRecommendations rank(User user) {
         log.debug("Generating AI recommendations for user: {}", user.getUsername());
 
+        Plan plan = plan(user);
+        List<WeightedResults> fetched = fetchRound(user, plan, 1);
+
+        return new RankedRecommendations(
+                rankCandidates(plan, fetched, Set.of()),
+                1,
+                hasMore(fetched, 1)
+        );
+    }
+
+    /**
+     * Fetch the next upstream page of every source and append the new candidates to the ranking.
+     * Existing positions are kept as they are; if nothing arrives in time the ranking is returned
+     * unchanged so a later call can retry the same depth.
+     */
+    public RankedRecommendations extend(User user, RankedRecommendations current) {
+        if (!current.hasMore()) {
+            return current;
+        }
+
+        int depth = current.depth() + 1;
+        log.debug("Extending recommendations for user {} to upstream page {}", user.getUsername(), depth);
+
+        Plan plan = plan(user);
+        List<WeightedResults> fetched = fetchRound(user, plan, depth);
+        if (fetched.isEmpty()) {
+            return current;
+        }
+
+        Set<Integer> alreadyRanked = current.movies().stream()
+                .map(MovieDto::id)
+                .collect(Collectors.toSet());
+
+        List<MovieDto> movies = new ArrayList<>(current.movies());
+        movies.addAll(rankCandidates(plan, fetched, alreadyRanked));
+
+        return new RankedRecommendations(List.copyOf(movies), depth, hasMore(fetched, depth));
+    }
+
+    /**
+     * Work out which TMDB lists to pull from and how to score them, based on the user's picks.
+     */
+    private Plan plan(User user) {
         // Get user's favorite picks
         List<FavoritePick> picks = favoritePickRepository.findByUser(user);
 
         if (picks.isEmpty()) {
             log.warn("User {} has no favorite picks, returning trending content", user.getUsername());
-            // Fallback to trending if no picks (page parameter unused for fallback)
-            PagedResponse<MovieDto> trending = tmdbClient.trendingDay(1);
-            return trending.results();
+            // Fallback to trending if no picks
+            return new Plan(List.of(new Source(SourceKind.TRENDING, null, 1.0)), Map.of(), Set.of(), true);
+        }
+
+        List<Source> sources = new ArrayList<>();
+        for (FavoritePick pick : picks) {
+            sources.add(new Source(SourceKind.SIMILAR, pick, 2.0));      // Similar = 2.0 weight
+            sources.add(new Source(SourceKind.RECOMMENDED, pick, 1.5));  // Recommended = 1.5 weight
         }
 
         // Extract picked IDs to exclude from recommendations
@@ -73,88 +141,92 @@ public class RecommendationService {
 
         log.debug("Genre weights for user {}: {}", user.getUsername(), genreWeights);
 
+        return new Plan(sources, genreWeights, pickedTmdbIds, false);
+    }
+
+    /**
+     * Fetch upstream page {@code depth} of every source at once; lists that are not back before
+     * the deadline are dropped rather than holding up the whole response.
+     */
+    private List<WeightedResults> fetchRound(User user, Plan plan, int depth) {
+        List<WeightedResults> fetched = Flux.fromIterable(plan.sources())
+                .flatMap(source -> fetchSource(source, depth)
+                        .map(page -> new WeightedResults(page.results(), source.weight(), page.total_pages())))
+                .take(fanOutDeadline)
+                // Fan-out traffic yields to interactive TMDB calls when the rate limit is reached
+                .contextWrite(TmdbRequestPriority.BACKGROUND.context())
+                .collectList()
+                .blockOptional()
+                .orElse(List.of());
+
+        if (fetched.size() < plan.sources().size()) {
+            log.warn("Recommendation fan-out for user {} (page {}) returned {} of {} lists within {}",
+                    user.getUsername(), depth, fetched.size(), plan.sources().size(), fanOutDeadline);
+        }
+        return fetched;
+    }
+
+    /**
+     * Aggregate and score the fetched lists, skipping picked titles and anything in {@code exclude}.
+     */
+    private List<MovieDto> rankCandidates(Plan plan, List<WeightedResults> fetched, Set<Integer> exclude) {
+        if (plan.trendingFallback()) {
+            // Keep TMDB's trending order
+            Set<Integer> seen = new HashSet<>(exclude);
+            return fetched.stream()
+                    .flatMap(results -> results.movies().stream())
+                    .filter(movie -> seen.add(movie.id()))
+                    .toList();
+        }
+
         // Aggregate recommendations from all user's favorites
         Map<Integer, RecommendationCandidate> candidateMap = new HashMap<>();
 
-        for (FavoritePick pick : picks) {
-            log.debug("Fetching recommendations based on: {} ({})", pick.getTitle(), pick.getMediaType());
-
-            try {
-                // Fetch similar and recommended content from TMDB
-                List<MovieDto> similar = fetchSimilarContent(pick);
-                List<MovieDto> recommended = fetchRecommendedContent(pick);
-
-                // Process similar content (higher weight)
-                for (MovieDto movie : similar) {
-                    if (!pickedTmdbIds.contains(movie.id())) {
-                        addOrUpdateCandidate(candidateMap, movie, 2.0); // Similar = 2.0 weight
-                    }
-                }
-
-                // Process recommended content (medium weight)
-                for (MovieDto movie : recommended) {
-                    if (!pickedTmdbIds.contains(movie.id())) {
-                        addOrUpdateCandidate(candidateMap, movie, 1.5); // Recommended = 1.5 weight
-                    }
+        for (WeightedResults results : fetched) {
+            for (MovieDto movie : results.movies()) {
+                if (!plan.pickedTmdbIds().contains(movie.id()) && !exclude.contains(movie.id())) {
+                    addOrUpdateCandidate(candidateMap, movie, results.weight());
                 }
-            } catch (Exception e) {
-                log.error("Error fetching recommendations for pick {}: {}", pick.getTitle(), e.getMessage());
-                // Continue with other picks even if one fails
             }
         }
 
         log.debug("Total recommendation candidates: {}", candidateMap.size());
 
         // Score all candidates
-        List<ScoredMovie> scoredMovies = candidateMap.values().stream()
+        return candidateMap.values().stream()
                 .map(candidate -> {
-                    double score = calculateAdvancedScore(candidate, genreWeights);
+                    double score = calculateAdvancedScore(candidate, plan.genreWeights());
                     return new ScoredMovie(candidate.movie, score);
                 })
                 .sorted(Comparator.comparingDouble(ScoredMovie::score).reversed())
-                .toList();
-
-        // Return top recommendations (limit to 40 items)
-        return scoredMovies.stream()
-                .limit(40)
                 .map(ScoredMovie::movie)
                 .toList();
     }
 
-    /**
-     * Fetch similar content from TMDB for a given pick.
-     */
-    private List<MovieDto> fetchSimilarContent(FavoritePick pick) {
-        try {
-            PagedResponse<MovieDto> response;
-            if ("movie".equals(pick.getMediaType())) {
-                response = tmdbClient.getSimilarMovies(pick.getTmdbId().intValue(), 1);
-            } else {
-                response = tmdbClient.getSimilarTvShows(pick.getTmdbId().intValue(), 1);
-            }
-            return response != null ? response.results() : Collections.emptyList();
-        } catch (Exception e) {
-            log.warn("Failed to fetch similar content for {}: {}", pick.getTitle(), e.getMessage());
-            return Collections.emptyList();
-        }
+    private boolean hasMore(List<WeightedResults> fetched, int depth) {
+        return depth < maxDepth && fetched.stream().anyMatch(results -> results.totalPages() > depth);
     }
 
     /**
-     * Fetch TMDB's AI recommendations for a given pick.
+     * Fetch one upstream page of a source: similar, recommended or trending content.
      */
-    private List<MovieDto> fetchRecommendedContent(FavoritePick pick) {
-        try {
-            PagedResponse<MovieDto> response;
-            if ("movie".equals(pick.getMediaType())) {
-                response = tmdbClient.getMovieRecommendations(pick.getTmdbId().intValue(), 1);
-            } else {
-                response = tmdbClient.getTvRecommendations(pick.getTmdbId().intValue(), 1);
-            }
-            return response != null ? response.results() : Collections.emptyList();
-        } catch (Exception e) {
-            log.warn("Failed to fetch recommendations for {}: {}", pick.getTitle(), e.getMessage());
-            return Collections.emptyList();
-        }
+    private Mono<PagedResponse<MovieDto>> fetchSource(Source source, int page) {
+        FavoritePick pick = source.pick();
+        Mono<PagedResponse<MovieDto>> response = switch (source.kind()) {
+            case TRENDING -> tmdbClient.trendingDay(page);
+            case SIMILAR -> "movie".equals(pick.getMediaType())
+                    ? tmdbClient.getSimilarMovies(pick.getTmdbId().intValue(), page)
+                    : tmdbClient.getSimilarTvShows(pick.getTmdbId().intValue(), page);
+            case RECOMMENDED -> "movie".equals(pick.getMediaType())
+                    ? tmdbClient.getMovieRecommendations(pick.getTmdbId().intValue(), page)
+                    : tmdbClient.getTvRecommendations(pick.getTmdbId().intValue(), page);
+        };
+
+        return response.onErrorResume(e -> {
+            log.warn("Failed to fetch {} content for {}: {}",
+                    source.kind().name().toLowerCase(), pick != null ? pick.getTitle() : "trending", e.getMessage());
+            return Mono.empty();
+        });
     }
 
     /**
@@ -301,6 +373,28 @@ public class RecommendationService {
         }
     }
 
+    /**
+     * Helper record for one fetched TMDB list, the weight its items contribute and its page count.
+     */
+    private record WeightedResults(List<MovieDto> movies, double weight, int totalPages) {}
+
+    private enum SourceKind { SIMILAR, RECOMMENDED, TRENDING }
+
+    /**
+     * Helper record for one TMDB list a user's recommendations are drawn from.
+     */
+    private record Source(SourceKind kind, FavoritePick pick, double weight) {}
+
+    /**
+     * Helper record with everything needed to fetch and score a user's recommendations.
+     */
+    private record Plan(
+            List<Source> sources,
+            Map<String, Integer> genreWeights,
+            Set<Integer> pickedTmdbIds,
+            boolean trendingFallback
+    ) {}
+
     /**
      * Helper record to store movie with its recommendation score.
      */
@@ -9,6 +9,7 @@ import com.sdp.cinebase.user.model.FavoritePick;
 import com.sdp.cinebase.user.model.User;
 import com.sdp.cinebase.user.repo.FavoritePickRepository;
 import com.sdp.cinebase.user.repo.UserRepository;
+import com.sdp.cinebase.user.service.RecommendationCache;
 import io.swagger.v3.oas.annotations.Operation;
 import io.swagger.v3.oas.annotations.responses.ApiResponse;
 import io.swagger.v3.oas.annotations.responses.ApiResponses;
@@ -30,15 +31,18 @@ public class PreferencesController {
     private final TmdbClient tmdbClient;
     private final FavoritePickRepository favoritePickRepository;
     private final UserRepository userRepository;
+    private final RecommendationCache recommendationCache;
 
     public PreferencesController(
             TmdbClient tmdbClient,
             FavoritePickRepository favoritePickRepository,
-            UserRepository userRepository
+            UserRepository userRepository,
+            RecommendationCache recommendationCache
     ) {
         this.tmdbClient = tmdbClient;
         this.favoritePickRepository = favoritePickRepository;
         this.userRepository = userRepository;
+        this.recommendationCache = recommendationCache;
     }
 
     /**
@@ -143,6 +147,9 @@ public class PreferencesController {
 
         favoritePickRepository.saveAll(picks);
 
+        // Stored recommendations were computed from the old picks
+        recommendationCache.invalidate(user.getId());
+
         return ResponseEntity.ok().build();
     }
 
@@ -1,7 +1,12 @@
 package com.sdp.cinebase.watchlist.dto;
 
+import jakarta.validation.constraints.NotBlank;
+import jakarta.validation.constraints.Pattern;
+
 public record AddWatchlistRequest(
     Long tmdbId,
+    @NotBlank(message = "Media type is required (movie or tv)")
+    @Pattern(regexp = "movie|tv", message = "Media type must be 'movie' or 'tv'")
     String mediaType,
     String title,
     String posterPath
@@ -1,5 +1,7 @@
 package com.sdp.cinebase.watchlist.service;
 
+import com.sdp.cinebase.title.service.TitleList;
+import com.sdp.cinebase.title.service.UserMembershipIndex;
 import com.sdp.cinebase.user.model.User;
 import com.sdp.cinebase.user.repo.UserRepository;
 import com.sdp.cinebase.watchlist.dto.AddWatchlistRequest;
@@ -17,15 +19,18 @@ public class WatchlistService {
 
     private final WatchlistRepository watchlistRepository;
     private final UserRepository userRepository;
+    private final UserMembershipIndex membershipIndex;
 
-    public WatchlistService(WatchlistRepository watchlistRepository, UserRepository userRepository) {
+    public WatchlistService(WatchlistRepository watchlistRepository, UserRepository userRepository,
+                            UserMembershipIndex membershipIndex) {
         this.watchlistRepository = watchlistRepository;
         this.userRepository = userRepository;
+        this.membershipIndex = membershipIndex;
     }
 
     public WatchlistResponse addToWatchlist(Long userId, AddWatchlistRequest request) {
-        // Check if already exists
-        if (watchlistRepository.existsByUser_IdAndTmdbIdAndMediaType(userId, request.tmdbId(), request.mediaType())) {
+        // Check if already exists; the unique constraint still backs this up
+        if (membershipIndex.contains(userId, TitleList.WATCHLIST, request.mediaType(), request.tmdbId())) {
             throw new ResponseStatusException(HttpStatus.CONFLICT, "Already in watchlist");
         }
 
@@ -41,6 +46,7 @@ public class WatchlistService {
         watchlist.setPosterPath(request.posterPath());
 
         Watchlist saved = watchlistRepository.save(watchlist);
+        membershipIndex.added(userId, TitleList.WATCHLIST, saved.getMediaType(), saved.getTmdbId());
         return toResponse(saved);
     }
 
@@ -61,10 +67,11 @@ public class WatchlistService {
         }
 
         watchlistRepository.delete(watchlist);
+        membershipIndex.removed(userId, TitleList.WATCHLIST, watchlist.getMediaType(), watchlist.getTmdbId());
     }
 
     public boolean isInWatchlist(Long userId, Long tmdbId, String mediaType) {
-        return watchlistRepository.existsByUser_IdAndTmdbIdAndMediaType(userId, tmdbId, mediaType);
+        return membershipIndex.contains(userId, TitleList.WATCHLIST, mediaType, tmdbId);
     }
 
     private WatchlistResponse toResponse(Watchlist w) {
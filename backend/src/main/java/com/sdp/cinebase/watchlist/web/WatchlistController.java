@@ -9,6 +9,8 @@ import io.swagger.v3.oas.annotations.responses.ApiResponse;
 import io.swagger.v3.oas.annotations.responses.ApiResponses;
 import io.swagger.v3.oas.annotations.security.SecurityRequirement;
 import io.swagger.v3.oas.annotations.tags.Tag;
+import jakarta.validation.Valid;
+import jakarta.validation.constraints.Pattern;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
 import org.springframework.security.core.annotation.AuthenticationPrincipal;
@@ -38,7 +40,7 @@ public class WatchlistController {
     @PostMapping
     public ResponseEntity<WatchlistResponse> addToWatchlist(
             @AuthenticationPrincipal UserPrincipal principal,
-            @RequestBody AddWatchlistRequest request
+            @Valid @RequestBody AddWatchlistRequest request
     ) {
         WatchlistResponse response = watchlistService.addToWatchlist(Long.parseLong(principal.getId()), request);
         return ResponseEntity.status(HttpStatus.CREATED).body(response);
@@ -75,13 +77,14 @@ public class WatchlistController {
     @Operation(summary = "Check if in watchlist", description = "Check if a specific media item is in user's watchlist")
     @ApiResponses(value = {
             @ApiResponse(responseCode = "200", description = "Check completed successfully"),
+            @ApiResponse(responseCode = "400", description = "Media type is not movie or tv"),
             @ApiResponse(responseCode = "401", description = "Not authenticated")
     })
     @GetMapping("/check")
     public ResponseEntity<Map<String, Boolean>> checkInWatchlist(
             @AuthenticationPrincipal UserPrincipal principal,
             @RequestParam Long tmdbId,
-            @RequestParam String mediaType
+            @RequestParam @Pattern(regexp = "movie|tv", message = "Media type must be 'movie' or 'tv'") String mediaType
     ) {
         boolean isInWatchlist = watchlistService.isInWatchlist(Long.parseLong(principal.getId()), tmdbId, mediaType);
         return ResponseEntity.ok(Map.of("isInWatchlist", isInWatchlist));
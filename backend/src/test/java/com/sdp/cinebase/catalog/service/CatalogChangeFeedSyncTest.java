@@ -0,0 +1,207 @@
+package com.sdp.cinebase.catalog.service;
+
+import com.sdp.cinebase.catalog.model.CatalogMovie;
+import com.sdp.cinebase.catalog.model.CatalogSyncCheckpoint;
+import com.sdp.cinebase.catalog.repo.CatalogMovieRepository;
+import com.sdp.cinebase.catalog.repo.CatalogPersonRepository;
+import com.sdp.cinebase.catalog.repo.CatalogSyncCheckpointRepository;
+import com.sdp.cinebase.catalog.repo.CatalogTvShowRepository;
+import com.sdp.cinebase.tmdb.cache.TmdbCache;
+import com.sdp.cinebase.tmdb.cache.TmdbLastKnownGood;
+import com.sdp.cinebase.tmdb.dto.MovieDetailsDto;
+import com.sdp.cinebase.tmdb.ratelimit.TmdbRateLimiter;
+import com.sdp.cinebase.tmdb.resilience.TmdbCircuitBreaker;
+import com.sdp.cinebase.tmdb.service.ReactiveTmdbClient;
+import com.sdp.cinebase.tmdb.service.TmdbPayloadFetchedEvent;
+import com.sdp.cinebase.tmdb.service.TmdbRequestCoalescer;
+import com.sun.net.httpserver.HttpExchange;
+import com.sun.net.httpserver.HttpServer;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.net.InetSocketAddress;
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.time.LocalDate;
+import java.time.ZoneOffset;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.Executors;
+import java.util.stream.StreamSupport;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.*;
+
+/**
+ * Runs the change-feed sync against a local stub of the TMDB change and details endpoints.
+ */
+class CatalogChangeFeedSyncTest {
+
+    private static final Set<Long> MIRRORED_MOVIES = Set.of(603L, 605L);
+
+    private HttpServer server;
+    private final List<String> requests = new CopyOnWriteArrayList<>();
+    private volatile int secondPageStatus = 200;
+    private volatile int detailsStatus = 200;
+
+    private final Map<String, CatalogSyncCheckpoint> checkpoints = new ConcurrentHashMap<>();
+    private final List<Object> events = new CopyOnWriteArrayList<>();
+    private TmdbLastKnownGood lastKnownGood;
+    private CatalogChangeFeedSync sync;
+
+    @BeforeEach
+    void startStubServer() throws IOException {
+        server = HttpServer.create(new InetSocketAddress("127.0.0.1", 0), 0);
+        server.setExecutor(Executors.newCachedThreadPool());
+        server.createContext("/movie/changes", exchange -> {
+            String query = exchange.getRequestURI().getQuery();
+            requests.add("/movie/changes?" + query);
+            if (query.contains("page=2")) {
+                respond(exchange, secondPageStatus, """
+                        {"page":2,"results":[{"id":605,"adult":false}],"total_pages":2,"total_results":4}
+                        """);
+            } else {
+                respond(exchange, 200, """
+                        {"page":1,"results":[{"id":603,"adult":false},{"id":604,"adult":false},{"id":999,"adult":false}],
+                         "total_pages":2,"total_results":4}
+                        """);
+            }
+        });
+        server.createContext("/movie/", exchange -> {
+            String path = exchange.getRequestURI().getPath();
+            requests.add(path);
+            String id = path.substring("/movie/".length());
+            respond(exchange, id.equals("605") ? detailsStatus : 200, "{\"id\":" + id + ",\"title\":\"Movie " + id + "\",\"vote_average\":7.5}");
+        });
+        server.start();
+
+        SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry();
+        TmdbCache cache = new TmdbCache(1_000_000, Duration.ofMinutes(10), Duration.ofMinutes(5),
+                Duration.ofHours(6), Duration.ofHours(12), Duration.ofHours(6), Duration.ofHours(1), Duration.ofHours(1), 3, meterRegistry);
+        lastKnownGood = new TmdbLastKnownGood(1_000_000, Duration.ofHours(1));
+        ReactiveTmdbClient tmdb = new ReactiveTmdbClient(
+                "http://127.0.0.1:" + server.getAddress().getPort(), "test-key", cache,
+                new TmdbRequestCoalescer(meterRegistry), Duration.ofSeconds(3),
+                new TmdbRateLimiter(1_000, 100, 100, Duration.ofSeconds(5), meterRegistry),
+                new TmdbCircuitBreaker(Duration.ofSeconds(5), Duration.ofSeconds(5), Duration.ofSeconds(30),
+                        0.5, 0.8, 20, 10, 3, meterRegistry),
+                lastKnownGood, events::add);
+
+        CatalogSyncCheckpointRepository checkpointRepository = mock(CatalogSyncCheckpointRepository.class);
+        when(checkpointRepository.findById(any())).thenAnswer(inv ->
+                java.util.Optional.ofNullable(checkpoints.get(inv.<String>getArgument(0))));
+        when(checkpointRepository.save(any())).thenAnswer(inv -> {
+            CatalogSyncCheckpoint checkpoint = inv.getArgument(0);
+            checkpoints.put(checkpoint.getFeed(), copy(checkpoint));
+            return checkpoint;
+        });
+
+        CatalogMovieRepository movieRepository = mock(CatalogMovieRepository.class);
+        when(movieRepository.findAllById(any())).thenAnswer(inv -> {
+            Iterable<Long> ids = inv.getArgument(0);
+            return StreamSupport.stream(ids.spliterator(), false)
+                    .filter(MIRRORED_MOVIES::contains)
+                    .map(CatalogMovie::new)
+                    .toList();
+        });
+
+        sync = new CatalogChangeFeedSync(checkpointRepository, movieRepository, mock(CatalogTvShowRepository.class),
+                mock(CatalogPersonRepository.class), tmdb, meterRegistry,
+                Duration.ofDays(1), 4, 50, Duration.ofSeconds(10));
+    }
+
+    @AfterEach
+    void stopStubServer() {
+        server.stop(0);
+    }
+
+    @Test
+    void refetchesOnlyMirroredIdsAndAdvancesCheckpoint() {
+        int refreshed = sync.syncFeed("movie");
+
+        assertThat(refreshed).isEqualTo(2);
+        assertThat(requests).filteredOn(path -> !path.contains("changes"))
+                .containsExactlyInAnyOrder("/movie/603", "/movie/605");
+        // Each refreshed title is handed to the ingestor exactly once, through the fetch event
+        assertThat(events).filteredOn(event -> ((TmdbPayloadFetchedEvent) event).payload() instanceof MovieDetailsDto)
+                .extracting(event -> ((TmdbPayloadFetchedEvent) event).key())
+                .containsExactlyInAnyOrder("/movie/603", "/movie/605");
+
+        CatalogSyncCheckpoint checkpoint = checkpoints.get("movie");
+        assertThat(checkpoint.getWindowStart()).isEqualTo(today());
+        assertThat(checkpoint.getWindowEnd()).isNull();
+    }
+
+    @Test
+    void resumesFromTheCheckpointedPage() {
+        CatalogSyncCheckpoint inProgress = new CatalogSyncCheckpoint("movie", today().minusDays(1));
+        inProgress.setWindowEnd(today());
+        inProgress.setNextPage(2);
+        checkpoints.put("movie", inProgress);
+
+        int refreshed = sync.syncFeed("movie");
+
+        assertThat(refreshed).isEqualTo(1);
+        assertThat(requests).filteredOn(path -> path.contains("changes"))
+                .singleElement().asString().contains("page=2");
+        assertThat(requests).contains("/movie/605").doesNotContain("/movie/603");
+    }
+
+    @Test
+    void failedPageLeavesCheckpointOnThatPage() {
+        secondPageStatus = 500;
+
+        assertThatThrownBy(() -> sync.syncFeed("movie")).isInstanceOf(RuntimeException.class);
+
+        CatalogSyncCheckpoint checkpoint = checkpoints.get("movie");
+        assertThat(checkpoint.getNextPage()).isEqualTo(2);
+        assertThat(checkpoint.getWindowEnd()).isEqualTo(today());
+    }
+
+    @Test
+    void unavailableTitleIsNotServedStaleAndKeepsThePage() {
+        lastKnownGood.put("/movie/605", new MovieDetailsDto(605, "Old title", null, null, null, null, 7.5, 100,
+                null, null, null, List.of(), null, null, null, null, null));
+        detailsStatus = 503;
+
+        assertThatThrownBy(() -> sync.syncFeed("movie"))
+                .isInstanceOf(IllegalStateException.class)
+                .hasMessageContaining("TMDB unavailable");
+
+        CatalogSyncCheckpoint checkpoint = checkpoints.get("movie");
+        assertThat(checkpoint.getNextPage()).isEqualTo(2);
+
+        detailsStatus = 200;
+        assertThat(sync.syncFeed("movie")).isEqualTo(1);
+        assertThat(checkpoints.get("movie").getWindowEnd()).isNull();
+    }
+
+    private static LocalDate today() {
+        return LocalDate.now(ZoneOffset.UTC);
+    }
+
+    private static CatalogSyncCheckpoint copy(CatalogSyncCheckpoint source) {
+        CatalogSyncCheckpoint copy = new CatalogSyncCheckpoint(source.getFeed(), source.getWindowStart());
+        copy.setWindowEnd(source.getWindowEnd());
+        copy.setNextPage(source.getNextPage());
+        return copy;
+    }
+
+    private static void respond(HttpExchange exchange, int status, String json) throws IOException {
+        byte[] body = json.getBytes(StandardCharsets.UTF_8);
+        exchange.getResponseHeaders().add("Content-Type", "application/json");
+        exchange.sendResponseHeaders(status, body.length);
+        try (OutputStream out = exchange.getResponseBody()) {
+            out.write(body);
+        }
+    }
+}
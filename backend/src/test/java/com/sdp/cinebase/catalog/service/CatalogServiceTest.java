@@ -0,0 +1,104 @@
+package com.sdp.cinebase.catalog.service;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.sdp.cinebase.catalog.model.CatalogMovie;
+import com.sdp.cinebase.catalog.repo.CatalogMovieRepository;
+import com.sdp.cinebase.catalog.repo.CatalogPersonRepository;
+import com.sdp.cinebase.catalog.repo.CatalogTvShowRepository;
+import com.sdp.cinebase.tmdb.dto.BatchDetailsItem;
+import com.sdp.cinebase.tmdb.dto.MovieDetailsDto;
+import com.sdp.cinebase.tmdb.service.ReactiveTmdbClient;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.http.HttpStatus;
+import org.springframework.web.server.ResponseStatusException;
+import reactor.core.publisher.Mono;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.stream.IntStream;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyInt;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+class CatalogServiceTest {
+
+    private static final int CONCURRENCY = 2;
+
+    private final AtomicInteger inFlight = new AtomicInteger();
+    private final AtomicInteger maxInFlight = new AtomicInteger();
+    private ReactiveTmdbClient tmdb;
+    private CatalogService catalogService;
+
+    @BeforeEach
+    void setUp() throws Exception {
+        ObjectMapper objectMapper = new ObjectMapper();
+        CatalogMovie matrix = new CatalogMovie(603L);
+        matrix.setDetailsPayload(objectMapper.writeValueAsString(details(603, "The Matrix")));
+        matrix.setDetailsFetchedAt(Instant.now());
+        CatalogMovieRepository movieRepository = mock(CatalogMovieRepository.class);
+        when(movieRepository.findAllById(any())).thenReturn(List.of(matrix));
+        CatalogTvShowRepository tvShowRepository = mock(CatalogTvShowRepository.class);
+        when(tvShowRepository.findAllById(any())).thenReturn(List.of());
+
+        tmdb = mock(ReactiveTmdbClient.class);
+        when(tmdb.getMovieDetails(anyInt())).thenAnswer(inv -> upstream(inv.getArgument(0), Duration.ofMillis(100)));
+        when(tmdb.getMovieDetails(13)).thenReturn(Mono.error(new ResponseStatusException(HttpStatus.NOT_FOUND, "Not found on TMDB")));
+        when(tmdb.getTvDetails(1399)).thenAnswer(inv -> upstream(1399, Duration.ofMillis(10)));
+
+        catalogService = new CatalogService(movieRepository, tvShowRepository, mock(CatalogPersonRepository.class), tmdb,
+                objectMapper, new SimpleMeterRegistry(), Duration.ofDays(7), 100, CONCURRENCY);
+    }
+
+    @Test
+    void mirroredTitlesFirstThenUpstreamInCompletionOrderWithBoundedParallelism() {
+        List<String> keys = List.of("movie:550", "movie:603", "movie:13", "movie:603", "tv:1399",
+                "movie:1", "movie:2", "movie:3", "movie:4");
+
+        List<BatchDetailsItem> items = catalogService.detailsBatch(keys).collectList().block(Duration.ofSeconds(10));
+
+        assertThat(items).extracting(BatchDetailsItem::key).hasSize(8).doesNotHaveDuplicates();
+        assertThat(items.getFirst().key()).isEqualTo("movie:603");
+        assertThat(items.getFirst().details().title()).isEqualTo("The Matrix");
+        // The fast TV title overtakes the slow movie requested before it
+        assertThat(items).extracting(BatchDetailsItem::key).containsSubsequence("tv:1399", "movie:550");
+        BatchDetailsItem missing = items.stream().filter(item -> item.key().equals("movie:13")).findFirst().orElseThrow();
+        assertThat(missing.details()).isNull();
+        assertThat(missing.error()).isEqualTo("Not found on TMDB");
+        assertThat(maxInFlight).hasValue(CONCURRENCY);
+        verify(tmdb, never()).getMovieDetails(603);
+    }
+
+    @Test
+    void tooManyKeysAreABadRequest() {
+        List<String> keys = IntStream.rangeClosed(1, 101).mapToObj(id -> "movie:" + id).toList();
+
+        assertThatThrownBy(() -> catalogService.detailsBatch(keys))
+                .isInstanceOfSatisfying(ResponseStatusException.class,
+                        e -> assertThat(e.getStatusCode()).isEqualTo(HttpStatus.BAD_REQUEST));
+        assertThatThrownBy(() -> catalogService.detailsBatch(Collections.singletonList("person:1")))
+                .isInstanceOf(ResponseStatusException.class);
+    }
+
+    private Mono<MovieDetailsDto> upstream(int id, Duration latency) {
+        return Mono.delay(latency)
+                .map(tick -> details(id, "Title " + id))
+                .doOnSubscribe(subscription -> maxInFlight.accumulateAndGet(inFlight.incrementAndGet(), Math::max))
+                .doOnTerminate(inFlight::decrementAndGet);
+    }
+
+    private static MovieDetailsDto details(int id, String title) {
+        return new MovieDetailsDto(id, title, null, null, "/poster.jpg", null, 8.4, 1000, "1999-10-15", null, 139,
+                List.of(), null, null, null, null, null);
+    }
+}
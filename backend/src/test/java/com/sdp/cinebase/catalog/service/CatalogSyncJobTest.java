@@ -0,0 +1,54 @@
+package com.sdp.cinebase.catalog.service;
+
+import com.sdp.cinebase.catalog.model.CatalogMovie;
+import com.sdp.cinebase.catalog.repo.CatalogMovieRepository;
+import com.sdp.cinebase.catalog.repo.CatalogPersonRepository;
+import com.sdp.cinebase.catalog.repo.CatalogTvShowRepository;
+import com.sdp.cinebase.tmdb.dto.MovieDetailsDto;
+import com.sdp.cinebase.tmdb.service.ReactiveTmdbClient;
+import org.junit.jupiter.api.Test;
+import org.mockito.ArgumentCaptor;
+import reactor.core.publisher.Mono;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.util.List;
+import java.util.Set;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.within;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyCollection;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+class CatalogSyncJobTest {
+
+    @Test
+    void failedRowsAreStampedAndHeldBackUntilTheRetryCutoff() {
+        CatalogMovieRepository movieRepository = mock(CatalogMovieRepository.class);
+        when(movieRepository.findStale(any(), any(), any())).thenReturn(List.of(new CatalogMovie(13L), new CatalogMovie(603L)));
+        CatalogTvShowRepository tvShowRepository = mock(CatalogTvShowRepository.class);
+        CatalogPersonRepository personRepository = mock(CatalogPersonRepository.class);
+        ReactiveTmdbClient tmdb = mock(ReactiveTmdbClient.class);
+        when(tmdb.getMovieDetails(13)).thenReturn(Mono.error(new IllegalStateException("TMDB unavailable")));
+        when(tmdb.getMovieDetails(603)).thenReturn(Mono.just(new MovieDetailsDto(603, "The Matrix", null, null, null, null,
+                8.2, 25_000, null, null, null, List.of(), null, null, null, null, null)));
+        CatalogSyncJob job = new CatalogSyncJob(movieRepository, tvShowRepository, personRepository, tmdb,
+                Duration.ofDays(21), Duration.ofDays(1), 50, Duration.ofSeconds(5));
+
+        Instant start = Instant.now();
+        job.syncStaleEntries();
+
+        ArgumentCaptor<Instant> cutoff = ArgumentCaptor.forClass(Instant.class);
+        ArgumentCaptor<Instant> retryCutoff = ArgumentCaptor.forClass(Instant.class);
+        verify(movieRepository).findStale(cutoff.capture(), retryCutoff.capture(), any());
+        assertThat(cutoff.getValue()).isCloseTo(start.minus(Duration.ofDays(21)), within(Duration.ofSeconds(5)));
+        assertThat(retryCutoff.getValue()).isCloseTo(start.minus(Duration.ofDays(1)), within(Duration.ofSeconds(5)));
+        verify(movieRepository).markAttempted(eq(Set.of(13L)), any());
+        verify(tvShowRepository, never()).markAttempted(anyCollection(), any());
+    }
+}
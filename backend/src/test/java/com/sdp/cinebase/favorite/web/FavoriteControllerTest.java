@@ -0,0 +1,72 @@
+package com.sdp.cinebase.favorite.web;
+
+import com.sdp.cinebase.common.ApiExceptionHandler;
+import com.sdp.cinebase.favorite.service.FavoriteService;
+import com.sdp.cinebase.security.UserPrincipal;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.http.MediaType;
+import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
+import org.springframework.security.core.context.SecurityContextHolder;
+import org.springframework.security.web.method.annotation.AuthenticationPrincipalArgumentResolver;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.setup.MockMvcBuilders;
+
+import java.util.List;
+
+import static org.mockito.ArgumentMatchers.anyLong;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.verifyNoInteractions;
+import static org.mockito.Mockito.when;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.content;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.jsonPath;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+class FavoriteControllerTest {
+
+    private FavoriteService favoriteService;
+    private MockMvc mockMvc;
+
+    @BeforeEach
+    void setUp() {
+        UserPrincipal principal = new UserPrincipal("7", "alice");
+        SecurityContextHolder.getContext().setAuthentication(
+                new UsernamePasswordAuthenticationToken(principal, null, List.of()));
+        favoriteService = mock(FavoriteService.class);
+        mockMvc = MockMvcBuilders.standaloneSetup(new FavoriteController(favoriteService))
+                .setControllerAdvice(new ApiExceptionHandler())
+                .setCustomArgumentResolvers(new AuthenticationPrincipalArgumentResolver())
+                .build();
+    }
+
+    @AfterEach
+    void tearDown() {
+        SecurityContextHolder.clearContext();
+    }
+
+    @Test
+    void unknownMediaTypeIsABadRequest() throws Exception {
+        mockMvc.perform(get("/api/favorites/check").param("tmdbId", "1").param("mediaType", "person"))
+                .andExpect(status().isBadRequest())
+                .andExpect(jsonPath("$.fields.mediaType").value("Media type must be 'movie' or 'tv'"));
+        mockMvc.perform(post("/api/favorites")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content("{\"tmdbId\":1,\"mediaType\":\"person\",\"title\":\"Keanu Reeves\"}"))
+                .andExpect(status().isBadRequest())
+                .andExpect(jsonPath("$.fields.mediaType").value("Media type must be 'movie' or 'tv'"));
+
+        verifyNoInteractions(favoriteService);
+    }
+
+    @Test
+    void knownMediaTypeIsChecked() throws Exception {
+        when(favoriteService.isFavorite(7L, 1L, "tv")).thenReturn(true);
+
+        mockMvc.perform(get("/api/favorites/check").param("tmdbId", "1").param("mediaType", "tv"))
+                .andExpect(status().isOk())
+                .andExpect(content().string("true"));
+    }
+}
@@ -0,0 +1,64 @@
+package com.sdp.cinebase.home.service;
+
+import com.sdp.cinebase.home.dto.HomeResponse;
+import com.sdp.cinebase.home.dto.HomeSection;
+import com.sdp.cinebase.tmdb.dto.MovieDto;
+import com.sdp.cinebase.tmdb.dto.PagedResponse;
+import com.sdp.cinebase.tmdb.service.ReactiveTmdbClient;
+import com.sdp.cinebase.user.dto.RecommendationPageResponse;
+import com.sdp.cinebase.user.model.User;
+import com.sdp.cinebase.user.repo.UserRepository;
+import com.sdp.cinebase.user.service.RecommendationCache;
+import org.junit.jupiter.api.Test;
+import reactor.core.publisher.Mono;
+
+import java.time.Duration;
+import java.util.List;
+import java.util.Optional;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.ArgumentMatchers.isNull;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+class HomeServiceTest {
+
+    private static final PagedResponse<MovieDto> PAGE = new PagedResponse<>(1, List.of(), 1, 0);
+
+    @Test
+    void answersAtTheDeadlineAndLetsSlowSectionsFinishInTheBackground() throws InterruptedException {
+        CountDownLatch latestFinished = new CountDownLatch(1);
+        ReactiveTmdbClient tmdb = mock(ReactiveTmdbClient.class);
+        when(tmdb.trendingDay(1)).thenReturn(Mono.just(PAGE));
+        when(tmdb.combinedLatest(1)).thenReturn(Mono.delay(Duration.ofMillis(600))
+                .map(tick -> PAGE)
+                .doOnNext(page -> latestFinished.countDown()));
+        when(tmdb.combinedTopRated(1)).thenReturn(Mono.error(new IllegalStateException("TMDB unavailable")));
+        when(tmdb.popularMovies(1)).thenReturn(Mono.just(PAGE));
+        when(tmdb.popularTvShows(1)).thenReturn(Mono.just(PAGE));
+        User user = mock(User.class);
+        UserRepository userRepository = mock(UserRepository.class);
+        when(userRepository.findByUsername("alice")).thenReturn(Optional.of(user));
+        RecommendationCache recommendationCache = mock(RecommendationCache.class);
+        when(recommendationCache.getPage(eq(user), eq(1), isNull()))
+                .thenReturn(new RecommendationPageResponse(1, List.of(), 1, 0, null));
+        HomeService homeService = new HomeService(tmdb, recommendationCache, userRepository, Duration.ofMillis(200));
+
+        long start = System.nanoTime();
+        HomeResponse home = homeService.home("alice").block(Duration.ofSeconds(5));
+
+        assertThat(Duration.ofNanos(System.nanoTime() - start)).isLessThan(Duration.ofMillis(550));
+        assertThat(home.feed_popular().status()).isEqualTo("ready");
+        assertThat(home.feed_popular().data()).isSameAs(PAGE);
+        assertThat(home.feed_latest()).isEqualTo(HomeSection.pending("/api/tmdb/feed/latest"));
+        assertThat(home.feed_top_rated().status()).isEqualTo("failed");
+        assertThat(home.recommendations().status()).isEqualTo("ready");
+        assertThat(home.movies_popular().status()).isEqualTo("ready");
+        assertThat(home.tv_popular().status()).isEqualTo("ready");
+        // The pending section was not cancelled by the deadline
+        assertThat(latestFinished.await(5, TimeUnit.SECONDS)).isTrue();
+    }
+}
@@ -0,0 +1,141 @@
+package com.sdp.cinebase.importer.service;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.sdp.cinebase.importer.dto.ImportStatusResponse;
+import com.sdp.cinebase.title.service.TitleList;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.mockito.ArgumentCaptor;
+
+import java.io.ByteArrayInputStream;
+import java.nio.charset.StandardCharsets;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyList;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.*;
+
+/**
+ * Streams exports through the pipeline with title resolution and the database stubbed out.
+ */
+class ImportPipelineTest {
+
+    private static final long USER_ID = 7L;
+
+    private TitleResolver resolver;
+    private ImportWriter writer;
+    private ImportPipeline pipeline;
+
+    @BeforeEach
+    void setUp() {
+        resolver = mock(TitleResolver.class);
+        writer = mock(ImportWriter.class);
+        pipeline = new ImportPipeline(resolver, writer, new ObjectMapper(), new SimpleMeterRegistry(), 500, 20_000);
+
+        // Every titled row resolves to a movie with id = its data row number; rows titled "Unknown" do not
+        when(resolver.resolve(anyList())).thenAnswer(invocation -> {
+            List<ImportEntry> entries = invocation.getArgument(0);
+            Map<ImportEntry, ResolvedTitle> resolved = new HashMap<>();
+            for (ImportEntry entry : entries) {
+                if (!"Unknown".equals(entry.title())) {
+                    long id = entry.tmdbId() != null ? entry.tmdbId() : entry.line();
+                    String mediaType = entry.mediaType() != null ? entry.mediaType() : "movie";
+                    resolved.put(entry, new ResolvedTitle(id, mediaType, entry.title() != null ? entry.title() : "Title " + id, null));
+                }
+            }
+            return resolved;
+        });
+        when(writer.write(eq(USER_ID), any(), anyList())).thenAnswer(invocation -> ((List<?>) invocation.getArgument(2)).size());
+    }
+
+    @Test
+    void fiveThousandCsvRowsAreWrittenInBatches() {
+        StringBuilder csv = new StringBuilder("\uFEFFDate,Name,Year,Letterboxd URI,Rating\r\n");
+        for (int i = 1; i <= 5_000; i++) {
+            csv.append("2024-01-01,\"Title, \"\"part\"\" ").append(i).append("\",1999,https://boxd.it/x,3.5\r\n");
+        }
+        ImportJob job = new ImportJob("job", USER_ID, TitleList.REVIEWS);
+
+        pipeline.run(job, stream(csv.toString()), ImportFormat.CSV, 5);
+
+        ImportStatusResponse status = job.toResponse();
+        assertThat(status.state()).isEqualTo("completed");
+        assertThat(status.rows_read()).isEqualTo(5_000);
+        assertThat(status.imported()).isEqualTo(5_000);
+        assertThat(status.invalid()).isZero();
+
+        @SuppressWarnings("unchecked")
+        ArgumentCaptor<List<ImportWriter.Item>> batches = ArgumentCaptor.forClass(List.class);
+        verify(writer, times(10)).write(eq(USER_ID), eq(TitleList.REVIEWS), batches.capture());
+        ImportEntry first = batches.getAllValues().get(0).get(0).entry();
+        assertThat(first.title()).isEqualTo("Title, \"part\" 1");
+        assertThat(first.year()).isEqualTo("1999");
+        assertThat(first.rating()).isEqualTo(7);
+    }
+
+    @Test
+    void jsonRowsReportInvalidUnresolvedAndExisting() {
+        String json = """
+                [
+                  {"tmdb_id": 550, "media_type": "movie", "title": "Fight Club"},
+                  {"tmdb_id": 1399, "type": "TV Series"},
+                  {"title": "Unknown", "year": 2001},
+                  {"tmdb_id": "abc"},
+                  {"media_type": "movie"},
+                  {"tmdb_id": 550, "media_type": "movie"}
+                ]
+                """;
+        // The repeated title conflicts with the first one
+        when(writer.write(eq(USER_ID), any(), anyList())).thenReturn(2);
+        ImportJob job = new ImportJob("job", USER_ID, TitleList.WATCHLIST);
+
+        pipeline.run(job, stream(json), ImportFormat.JSON, 10);
+
+        ImportStatusResponse status = job.toResponse();
+        assertThat(status.state()).isEqualTo("completed");
+        assertThat(status.rows_read()).isEqualTo(6);
+        assertThat(status.imported()).isEqualTo(2);
+        assertThat(status.already_present()).isEqualTo(1);
+        assertThat(status.unresolved()).isEqualTo(1);
+        assertThat(status.unresolved_titles()).containsExactly("Unknown (2001)");
+        assertThat(status.invalid()).isEqualTo(2);
+        assertThat(status.message()).isEqualTo("Row 4: invalid TMDB id 'abc'");
+    }
+
+    @Test
+    void reviewRowsNeedARatingOrTextAndRatingsMustFitTheScale() {
+        String csv = """
+                title,rating,review
+                Heat,11,
+                Ronin,,
+                Collateral,8,Great
+                """;
+        ImportJob job = new ImportJob("job", USER_ID, TitleList.REVIEWS);
+
+        pipeline.run(job, stream(csv), ImportFormat.CSV, 10);
+
+        ImportStatusResponse status = job.toResponse();
+        assertThat(status.invalid()).isEqualTo(2);
+        assertThat(status.imported()).isEqualTo(1);
+        assertThat(status.message()).startsWith("Row 1: rating '11' out of range");
+    }
+
+    @Test
+    void malformedFileFailsTheImport() {
+        ImportJob job = new ImportJob("job", USER_ID, TitleList.FAVORITES);
+
+        pipeline.run(job, stream("[{\"title\": \"Heat\"}, {\"title\": "), ImportFormat.JSON, 10);
+
+        assertThat(job.toResponse().state()).isEqualTo("failed");
+        assertThat(job.toResponse().message()).startsWith("Could not read the file");
+    }
+
+    private static ByteArrayInputStream stream(String content) {
+        return new ByteArrayInputStream(content.getBytes(StandardCharsets.UTF_8));
+    }
+}
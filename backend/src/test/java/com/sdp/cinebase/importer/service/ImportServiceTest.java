@@ -0,0 +1,84 @@
+package com.sdp.cinebase.importer.service;
+
+import com.sdp.cinebase.importer.dto.ImportStatusResponse;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.http.HttpStatus;
+import org.springframework.mock.web.MockMultipartFile;
+import org.springframework.web.server.ResponseStatusException;
+
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyInt;
+import static org.mockito.Mockito.doAnswer;
+import static org.mockito.Mockito.mock;
+
+class ImportServiceTest {
+
+    private static final long USER_ID = 7L;
+    private static final Duration RETENTION = Duration.ofMillis(200);
+
+    private final CountDownLatch finish = new CountDownLatch(1);
+    private ImportService importService;
+
+    @AfterEach
+    void tearDown() {
+        finish.countDown();
+        importService.shutdown();
+    }
+
+    @Test
+    void runningImportOutlivesTheRetentionWhichStartsWhenItFinishes() throws InterruptedException {
+        ImportPipeline pipeline = mock(ImportPipeline.class);
+        doAnswer(invocation -> {
+            ImportJob job = invocation.getArgument(0);
+            finish.await(10, TimeUnit.SECONDS);
+            job.completed(null);
+            return null;
+        }).when(pipeline).run(any(), any(Path.class), any(), anyInt());
+        importService = new ImportService(pipeline, 1, RETENTION);
+
+        String id = importService.start(USER_ID, "watchlist", "csv", 5, upload()).id();
+        Thread.sleep(RETENTION.toMillis() * 2);
+
+        assertThat(importService.status(USER_ID, id).state()).isEqualTo("running");
+        assertThatThrownBy(() -> importService.start(USER_ID, "favorites", "csv", 5, upload()))
+                .isInstanceOfSatisfying(ResponseStatusException.class,
+                        e -> assertThat(e.getStatusCode()).isEqualTo(HttpStatus.CONFLICT));
+
+        finish.countDown();
+        ImportStatusResponse status = awaitFinished(id);
+        assertThat(status.state()).isEqualTo("completed");
+
+        Thread.sleep(RETENTION.toMillis() * 2);
+        assertThatThrownBy(() -> importService.status(USER_ID, id))
+                .isInstanceOfSatisfying(ResponseStatusException.class,
+                        e -> assertThat(e.getStatusCode()).isEqualTo(HttpStatus.NOT_FOUND));
+    }
+
+    private ImportStatusResponse awaitFinished(String id) throws InterruptedException {
+        long deadline = System.nanoTime() + TimeUnit.SECONDS.toNanos(5);
+        while (true) {
+            ImportStatusResponse status = importService.status(USER_ID, id);
+            if (!status.state().equals("running")) {
+                return status;
+            }
+            if (System.nanoTime() > deadline) {
+                throw new AssertionError("Import did not finish in time");
+            }
+            Thread.sleep(5);
+        }
+    }
+
+    private static MockMultipartFile upload() {
+        return new MockMultipartFile("file", "watchlist.csv", "text/csv",
+                "Date,Name,Year\n2024-01-01,The Matrix,1999\n".getBytes(StandardCharsets.UTF_8));
+    }
+}
@@ -0,0 +1,91 @@
+package com.sdp.cinebase.importer.service;
+
+import com.sdp.cinebase.catalog.model.CatalogMovie;
+import com.sdp.cinebase.catalog.repo.CatalogMovieRepository;
+import com.sdp.cinebase.catalog.repo.CatalogTvShowRepository;
+import com.sdp.cinebase.catalog.service.CatalogService;
+import com.sdp.cinebase.search.service.TypeaheadService;
+import com.sdp.cinebase.tmdb.dto.MovieDetailsDto;
+import com.sdp.cinebase.tmdb.dto.MovieDto;
+import com.sdp.cinebase.tmdb.dto.PagedResponse;
+import com.sdp.cinebase.tmdb.service.ReactiveTmdbClient;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import reactor.core.publisher.Mono;
+
+import java.time.Duration;
+import java.util.List;
+import java.util.Map;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyInt;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+class TitleResolverTest {
+
+    private CatalogService catalogService;
+    private ReactiveTmdbClient tmdb;
+    private TitleResolver resolver;
+
+    @BeforeEach
+    void setUp() {
+        CatalogMovieRepository movieRepository = mock(CatalogMovieRepository.class);
+        CatalogMovie mirrored = new CatalogMovie(603L);
+        mirrored.setTitle("The Matrix");
+        when(movieRepository.findAllById(any())).thenReturn(List.of(mirrored));
+        catalogService = mock(CatalogService.class);
+        when(catalogService.movieDetails(anyInt())).thenReturn(Mono.error(new RuntimeException("404 Not Found")));
+        when(catalogService.movieDetails(550)).thenReturn(Mono.just(details(550, "Fight Club")));
+        tmdb = mock(ReactiveTmdbClient.class);
+        resolver = new TitleResolver(movieRepository, mock(CatalogTvShowRepository.class), catalogService,
+                mock(TypeaheadService.class), tmdb, 4, Duration.ofSeconds(5));
+    }
+
+    @Test
+    void idRowsMissingFromTheMirrorAreVerifiedUpstream() {
+        ImportEntry mirrored = new ImportEntry(1, 603L, "movie", "Matrix", null, null, null);
+        ImportEntry verified = new ImportEntry(2, 550L, "movie", "fight club (1999)", null, null, null);
+        ImportEntry unknownId = new ImportEntry(3, 99_999_999L, "movie", "Made Up Movie", null, null, null);
+
+        Map<ImportEntry, ResolvedTitle> resolved = resolver.resolve(List.of(mirrored, verified, unknownId));
+
+        assertThat(resolved.get(mirrored).title()).isEqualTo("The Matrix");
+        // The title comes from TMDB, not from the row
+        assertThat(resolved.get(verified).title()).isEqualTo("Fight Club");
+        assertThat(resolved).doesNotContainKey(unknownId);
+        verify(catalogService, never()).movieDetails(603);
+    }
+
+    @Test
+    void searchMatchesTheTitleAndUsesTheYearOnlyToChooseAmongThem() {
+        when(tmdb.searchMovies("Heat", 1)).thenReturn(Mono.just(new PagedResponse<>(1, List.of(
+                movie(1, "Heat Wave", "1995-06-01"),
+                movie(2, "Heat", "1986-03-14"),
+                movie(3, "Heat", "1995-12-15")), 1, 3)));
+        when(tmdb.searchMovies("Casino", 1)).thenReturn(Mono.just(new PagedResponse<>(1, List.of(
+                movie(4, "Casino Royale", "1995-11-22")), 1, 1)));
+        ImportEntry heat1995 = new ImportEntry(1, null, "movie", "Heat", "1995", null, null);
+        ImportEntry heat2001 = new ImportEntry(2, null, "movie", "Heat", "2001", null, null);
+        ImportEntry casino1995 = new ImportEntry(3, null, "movie", "Casino", "1995", null, null);
+
+        Map<ImportEntry, ResolvedTitle> resolved = resolver.resolve(List.of(heat1995, heat2001, casino1995));
+
+        assertThat(resolved.get(heat1995).tmdbId()).isEqualTo(3);
+        // No "Heat" from 2001, so the first "Heat" rather than the 1995 result with another title
+        assertThat(resolved.get(heat2001).tmdbId()).isEqualTo(2);
+        assertThat(resolved).doesNotContainKey(casino1995);
+    }
+
+    private static MovieDto movie(int id, String title, String releaseDate) {
+        return new MovieDto(id, title, releaseDate, null, null, null, null, null, 7.0, 100, "movie", new int[0]);
+    }
+
+    private static MovieDetailsDto details(int id, String title) {
+        return new MovieDetailsDto(id, title, null, null, "/poster.jpg", null, 8.4, 1000, "1999-10-15", null, 139,
+                List.of(), null, null, null, null, null);
+    }
+}
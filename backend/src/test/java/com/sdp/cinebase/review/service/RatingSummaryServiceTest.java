@@ -0,0 +1,135 @@
+package com.sdp.cinebase.review.service;
+
+import com.sdp.cinebase.review.dto.RatingStatsResponse;
+import com.sdp.cinebase.review.model.RatingBucket;
+import com.sdp.cinebase.review.repo.RatingBucketRepository;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.mockito.InOrder;
+import org.springframework.jdbc.core.namedparam.NamedParameterJdbcTemplate;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.anyInt;
+import static org.mockito.ArgumentMatchers.anyLong;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.Mockito.inOrder;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+/**
+ * Rating aggregates over an in-memory bucket table. Without a surrounding transaction the hot
+ * tier is invalidated right away, so every read after a change sees it.
+ */
+class RatingSummaryServiceTest {
+
+    private static final long MATRIX = 603L;
+
+    /** review_rating_buckets of {@link #MATRIX}: rating to count */
+    private final Map<Integer, Long> buckets = new TreeMap<>();
+    /** ratings column of the reviews table for {@link #MATRIX} */
+    private final List<Integer> reviewRatings = new ArrayList<>();
+    private RatingBucketRepository repository;
+    private RatingSummaryService service;
+
+    @BeforeEach
+    void setUp() {
+        repository = mock(RatingBucketRepository.class);
+        when(repository.addToBucket(anyLong(), anyString(), anyInt(), anyLong())).thenAnswer(inv -> {
+            buckets.merge(inv.getArgument(2), inv.getArgument(3), Long::sum);
+            return 1;
+        });
+        when(repository.findByTmdbIdAndMediaType(MATRIX, "movie")).thenAnswer(inv -> buckets.entrySet().stream()
+                .map(bucket -> new RatingBucket(MATRIX, "movie", bucket.getKey(), bucket.getValue()))
+                .toList());
+        when(repository.deleteAllBuckets()).thenAnswer(inv -> {
+            int deleted = buckets.size();
+            buckets.clear();
+            return deleted;
+        });
+        when(repository.insertBucketsFromReviews()).thenAnswer(inv -> {
+            reviewRatings.forEach(rating -> buckets.merge(rating, 1L, Long::sum));
+            return buckets.size();
+        });
+        service = new RatingSummaryService(repository, mock(NamedParameterJdbcTemplate.class),
+                new SimpleMeterRegistry(), 100, Duration.ofMinutes(10), Duration.ofSeconds(5));
+    }
+
+    @Test
+    void untouchedTitleHasNoAverage() {
+        RatingStatsResponse stats = service.stats(MATRIX, "movie");
+
+        assertThat(stats.count()).isZero();
+        assertThat(stats.average()).isNull();
+        assertThat(stats.histogram()).hasSize(10).containsOnly(0L);
+    }
+
+    @Test
+    void createUpdateAndDeleteMoveTheRightBuckets() {
+        service.ratingChanged(MATRIX, "movie", null, 8);
+        service.ratingChanged(MATRIX, "movie", null, 10);
+        service.ratingChanged(MATRIX, "movie", null, 8);
+        assertStats(3, 26, 8, 2L, 10, 1L);
+
+        // Update 8 -> 3
+        service.ratingChanged(MATRIX, "movie", 8, 3);
+        assertStats(3, 21, 3, 1L, 8, 1L, 10, 1L);
+
+        // Rating removed, text kept
+        service.ratingChanged(MATRIX, "movie", 10, null);
+        assertStats(2, 11, 3, 1L, 8, 1L);
+
+        // Text-only review written, edited and deleted: no bucket moves
+        service.ratingChanged(MATRIX, "movie", null, null);
+        service.ratingChanged(MATRIX, "movie", 3, 3);
+        assertStats(2, 11, 3, 1L, 8, 1L);
+
+        // Deleted
+        service.ratingChanged(MATRIX, "movie", 8, null);
+        service.ratingChanged(MATRIX, "movie", 3, null);
+        RatingStatsResponse empty = service.stats(MATRIX, "movie");
+        assertThat(empty.count()).isZero();
+        assertThat(empty.sum()).isZero();
+        assertThat(empty.average()).isNull();
+    }
+
+    @Test
+    void rebuildRepairsDriftFromTheReviewsTable() {
+        service.ratingChanged(MATRIX, "movie", null, 7);
+        assertThat(service.stats(MATRIX, "movie").count()).isEqualTo(1);
+        // Reviews edited behind the service's back
+        reviewRatings.addAll(List.of(9, 9, 4));
+
+        assertThat(service.rebuild()).isEqualTo(2);
+
+        assertStats(3, 22, 4, 1L, 9, 2L);
+        InOrder order = inOrder(repository);
+        order.verify(repository).setLocalLockTimeout("5000ms");
+        order.verify(repository).lockReviews();
+        order.verify(repository).deleteAllBuckets();
+        order.verify(repository).insertBucketsFromReviews();
+    }
+
+    /**
+     * @param ratingCounts alternating rating and expected count for every non-empty bucket
+     */
+    private void assertStats(long count, long sum, Object... ratingCounts) {
+        RatingStatsResponse stats = service.stats(MATRIX, "movie");
+        assertThat(stats.count()).isEqualTo(count);
+        assertThat(stats.sum()).isEqualTo(sum);
+        assertThat(stats.average()).isEqualTo((double) sum / count);
+        Long[] histogram = new Long[10];
+        Arrays.fill(histogram, 0L);
+        for (int i = 0; i < ratingCounts.length; i += 2) {
+            histogram[(Integer) ratingCounts[i] - 1] = (Long) ratingCounts[i + 1];
+        }
+        assertThat(stats.histogram()).containsExactly(histogram);
+    }
+}
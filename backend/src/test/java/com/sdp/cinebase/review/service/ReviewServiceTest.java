@@ -0,0 +1,153 @@
+package com.sdp.cinebase.review.service;
+
+import com.sdp.cinebase.email.EmailService;
+import com.sdp.cinebase.review.dto.ReviewPageResponse;
+import com.sdp.cinebase.review.dto.ReviewResponse;
+import com.sdp.cinebase.review.repo.ReviewRepository;
+import com.sdp.cinebase.title.service.UserMembershipIndex;
+import com.sdp.cinebase.user.repo.UserRepository;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.data.domain.Limit;
+import org.springframework.http.HttpStatus;
+import org.springframework.web.server.ResponseStatusException;
+
+import java.nio.charset.StandardCharsets;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.Base64;
+import java.util.Comparator;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyLong;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+/**
+ * Keyset paging of review lists over an in-memory repository that answers the page queries the way
+ * the database does: {@code created_at DESC, id DESC}, strictly after the cursor, at most the limit.
+ */
+class ReviewServiceTest {
+
+    private static final long TMDB_ID = 603L;
+    private static final Instant BASE = Instant.parse("2024-05-01T12:00:00.123456Z");
+
+    private final List<ReviewResponse> reviews = new ArrayList<>();
+    private ReviewRepository repository;
+    private ReviewService service;
+
+    @BeforeEach
+    void setUp() {
+        repository = mock(ReviewRepository.class);
+        when(repository.findPageForMedia(eq(TMDB_ID), eq("movie"), any()))
+                .thenAnswer(inv -> seek(null, 0, inv.getArgument(2)));
+        when(repository.findPageForMediaAfter(eq(TMDB_ID), eq("movie"), any(), anyLong(), any()))
+                .thenAnswer(inv -> seek(inv.getArgument(2), inv.getArgument(3), inv.getArgument(4)));
+        service = new ReviewService(repository, mock(UserRepository.class), mock(EmailService.class),
+                mock(RatingSummaryService.class), mock(UserMembershipIndex.class));
+    }
+
+    @Test
+    void pagesThroughReviewsSharingACreatedAtExactlyOnce() {
+        // Ids 1..7 share one timestamp, so only the id separates them across page boundaries
+        for (long id = 1; id <= 7; id++) {
+            reviews.add(review(id, BASE));
+        }
+        reviews.add(review(8, BASE.plusNanos(1_000)));
+        reviews.add(review(9, BASE.minusSeconds(60)));
+        reviews.add(review(10, BASE.plusSeconds(60)));
+
+        List<Long> seen = new ArrayList<>();
+        String cursor = null;
+        int pages = 0;
+        do {
+            ReviewPageResponse page = service.getReviewsForMedia(TMDB_ID, "movie", cursor, 3);
+            page.results().forEach(review -> seen.add(review.id()));
+            cursor = page.next_cursor();
+            pages++;
+        } while (cursor != null);
+
+        assertThat(seen).containsExactly(10L, 8L, 7L, 6L, 5L, 4L, 3L, 2L, 1L, 9L);
+        assertThat(pages).isEqualTo(4);
+    }
+
+    @Test
+    void lastPageHasNoCursor() {
+        for (long id = 1; id <= 4; id++) {
+            reviews.add(review(id, BASE.plusSeconds(id)));
+        }
+
+        ReviewPageResponse first = service.getReviewsForMedia(TMDB_ID, "movie", null, 2);
+        assertThat(first.next_cursor()).isNotNull();
+        ReviewPageResponse last = service.getReviewsForMedia(TMDB_ID, "movie", first.next_cursor(), 2);
+        assertThat(last.results()).extracting(ReviewResponse::id).containsExactly(2L, 1L);
+        // Exactly a page left: the extra row fetched to look ahead is not there
+        assertThat(last.next_cursor()).isNull();
+
+        assertThat(service.getReviewsForMedia(TMDB_ID, "movie", null, 20).next_cursor()).isNull();
+    }
+
+    @Test
+    void pageSizeIsClamped() {
+        service.getReviewsForMedia(TMDB_ID, "movie", null, 0);
+        verify(repository).findPageForMedia(TMDB_ID, "movie", Limit.of(2));
+
+        service.getReviewsForMedia(TMDB_ID, "movie", null, 10_000);
+        verify(repository).findPageForMedia(TMDB_ID, "movie", Limit.of(ReviewService.MAX_PAGE_SIZE + 1));
+
+        when(repository.findPageForUser(anyLong(), any())).thenReturn(List.of());
+        service.getAllUserReviews(1L, null, -5);
+        verify(repository).findPageForUser(1L, Limit.of(2));
+    }
+
+    @Test
+    void malformedCursorIsABadRequest() {
+        List<String> malformed = List.of(
+                "not base64!",
+                encode("1714564800.0"),
+                encode("1714564800.0.12.4"),
+                encode("abc.0.12"),
+                encode(Long.MAX_VALUE + ".0.12"));
+
+        for (String cursor : malformed) {
+            assertThatThrownBy(() -> service.getReviewsForMedia(TMDB_ID, "movie", cursor, 20))
+                    .as(cursor)
+                    .isInstanceOfSatisfying(ResponseStatusException.class,
+                            e -> assertThat(e.getStatusCode()).isEqualTo(HttpStatus.BAD_REQUEST));
+            assertThatThrownBy(() -> service.getAllUserReviews(1L, cursor, 20))
+                    .isInstanceOf(ResponseStatusException.class);
+        }
+    }
+
+    @Test
+    void cursorRoundTripsNanosecondTimestamps() {
+        ReviewCursor cursor = new ReviewCursor(BASE.plusNanos(789), 42L);
+
+        assertThat(ReviewCursor.decode(cursor.encode())).isEqualTo(cursor);
+    }
+
+    private List<ReviewResponse> seek(Instant createdAt, long id, Limit limit) {
+        Comparator<ReviewResponse> newestFirst = Comparator.comparing(ReviewResponse::createdAt)
+                .thenComparing(ReviewResponse::id)
+                .reversed();
+        return reviews.stream()
+                .sorted(newestFirst)
+                .filter(r -> createdAt == null || r.createdAt().isBefore(createdAt)
+                        || (r.createdAt().equals(createdAt) && r.id() < id))
+                .limit(limit.max())
+                .toList();
+    }
+
+    private static ReviewResponse review(long id, Instant createdAt) {
+        return new ReviewResponse(id, 1L, "alice", TMDB_ID, "movie", "The Matrix", 8, null, createdAt, createdAt);
+    }
+
+    private static String encode(String raw) {
+        return Base64.getUrlEncoder().withoutPadding().encodeToString(raw.getBytes(StandardCharsets.UTF_8));
+    }
+}
@@ -0,0 +1,205 @@
+package com.sdp.cinebase.search.service;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class FullTextIndexTest {
+
+    @Test
+    void distanceCountsEditsAndTranspositionsWithinTheBound() {
+        assertThat(FullTextIndex.distance("matrix", "matrix", 2)).isZero();
+        assertThat(FullTextIndex.distance("kitten", "sitting", 3)).isEqualTo(3);
+        assertThat(FullTextIndex.distance("alien", "alein", 1)).isEqualTo(1);
+        assertThat(FullTextIndex.distance("matrix", "matx", 2)).isEqualTo(2);
+        // Past the bound the exact distance does not matter, only that it is over
+        assertThat(FullTextIndex.distance("abcdef", "uvwxyz", 1)).isEqualTo(2);
+        assertThat(FullTextIndex.distance("kitten", "sitting", 2)).isEqualTo(3);
+    }
+
+    @Test
+    void typosAreForgivenByTokenLength() {
+        FullTextIndex index = new FullTextIndex(100);
+        index.put(document("movie", 1, "The Matrix", 1999, 28));
+        index.put(document("movie", 2, "Interstellar", 2014, 878));
+        index.put(document("movie", 3, "Up", 2009, 16));
+
+        // 4-7 characters: one edit
+        assertThat(ids(index.search("matrx", FullTextIndex.Filter.NONE, 0, 10))).containsExactly(1);
+        assertThat(ids(index.search("mtrx", FullTextIndex.Filter.NONE, 0, 10))).isEmpty();
+        // 8 or more: two edits
+        assertThat(ids(index.search("intrstelar", FullTextIndex.Filter.NONE, 0, 10))).containsExactly(2);
+        assertThat(ids(index.search("intrstlar", FullTextIndex.Filter.NONE, 0, 10))).isEmpty();
+        // Under 4: exact only
+        assertThat(ids(index.search("up", FullTextIndex.Filter.NONE, 0, 10))).containsExactly(3);
+        assertThat(ids(index.search("upp", FullTextIndex.Filter.NONE, 0, 10))).isEmpty();
+    }
+
+    @Test
+    void titleHitsOutrankOverviewHitsAndPartialMatchesRankLower() {
+        FullTextIndex index = new FullTextIndex(100);
+        index.put(new FullTextIndex.Document("movie", 1, "A Quiet Evening", "Space travel goes wrong", 2001, null,
+                7, 100, new int[0], List.of(), List.of()));
+        index.put(new FullTextIndex.Document("movie", 2, "Space Travel", "A quiet evening at home", 2001, null,
+                7, 100, new int[0], List.of(), List.of()));
+        index.put(new FullTextIndex.Document("movie", 3, "Space Cowboys", "Retired pilots", 2000, null,
+                7, 100, new int[0], List.of(), List.of()));
+
+        assertThat(ids(index.search("space travel", FullTextIndex.Filter.NONE, 0, 10))).containsExactly(2, 1, 3);
+    }
+
+    @Test
+    void filtersRestrictByMediaTypeYearAndGenre() {
+        FullTextIndex index = new FullTextIndex(100);
+        index.put(document("movie", 1, "Star Wars", 1977, 878));
+        index.put(document("tv", 1, "Star Wars Rebels", 2014, 16));
+        index.put(document("movie", 2, "Star Trek", 2009, 878));
+        index.put(document("movie", 3, "A Star Is Born", null, 18));
+
+        assertThat(ids(index.search("star", new FullTextIndex.Filter("tv", null, null, null), 0, 10))).containsExactly(1);
+        assertThat(ids(index.search("star", new FullTextIndex.Filter("movie", 2000, null, null), 0, 10))).containsExactly(2);
+        assertThat(ids(index.search("star", new FullTextIndex.Filter(null, null, 1990, null), 0, 10))).containsExactly(1);
+        assertThat(ids(index.search("star", new FullTextIndex.Filter("movie", null, null, 878), 0, 10)))
+                .containsExactlyInAnyOrder(1, 2);
+        assertThat(index.search("star", FullTextIndex.Filter.NONE, 0, 10).total()).isEqualTo(4);
+    }
+
+    @Test
+    void pagesThroughRankedHitsWithTheFullTotal() {
+        FullTextIndex index = new FullTextIndex(100);
+        for (int id = 1; id <= 25; id++) {
+            index.put(new FullTextIndex.Document("movie", id, "Night " + id, null, 2000, null, 7, id, new int[0],
+                    List.of(), List.of()));
+        }
+
+        FullTextIndex.Results second = index.search("night", FullTextIndex.Filter.NONE, 10, 10);
+        assertThat(second.total()).isEqualTo(25);
+        // Equal scores fall back to vote count, highest first
+        assertThat(ids(second)).containsExactly(15, 14, 13, 12, 11, 10, 9, 8, 7, 6);
+        assertThat(ids(index.search("night", FullTextIndex.Filter.NONE, 20, 10))).hasSize(5);
+    }
+
+    @Test
+    void searchSeesLatestVersionsAfterCompaction() {
+        FullTextIndex index = new FullTextIndex(100);
+        // 10 titles re-indexed 150 times each leave far more tombstones than live documents
+        for (int version = 0; version < 150; version++) {
+            for (int id = 1; id <= 10; id++) {
+                index.put(new FullTextIndex.Document("movie", id, "Title " + id, "version" + version, 2000, null,
+                        7, 100, new int[0], List.of(), List.of()));
+            }
+        }
+
+        assertThat(index.size()).isEqualTo(10);
+        assertThat(index.search("version149", FullTextIndex.Filter.NONE, 0, 20).total()).isEqualTo(10);
+        assertThat(index.search("version148", FullTextIndex.Filter.NONE, 0, 20).total()).isZero();
+        assertThat(ids(index.search("title 7", FullTextIndex.Filter.NONE, 0, 1))).containsExactly(7);
+    }
+
+    @Test
+    void writesDuringCompactionAreKept() throws Exception {
+        FullTextIndex index = new FullTextIndex(1_000);
+        int writers = 4;
+        int titlesPerWriter = 25;
+        int versions = 200;
+        ExecutorService executor = Executors.newFixedThreadPool(writers + 1);
+        try {
+            List<Future<?>> work = new ArrayList<>();
+            for (int w = 0; w < writers; w++) {
+                int first = w * titlesPerWriter + 1;
+                work.add(executor.submit(() -> {
+                    for (int version = 0; version < versions; version++) {
+                        for (int id = first; id < first + titlesPerWriter; id++) {
+                            index.put(new FullTextIndex.Document("movie", id, "Title " + id, "version" + version,
+                                    2000, null, 7, 100, new int[0], List.of(), List.of()));
+                        }
+                    }
+                }));
+            }
+            work.add(executor.submit(() -> {
+                for (int i = 0; i < 500; i++) {
+                    index.search("title", FullTextIndex.Filter.NONE, 0, 10);
+                }
+            }));
+            for (Future<?> future : work) {
+                future.get(30, TimeUnit.SECONDS);
+            }
+        } finally {
+            executor.shutdownNow();
+        }
+
+        int titles = writers * titlesPerWriter;
+        assertThat(index.size()).isEqualTo(titles);
+        assertThat(index.search("version" + (versions - 1), FullTextIndex.Filter.NONE, 0, 1).total()).isEqualTo(titles);
+        assertThat(index.search("title", FullTextIndex.Filter.NONE, 0, 1).total()).isEqualTo(titles);
+    }
+
+    @Test
+    void concurrentMergesIntoOneDocumentAreNotLost() throws Exception {
+        FullTextIndex index = new FullTextIndex(100);
+        index.put(document("movie", 1, "Heat", 1995, 80));
+        int writers = 4;
+        int mergesPerWriter = 250;
+        ExecutorService executor = Executors.newFixedThreadPool(writers);
+        try {
+            List<Future<?>> work = new ArrayList<>();
+            for (int w = 0; w < writers; w++) {
+                work.add(executor.submit(() -> {
+                    for (int i = 0; i < mergesPerWriter; i++) {
+                        index.compute("movie", 1, existing -> {
+                            List<String> cast = new ArrayList<>(existing.cast());
+                            cast.add("Actor " + cast.size());
+                            return new FullTextIndex.Document("movie", 1, existing.title(), null, existing.year(),
+                                    null, 7, 100, existing.genreIds(), List.of(), cast);
+                        });
+                    }
+                }));
+            }
+            for (Future<?> future : work) {
+                future.get(30, TimeUnit.SECONDS);
+            }
+        } finally {
+            executor.shutdownNow();
+        }
+
+        assertThat(index.get("movie", 1).cast()).hasSize(writers * mergesPerWriter);
+        assertThat(index.size()).isEqualTo(1);
+    }
+
+    @Test
+    void computeSkipsMissingAndUnchangedResults() {
+        FullTextIndex index = new FullTextIndex(1);
+        FullTextIndex.Document heat = document("movie", 1, "Heat", 1995, 80);
+
+        assertThat(index.compute("movie", 1, existing -> null)).isTrue();
+        assertThat(index.size()).isZero();
+        assertThat(index.compute("movie", 1, existing -> heat)).isTrue();
+        assertThat(index.compute("movie", 1, existing -> document("movie", 1, "Heat", 1995, 80))).isTrue();
+        assertThat(index.get("movie", 1)).isSameAs(heat);
+        // Full: a new title is refused, the stored one can still change
+        assertThat(index.compute("movie", 2, existing -> document("movie", 2, "Up", 2009, 16))).isFalse();
+        assertThat(index.compute("movie", 1, existing -> document("movie", 1, "Heat", 1995, 53))).isTrue();
+    }
+
+    @Test
+    void identicalDocumentsAreEqual() {
+        assertThat(document("movie", 1, "Heat", 1995, 80)).isEqualTo(document("movie", 1, "Heat", 1995, 80));
+        assertThat(document("movie", 1, "Heat", 1995, 80)).isNotEqualTo(document("movie", 1, "Heat", 1995, 53));
+    }
+
+    private static FullTextIndex.Document document(String mediaType, int id, String title, Integer year, int genreId) {
+        return new FullTextIndex.Document(mediaType, id, title, null, year, null, 7, 100, new int[] {genreId},
+                List.of(), List.of());
+    }
+
+    private static List<Integer> ids(FullTextIndex.Results results) {
+        return results.hits().stream().map(hit -> hit.document().id()).toList();
+    }
+}
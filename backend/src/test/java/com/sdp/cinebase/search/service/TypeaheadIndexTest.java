@@ -0,0 +1,96 @@
+package com.sdp.cinebase.search.service;
+
+import com.sdp.cinebase.search.dto.SuggestionDto;
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+import java.util.Random;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class TypeaheadIndexTest {
+
+    @Test
+    void ranksByScoreThenShorterLabel() {
+        TypeaheadIndex index = new TypeaheadIndex(100);
+        index.put("movie", 1, "Star Trek Beyond", "2016", null, 5);
+        index.put("movie", 2, "Star Wars", "1977", null, 9);
+        index.put("movie", 3, "Star Trek", "2009", null, 5);
+        index.put("tv", 4, "Stargate SG-1", "1997", null, 7);
+
+        assertThat(labels(index.suggest("star", 10)))
+                .containsExactly("Star Wars", "Stargate SG-1", "Star Trek", "Star Trek Beyond");
+        assertThat(labels(index.suggest("star", 2))).containsExactly("Star Wars", "Stargate SG-1");
+    }
+
+    @Test
+    void lastWordIsAPrefixAndEarlierWordsMustPrefixSomeToken() {
+        TypeaheadIndex index = new TypeaheadIndex(100);
+        index.put("movie", 1, "The Lord of the Rings", "2001", null, 8);
+        index.put("movie", 2, "Lord of War", "2005", null, 6);
+        index.put("person", 3, "Amélie Lorde", null, null, 1);
+
+        assertThat(labels(index.suggest("lor", 10))).containsExactly("The Lord of the Rings", "Lord of War", "Amélie Lorde");
+        assertThat(labels(index.suggest("lord of w", 10))).containsExactly("Lord of War");
+        assertThat(labels(index.suggest("rings lo", 10))).containsExactly("The Lord of the Rings");
+        assertThat(labels(index.suggest("AMELIE", 10))).containsExactly("Amélie Lorde");
+        assertThat(index.suggest("lordz", 10)).isEmpty();
+        assertThat(index.suggest("  ", 10)).isEmpty();
+    }
+
+    @Test
+    void raisedScoreMovesAnEntryAheadWithinItsPostings() {
+        TypeaheadIndex index = new TypeaheadIndex(100);
+        index.put("movie", 1, "Alien", "1979", null, 3);
+        index.put("movie", 2, "Aliens", "1986", null, 2);
+        index.put("movie", 3, "Alien Resurrection", "1997", null, 1);
+
+        index.put("movie", 3, "Alien Resurrection", "1997", null, 10);
+        index.put("movie", 1, "Alien", "1979", null, 0.5);
+
+        assertThat(labels(index.suggest("alien", 1))).containsExactly("Alien Resurrection");
+        assertThat(labels(index.suggest("alien", 3))).containsExactly("Alien Resurrection", "Aliens", "Alien");
+    }
+
+    @Test
+    void retitledEntryLeavesItsOldTokens() {
+        TypeaheadIndex index = new TypeaheadIndex(100);
+        index.put("movie", 1, "Untitled Project", null, null, 1);
+        index.put("movie", 1, "Dune", "2021", null, 8);
+
+        assertThat(index.suggest("untitled", 10)).isEmpty();
+        assertThat(index.suggest("dune", 10)).extracting(SuggestionDto::year).containsExactly("2021");
+        assertThat(index.size()).isEqualTo(1);
+    }
+
+    @Test
+    void bulkLoadAnswersLikeOneByOneInserts() {
+        TypeaheadIndex oneByOne = new TypeaheadIndex(10_000);
+        TypeaheadIndex bulk = new TypeaheadIndex(10_000);
+        String[] words = {"the", "dark", "night", "star", "love", "war", "city", "girl", "man", "river"};
+        Random random = new Random(42);
+        for (int id = 0; id < 2_000; id++) {
+            String label = words[random.nextInt(words.length)] + " " + words[random.nextInt(words.length)] + " " + id;
+            double score = random.nextInt(50) / 5.0;
+            oneByOne.put("movie", id, label, null, null, score);
+        }
+        Random replay = new Random(42);
+        bulk.bulk(() -> {
+            for (int id = 0; id < 2_000; id++) {
+                String label = words[replay.nextInt(words.length)] + " " + words[replay.nextInt(words.length)] + " " + id;
+                double score = replay.nextInt(50) / 5.0;
+                bulk.put("movie", id, label, null, null, score);
+            }
+            // Nothing is visible until the batch is merged
+            assertThat(bulk.suggest("the", 5)).isEmpty();
+        });
+
+        for (String query : List.of("the", "d", "star w", "night ci", "river 1", "love love")) {
+            assertThat(labels(bulk.suggest(query, 8))).as(query).isEqualTo(labels(oneByOne.suggest(query, 8)));
+        }
+    }
+
+    private static List<String> labels(List<SuggestionDto> suggestions) {
+        return suggestions.stream().map(SuggestionDto::label).toList();
+    }
+}
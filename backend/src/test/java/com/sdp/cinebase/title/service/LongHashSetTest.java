@@ -0,0 +1,51 @@
+package com.sdp.cinebase.title.service;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.HashSet;
+import java.util.Random;
+import java.util.Set;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class LongHashSetTest {
+
+    @Test
+    void behavesLikeHashSetUnderRandomAddsAndRemoves() {
+        Random random = new Random(42);
+        LongHashSet set = new LongHashSet();
+        Set<Long> expected = new HashSet<>();
+
+        for (int i = 0; i < 200_000; i++) {
+            // A small key range forces long probe runs and many removals inside them
+            long key = 1 + random.nextInt(2_000);
+            if (random.nextInt(3) == 0) {
+                assertThat(set.remove(key)).isEqualTo(expected.remove(key));
+            } else {
+                assertThat(set.add(key)).isEqualTo(expected.add(key));
+            }
+            long probe = 1 + random.nextInt(2_000);
+            assertThat(set.contains(probe)).isEqualTo(expected.contains(probe));
+        }
+        assertThat(set.size()).isEqualTo(expected.size());
+        for (long key = 1; key <= 2_000; key++) {
+            assertThat(set.contains(key)).isEqualTo(expected.contains(key));
+        }
+    }
+
+    @Test
+    void aFewHundredTitlesFitInAFewKilobytes() {
+        LongHashSet set = new LongHashSet();
+        for (long id = 1; id <= 500; id++) {
+            set.add(1L << 32 | id * 7919);
+        }
+
+        assertThat(set.size()).isEqualTo(500);
+        assertThat(set.bytes()).isLessThanOrEqualTo(16 * 1024);
+
+        for (long id = 1; id <= 490; id++) {
+            set.remove(1L << 32 | id * 7919);
+        }
+        assertThat(set.bytes()).isLessThanOrEqualTo(1024);
+    }
+}
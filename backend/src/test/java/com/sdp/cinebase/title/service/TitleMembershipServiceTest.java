@@ -0,0 +1,162 @@
+package com.sdp.cinebase.title.service;
+
+import com.sdp.cinebase.title.dto.MembershipBitmapResponse;
+import com.sdp.cinebase.title.repo.TitleMembershipRepository;
+import com.sdp.cinebase.title.repo.TitleMembershipRepository.MembershipHit;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.web.server.ResponseStatusException;
+
+import java.time.Duration;
+import java.util.List;
+import java.util.stream.IntStream;
+
+import static com.sdp.cinebase.title.dto.MembershipBitmapResponse.FAVORITE;
+import static com.sdp.cinebase.title.dto.MembershipBitmapResponse.REVIEWED;
+import static com.sdp.cinebase.title.dto.MembershipBitmapResponse.WATCHLIST;
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.mockito.Mockito.*;
+
+/**
+ * Counts the queries behind a grid of poster cards: previously two "is in list" queries per card
+ * (favorites and watchlist), now one when the user is first seen and none after that.
+ */
+class TitleMembershipServiceTest {
+
+    private static final long USER_ID = 7L;
+
+    private TitleMembershipRepository repository;
+    private UserMembershipIndex index;
+    private TitleMembershipService service;
+
+    @BeforeEach
+    void setUp() {
+        repository = mock(TitleMembershipRepository.class);
+        index = new UserMembershipIndex(repository, new SimpleMeterRegistry(), 1 << 20,
+                Duration.ofMinutes(30), Duration.ofHours(1));
+        service = new TitleMembershipService(index, 100);
+    }
+
+    @Test
+    void onlyTheFirstGridOfAUserQueries() {
+        when(repository.findAllMembership(USER_ID)).thenReturn(List.of());
+
+        for (int cards : new int[]{20, 40, 40}) {
+            List<String> page = IntStream.range(0, cards)
+                    .mapToObj(i -> (i % 2 == 0 ? "movie:" : "tv:") + (1000 + cards + i))
+                    .toList();
+
+            MembershipBitmapResponse response = service.membership(USER_ID, page);
+
+            assertThat(response.flags()).hasSize(cards).containsOnlyKeys(page);
+        }
+        verify(repository, times(1)).findAllMembership(USER_ID);
+        verifyNoMoreInteractions(repository);
+    }
+
+    @Test
+    void listChangesAreSeenWithoutReloading() {
+        when(repository.findAllMembership(USER_ID)).thenReturn(List.of(hit(FAVORITE, 550, "movie")));
+        assertThat(index.flags(USER_ID, "movie", 550)).isEqualTo(FAVORITE);
+
+        index.added(USER_ID, TitleList.WATCHLIST, "movie", 550);
+        index.added(USER_ID, TitleList.REVIEWS, "tv", 550);
+        index.removed(USER_ID, TitleList.FAVORITES, "movie", 550);
+
+        assertThat(index.flags(USER_ID, "movie", 550)).isEqualTo(WATCHLIST);
+        assertThat(index.flags(USER_ID, "tv", 550)).isEqualTo(REVIEWED);
+        verify(repository, times(1)).findAllMembership(USER_ID);
+    }
+
+    @Test
+    void idleAndAgedUsersAreReloaded() throws InterruptedException {
+        UserMembershipIndex expiring = new UserMembershipIndex(repository, new SimpleMeterRegistry(), 1 << 20,
+                Duration.ofMillis(50), Duration.ofMillis(200));
+        when(repository.findAllMembership(USER_ID)).thenReturn(List.of());
+        expiring.flags(USER_ID, "movie", 550);
+
+        // Idle past the timeout
+        Thread.sleep(100);
+        expiring.flags(USER_ID, "movie", 550);
+        verify(repository, times(2)).findAllMembership(USER_ID);
+
+        // Busy, but older than the max age: another instance added a favorite meanwhile
+        when(repository.findAllMembership(USER_ID)).thenReturn(List.of(hit(FAVORITE, 550, "movie")));
+        for (int i = 0; i < 10; i++) {
+            Thread.sleep(25);
+            expiring.flags(USER_ID, "movie", 550);
+        }
+        assertThat(expiring.flags(USER_ID, "movie", 550)).isEqualTo(FAVORITE);
+        verify(repository, atLeast(3)).findAllMembership(USER_ID);
+    }
+
+    @Test
+    void changesForAUserNotLoadedYetAreLeftToTheLoad() {
+        index.added(USER_ID, TitleList.FAVORITES, "movie", 550);
+
+        verifyNoInteractions(repository);
+    }
+
+    @Test
+    void unknownMediaTypesAreNeverListed() {
+        when(repository.findAllMembership(USER_ID)).thenReturn(List.of(hit(FAVORITE, 550, "movie")));
+
+        index.added(USER_ID, TitleList.FAVORITES, "person", 550);
+        index.removed(USER_ID, TitleList.FAVORITES, "person", 550);
+
+        assertThat(index.contains(USER_ID, TitleList.FAVORITES, "person", 550)).isFalse();
+        assertThat(index.contains(USER_ID, TitleList.FAVORITES, null, 550)).isFalse();
+        assertThat(index.flags(USER_ID, "person", 550)).isZero();
+        assertThat(index.flags(USER_ID, "movie", 550)).isEqualTo(FAVORITE);
+    }
+
+    @Test
+    void combinesListsIntoBitmapAndIgnoresOtherMediaTypeWithSameId() {
+        when(repository.findAllMembership(USER_ID)).thenReturn(List.of(
+                hit(FAVORITE, 550, "movie"),
+                hit(REVIEWED, 550, "movie"),
+                hit(WATCHLIST, 1399, "tv"),
+                // Same id as the TV show, but the movie was not asked for
+                hit(FAVORITE, 1399, "movie")));
+
+        MembershipBitmapResponse response = service.membership(USER_ID, List.of("movie:550", "tv:1399", "movie:13"));
+
+        assertThat(response.flags())
+                .containsEntry("movie:550", FAVORITE | REVIEWED)
+                .containsEntry("tv:1399", WATCHLIST)
+                .containsEntry("movie:13", 0)
+                .hasSize(3);
+    }
+
+    @Test
+    void rejectsMalformedOrTooManyKeysWithoutQuerying() {
+        assertThatThrownBy(() -> service.membership(USER_ID, List.of("person:1")))
+                .isInstanceOf(ResponseStatusException.class);
+        List<String> tooMany = IntStream.rangeClosed(1, 101).mapToObj(i -> "movie:" + i).toList();
+        assertThatThrownBy(() -> service.membership(USER_ID, tooMany))
+                .isInstanceOf(ResponseStatusException.class);
+
+        verifyNoInteractions(repository);
+    }
+
+    private static MembershipHit hit(int flag, long tmdbId, String mediaType) {
+        return new MembershipHit() {
+            @Override
+            public Integer getFlag() {
+                return flag;
+            }
+
+            @Override
+            public Long getTmdbId() {
+                return tmdbId;
+            }
+
+            @Override
+            public String getMediaType() {
+                return mediaType;
+            }
+        };
+    }
+}
@@ -0,0 +1,50 @@
+package com.sdp.cinebase.title.service;
+
+import com.sdp.cinebase.catalog.service.CatalogService;
+import com.sdp.cinebase.review.dto.ReviewPageResponse;
+import com.sdp.cinebase.review.service.ReviewService;
+import com.sdp.cinebase.title.dto.TitlePageResponse;
+import com.sdp.cinebase.tmdb.dto.MovieDetailsDto;
+import org.junit.jupiter.api.Test;
+import reactor.core.publisher.Mono;
+
+import java.time.Duration;
+import java.util.List;
+import java.util.Optional;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.anyInt;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+class TitlePageServiceTest {
+
+    private static final long USER_ID = 7L;
+
+    @Test
+    void combinesDetailsReviewsAndMembershipOfOneTitle() {
+        MovieDetailsDto details = new MovieDetailsDto(1399, "Game of Thrones", null, null, "/poster.jpg", null, 8.4, 1000,
+                null, null, null, List.of(), null, null, null, null, null);
+        CatalogService catalogService = mock(CatalogService.class);
+        when(catalogService.tvDetails(1399)).thenReturn(Mono.just(details));
+        ReviewPageResponse reviews = new ReviewPageResponse(List.of(), null);
+        ReviewService reviewService = mock(ReviewService.class);
+        when(reviewService.getReviewsForMedia(1399L, "tv", null, ReviewService.DEFAULT_PAGE_SIZE)).thenReturn(reviews);
+        when(reviewService.getUserReview(USER_ID, 1399L, "tv")).thenReturn(Optional.empty());
+        UserMembershipIndex membershipIndex = mock(UserMembershipIndex.class);
+        when(membershipIndex.flags(USER_ID, "tv", 1399)).thenReturn(TitleList.WATCHLIST.flag() | TitleList.REVIEWS.flag());
+
+        TitlePageResponse page = new TitlePageService(catalogService, reviewService, membershipIndex)
+                .titlePage(USER_ID, "tv", 1399)
+                .block(Duration.ofSeconds(5));
+
+        assertThat(page.details()).isSameAs(details);
+        assertThat(page.reviews()).isSameAs(reviews);
+        assertThat(page.my_review()).isNull();
+        assertThat(page.favorite()).isFalse();
+        assertThat(page.in_watchlist()).isTrue();
+        verify(catalogService, never()).movieDetails(anyInt());
+    }
+}
@@ -0,0 +1,101 @@
+package com.sdp.cinebase.tmdb.cache;
+
+import com.sdp.cinebase.tmdb.dto.MovieDetailsDto;
+import com.sdp.cinebase.tmdb.dto.MovieDto;
+import com.sdp.cinebase.tmdb.dto.PagedResponse;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.Test;
+import reactor.core.publisher.Mono;
+
+import java.time.Duration;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.stream.IntStream;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class TmdbCacheTest {
+
+    private final SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry();
+
+    @Test
+    void entriesExpireAfterTheirFamilyTtl() throws InterruptedException {
+        // Details live 200ms, feeds a minute
+        TmdbCache cache = cache(1_000_000, Duration.ofMinutes(1), Duration.ofMillis(200));
+        AtomicInteger detailsLoads = new AtomicInteger();
+        AtomicInteger feedLoads = new AtomicInteger();
+
+        for (int i = 0; i < 3; i++) {
+            get(cache, TmdbEndpointFamily.DETAILS, "/movie/603", detailsLoads);
+            get(cache, TmdbEndpointFamily.FEED, "/movie/popular?page=1", feedLoads);
+        }
+        assertThat(detailsLoads).hasValue(1);
+        assertThat(feedLoads).hasValue(1);
+
+        Thread.sleep(300);
+        get(cache, TmdbEndpointFamily.DETAILS, "/movie/603", detailsLoads);
+        get(cache, TmdbEndpointFamily.FEED, "/movie/popular?page=1", feedLoads);
+
+        assertThat(detailsLoads).hasValue(2);
+        assertThat(feedLoads).hasValue(1);
+        assertThat(gets("hit")).isEqualTo(5);
+        assertThat(gets("miss")).isEqualTo(3);
+    }
+
+    @Test
+    void evictsByPayloadWeightNotEntryCount() throws InterruptedException {
+        int pageWeight = "/movie/popular?page=10".length() * 2 + TmdbPayloadWeigher.weigh(page(10));
+        long maxWeight = 10L * pageWeight;
+        TmdbCache cache = cache(maxWeight, Duration.ofMinutes(1), Duration.ofMinutes(1));
+        AtomicInteger loads = new AtomicInteger();
+
+        for (int page = 10; page < 40; page++) {
+            get(cache, TmdbEndpointFamily.FEED, "/movie/popular?page=" + page, loads);
+        }
+
+        // Caffeine evicts asynchronously; 30 pages into room for 10 leaves at least 20 pages' weight evicted
+        long deadline = System.nanoTime() + Duration.ofSeconds(5).toNanos();
+        while (cache.stats().evictionWeight() < 20L * pageWeight && System.nanoTime() < deadline) {
+            Thread.sleep(10);
+        }
+        assertThat(cache.stats().evictionWeight()).isGreaterThanOrEqualTo(20L * pageWeight);
+        assertThat(cache.stats().evictionCount()).isBetween(20L, 30L);
+        assertThat(meterRegistry.get("cache.evictions").tag("cache", TmdbCache.CACHE_NAME).functionCounter().count())
+                .isEqualTo(cache.stats().evictionCount());
+    }
+
+    @Test
+    void payloadsWithMissingListsCanBeWeighed() {
+        MovieDetailsDto details = new MovieDetailsDto(603, "The Matrix", null, "Neo wakes up", null, null, 8.2, 25_000,
+                null, null, 136, null, new MovieDetailsDto.Credits(null, null), new MovieDetailsDto.Videos(null),
+                null, null, new MovieDetailsDto.Reviews(null));
+
+        assertThat(TmdbPayloadWeigher.weigh(details)).isPositive();
+        assertThat(TmdbPayloadWeigher.weigh(new PagedResponse<MovieDto>(1, null, 0, 0))).isPositive();
+    }
+
+    private TmdbCache cache(long maxWeight, Duration feedTtl, Duration detailsTtl) {
+        return new TmdbCache(maxWeight, feedTtl, Duration.ofMinutes(5), detailsTtl, Duration.ofHours(12),
+                Duration.ofHours(6), Duration.ZERO, Duration.ofHours(1), 3, meterRegistry);
+    }
+
+    private static void get(TmdbCache cache, TmdbEndpointFamily family, String key, AtomicInteger loads) {
+        cache.get(family, key, () -> Mono.fromSupplier(() -> {
+            loads.incrementAndGet();
+            return page(10);
+        })).block();
+    }
+
+    private double gets(String result) {
+        return meterRegistry.get("cache.gets").tag("cache", TmdbCache.CACHE_NAME).tag("result", result)
+                .functionCounter().count();
+    }
+
+    private static PagedResponse<MovieDto> page(int page) {
+        List<MovieDto> movies = IntStream.range(0, 20)
+                .mapToObj(i -> new MovieDto(page * 100 + i, "Movie " + i, null, null, null, "An overview of movie " + i,
+                        null, null, 7.0, 100, "movie", new int[] {18}))
+                .toList();
+        return new PagedResponse<>(page, movies, 500, 10_000);
+    }
+}
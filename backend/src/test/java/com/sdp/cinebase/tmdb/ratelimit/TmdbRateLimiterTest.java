@@ -0,0 +1,87 @@
+package com.sdp.cinebase.tmdb.ratelimit;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.http.HttpStatus;
+import org.springframework.web.server.ResponseStatusException;
+
+import java.time.Duration;
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+class TmdbRateLimiterTest {
+
+    private final SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry();
+    private TmdbRateLimiter limiter;
+
+    @AfterEach
+    void tearDown() {
+        limiter.shutdown();
+    }
+
+    @Test
+    void interactiveWaitersAreServedBeforeEarlierBackgroundWaiters() throws InterruptedException {
+        // One token up front, then one every 100ms
+        limiter = new TmdbRateLimiter(10, 1, 10, Duration.ofSeconds(5), meterRegistry);
+        limiter.acquire(TmdbRequestPriority.INTERACTIVE).block();
+
+        List<String> granted = new CopyOnWriteArrayList<>();
+        for (String name : List.of("background-1", "background-2", "interactive-1", "interactive-2")) {
+            TmdbRequestPriority priority = name.startsWith("background") ? TmdbRequestPriority.BACKGROUND
+                    : TmdbRequestPriority.INTERACTIVE;
+            limiter.acquire(priority).subscribe(null, error -> granted.add(name + " failed"), () -> granted.add(name));
+        }
+        assertThat(depth("background")).isEqualTo(2);
+        assertThat(depth("interactive")).isEqualTo(2);
+
+        long deadline = System.nanoTime() + Duration.ofSeconds(5).toNanos();
+        while (granted.size() < 4 && System.nanoTime() < deadline) {
+            Thread.sleep(10);
+        }
+        assertThat(granted).containsExactly("interactive-1", "interactive-2", "background-1", "background-2");
+    }
+
+    @Test
+    void waitLongerThanMaxWaitIsRejected() {
+        limiter = new TmdbRateLimiter(1, 1, 10, Duration.ofMillis(100), meterRegistry);
+        limiter.acquire(TmdbRequestPriority.INTERACTIVE).block();
+
+        long start = System.nanoTime();
+        assertThatThrownBy(() -> limiter.acquire(TmdbRequestPriority.INTERACTIVE).block())
+                .isInstanceOfSatisfying(ResponseStatusException.class,
+                        e -> assertThat(e.getStatusCode()).isEqualTo(HttpStatus.SERVICE_UNAVAILABLE));
+
+        assertThat(Duration.ofNanos(System.nanoTime() - start)).isLessThan(Duration.ofMillis(900));
+        assertThat(rejected("interactive")).isEqualTo(1);
+        // The timed-out waiter left the queue
+        assertThat(depth("interactive")).isZero();
+    }
+
+    @Test
+    void fullQueueIsRejectedWithoutWaiting() {
+        limiter = new TmdbRateLimiter(1, 1, 1, Duration.ofSeconds(5), meterRegistry);
+        limiter.acquire(TmdbRequestPriority.INTERACTIVE).block();
+        limiter.acquire(TmdbRequestPriority.BACKGROUND).subscribe();
+
+        long start = System.nanoTime();
+        assertThatThrownBy(() -> limiter.acquire(TmdbRequestPriority.INTERACTIVE).block())
+                .isInstanceOfSatisfying(ResponseStatusException.class,
+                        e -> assertThat(e.getStatusCode()).isEqualTo(HttpStatus.SERVICE_UNAVAILABLE));
+
+        assertThat(Duration.ofNanos(System.nanoTime() - start)).isLessThan(Duration.ofMillis(500));
+        assertThat(rejected("interactive")).isEqualTo(1);
+        assertThat(depth("background")).isEqualTo(1);
+    }
+
+    private double depth(String priority) {
+        return meterRegistry.get("tmdb.ratelimit.queue.depth").tag("priority", priority).gauge().value();
+    }
+
+    private double rejected(String priority) {
+        return meterRegistry.get("tmdb.ratelimit.rejected").tag("priority", priority).counter().count();
+    }
+}
@@ -0,0 +1,119 @@
+package com.sdp.cinebase.tmdb.resilience;
+
+import com.sdp.cinebase.tmdb.cache.TmdbCache;
+import com.sdp.cinebase.tmdb.cache.TmdbLastKnownGood;
+import com.sdp.cinebase.tmdb.ratelimit.TmdbRateLimiter;
+import com.sdp.cinebase.tmdb.service.ReactiveTmdbClient;
+import com.sdp.cinebase.tmdb.service.TmdbRequestCoalescer;
+import com.sun.net.httpserver.HttpServer;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.web.server.ResponseStatusException;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.net.InetSocketAddress;
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.util.List;
+import java.util.concurrent.Executors;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Runs the client against a healthy local stub of TMDB and checks what the breaker gets to see.
+ */
+class TmdbCircuitBreakerTest {
+
+    private static final String PAGE_JSON = """
+            {"page":1,"results":[],"total_pages":1,"total_results":0}
+            """;
+
+    private HttpServer server;
+    private final AtomicInteger upstreamHits = new AtomicInteger();
+    private volatile int responseStatus = 200;
+    private SimpleMeterRegistry meterRegistry;
+
+    @BeforeEach
+    void startStubServer() throws IOException {
+        server = HttpServer.create(new InetSocketAddress("127.0.0.1", 0), 0);
+        server.setExecutor(Executors.newCachedThreadPool());
+        server.createContext("/", exchange -> {
+            upstreamHits.incrementAndGet();
+            byte[] body = PAGE_JSON.getBytes(StandardCharsets.UTF_8);
+            exchange.getResponseHeaders().add("Content-Type", "application/json");
+            exchange.sendResponseHeaders(responseStatus, body.length);
+            try (OutputStream out = exchange.getResponseBody()) {
+                out.write(body);
+            }
+        });
+        server.start();
+        meterRegistry = new SimpleMeterRegistry();
+    }
+
+    @AfterEach
+    void stopStubServer() {
+        server.stop(0);
+    }
+
+    @Test
+    void saturatedRateLimiterDoesNotOpenTheCircuit() {
+        // 2 requests per second and no burst: most callers wait longer than the slow-call threshold,
+        // and those that wait past max-wait are rejected. Neither may count against TMDB.
+        TmdbRateLimiter rateLimiter = new TmdbRateLimiter(2, 1, 100, Duration.ofMillis(1500), meterRegistry);
+        TmdbCircuitBreaker breaker = new TmdbCircuitBreaker(Duration.ofSeconds(5), Duration.ofSeconds(1),
+                Duration.ofSeconds(30), 0.5, 0.5, 10, 3, 3, meterRegistry);
+        ReactiveTmdbClient tmdb = client(rateLimiter, breaker);
+        List<String> outcomes = Flux.range(1, 12)
+                .flatMap(page -> tmdb.popularMovies(page)
+                        .map(response -> "ok")
+                        .onErrorResume(ResponseStatusException.class, e -> Mono.just("rejected")), 12)
+                .collectList()
+                .block(Duration.ofSeconds(10));
+
+        // Requests that waited too long were rejected by the limiter without reaching the breaker
+        assertThat(outcomes).contains("ok", "rejected");
+        assertThat(upstreamHits.get()).isEqualTo((int) outcomes.stream().filter("ok"::equals).count());
+        assertThat(breaker.state()).isEqualTo(TmdbCircuitBreaker.State.CLOSED);
+    }
+
+    @Test
+    void upstreamFailuresStillOpenTheCircuit() throws InterruptedException {
+        responseStatus = 503;
+        TmdbRateLimiter rateLimiter = new TmdbRateLimiter(1_000, 100, 100, Duration.ofSeconds(5), meterRegistry);
+        TmdbCircuitBreaker breaker = new TmdbCircuitBreaker(Duration.ofSeconds(5), Duration.ofSeconds(2),
+                Duration.ofSeconds(30), 0.5, 0.8, 10, 4, 3, meterRegistry);
+        ReactiveTmdbClient tmdb = client(rateLimiter, breaker);
+        for (int page = 1; page <= 4; page++) {
+            tmdb.popularMovies(page).onErrorResume(e -> Mono.empty()).block(Duration.ofSeconds(5));
+        }
+
+        awaitState(breaker, TmdbCircuitBreaker.State.OPEN);
+        tmdb.popularMovies(5).onErrorResume(e -> Mono.empty()).block(Duration.ofSeconds(5));
+        assertThat(upstreamHits.get()).isEqualTo(4);
+    }
+
+    /**
+     * Outcomes are recorded when the call terminates, which can be just after the caller saw the error.
+     */
+    private static void awaitState(TmdbCircuitBreaker breaker, TmdbCircuitBreaker.State expected) throws InterruptedException {
+        long deadline = System.nanoTime() + Duration.ofSeconds(2).toNanos();
+        while (breaker.state() != expected && System.nanoTime() < deadline) {
+            Thread.sleep(5);
+        }
+        assertThat(breaker.state()).isEqualTo(expected);
+    }
+
+    private ReactiveTmdbClient client(TmdbRateLimiter rateLimiter, TmdbCircuitBreaker breaker) {
+        TmdbCache cache = new TmdbCache(1_000_000, Duration.ofMinutes(10), Duration.ofMinutes(5),
+                Duration.ofHours(6), Duration.ofHours(12), Duration.ofHours(6), Duration.ofHours(1), Duration.ofHours(1), 3, meterRegistry);
+        return new ReactiveTmdbClient("http://127.0.0.1:" + server.getAddress().getPort(), "test-key", cache,
+                new TmdbRequestCoalescer(meterRegistry), Duration.ofSeconds(3), rateLimiter, breaker,
+                new TmdbLastKnownGood(1_000_000, Duration.ofHours(1)), event -> {});
+    }
+}
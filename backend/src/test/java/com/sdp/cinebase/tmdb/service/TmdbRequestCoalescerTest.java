@@ -0,0 +1,179 @@
+package com.sdp.cinebase.tmdb.service;
+
+import com.sdp.cinebase.tmdb.cache.TmdbCache;
+import com.sdp.cinebase.tmdb.cache.TmdbLastKnownGood;
+import com.sdp.cinebase.tmdb.dto.MovieDto;
+import com.sdp.cinebase.tmdb.dto.PagedResponse;
+import com.sdp.cinebase.tmdb.ratelimit.TmdbRateLimiter;
+import com.sdp.cinebase.tmdb.ratelimit.TmdbRequestPriority;
+import com.sdp.cinebase.tmdb.resilience.TmdbCircuitBreaker;
+import com.sun.net.httpserver.HttpServer;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import reactor.core.publisher.Mono;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.net.InetSocketAddress;
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+class TmdbRequestCoalescerTest {
+
+    private static final String PAGE_JSON = """
+            {"page":1,"results":[{"id":603,"title":"The Matrix","vote_average":8.2,"vote_count":25000}],
+             "total_pages":1,"total_results":1}
+            """;
+
+    private HttpServer server;
+    private final AtomicInteger upstreamHits = new AtomicInteger();
+    private final CountDownLatch release = new CountDownLatch(1);
+    private volatile int responseStatus = 200;
+
+    private SimpleMeterRegistry meterRegistry;
+    private TmdbRequestCoalescer coalescer;
+    private ReactiveTmdbClient reactiveClient;
+    private TmdbClient tmdbClient;
+
+    @BeforeEach
+    void startStubServer() throws IOException {
+        server = HttpServer.create(new InetSocketAddress("127.0.0.1", 0), 0);
+        server.setExecutor(Executors.newCachedThreadPool());
+        server.createContext("/", exchange -> {
+            upstreamHits.incrementAndGet();
+            try {
+                release.await(10, TimeUnit.SECONDS);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+            byte[] body = PAGE_JSON.getBytes(StandardCharsets.UTF_8);
+            exchange.getResponseHeaders().add("Content-Type", "application/json");
+            exchange.sendResponseHeaders(responseStatus, body.length);
+            try (OutputStream out = exchange.getResponseBody()) {
+                out.write(body);
+            }
+        });
+        server.start();
+
+        meterRegistry = new SimpleMeterRegistry();
+        TmdbCache cache = new TmdbCache(1_000_000, Duration.ofMinutes(10), Duration.ofMinutes(5),
+                Duration.ofHours(6), Duration.ofHours(12), Duration.ofHours(6), Duration.ofHours(1), Duration.ofHours(1), 3, meterRegistry);
+        coalescer = new TmdbRequestCoalescer(meterRegistry);
+        TmdbRateLimiter rateLimiter = new TmdbRateLimiter(1_000, 100, 100, Duration.ofSeconds(5), meterRegistry);
+        TmdbCircuitBreaker circuitBreaker = new TmdbCircuitBreaker(Duration.ofSeconds(15), Duration.ofSeconds(15),
+                Duration.ofSeconds(30), 0.5, 0.8, 20, 10, 3, meterRegistry);
+        reactiveClient = new ReactiveTmdbClient(
+                "http://127.0.0.1:" + server.getAddress().getPort(), "test-key", cache, coalescer, Duration.ofSeconds(3),
+                rateLimiter, circuitBreaker, new TmdbLastKnownGood(1_000_000, Duration.ofHours(1)), event -> {});
+        tmdbClient = new TmdbClient(reactiveClient);
+    }
+
+    @AfterEach
+    void stopStubServer() {
+        release.countDown();
+        server.stop(0);
+    }
+
+    @Test
+    void concurrentCallersShareOneUpstreamExchange() throws Exception {
+        int callers = 16;
+        ExecutorService pool = Executors.newFixedThreadPool(callers);
+        try {
+            List<Future<PagedResponse<MovieDto>>> results = new ArrayList<>();
+            for (int i = 0; i < callers; i++) {
+                results.add(pool.submit(() -> tmdbClient.popularMovies(1)));
+            }
+
+            awaitCoalesced(callers - 1);
+            release.countDown();
+
+            for (Future<PagedResponse<MovieDto>> result : results) {
+                assertThat(result.get(10, TimeUnit.SECONDS).results())
+                        .extracting(MovieDto::title)
+                        .containsExactly("The Matrix");
+            }
+            assertThat(upstreamHits.get()).isEqualTo(1);
+            assertThat(coalescer.inFlightCount()).isZero();
+        } finally {
+            pool.shutdownNow();
+        }
+    }
+
+    @Test
+    void differentKeysAreNotCoalesced() {
+        release.countDown();
+
+        tmdbClient.popularMovies(1);
+        tmdbClient.popularMovies(2);
+        tmdbClient.topRatedMovies(1);
+
+        assertThat(upstreamHits.get()).isEqualTo(3);
+    }
+
+    @Test
+    void interactiveCallerDoesNotJoinABackgroundExchange() throws Exception {
+        Mono<PagedResponse<MovieDto>> background = reactiveClient.popularMovies(1)
+                .contextWrite(TmdbRequestPriority.BACKGROUND.context());
+        CompletableFuture<PagedResponse<MovieDto>> first = background.toFuture();
+        awaitUpstreamHits(1);
+
+        CompletableFuture<PagedResponse<MovieDto>> interactive = reactiveClient.popularMovies(1).toFuture();
+        awaitUpstreamHits(2);
+        // A second background caller rides on the interactive exchange instead of starting a third
+        CompletableFuture<PagedResponse<MovieDto>> late = background.toFuture();
+        awaitCoalesced(1);
+        release.countDown();
+
+        for (CompletableFuture<PagedResponse<MovieDto>> result : List.of(first, interactive, late)) {
+            assertThat(result.get(10, TimeUnit.SECONDS).results()).hasSize(1);
+        }
+        assertThat(upstreamHits.get()).isEqualTo(2);
+    }
+
+    @Test
+    void failedExchangeIsReleasedForTheNextCaller() {
+        release.countDown();
+        responseStatus = 503;
+
+        assertThatThrownBy(() -> tmdbClient.popularMovies(1)).isInstanceOf(RuntimeException.class);
+        assertThat(coalescer.inFlightCount()).isZero();
+
+        responseStatus = 200;
+        assertThat(tmdbClient.popularMovies(1).results()).hasSize(1);
+        assertThat(upstreamHits.get()).isEqualTo(2);
+    }
+
+    private void awaitUpstreamHits(int expected) throws InterruptedException {
+        long deadline = System.nanoTime() + TimeUnit.SECONDS.toNanos(10);
+        while (upstreamHits.get() < expected) {
+            if (System.nanoTime() > deadline) {
+                throw new AssertionError("Upstream request did not arrive in time");
+            }
+            Thread.sleep(5);
+        }
+    }
+
+    private void awaitCoalesced(int expected) throws InterruptedException {
+        long deadline = System.nanoTime() + TimeUnit.SECONDS.toNanos(10);
+        while (meterRegistry.counter("tmdb.requests.coalesced").count() < expected) {
+            if (System.nanoTime() > deadline) {
+                throw new AssertionError("Callers did not join the in-flight exchange in time");
+            }
+            Thread.sleep(5);
+        }
+    }
+}
@@ -0,0 +1,95 @@
+package com.sdp.cinebase.tmdb.web;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.sdp.cinebase.catalog.service.CatalogService;
+import com.sdp.cinebase.tmdb.cache.TmdbCache;
+import com.sdp.cinebase.tmdb.dto.MovieDto;
+import com.sdp.cinebase.tmdb.dto.PagedResponse;
+import com.sdp.cinebase.tmdb.service.ReactiveTmdbClient;
+import com.sdp.cinebase.user.repo.UserRepository;
+import com.sdp.cinebase.user.service.RecommendationCache;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.http.HttpHeaders;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.MvcResult;
+import org.springframework.test.web.servlet.request.MockHttpServletRequestBuilder;
+import org.springframework.test.web.servlet.setup.MockMvcBuilders;
+import reactor.core.publisher.Mono;
+
+import java.io.OutputStream;
+import java.time.Duration;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.spy;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.asyncDispatch;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.content;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.header;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.request;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+/**
+ * Conditional GETs against the TMDB proxy, with the payload served from the (mocked) cache as the
+ * same instance every time.
+ */
+class TmdbHttpCachingTest {
+
+    private final PagedResponse<MovieDto> popular = new PagedResponse<>(1, List.of(
+            new MovieDto(603, "The Matrix", "1999-03-31", null, null, null, null, null, 8.2, 25_000, "movie", new int[0])),
+            500, 10_000);
+
+    private ObjectMapper eTagMapper;
+    private MockMvc mockMvc;
+
+    @BeforeEach
+    void setUp() {
+        SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry();
+        TmdbCache cache = new TmdbCache(1_000_000, Duration.ofMinutes(10), Duration.ofMinutes(5),
+                Duration.ofHours(6), Duration.ofHours(12), Duration.ofHours(6), Duration.ofHours(1), Duration.ofHours(1), 3, meterRegistry);
+        ReactiveTmdbClient tmdb = mock(ReactiveTmdbClient.class);
+        when(tmdb.popularMovies(1)).thenReturn(Mono.just(popular));
+        eTagMapper = spy(new ObjectMapper());
+        TmdbProxyController controller = new TmdbProxyController(tmdb, mock(CatalogService.class),
+                mock(RecommendationCache.class), mock(UserRepository.class), new TmdbRequestCancellation(meterRegistry),
+                new TmdbHttpCaching(cache, eTagMapper));
+        mockMvc = MockMvcBuilders.standaloneSetup(controller).build();
+    }
+
+    @Test
+    void matchingIfNoneMatchGets304WithoutHashingAgain() throws Exception {
+        MvcResult first = mockMvc.perform(asyncDispatch(started(null)))
+                .andExpect(status().isOk())
+                .andExpect(header().string(HttpHeaders.CACHE_CONTROL, "max-age=600, public, stale-while-revalidate=3600"))
+                .andReturn();
+        String eTag = first.getResponse().getHeader(HttpHeaders.ETAG);
+        assertThat(eTag).startsWith("\"").endsWith("\"");
+
+        mockMvc.perform(asyncDispatch(started(eTag)))
+                .andExpect(status().isNotModified())
+                .andExpect(header().string(HttpHeaders.ETAG, eTag))
+                .andExpect(content().string(""));
+
+        mockMvc.perform(asyncDispatch(started("\"something-else\"")))
+                .andExpect(status().isOk())
+                .andExpect(header().string(HttpHeaders.ETAG, eTag));
+
+        // The cached payload instance was hashed once, for the first response only
+        verify(eTagMapper, times(1)).writeValue(any(OutputStream.class), any());
+    }
+
+    private MvcResult started(String ifNoneMatch) throws Exception {
+        MockHttpServletRequestBuilder popularMovies = get("/api/tmdb/movies/popular");
+        if (ifNoneMatch != null) {
+            popularMovies.header(HttpHeaders.IF_NONE_MATCH, ifNoneMatch);
+        }
+        return mockMvc.perform(popularMovies).andExpect(request().asyncStarted()).andReturn();
+    }
+}
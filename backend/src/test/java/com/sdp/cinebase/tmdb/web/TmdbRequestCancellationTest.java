@@ -0,0 +1,191 @@
+package com.sdp.cinebase.tmdb.web;
+
+import com.sdp.cinebase.tmdb.cache.TmdbCache;
+import com.sdp.cinebase.tmdb.cache.TmdbLastKnownGood;
+import com.sdp.cinebase.tmdb.dto.MovieDto;
+import com.sdp.cinebase.tmdb.dto.PagedResponse;
+import com.sdp.cinebase.tmdb.ratelimit.TmdbRateLimiter;
+import com.sdp.cinebase.tmdb.resilience.TmdbCircuitBreaker;
+import com.sdp.cinebase.tmdb.service.ReactiveTmdbClient;
+import com.sdp.cinebase.tmdb.service.TmdbRequestCoalescer;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.http.HttpStatus;
+import org.springframework.web.server.ResponseStatusException;
+import reactor.core.Disposable;
+import reactor.core.publisher.Mono;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.InputStreamReader;
+import java.io.OutputStream;
+import java.net.InetAddress;
+import java.net.ServerSocket;
+import java.net.Socket;
+import java.net.SocketTimeoutException;
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicReference;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Runs searches against a local stub of TMDB that accepts requests without answering them, so the
+ * test can see whether a cancelled search really closes its upstream connection.
+ */
+class TmdbRequestCancellationTest {
+
+    private static final String PAGE_JSON = """
+            {"page":1,"results":[],"total_pages":1,"total_results":0}
+            """;
+
+    private ServerSocket server;
+    private Thread acceptor;
+    private final BlockingQueue<Socket> pending = new LinkedBlockingQueue<>();
+    private SimpleMeterRegistry meterRegistry;
+    private ReactiveTmdbClient tmdb;
+    private TmdbRequestCancellation cancellation;
+
+    @BeforeEach
+    void startStubServer() throws IOException {
+        server = new ServerSocket(0, 50, InetAddress.getLoopbackAddress());
+        acceptor = Thread.ofVirtual().start(() -> {
+            while (!server.isClosed()) {
+                try {
+                    Socket socket = server.accept();
+                    readRequestHead(socket);
+                    pending.add(socket);
+                } catch (IOException e) {
+                    return;
+                }
+            }
+        });
+        meterRegistry = new SimpleMeterRegistry();
+        tmdb = client();
+        cancellation = new TmdbRequestCancellation(meterRegistry);
+    }
+
+    @AfterEach
+    void stopStubServer() throws IOException, InterruptedException {
+        server.close();
+        acceptor.join();
+        for (Socket socket : pending) {
+            socket.close();
+        }
+    }
+
+    @Test
+    void supersededSearchAbortsItsUpstreamExchange() throws Exception {
+        AtomicReference<Throwable> firstError = new AtomicReference<>();
+        cancellation.latestSearchWins("alice", "movies", tmdb.searchMovies("dune", 1))
+                .subscribe(page -> {}, firstError::set);
+        Socket first = nextRequest();
+
+        Disposable second = cancellation.latestSearchWins("alice", "movies", tmdb.searchMovies("dune part two", 1))
+                .subscribe();
+        Socket secondRequest = nextRequest();
+
+        assertThat(closedByClient(first, Duration.ofSeconds(5))).isTrue();
+        assertThat(firstError.get())
+                .isInstanceOfSatisfying(ResponseStatusException.class,
+                        e -> assertThat(e.getStatusCode()).isEqualTo(HttpStatus.CONFLICT));
+        assertThat(meterRegistry.counter("tmdb.requests.cancelled", "reason", "superseded").count()).isEqualTo(1);
+        assertThat(closedByClient(secondRequest, Duration.ofMillis(300))).isFalse();
+        second.dispose();
+    }
+
+    @Test
+    void searchesOnDifferentEndpointsDoNotSupersedeEachOther() throws Exception {
+        Mono<PagedResponse<MovieDto>> movies = cancellation.latestSearchWins("alice", "movies", tmdb.searchMovies("dune", 1));
+        Mono<PagedResponse<MovieDto>> tv = cancellation.latestSearchWins("alice", "tv", tmdb.searchTvShows("dune", 1));
+        AtomicReference<PagedResponse<MovieDto>> moviesResult = new AtomicReference<>();
+        movies.subscribe(moviesResult::set);
+        Socket moviesRequest = nextRequest();
+        AtomicReference<PagedResponse<MovieDto>> tvResult = new AtomicReference<>();
+        tv.subscribe(tvResult::set);
+        Socket tvRequest = nextRequest();
+
+        respond(moviesRequest);
+        respond(tvRequest);
+
+        awaitNonNull(moviesResult);
+        awaitNonNull(tvResult);
+        assertThat(meterRegistry.find("tmdb.requests.cancelled").counter()).isNull();
+    }
+
+    @Test
+    void sharedExchangeIsAbortedOnlyWhenTheLastCallerCancels() throws Exception {
+        Disposable first = tmdb.searchMovies("dune", 1).subscribe();
+        Disposable second = tmdb.searchMovies("dune", 1).subscribe();
+        Socket request = nextRequest();
+
+        first.dispose();
+        assertThat(closedByClient(request, Duration.ofMillis(300))).isFalse();
+
+        second.dispose();
+        assertThat(closedByClient(request, Duration.ofSeconds(5))).isTrue();
+        assertThat(pending.poll(200, TimeUnit.MILLISECONDS)).isNull();
+    }
+
+    private Socket nextRequest() throws InterruptedException {
+        Socket socket = pending.poll(5, TimeUnit.SECONDS);
+        assertThat(socket).as("request reached the stub server").isNotNull();
+        return socket;
+    }
+
+    private static void readRequestHead(Socket socket) throws IOException {
+        BufferedReader reader = new BufferedReader(new InputStreamReader(socket.getInputStream(), StandardCharsets.US_ASCII));
+        String line;
+        do {
+            line = reader.readLine();
+        } while (line != null && !line.isEmpty());
+    }
+
+    /**
+     * GETs carry no body, so the next read only returns once the client closes the connection.
+     */
+    private static boolean closedByClient(Socket socket, Duration within) throws IOException {
+        socket.setSoTimeout((int) within.toMillis());
+        try {
+            return socket.getInputStream().read() == -1;
+        } catch (SocketTimeoutException e) {
+            return false;
+        } catch (IOException e) {
+            // Connection reset
+            return true;
+        }
+    }
+
+    private static void respond(Socket socket) throws IOException {
+        byte[] body = PAGE_JSON.getBytes(StandardCharsets.UTF_8);
+        OutputStream out = socket.getOutputStream();
+        out.write(("HTTP/1.1 200 OK\r\nContent-Type: application/json\r\nContent-Length: " + body.length + "\r\n\r\n")
+                .getBytes(StandardCharsets.US_ASCII));
+        out.write(body);
+        out.flush();
+    }
+
+    private static <T> void awaitNonNull(AtomicReference<T> value) throws InterruptedException {
+        long deadline = System.nanoTime() + Duration.ofSeconds(5).toNanos();
+        while (value.get() == null && System.nanoTime() < deadline) {
+            Thread.sleep(5);
+        }
+        assertThat(value.get()).isNotNull();
+    }
+
+    private ReactiveTmdbClient client() {
+        TmdbCache cache = new TmdbCache(1_000_000, Duration.ofMinutes(10), Duration.ofMinutes(5),
+                Duration.ofHours(6), Duration.ofHours(12), Duration.ofHours(6), Duration.ofHours(1), Duration.ofHours(1), 3, meterRegistry);
+        TmdbRateLimiter rateLimiter = new TmdbRateLimiter(1_000, 100, 100, Duration.ofSeconds(5), meterRegistry);
+        TmdbCircuitBreaker breaker = new TmdbCircuitBreaker(Duration.ofSeconds(30), Duration.ofSeconds(30),
+                Duration.ofSeconds(30), 0.5, 0.5, 10, 5, 3, meterRegistry);
+        return new ReactiveTmdbClient("http://127.0.0.1:" + server.getLocalPort(), "test-key", cache,
+                new TmdbRequestCoalescer(meterRegistry), Duration.ofSeconds(3), rateLimiter, breaker,
+                new TmdbLastKnownGood(1_000_000, Duration.ofHours(1)), event -> {});
+    }
+}
@@ -0,0 +1,200 @@
+package com.sdp.cinebase.user.service;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.sdp.cinebase.tmdb.dto.MovieDto;
+import com.sdp.cinebase.user.dto.RecommendationPageResponse;
+import com.sdp.cinebase.user.model.User;
+import com.sdp.cinebase.user.repo.RecommendationSnapshotRepository;
+import com.sdp.cinebase.user.repo.UserRepository;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.http.HttpStatus;
+import org.springframework.web.server.ResponseStatusException;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Optional;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.stream.IntStream;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.doAnswer;
+import static org.mockito.Mockito.doReturn;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+/**
+ * Pages through a user's recommendations while the stored ranking is refreshed underneath.
+ */
+class RecommendationCacheTest {
+
+    private static final long USER_ID = 7L;
+
+    private final AtomicInteger computations = new AtomicInteger();
+    private RecommendationService recommendationService;
+    private UserRepository userRepository;
+    private RecommendationCache cache;
+    private User user;
+
+    @BeforeEach
+    void setUp() {
+        user = mock(User.class);
+        when(user.getId()).thenReturn(USER_ID);
+        when(user.getUsername()).thenReturn("alice");
+        userRepository = mock(UserRepository.class);
+        when(userRepository.findById(USER_ID)).thenReturn(Optional.of(user));
+
+        // First computation ranks ids 1..45, the refresh ranks 101..145; later refreshes fail and keep it
+        recommendationService = mock(RecommendationService.class);
+        when(recommendationService.rank(any())).thenAnswer(inv -> switch (computations.incrementAndGet()) {
+            case 1 -> ranking(1);
+            case 2 -> {
+                Thread.sleep(5);
+                yield ranking(101);
+            }
+            default -> throw new IllegalStateException("TMDB unavailable");
+        });
+
+        // A zero TTL makes every request trigger a background refresh
+        cache = new RecommendationCache(recommendationService, userRepository, mock(RecommendationSnapshotRepository.class),
+                new ObjectMapper(), new SimpleMeterRegistry(), Duration.ZERO, 100, Duration.ofHours(1), false);
+    }
+
+    @AfterEach
+    void tearDown() {
+        cache.shutdown();
+    }
+
+    @Test
+    void cursorKeepsPagingTheRankingItWasIssuedFor() throws InterruptedException {
+        RecommendationPageResponse first = cache.getPage(user, 1, null);
+        assertThat(ids(first)).startsWith(1, 2, 3).hasSize(RecommendationCache.PAGE_SIZE);
+
+        awaitRefreshedRanking();
+
+        RecommendationPageResponse second = cache.getPage(user, 0, first.next_cursor());
+        assertThat(ids(second)).containsExactlyElementsOf(IntStream.rangeClosed(21, 40).boxed().toList());
+        RecommendationPageResponse third = cache.getPage(user, 0, second.next_cursor());
+        assertThat(ids(third)).containsExactly(41, 42, 43, 44, 45);
+        assertThat(third.next_cursor()).isNull();
+
+        // Starting over pages the refreshed ranking
+        RecommendationPageResponse restarted = cache.getPage(user, 0, cache.getPage(user, 1, null).next_cursor());
+        assertThat(ids(restarted)).startsWith(121, 122);
+    }
+
+    @Test
+    void cursorFromBeforeAnInvalidationIsRejected() {
+        // No background refreshes here: the reload after the invalidation is the second computation
+        RecommendationCache stable = new RecommendationCache(recommendationService, userRepository,
+                mock(RecommendationSnapshotRepository.class), new ObjectMapper(), new SimpleMeterRegistry(),
+                Duration.ofHours(1), 100, Duration.ofHours(1), false);
+        try {
+            RecommendationPageResponse first = stable.getPage(user, 1, null);
+            stable.invalidate(USER_ID);
+
+            assertThatThrownBy(() -> stable.getPage(user, 0, first.next_cursor()))
+                    .isInstanceOfSatisfying(ResponseStatusException.class,
+                            e -> assertThat(e.getStatusCode()).isEqualTo(HttpStatus.CONFLICT));
+        } finally {
+            stable.shutdown();
+        }
+    }
+
+    @Test
+    void extensionFinishedAfterAnInvalidationIsNotStored() throws Exception {
+        RecommendationSnapshotRepository snapshots = mock(RecommendationSnapshotRepository.class);
+        RecommendationCache persistent = new RecommendationCache(recommendationService, userRepository, snapshots,
+                new ObjectMapper(), new SimpleMeterRegistry(), Duration.ofHours(1), 100, Duration.ofHours(1), true);
+        doReturn(new RankedRecommendations(ranking(1).movies(), 1, true)).when(recommendationService).rank(any());
+        CountDownLatch extending = new CountDownLatch(1);
+        CountDownLatch release = new CountDownLatch(1);
+        doAnswer(inv -> {
+            extending.countDown();
+            release.await();
+            List<MovieDto> deeper = new ArrayList<>(ranking(1).movies());
+            deeper.addAll(ranking(46).movies());
+            return new RankedRecommendations(deeper, 2, false);
+        }).when(recommendationService).extend(any(), any());
+        try {
+            persistent.getPage(user, 1, null);
+            CompletableFuture<RecommendationPageResponse> deepPage =
+                    CompletableFuture.supplyAsync(() -> persistent.getPage(user, 3, null));
+            assertThat(extending.await(5, TimeUnit.SECONDS)).isTrue();
+
+            // The user saves new picks while page 3 is being extended
+            persistent.invalidate(USER_ID);
+            release.countDown();
+
+            assertThat(ids(deepPage.get(5, TimeUnit.SECONDS))).startsWith(41);
+            verify(snapshots, times(1)).save(any());
+            verify(snapshots).deleteById(USER_ID);
+            persistent.getPage(user, 1, null);
+            verify(recommendationService, times(2)).rank(any());
+        } finally {
+            persistent.shutdown();
+        }
+    }
+
+    @Test
+    void rankingComputedAcrossAnInvalidationIsNotPersisted() throws Exception {
+        RecommendationSnapshotRepository snapshots = mock(RecommendationSnapshotRepository.class);
+        RecommendationCache persistent = new RecommendationCache(recommendationService, userRepository, snapshots,
+                new ObjectMapper(), new SimpleMeterRegistry(), Duration.ofHours(1), 100, Duration.ofHours(1), true);
+        CountDownLatch ranking = new CountDownLatch(1);
+        CountDownLatch release = new CountDownLatch(1);
+        doAnswer(inv -> {
+            ranking.countDown();
+            release.await();
+            return ranking(1);
+        }).when(recommendationService).rank(any());
+        try {
+            CompletableFuture<RecommendationPageResponse> firstPage =
+                    CompletableFuture.supplyAsync(() -> persistent.getPage(user, 1, null));
+            assertThat(ranking.await(5, TimeUnit.SECONDS)).isTrue();
+
+            // The user saves new picks while the first ranking is being computed
+            persistent.invalidate(USER_ID);
+            release.countDown();
+
+            assertThat(ids(firstPage.get(5, TimeUnit.SECONDS))).startsWith(1, 2, 3);
+            verify(snapshots).deleteById(USER_ID);
+            verify(snapshots, never()).save(any());
+        } finally {
+            persistent.shutdown();
+        }
+    }
+
+    /**
+     * Waits until page 1 comes from the refreshed ranking; each poll may start another (failing) refresh.
+     */
+    private void awaitRefreshedRanking() throws InterruptedException {
+        long deadline = System.nanoTime() + Duration.ofSeconds(5).toNanos();
+        while (ids(cache.getPage(user, 1, null)).getFirst() != 101 && System.nanoTime() < deadline) {
+            Thread.sleep(5);
+        }
+        assertThat(ids(cache.getPage(user, 1, null))).startsWith(101);
+    }
+
+    private static RankedRecommendations ranking(int firstId) {
+        List<MovieDto> movies = IntStream.range(firstId, firstId + 45)
+                .mapToObj(id -> new MovieDto(id, "Movie " + id, null, null, null, null, null, null, 7.0, 100, "movie", new int[0]))
+                .toList();
+        return new RankedRecommendations(movies, 1, false);
+    }
+
+    private static List<Integer> ids(RecommendationPageResponse page) {
+        return page.results().stream().map(MovieDto::id).toList();
+    }
+}
@@ -0,0 +1,55 @@
+package com.sdp.cinebase.user.service;
+
+import com.sdp.cinebase.tmdb.dto.MovieDto;
+import com.sdp.cinebase.tmdb.dto.PagedResponse;
+import com.sdp.cinebase.tmdb.service.ReactiveTmdbClient;
+import com.sdp.cinebase.user.model.FavoritePick;
+import com.sdp.cinebase.user.model.User;
+import com.sdp.cinebase.user.repo.FavoritePickRepository;
+import org.junit.jupiter.api.Test;
+import reactor.core.publisher.Mono;
+
+import java.time.Duration;
+import java.util.Arrays;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+class RecommendationServiceTest {
+
+    @Test
+    void ranksWhateverArrivedBeforeTheDeadline() {
+        User user = mock(User.class);
+        when(user.getUsername()).thenReturn("alice");
+        FavoritePickRepository picks = mock(FavoritePickRepository.class);
+        when(picks.findByUser(user)).thenReturn(List.of(
+                new FavoritePick(user, 603L, "movie", "The Matrix", null),
+                new FavoritePick(user, 949L, "movie", "Heat", null)));
+
+        // Each on-time list takes 200ms, so running them one after another would blow the deadline
+        ReactiveTmdbClient tmdb = mock(ReactiveTmdbClient.class);
+        when(tmdb.getSimilarMovies(603, 1)).thenReturn(page(Duration.ofMillis(200), 1, 2, 949));
+        when(tmdb.getMovieRecommendations(603, 1)).thenReturn(page(Duration.ofMillis(200), 2, 3));
+        when(tmdb.getSimilarMovies(949, 1)).thenReturn(Mono.delay(Duration.ofMillis(200))
+                .then(Mono.error(new IllegalStateException("TMDB unavailable"))));
+        when(tmdb.getMovieRecommendations(949, 1)).thenReturn(page(Duration.ofSeconds(3), 99));
+        RecommendationService service = new RecommendationService(picks, tmdb, Duration.ofMillis(500), 5);
+
+        long start = System.nanoTime();
+        RankedRecommendations ranked = service.rank(user);
+
+        assertThat(Duration.ofNanos(System.nanoTime() - start)).isLessThan(Duration.ofMillis(1_500));
+        // 2 is on both of the Matrix's lists; the picks themselves and the late list are left out
+        assertThat(ranked.movies()).extracting(MovieDto::id).containsExactly(2, 1, 3);
+        assertThat(ranked.hasMore()).isFalse();
+    }
+
+    private static Mono<PagedResponse<MovieDto>> page(Duration latency, int... ids) {
+        List<MovieDto> movies = Arrays.stream(ids)
+                .mapToObj(id -> new MovieDto(id, "Movie " + id, null, null, null, null, null, null, 7.0, 100, "movie", new int[0]))
+                .toList();
+        return Mono.delay(latency).map(tick -> new PagedResponse<>(1, movies, 1, movies.size()));
+    }
+}
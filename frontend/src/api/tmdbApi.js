@@ -150,6 +150,70 @@ export const MultiApi = {
     search: (q, page = 1) => backendTmdb("/multi/search", { q, page })
 };
 
+const DETAILS_BATCH_SIZE = 100;
+
+const fetchDetailsBatch = (keys) =>
+    api.get("/api/tmdb/details/batch", {
+        params: { ids: keys.join(",") },
+        responseType: "text",
+        headers: { Accept: "application/x-ndjson" }
+    }).then(r => String(r.data).split("\n").filter(Boolean).map(line => JSON.parse(line)));
+
+/**
+ * Details for many titles, up to 100 keys per request. Keys are "movie:<id>" or "tv:<id>"; the
+ * backend streams one JSON object per line. Resolves to a map of key -> details (missing on error).
+ */
+export const DetailsApi = {
+    batch: async (keys) => {
+        const chunks = [];
+        for (let i = 0; i < keys.length; i += DETAILS_BATCH_SIZE) {
+            chunks.push(keys.slice(i, i + DETAILS_BATCH_SIZE));
+        }
+        const byKey = {};
+        (await Promise.all(chunks.map(fetchDetailsBatch))).flat().forEach(item => {
+            if (item.details) byKey[item.key] = item.details;
+        });
+        return byKey;
+    }
+};
+
+/**
+ * First page of every home-screen section in one request. Sections not ready within the server's
+ * deadline come back with status "pending" (or "failed") and should be fetched individually.
+ */
+export const HomeApi = {
+    load: () => api.get("/api/home").then(r => r.data)
+};
+
+/**
+ * Title page (details, reviews, own review, favorite/watchlist status) in one request.
+ */
+export const TitleApi = {
+    page: (mediaType, id) => api.get(`/api/title/${mediaType}/${id}`).then(r => r.data)
+};
+
+/**
+ * Bulk import of a watchlist, favorites or ratings export (CSV or JSON). Runs in the background;
+ * poll status() until its state is no longer "running".
+ */
+export const ImportApi = {
+    start: (file, list, ratingScale = 10) => {
+        const form = new FormData();
+        form.append("file", file);
+        form.append("list", list);
+        form.append("rating_scale", ratingScale);
+        return api.post("/api/imports", form).then(r => r.data);
+    },
+    status: (id) => api.get(`/api/imports/${id}`).then(r => r.data)
+};
+
+/**
+ * Typeahead suggestions served from the backend's in-memory index (no TMDB call per keystroke).
+ */
+export const SearchApi = {
+    suggest: (q, limit = 8) => api.get("/api/search/suggest", { params: { q, limit } }).then(r => r.data)
+};
+
 /**
  * API methods for the main feed (trending content, mixed movies and TV).
  */
@@ -1,13 +1,69 @@
+import { useEffect, useState } from "react";
+import { useNavigate } from "react-router-dom";
+import { SearchApi } from "../api/tmdbApi";
+
+const SUGGEST_DELAY_MS = 80;
+
 export default function SearchBar({ value, onChange, onSubmit }) {
+    const navigate = useNavigate();
+    const [suggestions, setSuggestions] = useState([]);
+    const [open, setOpen] = useState(false);
+
+    useEffect(() => {
+        const q = value.trim();
+        if (!q) {
+            setSuggestions([]);
+            return;
+        }
+        let cancelled = false;
+        const timer = setTimeout(() => {
+            SearchApi.suggest(q)
+                .then(data => { if (!cancelled) setSuggestions(data.results || []); })
+                .catch(() => { if (!cancelled) setSuggestions([]); });
+        }, SUGGEST_DELAY_MS);
+        return () => { cancelled = true; clearTimeout(timer); };
+    }, [value]);
+
+    const handleSubmit = (e) => {
+        setOpen(false);
+        onSubmit(e);
+    };
+
+    const pick = (s) => {
+        setOpen(false);
+        navigate(`/${s.media_type}/${s.id}`);
+    };
+
     return (
-        <form onSubmit={onSubmit} className="searchbar">
+        <form onSubmit={handleSubmit} className="searchbar">
             <input
                 type="text"
                 aria-label="Search"
                 placeholder="Search for movie, TV show"
                 value={value}
-                onChange={(e)=>onChange(e.target.value)}
+                onChange={(e)=>{ onChange(e.target.value); setOpen(true); }}
+                onFocus={()=>setOpen(true)}
+                onBlur={()=>setOpen(false)}
             />
+            {open && suggestions.length > 0 && (
+                <ul className="searchbar-suggestions" role="listbox">
+                    {suggestions.map(s => (
+                        <li
+                            key={`${s.media_type}-${s.id}`}
+                            role="option"
+                            aria-selected="false"
+                            // mousedown fires before the input's blur closes the list
+                            onMouseDown={(e)=>{ e.preventDefault(); pick(s); }}
+                        >
+                            <span className="searchbar-suggestion-label">{s.label}</span>
+                            <span className="searchbar-suggestion-meta">
+                                {s.media_type === "person" ? "Person" : s.media_type === "tv" ? "TV" : "Movie"}
+                                {s.year ? ` · ${s.year}` : ""}
+                            </span>
+                        </li>
+                    ))}
+                </ul>
+            )}
         </form>
     );
 }
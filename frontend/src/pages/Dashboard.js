@@ -1,11 +1,11 @@
-import { useEffect, useMemo, useState } from "react";
+import { useEffect, useMemo, useRef, useState } from "react";
 import { useSearchParams } from "react-router-dom";
 import Navbar from "../components/Navbar";
 import SearchBar from "../components/SearchBar";
 import Filters from "../components/Filters";
 import MovieCard from "../components/MovieCard";
 import SkeletonCard from "../components/SkeletonCard";
-import { ConfigApi, FeedApi, MoviesApi, TvApi, MultiApi } from "../api/tmdbApi";
+import { ConfigApi, FeedApi, MoviesApi, TvApi, MultiApi, HomeApi } from "../api/tmdbApi";
 
 /**
  * @typedef {Object} TMDBPagedResponse
@@ -15,12 +15,24 @@ import { ConfigApi, FeedApi, MoviesApi, TvApi, MultiApi } from "../api/tmdbApi";
  * @property {number} page
  */
 
+// First pages that /api/home returns, by scope and tab
+const HOME_SECTIONS = {
+    "feed:popular": "feed_popular",
+    "feed:latest": "feed_latest",
+    "feed:top": "feed_top_rated",
+    "feed:recommendations": "recommendations",
+    "movies:popular": "movies_popular",
+    "tv:popular": "tv_popular"
+};
+
 export default function Dashboard() {
     const [searchParams] = useSearchParams();
     const initialScope = searchParams.get("scope") || "feed";
 
     const [scope, setScope] = useState(initialScope);
     const [tab, setTab] = useState("popular");
+    // What is typed vs. what was submitted: upstream search only runs on submit, typeahead covers the rest
+    const [input, setInput] = useState("");
     const [q, setQ] = useState("");
     const [page, setPage] = useState(1);
     /** @type {[TMDBPagedResponse | null, Function]} */
@@ -28,10 +40,22 @@ export default function Dashboard() {
     const [loading, setLoading] = useState(false);
     const [err, setErr] = useState("");
 
+    // One round trip for all first pages; each section is used once, later visits refetch
+    const home = useRef(null);
+
     useEffect(() => {
         void ConfigApi.loadOnce();
+        home.current = HomeApi.load().catch(() => null);
     }, []);
 
+    const takeHomeSection = async (key) => {
+        const sections = await home.current;
+        const section = sections?.[key];
+        if (!section || section.status !== "ready") return null;
+        sections[key] = null;
+        return section.data;
+    };
+
     // Update scope when URL changes
     useEffect(() => {
         const urlScope = searchParams.get("scope");
@@ -84,7 +108,8 @@ export default function Dashboard() {
                     else apiCall = () => TvApi.topRated(page);
                 }
 
-                const res = await apiCall();
+                const homeKey = !q && page === 1 ? HOME_SECTIONS[`${scope}:${tab}`] : null;
+                const res = (homeKey && await takeHomeSection(homeKey)) || await apiCall();
 
                 if (!cancelled) {
                     // Filter out "person" results from multi search
@@ -110,12 +135,14 @@ export default function Dashboard() {
 
     const onSearchSubmit = (e) => {
         e.preventDefault();
+        setQ(input.trim());
         setPage(1);
     };
 
     const handleScope = (s) => {
         setScope(s);
         setTab("popular");
+        setInput("");
         setQ("");
         setPage(1);
     };
@@ -127,13 +154,13 @@ export default function Dashboard() {
             <section className="hero">
                 <h1>Welcome!</h1>
                 <p>Millions of movies, TV shows and people to discover. Explore now.</p>
-                <SearchBar value={q} onChange={setQ} onSubmit={onSearchSubmit} />
+                <SearchBar value={input} onChange={setInput} onSubmit={onSearchSubmit} />
             </section>
 
             <div className="container">
                 <Filters
                     active={q ? "" : tab}
-                    onChange={(key) => { setQ(""); setTab(key); setPage(1); }}
+                    onChange={(key) => { setInput(""); setQ(""); setTab(key); setPage(1); }}
                 />
 
                 <div className="section-head">
@@ -3,7 +3,7 @@ import { useNavigate } from "react-router-dom";
 import Navbar from "../components/Navbar";
 import ConfirmationModal from "../components/ConfirmationModal";
 import api from "../api/axios";
-import { imgUrl, ConfigApi } from "../api/tmdbApi";
+import { imgUrl, ConfigApi, DetailsApi } from "../api/tmdbApi";
 import styles from "./Favorites.module.css";
 
 export default function Favorites() {
@@ -17,25 +17,13 @@ export default function Favorites() {
         try {
             const { data } = await api.get("/api/favorites");
 
-            // Fetch details from backend proxy for each favorite
-            const detailsPromises = data.map(async (fav) => {
-                try {
-                    const endpoint = fav.mediaType === "movie"
-                        ? `/api/tmdb/movies/${fav.tmdbId}`
-                        : `/api/tmdb/tv/${fav.tmdbId}`;
-
-                    const response = await api.get(endpoint);
-                    const details = response.data;
+            // Fetch details for all items in one batch request
+            const detailsByKey = await DetailsApi.batch(data.map((fav) => `${fav.mediaType}:${fav.tmdbId}`))
+                .catch(() => ({}));
 
-                    return {
-                        ...fav,
-                        genres: details.genres?.map(g => g.name).join(", ") || "—",
-                        rating: Number(details.vote_average || 0).toFixed(1),
-                        releaseDate: fav.mediaType === "movie"
-                            ? details.release_date || "—"
-                            : details.first_air_date || "—"
-                    };
-                } catch (err) {
+            const withDetails = data.map((fav) => {
+                const details = detailsByKey[`${fav.mediaType}:${fav.tmdbId}`];
+                if (!details) {
                     return {
                         ...fav,
                         genres: "—",
@@ -43,9 +31,15 @@ export default function Favorites() {
                         releaseDate: "—"
                     };
                 }
+                return {
+                    ...fav,
+                    genres: details.genres?.map(g => g.name).join(", ") || "—",
+                    rating: Number(details.vote_average || 0).toFixed(1),
+                    releaseDate: fav.mediaType === "movie"
+                        ? details.release_date || "—"
+                        : details.first_air_date || "—"
+                };
             });
-
-            const withDetails = await Promise.all(detailsPromises);
             setFavoritesWithDetails(withDetails);
         } catch (err) {
             // Failed to load favorites
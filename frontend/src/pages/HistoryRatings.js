@@ -8,6 +8,7 @@ import styles from "./HistoryRatings.module.css";
 export default function HistoryRatings() {
     const navigate = useNavigate();
     const [reviews, setReviews] = useState([]);
+    const [nextCursor, setNextCursor] = useState(null);
     const [loading, setLoading] = useState(true);
     const [deleteModal, setDeleteModal] = useState(null);
     const [deleting, setDeleting] = useState(false);
@@ -21,7 +22,8 @@ export default function HistoryRatings() {
         setLoading(true);
         try {
             const { data } = await api.get("/api/reviews/my");
-            setReviews(data);
+            setReviews(data.results);
+            setNextCursor(data.next_cursor);
         } catch (err) {
             // Failed to load reviews
             setReviews([]);
@@ -30,6 +32,16 @@ export default function HistoryRatings() {
         }
     };
 
+    const loadMore = async () => {
+        try {
+            const { data } = await api.get("/api/reviews/my", { params: { cursor: nextCursor } });
+            setReviews(prev => [...prev, ...data.results]);
+            setNextCursor(data.next_cursor);
+        } catch (err) {
+            // Keep what is already shown
+        }
+    };
+
     const handleDelete = async (review) => {
         setDeleting(true);
         try {
@@ -70,7 +82,7 @@ export default function HistoryRatings() {
 
                 <h1 className={styles.title}>Your Rating History</h1>
                 <p className={styles.subtitle}>
-                    {reviews.length} {reviews.length === 1 ? "review" : "reviews"}
+                    {reviews.length}{nextCursor ? "+" : ""} {reviews.length === 1 && !nextCursor ? "review" : "reviews"}
                 </p>
 
                 {reviews.length === 0 ? (
@@ -144,6 +156,12 @@ export default function HistoryRatings() {
                         ))}
                     </div>
                 )}
+
+                {nextCursor && (
+                    <button className={styles.loadMoreBtn} onClick={loadMore}>
+                        Load More
+                    </button>
+                )}
             </div>
 
             {/* Delete Confirmation Modal */}
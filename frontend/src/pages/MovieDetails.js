@@ -1,6 +1,6 @@
 import { useEffect, useState } from "react";
 import { useParams, useNavigate } from "react-router-dom";
-import { MoviesApi, TvApi, imgUrl } from "../api/tmdbApi";
+import { TitleApi, imgUrl } from "../api/tmdbApi";
 import Navbar from "../components/Navbar";
 import api from "../api/axios";
 import styles from "./MovieDetails.module.css";
@@ -96,17 +96,20 @@ export default function MovieDetails() {
     const [loading, setLoading] = useState(true);
     const [error, setError] = useState("");
     const [userReviews, setUserReviews] = useState([]);
+    const [reviewsCursor, setReviewsCursor] = useState(null);
     const [myReview, setMyReview] = useState(null);
 
     useEffect(() => {
-        async function fetchDetails() {
+        // Details, reviews and the user's own review arrive in one request
+        async function fetchTitlePage() {
             setLoading(true);
             setError("");
             try {
-                const response = type === "tv"
-                    ? await TvApi.details(id)
-                    : await MoviesApi.details(id);
-                setData(response);
+                const page = await TitleApi.page(type, id);
+                setData(page.details);
+                setUserReviews(page.reviews?.results || []);
+                setReviewsCursor(page.reviews?.next_cursor || null);
+                setMyReview(page.my_review || null);
             } catch (err) {
                 // Failed to fetch details
                 setError("Failed to load details");
@@ -115,30 +118,18 @@ export default function MovieDetails() {
             }
         }
 
-        async function fetchUserReviews() {
-            try {
-                const { data } = await api.get(`/api/reviews/${id}/${type}`);
-                setUserReviews(data);
-            } catch (err) {
-                // Failed to fetch user reviews
-                setUserReviews([]);
-            }
-        }
+        void fetchTitlePage();
+    }, [id, type]);
 
-        async function fetchMyReview() {
-            try {
-                const { data } = await api.get(`/api/reviews/my/${id}/${type}`);
-                setMyReview(data);
-            } catch (err) {
-                // No review from this user
-                setMyReview(null);
-            }
+    const loadMoreReviews = async () => {
+        try {
+            const { data } = await api.get(`/api/reviews/${id}/${type}`, { params: { cursor: reviewsCursor } });
+            setUserReviews(prev => [...prev, ...data.results]);
+            setReviewsCursor(data.next_cursor);
+        } catch (err) {
+            // Keep what is already shown
         }
-
-        void fetchDetails();
-        void fetchUserReviews();
-        void fetchMyReview();
-    }, [id, type]);
+    };
 
     if (loading) {
         return <div className={styles.loading}>Loading...</div>;
@@ -352,6 +343,11 @@ export default function MovieDetails() {
                                 </div>
                             ))}
                         </div>
+                        {reviewsCursor && (
+                            <button className={styles.loadMoreBtn} onClick={loadMoreReviews}>
+                                More Reviews
+                            </button>
+                        )}
                     </>
                 )}
 
@@ -1,10 +1,11 @@
-import { useState } from "react";
+import { useEffect, useState } from "react";
 import { useNavigate } from "react-router-dom";
 import { useForm } from "react-hook-form";
 import { z } from "zod";
 import { zodResolver } from "@hookform/resolvers/zod";
 import { useAuth } from "../context/AuthContext";
 import api from "../api/axios";
+import { ImportApi } from "../api/tmdbApi";
 import Navbar from "../components/Navbar";
 import ConfirmationModal from "../components/ConfirmationModal";
 import styles from "./Profile.module.css";
@@ -203,6 +204,8 @@ export default function Profile() {
                         </div>
                     )}
 
+                    <ImportSection />
+
                     {/* Logout Button */}
                     <button className={styles.logoutBtn} onClick={handleLogout}>
                         Log Out
@@ -220,3 +223,84 @@ export default function Profile() {
         </div>
     );
 }
+
+const IMPORT_POLL_MS = 1000;
+
+/**
+ * Upload of a watchlist / favorites / ratings export from another service, with live progress.
+ */
+function ImportSection() {
+    const [file, setFile] = useState(null);
+    const [list, setList] = useState("watchlist");
+    const [ratingScale, setRatingScale] = useState(10);
+    const [status, setStatus] = useState(null);
+    const [error, setError] = useState(null);
+
+    const running = status?.state === "running";
+
+    useEffect(() => {
+        if (!running) return undefined;
+        const timer = setTimeout(() => {
+            ImportApi.status(status.id)
+                .then(setStatus)
+                .catch(() => setError("Lost track of the import. Check your lists in a moment."));
+        }, IMPORT_POLL_MS);
+        return () => clearTimeout(timer);
+    }, [running, status]);
+
+    const start = async (e) => {
+        e.preventDefault();
+        if (!file) return;
+        setError(null);
+        try {
+            setStatus(await ImportApi.start(file, list, ratingScale));
+        } catch (err) {
+            setError(err?.response?.data?.message || "Import could not be started.");
+        }
+    };
+
+    return (
+        <div className={styles.passwordSection}>
+            <h2 className={styles.subtitle}>Import from another service</h2>
+
+            <form onSubmit={start} className={styles.form} noValidate>
+                <div className={styles.field}>
+                    <input type="file" accept=".csv,.json,text/csv,application/json"
+                           onChange={(e) => setFile(e.target.files?.[0] ?? null)} />
+                </div>
+                <div className={styles.field}>
+                    <select value={list} onChange={(e) => setList(e.target.value)}>
+                        <option value="watchlist">Watchlist</option>
+                        <option value="favorites">Favorites</option>
+                        <option value="reviews">Ratings & reviews</option>
+                    </select>
+                </div>
+                {list === "reviews" && (
+                    <div className={styles.field}>
+                        <select value={ratingScale} onChange={(e) => setRatingScale(Number(e.target.value))}>
+                            <option value={10}>Ratings out of 10</option>
+                            <option value={5}>Ratings out of 5 stars</option>
+                        </select>
+                    </div>
+                )}
+                <button type="submit" className={styles.cta} disabled={!file || running}>
+                    {running ? "Importing..." : "Import"}
+                </button>
+            </form>
+
+            {error && <div className={`${styles.alert} ${styles.warn}`}>{error}</div>}
+            {status && (
+                <div className={`${styles.alert} ${status.state === "failed" ? styles.warn : styles.ok}`}>
+                    {status.state === "running" ? "Importing" : status.state === "failed" ? "Import failed" : "Import finished"}
+                    {": "}{status.rows_read} rows read, {status.imported} added, {status.already_present} already there
+                    {status.unresolved > 0 && `, ${status.unresolved} not found`}
+                    {status.invalid > 0 && `, ${status.invalid} skipped`}.
+                    {status.message && <div>{status.message}</div>}
+                    {status.unresolved_titles?.length > 0 && !running && (
+                        <div>Not found: {status.unresolved_titles.join(", ")}</div>
+                    )}
+                </div>
+            )}
+        </div>
+    );
+}
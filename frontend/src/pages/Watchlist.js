@@ -3,7 +3,7 @@ import { useNavigate } from "react-router-dom";
 import Navbar from "../components/Navbar";
 import ConfirmationModal from "../components/ConfirmationModal";
 import api from "../api/axios";
-import { imgUrl, ConfigApi } from "../api/tmdbApi";
+import { imgUrl, ConfigApi, DetailsApi } from "../api/tmdbApi";
 import styles from "./Watchlist.module.css";
 import { FontAwesomeIcon } from '@fortawesome/react-fontawesome';
 import { faBookmark } from '@fortawesome/free-regular-svg-icons';
@@ -19,25 +19,13 @@ export default function Watchlist() {
         try {
             const { data } = await api.get("/api/watchlist");
 
-            // Fetch details from backend proxy for each watchlist item
-            const detailsPromises = data.map(async (item) => {
-                try {
-                    const endpoint = item.mediaType === "movie"
-                        ? `/api/tmdb/movies/${item.tmdbId}`
-                        : `/api/tmdb/tv/${item.tmdbId}`;
-
-                    const response = await api.get(endpoint);
-                    const details = response.data;
+            // Fetch details for all items in one batch request
+            const detailsByKey = await DetailsApi.batch(data.map((item) => `${item.mediaType}:${item.tmdbId}`))
+                .catch(() => ({}));
 
-                    return {
-                        ...item,
-                        genres: details.genres?.map(g => g.name).join(", ") || "—",
-                        rating: Number(details.vote_average || 0).toFixed(1),
-                        releaseDate: item.mediaType === "movie"
-                            ? details.release_date || "—"
-                            : details.first_air_date || "—"
-                    };
-                } catch (err) {
+            const withDetails = data.map((item) => {
+                const details = detailsByKey[`${item.mediaType}:${item.tmdbId}`];
+                if (!details) {
                     return {
                         ...item,
                         genres: "—",
@@ -45,9 +33,15 @@ export default function Watchlist() {
                         releaseDate: "—"
                     };
                 }
+                return {
+                    ...item,
+                    genres: details.genres?.map(g => g.name).join(", ") || "—",
+                    rating: Number(details.vote_average || 0).toFixed(1),
+                    releaseDate: item.mediaType === "movie"
+                        ? details.release_date || "—"
+                        : details.first_air_date || "—"
+                };
             });
-
-            const withDetails = await Promise.all(detailsPromises);
             setWatchlistWithDetails(withDetails);
         } catch (err) {
             // Failed to load watchlist